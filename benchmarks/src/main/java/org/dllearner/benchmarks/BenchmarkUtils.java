@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.kb.OWLFile;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.dllearner.reasoning.OWLAPIReasoner;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Common setup code of the benchmarks.
+ */
+public class BenchmarkUtils {
+
+	/** closed world reasoner on top of the OWL API reasoner */
+	public static final String CLOSED_WORLD = "closed_world";
+	/** plain OWL API reasoner */
+	public static final String OWLAPI = "owlapi";
+
+	private static final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private BenchmarkUtils() {}
+
+	/**
+	 * create and initialise the knowledge source of a dataset
+	 */
+	public static KnowledgeSource createKnowledgeSource(Dataset dataset) throws ComponentInitException {
+		OWLFile ks = new OWLFile(dataset.getOntologyFile().getAbsolutePath());
+		ks.init();
+		return ks;
+	}
+
+	/**
+	 * create and initialise a reasoner
+	 * @param type {@link #CLOSED_WORLD} or {@link #OWLAPI}
+	 * @param ks the knowledge source
+	 */
+	public static AbstractReasonerComponent createReasoner(String type, KnowledgeSource ks) throws ComponentInitException {
+		AbstractReasonerComponent reasoner;
+		switch (type) {
+			case CLOSED_WORLD:
+				reasoner = new ClosedWorldReasoner(ks);
+				break;
+			case OWLAPI:
+				reasoner = new OWLAPIReasoner(ks);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown reasoner type " + type);
+		}
+		reasoner.init();
+		return reasoner;
+	}
+
+	/**
+	 * A fixed, deterministic list of class expressions for the reasoning benchmarks: the atomic classes,
+	 * their negations and the existential restrictions over all object properties with owl:Thing and
+	 * with the atomic classes as filler.
+	 * @param reasoner the reasoner providing the signature
+	 * @param maxSize the maximum number of class expressions
+	 */
+	public static List<OWLClassExpression> getClassExpressions(AbstractReasonerComponent reasoner, int maxSize) {
+		List<OWLClass> classes = new ArrayList<>(new TreeSet<>(reasoner.getClasses()));
+		List<OWLObjectProperty> properties = new ArrayList<>(new TreeSet<>(reasoner.getObjectProperties()));
+
+		List<OWLClassExpression> expressions = new ArrayList<>();
+		expressions.addAll(classes);
+		for (OWLClass cls : classes) {
+			expressions.add(df.getOWLObjectComplementOf(cls));
+		}
+		for (OWLObjectProperty p : properties) {
+			expressions.add(df.getOWLObjectSomeValuesFrom(p, df.getOWLThing()));
+		}
+		for (OWLObjectProperty p : properties) {
+			for (OWLClass cls : classes) {
+				expressions.add(df.getOWLObjectSomeValuesFrom(p, cls));
+			}
+		}
+		return expressions.size() > maxSize ? expressions.subList(0, maxSize) : expressions;
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.utilities.ReasoningUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coverage of the examples of a dataset by a fixed set of class expressions via {@link ReasoningUtils#getCoverage}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoverageBenchmark {
+
+	@Param({"FAMILY", "KRK", "MAMMOGRAPHIC"})
+	public Dataset dataset;
+
+	@Param({"false", "true"})
+	public boolean useInstanceChecks;
+
+	@Param({"50"})
+	public int nrOfClassExpressions;
+
+	private ReasoningUtils reasoningUtils;
+	private List<OWLClassExpression> classExpressions;
+	private Set<OWLIndividual> positiveExamples;
+	private Set<OWLIndividual> negativeExamples;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		KnowledgeSource ks = BenchmarkUtils.createKnowledgeSource(dataset);
+		AbstractReasonerComponent reasoner = BenchmarkUtils.createReasoner(BenchmarkUtils.CLOSED_WORLD, ks);
+		reasoner.setUseInstanceChecks(useInstanceChecks);
+		reasoningUtils = new ReasoningUtils(reasoner);
+		reasoningUtils.init();
+		classExpressions = BenchmarkUtils.getClassExpressions(reasoner, nrOfClassExpressions);
+		positiveExamples = dataset.getPositiveExamples();
+		negativeExamples = dataset.getNegativeExamples();
+	}
+
+	@Benchmark
+	public void getCoverage(Blackhole bh) {
+		for (OWLClassExpression ce : classExpressions) {
+			bh.consume(reasoningUtils.getCoverage(ce, positiveExamples, negativeExamples));
+		}
+	}
+}
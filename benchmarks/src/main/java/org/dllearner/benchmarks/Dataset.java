@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import org.dllearner.configuration.IConfiguration;
+import org.dllearner.configuration.IConfigurationProperty;
+import org.dllearner.confparser.ConfParserConfiguration;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.springframework.core.io.FileSystemResource;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * The datasets shipped with DL-Learner which are used as benchmark input. Each dataset consists of an
+ * ontology and a learning problem config file from which the positive and negative examples
+ * ({@code lp.positiveExamples} and {@code lp.negativeExamples}) are read by the conf file parser.
+ * <p>
+ * The files are resolved against the root directory of the DL-Learner checkout, which is taken from the
+ * system property {@value #ROOT_PROPERTY} or otherwise searched upwards from the working directory.
+ */
+public enum Dataset {
+
+	FAMILY("examples/family-benchmark/family-benchmark.owl", "examples/family-benchmark/Aunt.conf"),
+	CARCINOGENESIS("examples/carcinogenesis/carcinogenesis.owl", "examples/carcinogenesis/train.conf"),
+	KRK("test/krk/KRK_ZERO_ONE.owl", "test/krk/KRK_ZERO_ONE.conf",
+			"http://www.test.de/test#ZERO", "http://www.test.de/test#ONE"),
+	MAMMOGRAPHIC("test/mammographic/mammographic.owl", "test/mammographic/mammographic.conf");
+
+	public static final String ROOT_PROPERTY = "dllearner.root";
+
+	private static final String LP_BEAN = "lp";
+
+	private final String ontologyPath;
+	private final String confPath;
+	private final Set<OWLClass> ignoredConcepts = new HashSet<>();
+
+	private SortedSet<OWLIndividual> positiveExamples;
+	private SortedSet<OWLIndividual> negativeExamples;
+
+	Dataset(String ontologyPath, String confPath, String... ignoredConcepts) {
+		this.ontologyPath = ontologyPath;
+		this.confPath = confPath;
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		for (String cls : ignoredConcepts) {
+			this.ignoredConcepts.add(df.getOWLClass(IRI.create(cls)));
+		}
+	}
+
+	/**
+	 * @return the ontology file of the dataset
+	 */
+	public File getOntologyFile() {
+		File file = new File(getRootDirectory(), ontologyPath);
+		if (!file.exists()) {
+			throw new IllegalStateException("Ontology " + file + " of dataset " + name() + " does not exist.");
+		}
+		return file;
+	}
+
+	/**
+	 * @return the classes which are not allowed in solutions because they would trivially solve the problem
+	 */
+	public Set<OWLClass> getIgnoredConcepts() {
+		return ignoredConcepts;
+	}
+
+	public synchronized SortedSet<OWLIndividual> getPositiveExamples() {
+		if (positiveExamples == null) {
+			loadExamples();
+		}
+		return positiveExamples;
+	}
+
+	public synchronized SortedSet<OWLIndividual> getNegativeExamples() {
+		if (negativeExamples == null) {
+			loadExamples();
+		}
+		return negativeExamples;
+	}
+
+	private void loadExamples() {
+		File confFile = new File(getRootDirectory(), confPath);
+		if (!confFile.exists()) {
+			throw new IllegalStateException("Config file " + confFile + " of dataset " + name() + " does not exist.");
+		}
+		// the parser already expands the prefixes declared in the file
+		IConfiguration configuration = new ConfParserConfiguration(new FileSystemResource(confFile));
+		positiveExamples = new TreeSet<>();
+		negativeExamples = new TreeSet<>();
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		for (IConfigurationProperty property : configuration.getConfigurationProperties(LP_BEAN)) {
+			SortedSet<OWLIndividual> examples;
+			if (property.getName().equals("positiveExamples")) {
+				examples = positiveExamples;
+			} else if (property.getName().equals("negativeExamples")) {
+				examples = negativeExamples;
+			} else {
+				continue;
+			}
+			for (Object example : (Collection<?>) property.getValue()) {
+				examples.add(df.getOWLNamedIndividual(IRI.create((String) example)));
+			}
+		}
+
+		if (positiveExamples.isEmpty()) {
+			throw new IllegalStateException("No positive examples found in " + confFile);
+		}
+	}
+
+	/**
+	 * @return the root directory of the DL-Learner checkout
+	 */
+	public static File getRootDirectory() {
+		String root = System.getProperty(ROOT_PROPERTY);
+		if (root != null) {
+			return new File(root);
+		}
+		File dir = new File("").getAbsoluteFile();
+		while (dir != null) {
+			if (new File(dir, "examples").isDirectory() && new File(dir, "test").isDirectory()) {
+				return dir;
+			}
+			dir = dir.getParentFile();
+		}
+		throw new IllegalStateException("Could not find the DL-Learner root directory, please set -D" + ROOT_PROPERTY);
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.RDFDataMgr;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
+import org.dllearner.algorithms.qtl.operations.lgg.AbstractLGGGenerator;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorSimple;
+import org.openjdk.jmh.annotations.*;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computation of the LGG of the query trees of the positive examples by {@link AbstractLGGGenerator#getLGG}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LGGBenchmark {
+
+	@Param({"FAMILY", "KRK", "MAMMOGRAPHIC"})
+	public Dataset dataset;
+
+	@Param({"2", "3"})
+	public int maxTreeDepth;
+
+	@Param({"20"})
+	public int nrOfTrees;
+
+	private List<RDFResourceTree> trees;
+	private AbstractLGGGenerator lggGenerator;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Model model = RDFDataMgr.loadModel(dataset.getOntologyFile().getAbsolutePath());
+		QueryTreeFactory treeFactory = new QueryTreeFactoryBase();
+		trees = new ArrayList<>();
+		for (OWLIndividual ind : dataset.getPositiveExamples()) {
+			if (trees.size() == nrOfTrees) {
+				break;
+			}
+			trees.add(treeFactory.getQueryTree(ind.toStringID(), model, maxTreeDepth));
+		}
+		lggGenerator = new LGGGeneratorSimple();
+	}
+
+	@Benchmark
+	public RDFResourceTree getLGG() {
+		RDFResourceTree lgg = trees.get(0);
+		for (int i = 1; i < trees.size(); i++) {
+			lgg = lggGenerator.getLGG(lgg, trees.get(i), false);
+		}
+		return lgg;
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import org.dllearner.algorithms.celoe.CELOE;
+import org.dllearner.algorithms.ocel.OCEL;
+import org.dllearner.core.AbstractCELA;
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.learningproblems.PosNegLPStandard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end runs of CELOE and OCEL on the learning problems of the datasets with a fixed budget of tested
+ * class expressions. Termination on reaching the noise level is disabled, so each run does the same amount of
+ * work.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LearningBenchmark {
+
+	// upper limit only, the runs are bounded by the number of tested class expressions
+	private static final int MAX_EXECUTION_TIME_IN_SECONDS = 3600;
+
+	@Param({"FAMILY", "KRK", "MAMMOGRAPHIC"})
+	public Dataset dataset;
+
+	@Param({"celoe", "ocel"})
+	public String algorithm;
+
+	@Param({"2000"})
+	public int maxClassExpressionTests;
+
+	private AbstractReasonerComponent reasoner;
+	private PosNegLPStandard lp;
+	private AbstractCELA la;
+
+	@Setup(Level.Trial)
+	public void setupProblem() throws Exception {
+		KnowledgeSource ks = BenchmarkUtils.createKnowledgeSource(dataset);
+		reasoner = BenchmarkUtils.createReasoner(BenchmarkUtils.CLOSED_WORLD, ks);
+		lp = new PosNegLPStandard(reasoner, dataset.getPositiveExamples(), dataset.getNegativeExamples());
+		lp.init();
+	}
+
+	@Setup(Level.Iteration)
+	public void setupAlgorithm() throws Exception {
+		switch (algorithm) {
+			case "celoe":
+				CELOE celoe = new CELOE(lp, reasoner);
+				celoe.setMaxClassExpressionTests(maxClassExpressionTests);
+				celoe.setTerminateOnNoiseReached(false);
+				la = celoe;
+				break;
+			case "ocel":
+				OCEL ocel = new OCEL(lp, reasoner);
+				ocel.setMaxClassDescriptionTests(maxClassExpressionTests);
+				ocel.setTerminateOnNoiseReached(false);
+				la = ocel;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+		}
+		la.setMaxExecutionTimeInSeconds(MAX_EXECUTION_TIME_IN_SECONDS);
+		la.setIgnoredConcepts(dataset.getIgnoredConcepts());
+		la.init();
+	}
+
+	@Benchmark
+	public double learn() {
+		la.start();
+		return la.getCurrentlyBestEvaluatedDescription().getAccuracy();
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.KnowledgeSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retrieval and instance checks of a fixed set of class expressions per reasoner type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReasonerBenchmark {
+
+	@Param({"FAMILY", "KRK", "MAMMOGRAPHIC"})
+	public Dataset dataset;
+
+	@Param({BenchmarkUtils.CLOSED_WORLD, BenchmarkUtils.OWLAPI})
+	public String reasonerType;
+
+	@Param({"50"})
+	public int nrOfClassExpressions;
+
+	private AbstractReasonerComponent reasoner;
+	private List<OWLClassExpression> classExpressions;
+	private List<OWLIndividual> examples;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		KnowledgeSource ks = BenchmarkUtils.createKnowledgeSource(dataset);
+		reasoner = BenchmarkUtils.createReasoner(reasonerType, ks);
+		classExpressions = BenchmarkUtils.getClassExpressions(reasoner, nrOfClassExpressions);
+		examples = new ArrayList<>(dataset.getPositiveExamples());
+		examples.addAll(dataset.getNegativeExamples());
+	}
+
+	@Benchmark
+	public void retrieval(Blackhole bh) {
+		for (OWLClassExpression ce : classExpressions) {
+			bh.consume(reasoner.getIndividuals(ce));
+		}
+	}
+
+	@Benchmark
+	public void instanceChecks(Blackhole bh) {
+		for (OWLClassExpression ce : classExpressions) {
+			for (OWLIndividual ind : examples) {
+				bh.consume(reasoner.hasType(ce, ind));
+			}
+		}
+	}
+}
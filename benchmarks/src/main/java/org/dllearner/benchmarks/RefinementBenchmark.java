@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.refinementoperators.RhoDRDown;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downward refinement of owl:Thing with {@link RhoDRDown} up to several lengths, i.e. the refinements of the
+ * top concept and, one step further, of all its refinements. The operator is created per invocation, because
+ * it caches the computed refinements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RefinementBenchmark {
+
+	@Param({"FAMILY", "KRK", "MAMMOGRAPHIC"})
+	public Dataset dataset;
+
+	@Param({"3", "5", "7"})
+	public int maxLength;
+
+	private AbstractReasonerComponent reasoner;
+	private RhoDRDown operator;
+	private final OWLClassExpression top = new OWLDataFactoryImpl().getOWLThing();
+
+	@Setup(Level.Trial)
+	public void setupReasoner() throws Exception {
+		KnowledgeSource ks = BenchmarkUtils.createKnowledgeSource(dataset);
+		reasoner = BenchmarkUtils.createReasoner(BenchmarkUtils.CLOSED_WORLD, ks);
+	}
+
+	@Setup(Level.Invocation)
+	public void setupOperator() throws Exception {
+		operator = new RhoDRDown();
+		operator.setReasoner(reasoner);
+		operator.setSubHierarchy(reasoner.getClassHierarchy());
+		operator.setObjectPropertyHierarchy(reasoner.getObjectPropertyHierarchy());
+		operator.setDataPropertyHierarchy(reasoner.getDatatypePropertyHierarchy());
+		operator.init();
+	}
+
+	@Benchmark
+	public void refine(Blackhole bh) {
+		for (OWLClassExpression refinement : operator.refine(top, maxLength)) {
+			bh.consume(operator.refine(refinement, maxLength));
+		}
+	}
+}
@@ -325,6 +325,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		nanoStartTime = System.nanoTime();
 		
 		currentHighestAccuracy = 0.0;
+		learningProblem.getReasoningUtil().setAccuracyThreshold(-1);
 		OENode nextNode;
 
 		logger.info("start class:" + startClass);
@@ -607,6 +608,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 				if(!filterFollowsFromKB || !((ClassLearningProblem)learningProblem).followsFromKB(niceDescription)) {
 //					System.out.println(node + "->" + niceDescription);
 					bestEvaluatedDescriptions.add(niceDescription, accuracy, learningProblem);
+					updateAccuracyThreshold();
 //					System.out.println("acc: " + accuracy);
 //					System.out.println(bestEvaluatedDescriptions);
 				}
@@ -620,6 +622,14 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		return true;
 	}
 	
+	// sampling-based evaluation only returns estimates below the threshold, i.e. an estimated accuracy can never
+	// be stored in the best descriptions, as it is below the worst of them
+	private void updateAccuracyThreshold() {
+		if(bestEvaluatedDescriptions.isFull()) {
+			learningProblem.getReasoningUtil().setAccuracyThreshold(bestEvaluatedDescriptions.getWorst().getAccuracy());
+		}
+	}
+
 	// checks whether the class expression is allowed
 	private boolean isDescriptionAllowed(OWLClassExpression description, OENode parentNode) {
 		if(isClassLearningProblem) {
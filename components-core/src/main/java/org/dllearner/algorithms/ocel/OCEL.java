@@ -49,6 +49,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.io.File;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * The DL-Learner learning algorithm component for the example
@@ -152,6 +156,16 @@ public class OCEL extends AbstractCELA {
 	// solution protocol
 	private List<ExampleBasedNode> solutions = new LinkedList<>();
 
+	@ConfigOption(defaultValue = "1", description = "number of threads used for the instance checks of a refinement; " +
+			"with more than one thread, the covered examples are checked in parallel and the checks are cancelled " +
+			"once the refinement is too weak (requires a reasoner which supports concurrent instance checks)")
+	private int nrOfThreads = 1;
+	@ConfigOption(defaultValue = "false", description = "evaluate refinements by a single retrieval of their instances " +
+			"instead of instance checks on the examples covered by the parent node")
+	private boolean useBatchedRetrieval = false;
+	// pool for parallel instance checks, only used during start()
+	private ExecutorService instanceCheckPool;
+
 	@ConfigOption(defaultValue = "false", description = "specifies whether to compute and log benchmark information")
 	private boolean computeBenchmarkInformation = false;
 
@@ -174,8 +188,8 @@ public class OCEL extends AbstractCELA {
 	private SortedSet<OWLClassExpression> properRefinements = new TreeSet<>();
 
 	// blacklists
-	private SortedSet<OWLClassExpression> tooWeakList = new TreeSet<>();
-	private SortedSet<OWLClassExpression> overlyGeneralList = new TreeSet<>();
+	private SortedSet<OWLClassExpression> tooWeakList = new ConcurrentSkipListSet<>();
+	private SortedSet<OWLClassExpression> overlyGeneralList = new ConcurrentSkipListSet<>();
 
 	// set of expanded nodes (TODO: better explanation)
 	TreeSet<ExampleBasedNode> expandedNodes = new TreeSet<>(nodeComparatorStable);
@@ -378,6 +392,20 @@ public class OCEL extends AbstractCELA {
 
 	@Override
 	public void start() {
+		if (nrOfThreads > 1 && !useBatchedRetrieval) {
+			instanceCheckPool = Executors.newFixedThreadPool(nrOfThreads);
+		}
+		try {
+			search();
+		} finally {
+			if (instanceCheckPool != null) {
+				instanceCheckPool.shutdownNow();
+				instanceCheckPool = null;
+			}
+		}
+	}
+
+	private void search() {
 		stop = false;
 		isRunning = true;
 		runtime = System.currentTimeMillis();
@@ -718,43 +746,18 @@ public class OCEL extends AbstractCELA {
 
 					// determine individuals which have not been covered yet
 					// (more efficient than full retrieval)
-					Set<OWLIndividual> coveredPositives = node.getCoveredPositives();
-					Set<OWLIndividual> newlyCoveredPositives = new HashSet<>();
-
-					// calculate how many pos. examples are not covered by the
-					// parent node of the refinement
-					int misclassifiedPositives = nrOfPositiveExamples - coveredPositives.size();
-
-					// iterate through all covered examples (examples which are not
-					// covered do not need to be tested, because they remain uncovered);
-					// DIG will be slow if we send each reasoner request individually
-					// (however if we send everything in one request, too many instance checks
-					// are performed => rely on fast instance checker)
-					for (OWLIndividual i : coveredPositives) {
-						// TODO: move code to a separate function
-						if (quality != -1) {
-							boolean covered = reasoner.hasType(refinement, i);
-							if (!covered)
-								misclassifiedPositives++;
-							else
-								newlyCoveredPositives.add(i);
-
-							if (misclassifiedPositives > allowedMisclassifications)
-								quality = -1;
-
-						}
-					}
-
+					Set<OWLIndividual> newlyCoveredPositives = null;
 					Set<OWLIndividual> newlyCoveredNegatives = null;
-					if (quality != -1) {
-						Set<OWLIndividual> coveredNegatives = node.getCoveredNegatives();
-						newlyCoveredNegatives = new HashSet<>();
-
-						for (OWLIndividual i : coveredNegatives) {
-							boolean covered = reasoner.hasType(refinement, i);
-							if (covered)
-								newlyCoveredNegatives.add(i);
-						}
+					RefinementCoverage coverage = evaluateCoverage(refinement, node);
+					if (coverage == RefinementCoverage.INCOMPLETE) {
+						// interrupted, the refinement is neither too weak nor evaluated
+						properRefinements.remove(refinement);
+						break;
+					} else if (coverage == null) {
+						quality = -1;
+					} else {
+						newlyCoveredPositives = coverage.positives;
+						newlyCoveredNegatives = coverage.negatives;
 					}
 
 					propernessCalcReasoningTimeNs += System.nanoTime() - propCalcReasoningStart2;
@@ -825,6 +828,145 @@ public class OCEL extends AbstractCELA {
 		}
 	}
 
+	/**
+	 * Evaluates a refinement on the examples covered by the parent node (examples which are not
+	 * covered do not need to be tested, because they remain uncovered). Depending on the configuration,
+	 * this is done by a single retrieval of the refinement, by parallel instance checks or by sequential
+	 * instance checks. The positives are checked first, and the checks are cancelled as soon as more
+	 * than {@code allowedMisclassifications} positives are not covered.
+	 *
+	 * @param refinement the refinement
+	 * @param parent the node the refinement was computed for
+	 * @return the covered positives and negatives, null if the refinement is too weak or
+	 * {@link RefinementCoverage#INCOMPLETE} if the parallel instance checks were interrupted
+	 */
+	private RefinementCoverage evaluateCoverage(OWLClassExpression refinement, ExampleBasedNode parent) {
+		Set<OWLIndividual> coveredPositives = parent.getCoveredPositives();
+		Set<OWLIndividual> coveredNegatives = parent.getCoveredNegatives();
+
+		// calculate how many pos. examples are not covered by the
+		// parent node of the refinement
+		int misclassifiedPositives = nrOfPositiveExamples - coveredPositives.size();
+		if (!coveredPositives.isEmpty() && misclassifiedPositives > allowedMisclassifications) {
+			return null;
+		}
+
+		if (useBatchedRetrieval) {
+			SortedSet<OWLIndividual> instances = reasoner.getIndividuals(refinement);
+			Set<OWLIndividual> newlyCoveredPositives = new HashSet<>(Sets.intersection(coveredPositives, instances));
+			if (!coveredPositives.isEmpty() && nrOfPositiveExamples - newlyCoveredPositives.size() > allowedMisclassifications) {
+				return null;
+			}
+			return new RefinementCoverage(newlyCoveredPositives, new HashSet<>(Sets.intersection(coveredNegatives, instances)));
+		}
+
+		if (instanceCheckPool != null) {
+			AtomicInteger misclassified = new AtomicInteger(misclassifiedPositives);
+			AtomicBoolean tooWeak = new AtomicBoolean(false);
+			Set<OWLIndividual> newlyCoveredPositives = ConcurrentHashMap.newKeySet();
+			boolean complete = runInstanceChecks(coveredPositives, tooWeak, i -> {
+				if (reasoner.hasType(refinement, i)) {
+					newlyCoveredPositives.add(i);
+				} else if (misclassified.incrementAndGet() > allowedMisclassifications) {
+					tooWeak.set(true);
+				}
+			});
+			if (!complete) {
+				return RefinementCoverage.INCOMPLETE;
+			}
+			if (tooWeak.get()) {
+				return null;
+			}
+			Set<OWLIndividual> newlyCoveredNegatives = ConcurrentHashMap.newKeySet();
+			complete = runInstanceChecks(coveredNegatives, tooWeak, i -> {
+				if (reasoner.hasType(refinement, i)) {
+					newlyCoveredNegatives.add(i);
+				}
+			});
+			if (!complete) {
+				return RefinementCoverage.INCOMPLETE;
+			}
+			return new RefinementCoverage(newlyCoveredPositives, newlyCoveredNegatives);
+		}
+
+		// DIG will be slow if we send each reasoner request individually
+		// (however if we send everything in one request, too many instance checks
+		// are performed => rely on fast instance checker)
+		Set<OWLIndividual> newlyCoveredPositives = new HashSet<>();
+		for (OWLIndividual i : coveredPositives) {
+			boolean covered = reasoner.hasType(refinement, i);
+			if (!covered)
+				misclassifiedPositives++;
+			else
+				newlyCoveredPositives.add(i);
+
+			if (misclassifiedPositives > allowedMisclassifications)
+				return null;
+		}
+
+		Set<OWLIndividual> newlyCoveredNegatives = new HashSet<>();
+		for (OWLIndividual i : coveredNegatives) {
+			boolean covered = reasoner.hasType(refinement, i);
+			if (covered)
+				newlyCoveredNegatives.add(i);
+		}
+		return new RefinementCoverage(newlyCoveredPositives, newlyCoveredNegatives);
+	}
+
+	/**
+	 * Runs the instance checks for the given individuals in chunks on the instance check pool and waits
+	 * for them. Remaining checks are skipped once {@code cancelled} is set. If the learning thread is
+	 * interrupted, the remaining checks are cancelled and the algorithm is stopped.
+	 *
+	 * @return false if interrupted, i.e. not all checks were done
+	 */
+	private boolean runInstanceChecks(Set<OWLIndividual> individuals, AtomicBoolean cancelled, Consumer<OWLIndividual> check) {
+		List<OWLIndividual> list = new ArrayList<>(individuals);
+		// several chunks per thread for a better load balance
+		int chunkSize = Math.max(1, list.size() / (4 * nrOfThreads));
+		List<Future<?>> futures = new ArrayList<>();
+		for (int from = 0; from < list.size(); from += chunkSize) {
+			List<OWLIndividual> chunk = list.subList(from, Math.min(from + chunkSize, list.size()));
+			futures.add(instanceCheckPool.submit(() -> {
+				for (OWLIndividual i : chunk) {
+					if (cancelled.get()) {
+						return;
+					}
+					check.accept(i);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				cancelled.set(true);
+				futures.forEach(f -> f.cancel(true));
+				Thread.currentThread().interrupt();
+				stop = true;
+				return false;
+			} catch (ExecutionException e) {
+				cancelled.set(true);
+				throw new RuntimeException("Instance check failed", e.getCause());
+			}
+		}
+		return true;
+	}
+
+	// covered examples of a refinement
+	private static class RefinementCoverage {
+		// marks an evaluation which was interrupted
+		private static final RefinementCoverage INCOMPLETE = new RefinementCoverage(null, null);
+
+		private final Set<OWLIndividual> positives;
+		private final Set<OWLIndividual> negatives;
+
+		RefinementCoverage(Set<OWLIndividual> positives, Set<OWLIndividual> negatives) {
+			this.positives = positives;
+			this.negatives = negatives;
+		}
+	}
+
 	private void printStatistics(boolean finalStats) {
 		// TODO: viele Tests haben ergeben, dass man nie 100% mit der Zeitmessung abdecken
 		// kann (zum einen weil Stringausgabe verzögert erfolgt und zum anderen weil
@@ -1220,6 +1362,22 @@ public class OCEL extends AbstractCELA {
 		this.candidatePostReductionSize = candidatePostReductionSize;
 	}
 
+	public int getNrOfThreads() {
+		return nrOfThreads;
+	}
+
+	public void setNrOfThreads(int nrOfThreads) {
+		this.nrOfThreads = nrOfThreads;
+	}
+
+	public boolean isUseBatchedRetrieval() {
+		return useBatchedRetrieval;
+	}
+
+	public void setUseBatchedRetrieval(boolean useBatchedRetrieval) {
+		this.useBatchedRetrieval = useBatchedRetrieval;
+	}
+
 	public boolean isComputeBenchmarkInformation() {
 		return computeBenchmarkInformation;
 	}
@@ -270,7 +270,7 @@ public class OWLAxiomPatternFinder {
 	}
 
 	private void prepare(){
-		createTables();
+		createTables(conn);
 		try {
 			selectOntologyIdPs = conn.prepareStatement("SELECT id FROM Ontology WHERE url=?");
 			insertOntologyPs = conn.prepareStatement("INSERT INTO Ontology (url, iri, repository, logical_axioms, tbox_axioms, rbox_axioms" +
@@ -292,7 +292,7 @@ public class OWLAxiomPatternFinder {
 		}
 	}
 	
-	private String render(OWLAxiom axiom){
+	static String render(OWLAxiom axiom){
 		try {
 			OWLOntologyManager man = OWLManager.createOWLOntologyManager();
 			OWLOntology ontology = man.createOntology();
@@ -308,8 +308,16 @@ public class OWLAxiomPatternFinder {
 	}
 	
 	private void initDBConnection() {
+		conn = createDBConnection();
+	}
+
+	/**
+	 * @return a connection to the database configured in <code>db_settings.ini</code>, or <code>null</code> if
+	 * the connection failed
+	 */
+	static Connection createDBConnection() {
 		try {
-			InputStream is = this.getClass().getClassLoader().getResourceAsStream(
+			InputStream is = OWLAxiomPatternFinder.class.getClassLoader().getResourceAsStream(
 					"org/dllearner/algorithms/pattern/db_settings.ini");
 			Preferences prefs = new IniPreferences(is);
 			String dbServer = prefs.node("database").get("server", null);
@@ -318,15 +326,16 @@ public class OWLAxiomPatternFinder {
 			String dbPass = prefs.node("database").get("pass", null);
 
 			String url = "jdbc:mysql://" + dbServer + "/" + dbName;
-			conn = DriverManager.getConnection(url, dbUser, dbPass);
+			return DriverManager.getConnection(url, dbUser, dbPass);
 		} catch (IOException e) {
 			LOGGER.error("Failed to settings.", e);
 		} catch (SQLException e) {
 			LOGGER.error("Failed to setup database connection.", e);
 		}
+		return null;
 	}
 	
-	private void createTables(){
+	static void createTables(Connection conn){
 		try (Statement statement = conn.createStatement()){
 			statement.execute("CREATE TABLE IF NOT EXISTS Pattern ("
 			        + "id MEDIUMINT NOT NULL AUTO_INCREMENT,"
@@ -396,7 +405,7 @@ public class OWLAxiomPatternFinder {
 
 	OWLAxiomGeneralizer generalizer = new OWLAxiomGeneralizer();
 
-	private void computeAndAddGeneralizedPatterns() {
+	void computeAndAddGeneralizedPatterns() {
 		// get all patterns from DB
 		String sql = "SELECT id, pattern FROM Pattern";
 		try(Statement stmt = conn.createStatement()) {
@@ -524,7 +533,7 @@ public class OWLAxiomPatternFinder {
 		return null;
 	}
 
-	private String getAxiomType(OWLAxiom axiom) {
+	static String getAxiomType(OWLAxiom axiom) {
 		AxiomType<?> type = axiom.getAxiomType();
 		String s;
 		if (AxiomType.TBoxAxiomTypes.contains(type)) {
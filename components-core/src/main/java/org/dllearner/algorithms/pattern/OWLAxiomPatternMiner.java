@@ -0,0 +1,548 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.pattern;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import org.dllearner.kb.repository.LocalDirectoryOntologyRepository;
+import org.dllearner.kb.repository.OntologyRepository;
+import org.dllearner.kb.repository.OntologyRepositoryEntry;
+import org.dllearner.utilities.owl.ManchesterOWLSyntaxOWLObjectRendererImplExt;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.OWLObjectRenderer;
+import org.semanticweb.owlapi.io.UnparsableOntologyException;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.URI;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pattern mining pipeline over an ontology repository, which writes to the same database tables as
+ * {@link OWLAxiomPatternFinder}, but scales to large repositories:
+ * <ul>
+ * <li>the ontologies are loaded and normalized by {@link OWLAxiomRenamer} on a pool of worker threads, where the
+ * axioms of large ontologies are split into chunks that are renamed in parallel,</li>
+ * <li>the pattern counts are aggregated in memory by lock-free counters, per ontology and over all ontologies,</li>
+ * <li>a single writer thread inserts the results of <code>batchSize</code> ontologies in one transaction, with
+ * batched inserts and the pattern IDs cached in memory, such that the workers never wait for the database,</li>
+ * <li>the progress of each ontology is recorded in the table <code>Ontology_Progress</code> in the same
+ * transaction, and ontologies already recorded there are skipped, such that an interrupted run can be resumed.</li>
+ * </ul>
+ */
+public class OWLAxiomPatternMiner {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OWLAxiomPatternMiner.class);
+
+	private static final String DONE = "DONE";
+	private static final String ERROR = "ERROR";
+
+	private final OntologyRepository repository;
+	private final Connection conn;
+	private final OWLDataFactory dataFactory = OWLManager.getOWLDataFactory();
+
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private int chunkSize = 10000;
+	private int batchSize = 50;
+	private boolean computeGeneralizedPatterns = true;
+
+	// the pattern counts over all ontologies processed in this run
+	private final ConcurrentMap<OWLAxiom, LongAdder> patternCounts = new ConcurrentHashMap<>();
+	// the functional syntax of each pattern, rendered by the workers
+	private final ConcurrentMap<OWLAxiom, String> renderedPatterns = new ConcurrentHashMap<>();
+	private final ThreadLocal<OWLObjectRenderer> axiomRenderer = ThreadLocal.withInitial(ManchesterOWLSyntaxOWLObjectRendererImplExt::new);
+
+	// the URLs of all ontologies in the progress table, and of the imports processed in this run
+	private final Set<String> processed = ConcurrentHashMap.newKeySet();
+
+	// only used by the writer thread
+	private final Map<String, Integer> patternIds = new HashMap<>();
+	// the unexpected failure which stopped the writer thread, if any
+	private volatile Throwable writerFailure;
+
+	private static final OntologyResult END = new OntologyResult(null, null);
+
+	public OWLAxiomPatternMiner(OntologyRepository repository, Connection conn) {
+		this.repository = repository;
+		this.conn = conn;
+	}
+
+	/**
+	 * @param numThreads the number of worker threads
+	 */
+	public void setNumThreads(int numThreads) {
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * @param chunkSize the max. number of axioms renamed by one task
+	 */
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * @param batchSize the number of ontologies written to the database in one transaction
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @param computeGeneralizedPatterns whether to compute the generalized patterns at the end, see
+	 * {@link OWLAxiomPatternFinder}
+	 */
+	public void setComputeGeneralizedPatterns(boolean computeGeneralizedPatterns) {
+		this.computeGeneralizedPatterns = computeGeneralizedPatterns;
+	}
+
+	/**
+	 * @return the pattern counts over all ontologies processed in this run
+	 */
+	public Map<OWLAxiom, Long> getPatternCounts() {
+		Map<OWLAxiom, Long> counts = new HashMap<>();
+		patternCounts.forEach((pattern, count) -> counts.put(pattern, count.sum()));
+		return counts;
+	}
+
+	/**
+	 * The result of processing an ontology, i.e. either the patterns or the error.
+	 */
+	private static class OntologyResult {
+		final URI uri;
+		final OWLOntology ontology;
+		Imports imports;
+		Map<OWLAxiom, LongAdder> patterns;
+		final List<OntologyResult> importResults = new ArrayList<>();
+		Exception error;
+
+		OntologyResult(URI uri, OWLOntology ontology) {
+			this.uri = uri;
+			this.ontology = ontology;
+		}
+	}
+
+	/**
+	 * Runs the pattern mining over all ontologies of the repository which are not processed yet.
+	 *
+	 * @throws IllegalStateException if writing the results failed unexpectedly, the ontologies not written yet
+	 * will be processed in the next run
+	 */
+	public void start() throws SQLException, InterruptedException {
+		prepare();
+
+		List<OntologyRepositoryEntry> entries = new ArrayList<>();
+		for (OntologyRepositoryEntry entry : repository.getEntries()) {
+			if (!processed.contains(entry.getPhysicalURI().toString())) {
+				entries.add(entry);
+			}
+		}
+		LOGGER.info("{} ontologies to process, {} already processed.", entries.size(), repository.getEntries().size() - entries.size());
+
+		// the queue and the semaphore limit the number of loaded ontologies which are not written yet
+		BlockingQueue<OntologyResult> results = new ArrayBlockingQueue<>(2 * numThreads);
+		Semaphore inProgress = new Semaphore(2 * numThreads);
+
+		ForkJoinPool pool = new ForkJoinPool(numThreads);
+		AtomicInteger cnt = new AtomicInteger();
+		Thread writer = new Thread(() -> writeResults(results), "pattern-writer");
+		writer.start();
+		try {
+			for (OntologyRepositoryEntry entry : entries) {
+				if (writerFailure != null) {
+					break;
+				}
+				inProgress.acquire();
+				pool.execute(() -> {
+					try {
+						LOGGER.info("{}/{}: {}", cnt.incrementAndGet(), entries.size(), entry.getOntologyShortName());
+						results.put(process(entry));
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						inProgress.release();
+					}
+				});
+			}
+			pool.shutdown();
+			pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		} finally {
+			pool.shutdownNow();
+			results.put(END);
+			writer.join();
+		}
+		if (writerFailure != null) {
+			throw new IllegalStateException("Writing the patterns failed.", writerFailure);
+		}
+
+		if (computeGeneralizedPatterns) {
+			new OWLAxiomPatternFinder(repository, conn).computeAndAddGeneralizedPatterns();
+		}
+	}
+
+	private void prepare() throws SQLException {
+		OWLAxiomPatternFinder.createTables(conn);
+		try (Statement statement = conn.createStatement()) {
+			statement.execute("CREATE TABLE IF NOT EXISTS Ontology_Progress ("
+									  + "url VARCHAR(1000) NOT NULL,"
+									  + "repository VARCHAR(200) NOT NULL,"
+									  + "status VARCHAR(10) NOT NULL,"
+									  + "PRIMARY KEY(url, repository))");
+		}
+
+		try (PreparedStatement ps = conn.prepareStatement("SELECT url FROM Ontology_Progress WHERE repository=?")) {
+			ps.setString(1, repository.getName());
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					processed.add(rs.getString(1));
+				}
+			}
+		}
+		// imports are shared across repositories
+		try (Statement statement = conn.createStatement();
+			 ResultSet rs = statement.executeQuery("SELECT url FROM Ontology")) {
+			while (rs.next()) {
+				processed.add(rs.getString(1));
+			}
+		}
+		try (Statement statement = conn.createStatement();
+			 ResultSet rs = statement.executeQuery("SELECT id, pattern FROM Pattern")) {
+			while (rs.next()) {
+				patternIds.put(rs.getString(2), rs.getInt(1));
+			}
+		}
+	}
+
+	/**
+	 * Loads the ontology of the entry and computes the patterns of the ontology and its imports, which were not
+	 * processed before.
+	 */
+	private OntologyResult process(OntologyRepositoryEntry entry) {
+		URI uri = entry.getPhysicalURI();
+		OntologyResult result;
+		try {
+			OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+			OWLOntology ontology = manager.loadOntology(IRI.create(uri));
+			result = computePatterns(uri, ontology, Imports.EXCLUDED);
+
+			for (OWLOntology importedOntology : ontology.getImports()) {
+				IRI iri = importedOntology.getOntologyID().getOntologyIRI().or(manager.getOntologyDocumentIRI(importedOntology));
+				// only the first ontology importing it processes an import
+				if (processed.add(iri.toString())) {
+					result.importResults.add(computePatterns(iri.toURI(), importedOntology, Imports.INCLUDED));
+				}
+			}
+			LOGGER.info("   finished pattern detection for \"{}\". #Patterns: {}", entry.getOntologyShortName(), result.patterns.size());
+		} catch (UnparsableOntologyException | UnloadableImportException e) {
+			LOGGER.error("Loading of ontology {} failed: {}", uri, e.getMessage());
+			result = new OntologyResult(uri, null);
+			result.error = e;
+		} catch (Exception e) {
+			LOGGER.error("Ontology processing failed for " + uri, e);
+			result = new OntologyResult(uri, null);
+			result.error = e;
+		}
+		return result;
+	}
+
+	private OntologyResult computePatterns(URI uri, OWLOntology ontology, Imports imports) {
+		List<OWLLogicalAxiom> axioms = new ArrayList<>(ontology.getLogicalAxioms(imports));
+		ConcurrentMap<OWLAxiom, LongAdder> patterns = new ConcurrentHashMap<>();
+
+		// rename the chunks in parallel, the renamer isn't thread-safe
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int from = 0; from < axioms.size(); from += chunkSize) {
+			List<OWLLogicalAxiom> chunk = axioms.subList(from, Math.min(axioms.size(), from + chunkSize));
+			tasks.add(ForkJoinTask.adapt(() -> {
+				OWLAxiomRenamer renamer = new OWLAxiomRenamer(dataFactory);
+				for (OWLAxiom axiom : chunk) {
+					OWLAxiom pattern = renamer.rename(axiom);
+					if (pattern != null) {
+						patterns.computeIfAbsent(pattern, p -> new LongAdder()).increment();
+					}
+				}
+			}));
+		}
+		ForkJoinTask.invokeAll(tasks);
+
+		patterns.forEach((pattern, count) -> {
+			patternCounts.computeIfAbsent(pattern, p -> new LongAdder()).add(count.sum());
+			renderedPatterns.computeIfAbsent(pattern, OWLAxiomPatternFinder::render);
+		});
+
+		OntologyResult result = new OntologyResult(uri, ontology);
+		result.imports = imports;
+		result.patterns = patterns;
+		return result;
+	}
+
+	/**
+	 * Writes the results in batches until the end marker is taken from the queue. A batch that fails with an
+	 * {@link SQLException} is skipped, any other failure stops the writing, but the results are still taken from
+	 * the queue such that the workers don't block.
+	 */
+	private void writeResults(BlockingQueue<OntologyResult> results) {
+		List<OntologyResult> batch = new ArrayList<>(batchSize);
+		boolean end = false;
+		while (!end) {
+			try {
+				batch.add(results.take());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			results.drainTo(batch, batchSize - 1);
+			end = batch.remove(END);
+			if (!batch.isEmpty() && writerFailure == null) {
+				try {
+					write(batch);
+				} catch (SQLException e) {
+					LOGGER.error("Failed to write the patterns of " + batch.size() + " ontologies, they will be processed again in the next run.", e);
+				} catch (Throwable t) {
+					LOGGER.error("Failed to write the patterns, the remaining ontologies will be processed again in the next run.", t);
+					writerFailure = t;
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Writes the batch in one transaction, which is rolled back on any failure.
+	 */
+	private void write(List<OntologyResult> batch) throws SQLException {
+		Map<String, Integer> newPatternIds = new HashMap<>();
+		conn.setAutoCommit(false);
+		try {
+			insertPatterns(batch, newPatternIds);
+			try (PreparedStatement insertOntologyPs = conn.prepareStatement("INSERT INTO Ontology (url, iri, repository, logical_axioms, tbox_axioms, rbox_axioms" +
+					", abox_axioms, classes, object_properties, data_properties, individuals) VALUES(?,?,?,?,?,?,?,?,?,?,?)", Statement.RETURN_GENERATED_KEYS);
+				 PreparedStatement insertOntologyPatternPs = conn.prepareStatement("INSERT INTO Ontology_Pattern (ontology_id, pattern_id, occurrences) VALUES(?,?,?)");
+				 PreparedStatement insertOntologyImportPs = conn.prepareStatement("INSERT INTO Ontology_Import (ontology_id1, ontology_id2) VALUES(?,?)");
+				 PreparedStatement insertOntologyErrorPs = conn.prepareStatement("INSERT INTO Ontology_Error (url, repository, error) VALUES(?,?,?)");
+				 PreparedStatement insertProgressPs = conn.prepareStatement("INSERT INTO Ontology_Progress (url, repository, status) VALUES(?,?,?)")) {
+
+				for (OntologyResult result : batch) {
+					if (result.error != null) {
+						insertOntologyErrorPs.setString(1, result.uri.toString());
+						insertOntologyErrorPs.setString(2, repository.getName());
+						insertOntologyErrorPs.setString(3, errorMessage(result.error));
+						insertOntologyErrorPs.addBatch();
+					} else {
+						int ontologyId = insertOntology(insertOntologyPs, insertOntologyPatternPs, result, newPatternIds);
+						for (OntologyResult importResult : result.importResults) {
+							int importId = insertOntology(insertOntologyPs, insertOntologyPatternPs, importResult, newPatternIds);
+							insertOntologyImportPs.setInt(1, ontologyId);
+							insertOntologyImportPs.setInt(2, importId);
+							insertOntologyImportPs.addBatch();
+						}
+					}
+					insertProgressPs.setString(1, result.uri.toString());
+					insertProgressPs.setString(2, repository.getName());
+					insertProgressPs.setString(3, result.error == null ? DONE : ERROR);
+					insertProgressPs.addBatch();
+				}
+				insertOntologyPatternPs.executeBatch();
+				insertOntologyImportPs.executeBatch();
+				insertOntologyErrorPs.executeBatch();
+				insertProgressPs.executeBatch();
+			}
+			conn.commit();
+			patternIds.putAll(newPatternIds);
+			LOGGER.info("Wrote the patterns of {} ontologies.", batch.size());
+		} catch (Throwable t) {
+			try {
+				conn.rollback();
+			} catch (SQLException e) {
+				LOGGER.error("Rollback failed.", e);
+			}
+			throw t;
+		} finally {
+			try {
+				conn.setAutoCommit(true);
+			} catch (SQLException e) {
+				LOGGER.error("Failed to reset auto commit.", e);
+			}
+		}
+	}
+
+	/**
+	 * Inserts the patterns of the batch which are not in the database yet as one batch, and adds their IDs to
+	 * <code>newPatternIds</code>.
+	 */
+	private void insertPatterns(List<OntologyResult> batch, Map<String, Integer> newPatternIds) throws SQLException {
+		Map<String, OWLAxiom> newPatterns = new LinkedHashMap<>();
+		for (OntologyResult result : batch) {
+			if (result.error == null) {
+				collectNewPatterns(result, newPatterns);
+				for (OntologyResult importResult : result.importResults) {
+					collectNewPatterns(importResult, newPatterns);
+				}
+			}
+		}
+		if (newPatterns.isEmpty()) {
+			return;
+		}
+
+		List<Integer> ids = new ArrayList<>(newPatterns.size());
+		try (PreparedStatement insertPatternPs = conn.prepareStatement("INSERT INTO Pattern (pattern,pattern_pretty,axiom_type) VALUES(?,?,?)", Statement.RETURN_GENERATED_KEYS)) {
+			for (Map.Entry<String, OWLAxiom> entry : newPatterns.entrySet()) {
+				insertPatternPs.setString(1, entry.getKey());
+				insertPatternPs.setString(2, axiomRenderer.get().render(entry.getValue()));
+				insertPatternPs.setString(3, OWLAxiomPatternFinder.getAxiomType(entry.getValue()));
+				insertPatternPs.addBatch();
+			}
+			insertPatternPs.executeBatch();
+			try (ResultSet rs = insertPatternPs.getGeneratedKeys()) {
+				while (rs.next()) {
+					ids.add(rs.getInt(1));
+				}
+			}
+		}
+
+		if (ids.size() == newPatterns.size()) {
+			Iterator<Integer> id = ids.iterator();
+			for (String pattern : newPatterns.keySet()) {
+				newPatternIds.put(pattern, id.next());
+			}
+		} else {
+			// not every driver returns the keys of all rows of a batch
+			try (PreparedStatement selectPatternIdPs = conn.prepareStatement("SELECT id FROM Pattern WHERE pattern=?")) {
+				for (String pattern : newPatterns.keySet()) {
+					selectPatternIdPs.setString(1, pattern);
+					try (ResultSet rs = selectPatternIdPs.executeQuery()) {
+						if (!rs.next()) {
+							throw new SQLException("No ID generated for pattern " + pattern);
+						}
+						newPatternIds.put(pattern, rs.getInt(1));
+					}
+				}
+			}
+		}
+	}
+
+	private void collectNewPatterns(OntologyResult result, Map<String, OWLAxiom> newPatterns) {
+		for (OWLAxiom pattern : result.patterns.keySet()) {
+			String rendered = renderedPatterns.get(pattern);
+			if (!patternIds.containsKey(rendered)) {
+				newPatterns.putIfAbsent(rendered, pattern);
+			}
+		}
+	}
+
+	private int insertOntology(PreparedStatement insertOntologyPs, PreparedStatement insertOntologyPatternPs,
+							   OntologyResult result, Map<String, Integer> newPatternIds) throws SQLException {
+		OWLOntology ontology = result.ontology;
+		String ontologyIRI = "Anonymous";
+		if (!ontology.getOntologyID().isAnonymous()) {
+			ontologyIRI = ontology.getOntologyID().getOntologyIRI().get().toString();
+		}
+		int tbox = ontology.getTBoxAxioms(result.imports).size();
+		int rbox = ontology.getRBoxAxioms(result.imports).size();
+		int abox = ontology.getABoxAxioms(result.imports).size();
+		insertOntologyPs.setString(1, result.uri.toString());
+		insertOntologyPs.setString(2, ontologyIRI);
+		insertOntologyPs.setString(3, repository.getName());
+		insertOntologyPs.setInt(4, tbox + rbox + abox);
+		insertOntologyPs.setInt(5, tbox);
+		insertOntologyPs.setInt(6, rbox);
+		insertOntologyPs.setInt(7, abox);
+		insertOntologyPs.setInt(8, ontology.getClassesInSignature(Imports.INCLUDED).size());
+		insertOntologyPs.setInt(9, ontology.getObjectPropertiesInSignature(Imports.INCLUDED).size());
+		insertOntologyPs.setInt(10, ontology.getDataPropertiesInSignature(Imports.INCLUDED).size());
+		insertOntologyPs.setInt(11, ontology.getIndividualsInSignature(Imports.INCLUDED).size());
+		int ontologyId = executeInsert(insertOntologyPs);
+
+		for (Map.Entry<OWLAxiom, LongAdder> entry : result.patterns.entrySet()) {
+			OWLAxiom pattern = entry.getKey();
+			String rendered = renderedPatterns.get(pattern);
+			Integer patternId = patternIds.get(rendered);
+			if (patternId == null) {
+				patternId = newPatternIds.get(rendered);
+			}
+			insertOntologyPatternPs.setInt(1, ontologyId);
+			insertOntologyPatternPs.setInt(2, patternId);
+			insertOntologyPatternPs.setLong(3, entry.getValue().sum());
+			insertOntologyPatternPs.addBatch();
+		}
+		return ontologyId;
+	}
+
+	/**
+	 * @return the generated ID
+	 */
+	private static int executeInsert(PreparedStatement ps) throws SQLException {
+		ps.executeUpdate();
+		try (ResultSet rs = ps.getGeneratedKeys()) {
+			if (!rs.next()) {
+				throw new SQLException("No ID generated.");
+			}
+			return rs.getInt(1);
+		}
+	}
+
+	private static String errorMessage(Exception ex) {
+		String errorMessage = "ERROR:" + ex.getClass().getSimpleName();
+		if (!(ex instanceof UnparsableOntologyException)) {
+			errorMessage += (ex.getMessage() != null ? ("->" + ex.getMessage()) : "");
+		}
+		if (errorMessage.length() > 1900) {
+			errorMessage = errorMessage.substring(0, 1900);
+		}
+		return errorMessage;
+	}
+
+	public static void main(String[] args) throws Exception {
+		OptionParser parser = new OptionParser();
+
+		OptionSpec<File> dir =
+				parser.accepts( "dir" ).withRequiredArg().ofType( File.class ).required();
+
+		OptionSpec<Long> maxFileSize =
+				parser.accepts( "maxFileSize" ).withRequiredArg().ofType(Long.class).defaultsTo(Long.MAX_VALUE);
+
+		OptionSpec<Integer> numThreadsOpt =
+				parser.accepts( "numThreads" ).withRequiredArg().ofType(Integer.class).defaultsTo(Runtime.getRuntime().availableProcessors());
+
+		OptionSpec<Integer> batchSizeOpt =
+				parser.accepts( "batchSize" ).withRequiredArg().ofType(Integer.class).defaultsTo(50);
+
+		parser.printHelpOn( System.out );
+
+		OptionSet options = parser.parse(args);
+
+		OntologyRepository repository = new LocalDirectoryOntologyRepository(options.valueOf(dir), options.valueOf(maxFileSize));
+		repository.initialize();
+
+		try (Connection conn = OWLAxiomPatternFinder.createDBConnection()) {
+			OWLAxiomPatternMiner miner = new OWLAxiomPatternMiner(repository, conn);
+			miner.setNumThreads(options.valueOf(numThreadsOpt));
+			miner.setBatchSize(options.valueOf(batchSizeOpt));
+			miner.start();
+		}
+	}
+}
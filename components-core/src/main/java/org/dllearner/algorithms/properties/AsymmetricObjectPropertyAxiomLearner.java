@@ -59,6 +59,14 @@ public class AsymmetricObjectPropertyAxiomLearner extends ObjectPropertyCharacte
 		return df.getOWLAsymmetricObjectPropertyAxiom(property);
 	}
 
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.properties.ObjectPropertyCharacteristicsAxiomLearner#getPositiveExamplesFrequency(org.dllearner.algorithms.properties.ObjectPropertyStatistics)
+	 */
+	@Override
+	protected int getPositiveExamplesFrequency(ObjectPropertyStatistics statistics) {
+		return statistics.getNrOfAsymmetricTriples();
+	}
+
 	public static void main(String[] args) throws Exception {
 		OWLDataFactory df = new OWLDataFactoryImpl();
 		AsymmetricObjectPropertyAxiomLearner l = new AsymmetricObjectPropertyAxiomLearner(new SparqlEndpointKS(
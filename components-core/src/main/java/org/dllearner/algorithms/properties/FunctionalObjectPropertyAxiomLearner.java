@@ -67,6 +67,14 @@ public class FunctionalObjectPropertyAxiomLearner extends
 	protected OWLFunctionalObjectPropertyAxiom getAxiom(OWLObjectProperty property) {
 		return df.getOWLFunctionalObjectPropertyAxiom(property);
 	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.properties.ObjectPropertyCharacteristicsAxiomLearner#getPositiveExamplesFrequency(org.dllearner.algorithms.properties.ObjectPropertyStatistics)
+	 */
+	@Override
+	protected int getPositiveExamplesFrequency(ObjectPropertyStatistics statistics) {
+		return statistics.getNrOfFunctionalSubjects();
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.dllearner.algorithms.properties.ObjectPropertyCharacteristicsAxiomLearner#getNegativeExamples(org.dllearner.core.EvaluatedAxiom)
@@ -66,6 +66,14 @@ public class InverseFunctionalObjectPropertyAxiomLearner extends
 	protected OWLInverseFunctionalObjectPropertyAxiom getAxiom(OWLObjectProperty property) {
 		return df.getOWLInverseFunctionalObjectPropertyAxiom(property);
 	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.properties.ObjectPropertyCharacteristicsAxiomLearner#getPositiveExamplesFrequency(org.dllearner.algorithms.properties.ObjectPropertyStatistics)
+	 */
+	@Override
+	protected int getPositiveExamplesFrequency(ObjectPropertyStatistics statistics) {
+		return statistics.getNrOfInverseFunctionalObjects();
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.dllearner.algorithms.properties.ObjectPropertyCharacteristicsAxiomLearner#getNegativeExamples(org.dllearner.core.EvaluatedAxiom)
@@ -52,4 +52,12 @@ public class IrreflexiveObjectPropertyAxiomLearner extends ObjectPropertyCharact
 	protected OWLIrreflexiveObjectPropertyAxiom getAxiom(OWLObjectProperty property) {
 		return df.getOWLIrreflexiveObjectPropertyAxiom(property);
 	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.properties.ObjectPropertyCharacteristicsAxiomLearner#getPositiveExamplesFrequency(org.dllearner.algorithms.properties.ObjectPropertyStatistics)
+	 */
+	@Override
+	protected int getPositiveExamplesFrequency(ObjectPropertyStatistics statistics) {
+		return statistics.getNrOfIrreflexiveSubjects();
+	}
 }
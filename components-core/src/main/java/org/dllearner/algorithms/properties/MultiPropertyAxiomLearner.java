@@ -65,6 +65,7 @@ public class MultiPropertyAxiomLearner {
 	private QueryExecutionFactory qef;
 
 	private boolean useSampling = false;
+	private boolean useStatistics = false;
 	private long maxSampleGenerationTimeMilliseconds = 10000;
 	private long pageSize = 10000;
 
@@ -84,6 +85,8 @@ public class MultiPropertyAxiomLearner {
 	private Set<AxiomType<? extends OWLAxiom>> axiomTypes;
 	
 	private Map<AxiomType<? extends OWLAxiom>, AbstractAxiomLearningAlgorithm> algorithms = new HashMap<>();
+
+	private ObjectPropertyStatistics statistics;
 	
 	public MultiPropertyAxiomLearner(SparqlEndpointKS ks) {
 		this(ks.getQueryExecutionFactory());
@@ -119,6 +122,12 @@ public class MultiPropertyAxiomLearner {
 		}
 		
 		Set<AxiomType<? extends OWLAxiom>> todo = Sets.intersection(axiomTypes,  possibleAxiomTypes);
+
+		// compute the statistics of the property once, they will be shared by all algorithms
+		statistics = null;
+		if(useStatistics && entity.isOWLObjectProperty()) {
+			statistics = computeStatistics(entity.asOWLObjectProperty());
+		}
 		
 		// compute samples for axiom types
 		Set<AxiomTypeCluster> sampleClusters = AxiomAlgorithms.getSameSampleClusters(entityType);
@@ -133,8 +142,8 @@ public class MultiPropertyAxiomLearner {
 					try {
 						SparqlEndpointKS ks1 = MultiPropertyAxiomLearner.this.ks;
 
-						// get sample if enabled
-						if(useSampling){
+						// get sample if enabled and not already covered by the statistics
+						if(useSampling && statistics == null){
 							Model sample = generateSample(entity, cluster);
 
 							// if sampling failed, we skip
@@ -251,6 +260,16 @@ public class MultiPropertyAxiomLearner {
 		this.useSampling = useSampling;
 	}
 
+	/**
+	 * If enabled, the statistics of an object property are computed in a single scan over the data and shared by
+	 * all algorithms, i.e. learning n axiom types costs a single scan instead of n times the COUNT queries.
+	 * Note, in that case no sample will be generated.
+	 * @param useStatistics whether to use shared statistics
+	 */
+	public void setUseStatistics(boolean useStatistics) {
+		this.useStatistics = useStatistics;
+	}
+
 	/**
 	 * @param multiThreaded whether to enable multi-threaded execution (@see setMaxNrOfThreads)
 	 */
@@ -294,6 +313,9 @@ public class MultiPropertyAxiomLearner {
 			learner.setEntityToDescribe(entity);
 			learner.setUseSampling(false);
 			learner.setProgressMonitor(progressMonitor);
+			if(statistics != null && learner instanceof ObjectPropertyAxiomLearner) {
+				((ObjectPropertyAxiomLearner) learner).setStatistics(statistics);
+			}
 			learner.init();
 			learner.start();
 
@@ -307,6 +329,21 @@ public class MultiPropertyAxiomLearner {
 		}
 	}
 
+	private ObjectPropertyStatistics computeStatistics(OWLObjectProperty property) {
+		logger.info("Computing statistics for " + OWLAPIUtils.getPrintName(property.getEntityType()) + " " + property.toStringID() + "...");
+		long startTime = System.currentTimeMillis();
+
+		ObjectPropertyStatistics statistics;
+		if(ks != null && !ks.isRemote()) {
+			statistics = ObjectPropertyStatistics.compute(((LocalModelBasedSparqlEndpointKS) ks).getModel(), property);
+		} else {
+			statistics = ObjectPropertyStatistics.compute(qef, property, pageSize);
+		}
+		logger.info("Finished computing statistics in {}ms.", System.currentTimeMillis() - startTime);
+		logger.debug(statistics.toString());
+		return statistics;
+	}
+
 	private Model generateSample(OWLEntity entity, AxiomTypeCluster cluster){
 		logger.info("Generating sample (" + cluster + ") for " + OWLAPIUtils.getPrintName(entity.getEntityType()) + " " + entity.toStringID() + "...");
 		long startTime = System.currentTimeMillis();
@@ -18,6 +18,8 @@
  */
 package org.dllearner.algorithms.properties;
 
+import org.dllearner.core.config.ConfigOption;
+import org.dllearner.kb.LocalModelBasedSparqlEndpointKS;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLObjectPropertyAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLObjectPropertyAxiom;
@@ -28,6 +30,68 @@ import org.semanticweb.owlapi.model.OWLObjectPropertyAxiom;
  *
  */
 public abstract class ObjectPropertyAxiomLearner<T extends OWLObjectPropertyAxiom> extends PropertyAxiomLearner<OWLObjectProperty, T, OWLObjectPropertyAssertionAxiom> {
-	
 
+	@ConfigOption(defaultValue = "false", description = "compute the statistics of the property in a single scan " +
+			"and score all candidates based on them instead of sending separate COUNT queries")
+	protected boolean useStatistics = false;
+
+	protected ObjectPropertyStatistics statistics;
+
+	/**
+	 * Returns the statistics of the property to describe. If not set before, the statistics will be computed on
+	 * the current sample resp. knowledge base.
+	 *
+	 * @return the statistics of the property
+	 */
+	protected ObjectPropertyStatistics getStatistics() {
+		if(statistics == null || !statistics.getProperty().equals(entityToDescribe)) {
+			logger.info("Computing statistics of property {} ...", entityToDescribe.toStringID());
+			long startTime = System.currentTimeMillis();
+			if(useSampling && sample != null) {
+				statistics = ObjectPropertyStatistics.compute(sample, entityToDescribe);
+			} else if(!ks.isRemote()) {
+				statistics = ObjectPropertyStatistics.compute(((LocalModelBasedSparqlEndpointKS) ks).getModel(), entityToDescribe);
+			} else {
+				statistics = ObjectPropertyStatistics.compute(qef, entityToDescribe, 10000);
+			}
+			logger.info("...done in {}ms.", (System.currentTimeMillis() - startTime));
+		}
+		return statistics;
+	}
+
+	/**
+	 * Use the statistics of the property to describe for scoring, i.e. all counts are computed in a single scan
+	 * over the data.
+	 *
+	 * @param useStatistics whether to use the statistics
+	 */
+	public void setUseStatistics(boolean useStatistics) {
+		this.useStatistics = useStatistics;
+	}
+
+	public boolean isUseStatistics() {
+		return useStatistics;
+	}
+
+	/**
+	 * Set precomputed statistics of the property to describe, e.g. if they are shared among several learning
+	 * algorithms. This implicitly enables the usage of statistics.
+	 *
+	 * @param statistics the statistics
+	 */
+	public void setStatistics(ObjectPropertyStatistics statistics) {
+		this.statistics = statistics;
+		this.useStatistics = true;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.core.AbstractAxiomLearningAlgorithm#getPopularity()
+	 */
+	@Override
+	protected int getPopularity() {
+		if(useStatistics) {
+			return getStatistics().getNrOfTriples();
+		}
+		return super.getPopularity();
+	}
 }
@@ -108,7 +108,7 @@ public abstract class ObjectPropertyCharacteristicsAxiomLearner<T extends OWLObj
 	protected void run() {
 		boolean declared = !existingAxioms.isEmpty();
 		
-		int frequency = getPositiveExamplesFrequency();
+		int frequency = useStatistics ? getPositiveExamplesFrequency(getStatistics()) : getPositiveExamplesFrequency();
 
 		currentlyBestAxioms.add(new EvaluatedAxiom<>(
 				getAxiom(entityToDescribe),
@@ -125,6 +125,15 @@ public abstract class ObjectPropertyCharacteristicsAxiomLearner<T extends OWLObj
 	protected int getPositiveExamplesFrequency(Model model){
 		return getCountValue(POS_FREQUENCY_QUERY.toString(), model);
 	}
+
+	/**
+	 * Returns the number of positive examples based on the statistics of the property, i.e. the same value as
+	 * computed by the positive examples frequency query.
+	 *
+	 * @param statistics the statistics of the property
+	 * @return the number of positive examples
+	 */
+	protected abstract int getPositiveExamplesFrequency(ObjectPropertyStatistics statistics);
 	
 	@Override
 	public Set<OWLObjectPropertyAssertionAxiom> getPositiveExamples(EvaluatedAxiom<T> evAxiom) {
@@ -35,6 +35,7 @@ import org.semanticweb.owlapi.io.ToStringRenderer;
 import org.semanticweb.owlapi.model.*;
 import uk.ac.manchester.cs.owl.owlapi.OWLObjectPropertyImpl;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -127,6 +128,9 @@ public class ObjectPropertyDomainAxiomLearner extends ObjectPropertyAxiomLearner
 	}
 
 	protected int getPopularity() {
+		if(useStatistics) {
+			return getStatistics().getNrOfDistinctSubjects();
+		}
 		POPULARITY_COUNT_QUERY.setIri("p", entityToDescribe.toStringID());
 		String query = POPULARITY_COUNT_QUERY.toString();
 		ResultSet rs = executeSelectQuery(query);
@@ -142,13 +146,45 @@ public class ObjectPropertyDomainAxiomLearner extends ObjectPropertyAxiomLearner
 	 */
 	@Override
 	protected void run(){
-		if(batchMode) {
+		if(useStatistics) {
+			runWithStatistics();
+		} else if(batchMode) {
 			runBatched();
 		} else {
 			runIterative();
 		}
 	}
 
+	/**
+	 * Compute the score of each candidate class based on the subject type histogram of the property statistics,
+	 * i.e. without sending a separate COUNT query per candidate.
+	 */
+	private void runWithStatistics() {
+		Map<OWLClass, Integer> typeCounts = getStatistics().getSubjectTypeCounts();
+
+		// the popularity of all classes in a single query instead of one COUNT query per candidate
+		reasoner.precomputeClassPopularity();
+
+		int i = 1;
+		for (Map.Entry<OWLClass, Integer> entry : typeCounts.entrySet()) {
+			OWLClass candidate = entry.getKey();
+			progressMonitor.learningProgressChanged(axiomType, i++, typeCounts.size());
+
+			// get total number of instances of B
+			int cntB = reasoner.getPopularityOf(candidate);
+
+			// get number of instances of (A AND B)
+			int cntAB = entry.getValue();
+			logger.debug("Candidate:" + candidate + "\npopularity:" + cntB + "\noverlap:" + cntAB);
+
+			// compute score
+			AxiomScore score = computeScore(popularity, cntB, cntAB);
+
+			currentlyBestAxioms.add(
+					new EvaluatedAxiom<>(df.getOWLObjectPropertyDomainAxiom(entityToDescribe, candidate), score));
+		}
+	}
+
 	private void runIterative() {
 		// get the candidates
 		Set<OWLClass> candidates = reasoner.getNonEmptyOWLClasses();
@@ -102,7 +102,7 @@ public abstract class ObjectPropertyHierarchyAxiomLearner<T extends OWLObjectPro
 	
 	@Override
 	protected void run() {
-		if(batchMode) {
+		if(batchMode && !useStatistics) {
 			runBatched();
 		} else {
 			runIterative();
@@ -110,6 +110,13 @@ public abstract class ObjectPropertyHierarchyAxiomLearner<T extends OWLObjectPro
 	}
 
 	protected void runIterative() {
+		// with statistics the overlap is taken from the co-occurrence counts, i.e. no query per candidate is needed
+		ObjectPropertyStatistics statistics = null;
+		if(useStatistics) {
+			statistics = getStatistics();
+			reasoner.precomputeObjectPropertyPopularity();
+		}
+
 		// get the candidates
 		SortedSet<OWLObjectProperty> candidates = getCandidates();
 
@@ -128,9 +135,14 @@ public abstract class ObjectPropertyHierarchyAxiomLearner<T extends OWLObjectPro
 			}
 
 			// get the number of overlapping triples, i.e. triples with the same subject and object
-			GIVEN_PROPERTY_OVERLAP_QUERY.setIri("p_other", p.toStringID());
-			ResultSet rs = executeSelectQuery(GIVEN_PROPERTY_OVERLAP_QUERY.toString());
-			int overlap = rs.next().getLiteral("overlap").getInt();
+			int overlap;
+			if(statistics != null) {
+				overlap = statistics.getCooccurrenceCount(p);
+			} else {
+				GIVEN_PROPERTY_OVERLAP_QUERY.setIri("p_other", p.toStringID());
+				ResultSet rs = executeSelectQuery(GIVEN_PROPERTY_OVERLAP_QUERY.toString());
+				overlap = rs.next().getLiteral("overlap").getInt();
+			}
 
 			// compute the score
 			AxiomScore score = computeScore(candidatePopularity, popularity, overlap);
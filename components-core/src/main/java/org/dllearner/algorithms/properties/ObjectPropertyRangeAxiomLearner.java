@@ -32,6 +32,7 @@ import org.semanticweb.owlapi.io.ToStringRenderer;
 import org.semanticweb.owlapi.model.*;
 import uk.ac.manchester.cs.owl.owlapi.OWLObjectPropertyImpl;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -121,13 +122,45 @@ public class ObjectPropertyRangeAxiomLearner extends ObjectPropertyAxiomLearner<
 
 	@Override
 	protected void run(){
-		if(batchMode) {
+		if(useStatistics) {
+			runWithStatistics();
+		} else if(batchMode) {
 			runBatched();
 		} else {
 			runIterative();
 		}
 	}
 	
+	/**
+	 * Compute the score of each candidate class based on the object type histogram of the property statistics,
+	 * i.e. without sending a separate COUNT query per candidate.
+	 */
+	private void runWithStatistics() {
+		Map<OWLClass, Integer> typeCounts = getStatistics().getObjectTypeCounts();
+
+		// the popularity of all classes in a single query instead of one COUNT query per candidate
+		reasoner.precomputeClassPopularity();
+
+		int i = 1;
+		for (Map.Entry<OWLClass, Integer> entry : typeCounts.entrySet()) {
+			OWLClass candidate = entry.getKey();
+			progressMonitor.learningProgressChanged(axiomType, i++, typeCounts.size());
+
+			// get total number of instances of B
+			int cntB = reasoner.getPopularityOf(candidate);
+
+			// get number of instances of (A AND B)
+			int cntAB = entry.getValue();
+			logger.debug("Candidate:" + candidate + "\npopularity:" + cntB + "\noverlap:" + cntAB);
+
+			// compute score
+			AxiomScore score = computeScore(popularity, cntB, cntAB);
+
+			currentlyBestAxioms.add(
+					new EvaluatedAxiom<>(df.getOWLObjectPropertyRangeAxiom(entityToDescribe, candidate), score));
+		}
+	}
+
 	private void runIterative(){
 		// get the candidates
 		Set<OWLClass> candidates = reasoner.getNonEmptyOWLClasses();
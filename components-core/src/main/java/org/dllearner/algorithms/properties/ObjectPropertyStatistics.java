@@ -0,0 +1,369 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.properties;
+
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.rdf.model.*;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.*;
+
+/**
+ * A statistical profile of an object property p that is computed in a single scan over the triples of p.
+ * It contains all counts that are needed to score the different types of object property axioms, i.e. the
+ * learning algorithms do not have to send a separate COUNT query for each axiom type and candidate.
+ * <p>
+ * The profile is computed either on a local model or on a fragment fetched from a SPARQL endpoint which
+ * contains the triples of p, the types of their subjects and objects and all other triples that connect the
+ * same subject and object.
+ */
+public class ObjectPropertyStatistics {
+
+	private static final Logger logger = LoggerFactory.getLogger(ObjectPropertyStatistics.class);
+
+	private static final ParameterizedSparqlString FRAGMENT_QUERY = new ParameterizedSparqlString(
+			"CONSTRUCT {?s ?p ?o . ?s a ?st . ?o a ?ot . ?s ?p_other ?o .} WHERE {"
+			+ "{?s ?p ?o .} UNION "
+			+ "{?s ?p ?o . ?s a ?st .} UNION "
+			+ "{?s ?p ?o . ?o a ?ot .} UNION "
+			+ "{?s ?p ?o . ?s ?p_other ?o . FILTER(?p != ?p_other)}}");
+
+	private static final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final OWLObjectProperty property;
+
+	// |{(s,o) | p(s,o)}|
+	private int nrOfTriples = 0;
+	// |{s | p(s,o)}|
+	private int nrOfDistinctSubjects = 0;
+	// |{o | p(s,o)}|
+	private int nrOfDistinctObjects = 0;
+	// |{s | p(s,o) and there is no o' != o with p(s,o')}|
+	private int nrOfFunctionalSubjects = 0;
+	// |{o | p(s,o) and there is no s' != s with p(s',o)}|
+	private int nrOfInverseFunctionalObjects = 0;
+	// |{(s,o) | p(s,o) and p(o,s)}|
+	private int nrOfSymmetricTriples = 0;
+	// |{s | p(s,s)}|
+	private int nrOfReflexiveSubjects = 0;
+	// |{(s,o,o') | p(s,o) and p(o,o')}|
+	private int nrOfChains = 0;
+	// |{(s,o,o') | p(s,o) and p(o,o') and p(s,o')}|
+	private int nrOfClosedChains = 0;
+
+	private final Map<OWLClass, Integer> subjectTypeCounts = new TreeMap<>();
+	private final Map<OWLClass, Integer> objectTypeCounts = new TreeMap<>();
+	private final Map<OWLObjectProperty, Integer> cooccurrenceCounts = new TreeMap<>();
+
+	private ObjectPropertyStatistics(OWLObjectProperty property) {
+		this.property = property;
+	}
+
+	/**
+	 * Computes the statistics of the given property on a local model.
+	 *
+	 * @param model the model containing the data
+	 * @param property the object property
+	 * @return the statistics
+	 */
+	public static ObjectPropertyStatistics compute(Model model, OWLObjectProperty property) {
+		ObjectPropertyStatistics statistics = new ObjectPropertyStatistics(property);
+		statistics.scan(model);
+		return statistics;
+	}
+
+	/**
+	 * Computes the statistics of the given property on a SPARQL endpoint. The relevant fragment is fetched
+	 * page-wise and the statistics are computed locally afterwards.
+	 *
+	 * @param qef the query execution factory
+	 * @param property the object property
+	 * @param pageSize the number of triples fetched per request
+	 * @return the statistics
+	 */
+	public static ObjectPropertyStatistics compute(QueryExecutionFactory qef, OWLObjectProperty property, long pageSize) {
+		return compute(fetchFragment(qef, property, pageSize), property);
+	}
+
+	private static Model fetchFragment(QueryExecutionFactory qef, OWLObjectProperty property, long pageSize) {
+		logger.debug("Fetching fragment for property {} ...", property.toStringID());
+		long startTime = System.currentTimeMillis();
+
+		ParameterizedSparqlString queryTemplate = FRAGMENT_QUERY.copy();
+		queryTemplate.setIri("p", property.toStringID());
+		Query query = queryTemplate.asQuery();
+		query.setLimit(pageSize);
+
+		Model fragment = ModelFactory.createDefaultModel();
+		boolean isEmpty = false;
+		int i = 0;
+		while(!isEmpty) {
+			query.setOffset(i++ * pageSize);
+			try (QueryExecution qe = qef.createQueryExecution(query)) {
+				Model tmp = qe.execConstruct();
+				fragment.add(tmp);
+
+				// if last call returned empty model, we can leave loop
+				isEmpty = tmp.isEmpty();
+			}
+		}
+		logger.debug("...done in {}ms. Fragment size: {} triples",
+					 (System.currentTimeMillis() - startTime), fragment.size());
+		return fragment;
+	}
+
+	private void scan(Model model) {
+		Property p = model.createProperty(property.toStringID());
+
+		Map<Resource, Integer> subjectDegrees = new HashMap<>();
+		Map<RDFNode, Integer> objectDegrees = new HashMap<>();
+
+		StmtIterator iter = model.listStatements(null, p, (RDFNode) null);
+		while(iter.hasNext()) {
+			Statement st = iter.next();
+			Resource s = st.getSubject();
+			RDFNode o = st.getObject();
+
+			nrOfTriples++;
+			subjectDegrees.merge(s, 1, Integer::sum);
+			objectDegrees.merge(o, 1, Integer::sum);
+
+			if(s.equals(o)) {
+				nrOfReflexiveSubjects++;
+			}
+
+			if(o.isResource()) {
+				Resource oRes = o.asResource();
+
+				// symmetry witness
+				if(model.contains(oRes, p, s)) {
+					nrOfSymmetricTriples++;
+				}
+
+				// transitivity witnesses
+				NodeIterator chainIter = model.listObjectsOfProperty(oRes, p);
+				while(chainIter.hasNext()) {
+					RDFNode o2 = chainIter.next();
+					nrOfChains++;
+					if(model.contains(s, p, o2)) {
+						nrOfClosedChains++;
+					}
+				}
+
+				// other properties connecting the same pair
+				StmtIterator otherIter = model.listStatements(s, null, o);
+				while(otherIter.hasNext()) {
+					Property pOther = otherIter.next().getPredicate();
+					if(!pOther.equals(p) && !isBuiltIn(pOther)) {
+						cooccurrenceCounts.merge(df.getOWLObjectProperty(IRI.create(pOther.getURI())), 1, Integer::sum);
+					}
+				}
+			}
+		}
+		iter.close();
+
+		nrOfDistinctSubjects = subjectDegrees.size();
+		nrOfDistinctObjects = objectDegrees.size();
+
+		for (Map.Entry<Resource, Integer> entry : subjectDegrees.entrySet()) {
+			if(entry.getValue() == 1) {
+				nrOfFunctionalSubjects++;
+			}
+			addTypes(model, entry.getKey(), subjectTypeCounts);
+		}
+		for (Map.Entry<RDFNode, Integer> entry : objectDegrees.entrySet()) {
+			if(entry.getValue() == 1) {
+				nrOfInverseFunctionalObjects++;
+			}
+			if(entry.getKey().isResource()) {
+				addTypes(model, entry.getKey().asResource(), objectTypeCounts);
+			}
+		}
+	}
+
+	private static void addTypes(Model model, Resource r, Map<OWLClass, Integer> typeCounts) {
+		NodeIterator iter = model.listObjectsOfProperty(r, RDF.type);
+		while(iter.hasNext()) {
+			RDFNode type = iter.next();
+			if(type.isURIResource() && !isBuiltIn(type.asResource())) {
+				typeCounts.merge(df.getOWLClass(IRI.create(type.asResource().getURI())), 1, Integer::sum);
+			}
+		}
+	}
+
+	private static boolean isBuiltIn(Resource r) {
+		String uri = r.getURI();
+		return uri.startsWith(RDF.getURI()) || uri.startsWith(RDFS.getURI()) || uri.startsWith(OWL2.getURI());
+	}
+
+	/**
+	 * @return the object property the statistics belong to
+	 */
+	public OWLObjectProperty getProperty() {
+		return property;
+	}
+
+	/**
+	 * @return the number of triples of the property
+	 */
+	public int getNrOfTriples() {
+		return nrOfTriples;
+	}
+
+	/**
+	 * @return the number of distinct subjects
+	 */
+	public int getNrOfDistinctSubjects() {
+		return nrOfDistinctSubjects;
+	}
+
+	/**
+	 * @return the number of distinct objects
+	 */
+	public int getNrOfDistinctObjects() {
+		return nrOfDistinctObjects;
+	}
+
+	/**
+	 * @return the number of subjects that are related to exactly one object
+	 */
+	public int getNrOfFunctionalSubjects() {
+		return nrOfFunctionalSubjects;
+	}
+
+	/**
+	 * @return the number of subjects that violate functionality, i.e. are related to more than one object
+	 */
+	public int getNrOfFunctionalViolations() {
+		return nrOfDistinctSubjects - nrOfFunctionalSubjects;
+	}
+
+	/**
+	 * @return the number of objects that are related to exactly one subject
+	 */
+	public int getNrOfInverseFunctionalObjects() {
+		return nrOfInverseFunctionalObjects;
+	}
+
+	/**
+	 * @return the number of objects that violate inverse functionality, i.e. are related to more than one subject
+	 */
+	public int getNrOfInverseFunctionalViolations() {
+		return nrOfDistinctObjects - nrOfInverseFunctionalObjects;
+	}
+
+	/**
+	 * @return the number of triples p(s,o) for which also p(o,s) holds
+	 */
+	public int getNrOfSymmetricTriples() {
+		return nrOfSymmetricTriples;
+	}
+
+	/**
+	 * @return the number of triples p(s,o) for which p(o,s) does not hold
+	 */
+	public int getNrOfAsymmetricTriples() {
+		return nrOfTriples - nrOfSymmetricTriples;
+	}
+
+	/**
+	 * @return the number of subjects s with p(s,s)
+	 */
+	public int getNrOfReflexiveSubjects() {
+		return nrOfReflexiveSubjects;
+	}
+
+	/**
+	 * @return the number of subjects s without p(s,s)
+	 */
+	public int getNrOfIrreflexiveSubjects() {
+		return nrOfDistinctSubjects - nrOfReflexiveSubjects;
+	}
+
+	/**
+	 * @return the number of chains p(s,o), p(o,o')
+	 */
+	public int getNrOfChains() {
+		return nrOfChains;
+	}
+
+	/**
+	 * @return the number of chains p(s,o), p(o,o') for which also p(s,o') holds
+	 */
+	public int getNrOfClosedChains() {
+		return nrOfClosedChains;
+	}
+
+	/**
+	 * @return for each class the number of distinct subjects belonging to it
+	 */
+	public Map<OWLClass, Integer> getSubjectTypeCounts() {
+		return Collections.unmodifiableMap(subjectTypeCounts);
+	}
+
+	/**
+	 * @return for each class the number of distinct objects belonging to it
+	 */
+	public Map<OWLClass, Integer> getObjectTypeCounts() {
+		return Collections.unmodifiableMap(objectTypeCounts);
+	}
+
+	/**
+	 * @return for each other property p' the number of pairs (s,o) with p(s,o) and p'(s,o)
+	 */
+	public Map<OWLObjectProperty, Integer> getCooccurrenceCounts() {
+		return Collections.unmodifiableMap(cooccurrenceCounts);
+	}
+
+	/**
+	 * @param otherProperty the other property p'
+	 * @return the number of pairs (s,o) with p(s,o) and p'(s,o)
+	 */
+	public int getCooccurrenceCount(OWLObjectProperty otherProperty) {
+		return cooccurrenceCounts.getOrDefault(otherProperty, 0);
+	}
+
+	@Override
+	public String toString() {
+		return "ObjectPropertyStatistics(" + property.toStringID() + ")"
+				+ "\n#triples:" + nrOfTriples
+				+ "\n#subjects:" + nrOfDistinctSubjects
+				+ "\n#objects:" + nrOfDistinctObjects
+				+ "\n#functional violations:" + getNrOfFunctionalViolations()
+				+ "\n#inverse functional violations:" + getNrOfInverseFunctionalViolations()
+				+ "\n#symmetric triples:" + nrOfSymmetricTriples
+				+ "\n#reflexive subjects:" + nrOfReflexiveSubjects
+				+ "\n#chains:" + nrOfChains + " (closed:" + nrOfClosedChains + ")"
+				+ "\n#subject types:" + subjectTypeCounts.size()
+				+ "\n#object types:" + objectTypeCounts.size()
+				+ "\n#co-occurring properties:" + cooccurrenceCounts.size();
+	}
+}
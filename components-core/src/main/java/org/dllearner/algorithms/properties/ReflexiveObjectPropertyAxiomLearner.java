@@ -53,6 +53,14 @@ public class ReflexiveObjectPropertyAxiomLearner extends ObjectPropertyCharacter
 	protected OWLReflexiveObjectPropertyAxiom getAxiom(OWLObjectProperty property) {
 		return df.getOWLReflexiveObjectPropertyAxiom(property);
 	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.properties.ObjectPropertyCharacteristicsAxiomLearner#getPositiveExamplesFrequency(org.dllearner.algorithms.properties.ObjectPropertyStatistics)
+	 */
+	@Override
+	protected int getPositiveExamplesFrequency(ObjectPropertyStatistics statistics) {
+		return statistics.getNrOfReflexiveSubjects();
+	}
 	
 	
 }
@@ -50,4 +50,12 @@ public class SymmetricObjectPropertyAxiomLearner extends ObjectPropertyCharacter
 	protected OWLSymmetricObjectPropertyAxiom getAxiom(OWLObjectProperty property) {
 		return df.getOWLSymmetricObjectPropertyAxiom(property);
 	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.properties.ObjectPropertyCharacteristicsAxiomLearner#getPositiveExamplesFrequency(org.dllearner.algorithms.properties.ObjectPropertyStatistics)
+	 */
+	@Override
+	protected int getPositiveExamplesFrequency(ObjectPropertyStatistics statistics) {
+		return statistics.getNrOfSymmetricTriples();
+	}
 }
@@ -70,6 +70,14 @@ public class TransitiveObjectPropertyAxiomLearner extends ObjectPropertyCharacte
 	protected OWLTransitiveObjectPropertyAxiom getAxiom(OWLObjectProperty property) {
 		return df.getOWLTransitiveObjectPropertyAxiom(property);
 	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.properties.ObjectPropertyCharacteristicsAxiomLearner#getPositiveExamplesFrequency(org.dllearner.algorithms.properties.ObjectPropertyStatistics)
+	 */
+	@Override
+	protected int getPositiveExamplesFrequency(ObjectPropertyStatistics statistics) {
+		return statistics.getNrOfClosedChains();
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.dllearner.algorithms.properties.PropertyAxiomLearner#getSampleQuery()
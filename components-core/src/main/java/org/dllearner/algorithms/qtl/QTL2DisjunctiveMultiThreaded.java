@@ -37,6 +37,8 @@ import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
 import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
 import org.dllearner.algorithms.qtl.operations.lgg.*;
 import org.dllearner.algorithms.qtl.util.Entailment;
+import org.dllearner.algorithms.qtl.util.ExampleTreeCoverage;
+import org.dllearner.algorithms.qtl.util.QueryTreeSubsumptionChecker;
 import org.dllearner.algorithms.qtl.util.filters.PredicateExistenceFilterDBpedia;
 import org.dllearner.core.*;
 import org.dllearner.core.StringRenderer.Rendering;
@@ -158,6 +160,19 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 
 	private boolean useDisjunction = false;
 
+	@ConfigOption(defaultValue = "false", description = "whether to compute the coverage of trees with an in-memory index over the " +
+			"example trees, such that only candidate examples have to be checked for subsumption (simple entailment only)")
+	private boolean useCoverageIndex = false;
+
+
+	@ConfigOption(defaultValue = "false", description = "whether to reject most non-subsumed pairs of trees by precomputed summaries " +
+			"and to memoize the subsumption checks on structural fingerprints of the trees (simple entailment only)")
+	private boolean useSubsumptionChecker = false;
+
+	private QueryTreeSubsumptionChecker subsumptionChecker;
+
+	private ExampleTreeCoverage exampleTreeCoverage;
+
 	private int nrOfThreads = Runtime.getRuntime().availableProcessors();
 
 	public QTL2DisjunctiveMultiThreaded() {}
@@ -232,9 +247,20 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 			lggGenerator = new LGGGeneratorRDFS(reasoner);
 		}
 
+		subsumptionChecker = null;
+		if(useSubsumptionChecker && entailment == Entailment.SIMPLE) {
+			subsumptionChecker = new QueryTreeSubsumptionChecker();
+			((LGGGeneratorSimple) lggGenerator).setUseSubsumptionChecker(true);
+		}
+
 		// generate the query trees
 		generateQueryTrees();
 
+		// the coverage computation, which indexes the example trees if enabled
+		List<RDFResourceTree> exampleTrees = new ArrayList<>(currentPosExampleTrees);
+		exampleTrees.addAll(currentNegExampleTrees);
+		exampleTreeCoverage = new ExampleTreeCoverage(exampleTrees, entailment, reasoner, useCoverageIndex, subsumptionChecker);
+
 		startPosExamplesSize = currentPosExampleTrees.size();
 
 		//console rendering of class expressions
@@ -653,15 +679,19 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 	}
 
 	private EvaluatedRDFResourceTree evaluateSimple(RDFResourceTree tree, boolean useSpecifity){
+		// the tree might have been modified since it was checked the last time
+		if(subsumptionChecker != null) {
+			subsumptionChecker.invalidate(tree);
+		}
 		//1. get a score for the coverage = recall oriented
 		//compute positive examples which are not covered by LGG
-		List<RDFResourceTree> uncoveredPositiveExampleTrees = getUncoveredTrees(tree, currentPosExampleTrees);
+		List<RDFResourceTree> uncoveredPositiveExampleTrees = exampleTreeCoverage.getUncoveredTrees(tree, currentPosExampleTrees);
 		Set<OWLIndividual> uncoveredPosExamples = new TreeSet<>();
 		for (RDFResourceTree queryTree : uncoveredPositiveExampleTrees) {
 			uncoveredPosExamples.add(tree2Individual.get(queryTree));
 		}
 		//compute negative examples which are covered by LGG
-		Collection<RDFResourceTree> coveredNegativeExampleTrees = getCoveredTrees(tree, currentNegExampleTrees);
+		Collection<RDFResourceTree> coveredNegativeExampleTrees = exampleTreeCoverage.getCoveredTrees(tree, currentNegExampleTrees);
 		Set<OWLIndividual> coveredNegExamples = new TreeSet<>();
 		for (RDFResourceTree queryTree : coveredNegativeExampleTrees) {
 			coveredNegExamples.add(tree2Individual.get(queryTree));
@@ -719,6 +749,10 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 	 * @return a set of evaluated query trees
 	 */
 	private Set<EvaluatedRDFResourceTree> evaluate(RDFResourceTree tree, boolean useSpecifity){
+		// the tree might have been modified since it was checked the last time
+		if(subsumptionChecker != null) {
+			subsumptionChecker.invalidate(tree);
+		}
 		Set<EvaluatedRDFResourceTree> evaluatedTrees = new TreeSet<>();
 
 		LiteralNodeSubsumptionStrategy[] strategies = LiteralNodeSubsumptionStrategy.values();
@@ -728,6 +762,8 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 //				LiteralNodeSubsumptionStrategy.MIN,
 //				LiteralNodeSubsumptionStrategy.MAX,
 				};
+		// the examples which can be covered by the tree at all
+		BitSet candidates = exampleTreeCoverage.getCandidates(tree);
 		for (LiteralNodeSubsumptionStrategy strategy : strategies) {
 			// 1. get a score for the coverage = recall oriented
 			List<RDFResourceTree> uncoveredPositiveExampleTrees = new ArrayList<>();
@@ -736,7 +772,7 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 			// compute positive examples which are not covered by LGG
 			for (RDFResourceTree posTree : currentPosExampleTrees) {
 //				System.out.print(currentPosExampleTrees.indexOf(posTree) + ":");
-				if(!QueryTreeUtils.isSubsumedBy(posTree, tree, entailment, reasoner)){
+				if(!exampleTreeCoverage.isCovered(posTree, tree, candidates)){
 //					System.err.println(posTree.getStringRepresentation(true));System.err.println(tree.getStringRepresentation(true));
 //					System.out.println("FALSE");
 					uncoveredPositiveExampleTrees.add(posTree);
@@ -747,7 +783,7 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 
 			// compute negative examples which are covered by LGG
 			for (RDFResourceTree negTree : currentNegExampleTrees) {
-				if(QueryTreeUtils.isSubsumedBy(negTree, tree, entailment, reasoner)){
+				if(exampleTreeCoverage.isCovered(negTree, tree, candidates)){
 					coveredNegativeExampleTrees.add(negTree);
 				}
 			}
@@ -1016,38 +1052,6 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 		return trees;
 	}
 
-	/**
-	 * Computes all trees from the given list {@code allTrees} which are subsumed by {@code tree}.
-	 * @param tree the tree
-	 * @param trees all trees
-	 * @return all trees from the given list {@code allTrees} which are subsumed by {@code tree}
-	 */
-	private List<RDFResourceTree> getCoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
-		List<RDFResourceTree> coveredTrees = new ArrayList<>();
-		for (RDFResourceTree queryTree : trees) {
-			if(QueryTreeUtils.isSubsumedBy(queryTree, tree)){
-				coveredTrees.add(queryTree);
-			}
-		}
-		return coveredTrees;
-	}
-
-	/**
-	 * Computes all trees from the given list {@code trees} which are not subsumed by {@code tree}.
-	 * @param tree the tree
-	 * @param trees the trees
-	 * @return all trees from the given list {@code trees} which are not subsumed by {@code tree}.
-	 */
-	private List<RDFResourceTree> getUncoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
-		List<RDFResourceTree> uncoveredTrees = new ArrayList<>();
-		for (RDFResourceTree queryTree : trees) {
-			if(!QueryTreeUtils.isSubsumedBy(queryTree, tree)){
-				uncoveredTrees.add(queryTree);
-			}
-		}
-		return uncoveredTrees;
-	}
-
 	private boolean terminationCriteriaSatisfied() {
 		//stop was called or time expired
 		if(stop || isTimeExpired()){
@@ -1210,6 +1214,21 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 		this.maxTreeDepth = maxTreeDepth;
 	}
 	
+	/**
+	 * @param useCoverageIndex whether to compute the coverage of trees with an index over the example trees
+	 */
+	public void setUseCoverageIndex(boolean useCoverageIndex) {
+		this.useCoverageIndex = useCoverageIndex;
+	}
+	
+	/**
+	 * @param useSubsumptionChecker whether to accelerate the subsumption checks between trees by precomputed
+	 * summaries and memoization
+	 */
+	public void setUseSubsumptionChecker(boolean useSubsumptionChecker) {
+		this.useSubsumptionChecker = useSubsumptionChecker;
+	}
+	
 	/**
 	 * @return the runtime in ms until the best solution was found
 	 */
@@ -31,6 +31,7 @@ import org.apache.jena.riot.RDFDataMgr;
 import org.dllearner.algorithms.qtl.QueryTreeUtils;
 import org.dllearner.algorithms.qtl.datastructures.NodeInv;
 import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.util.QueryTreeSubsumptionChecker;
 
 import java.io.ByteArrayInputStream;
 import java.io.StringReader;
@@ -48,6 +49,25 @@ import java.util.stream.Collectors;
  */
 public class LGGGeneratorSimple extends AbstractLGGGenerator {
 
+	private QueryTreeSubsumptionChecker subsumptionChecker;
+
+	/**
+	 * @param useSubsumptionChecker whether to decide the subsumption of subtrees with a
+	 * {@link QueryTreeSubsumptionChecker} instead of the plain recursive check
+	 */
+	public void setUseSubsumptionChecker(boolean useSubsumptionChecker) {
+		this.subsumptionChecker = useSubsumptionChecker ? new QueryTreeSubsumptionChecker() : null;
+	}
+
+	@Override
+	public RDFResourceTree getLGG(RDFResourceTree tree1, RDFResourceTree tree2, boolean learnFilters) {
+		// the input trees might have been modified since the last call
+		if(subsumptionChecker != null) {
+			subsumptionChecker.clear();
+		}
+		return super.getLGG(tree1, tree2, learnFilters);
+	}
+
 	@Override
 	protected Set<Triple<Node, Node, Node>> getRelatedEdges(RDFResourceTree tree1, RDFResourceTree tree2) {
 		return Sets.intersection(tree1.getEdges(), tree2.getEdges())
@@ -58,6 +78,9 @@ public class LGGGeneratorSimple extends AbstractLGGGenerator {
 
 	@Override
 	protected boolean isSubTreeOf(RDFResourceTree tree1, RDFResourceTree tree2) {
+		if(subsumptionChecker != null) {
+			return subsumptionChecker.isSubsumedBy(tree1, tree2);
+		}
 		return QueryTreeUtils.isSubsumedBy(tree1, tree2);
 	}
 
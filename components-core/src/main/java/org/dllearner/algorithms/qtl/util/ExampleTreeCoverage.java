@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.util;
+
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.core.AbstractReasonerComponent;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Computes the coverage of query trees on the example trees of a learning algorithm. Under simple entailment,
+ * the example trees can be indexed by a {@link QueryTreeCoverageIndex}, such that only the candidate examples
+ * are checked for subsumption, and the subsumption checks can be done by a {@link QueryTreeSubsumptionChecker}.
+ * Trees which were not passed to the constructor, e.g. examples added later, are always checked directly.
+ */
+public class ExampleTreeCoverage {
+
+	private final Entailment entailment;
+	private final AbstractReasonerComponent reasoner;
+	private final QueryTreeCoverageIndex index;
+	private final QueryTreeSubsumptionChecker subsumptionChecker;
+
+	/**
+	 * @param exampleTrees the example trees
+	 * @param entailment the entailment used for the subsumption checks
+	 * @param reasoner the reasoner used for the subsumption checks under RDFS entailment
+	 * @param useIndex whether to index the example trees, which is only done for simple entailment
+	 * @param subsumptionChecker the checker used for the subsumption checks under simple entailment, or
+	 * {@code null} to check them directly
+	 */
+	public ExampleTreeCoverage(List<RDFResourceTree> exampleTrees, Entailment entailment,
+							   AbstractReasonerComponent reasoner, boolean useIndex,
+							   QueryTreeSubsumptionChecker subsumptionChecker) {
+		this.entailment = entailment;
+		this.reasoner = reasoner;
+		this.index = useIndex && entailment == Entailment.SIMPLE ? new QueryTreeCoverageIndex(exampleTrees) : null;
+		this.subsumptionChecker = entailment == Entailment.SIMPLE ? subsumptionChecker : null;
+	}
+
+	/**
+	 * Computes a superset of the example trees which are covered by the given tree. The result has to be
+	 * computed once per tree and can then be passed to {@link #isCovered(RDFResourceTree, RDFResourceTree, BitSet)}.
+	 * @param tree the tree
+	 * @return the candidates, or {@code null} if no index is used
+	 */
+	public BitSet getCandidates(RDFResourceTree tree) {
+		return index != null ? index.getCandidates(tree) : null;
+	}
+
+	/**
+	 * Checks whether the example tree is subsumed by the given tree under the entailment. Examples which are
+	 * not among the candidates are rejected without the subsumption check.
+	 * @param exampleTree the example tree
+	 * @param tree the tree
+	 * @param candidates the candidates computed by {@link #getCandidates(RDFResourceTree)}
+	 * @return whether the example tree is subsumed by the given tree
+	 */
+	public boolean isCovered(RDFResourceTree exampleTree, RDFResourceTree tree, BitSet candidates) {
+		if (candidates != null && !index.isCandidate(exampleTree, candidates)) {
+			return false;
+		}
+		if (entailment == Entailment.SIMPLE) {
+			return isSubsumedBy(exampleTree, tree);
+		}
+		return QueryTreeUtils.isSubsumedBy(exampleTree, tree, entailment, reasoner);
+	}
+
+	/**
+	 * Computes all trees from the given list {@code trees} which are subsumed by {@code tree} under simple
+	 * entailment.
+	 * @param tree the tree
+	 * @param trees the trees
+	 * @return all trees from the given list {@code trees} which are subsumed by {@code tree}
+	 */
+	public List<RDFResourceTree> getCoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees) {
+		return filter(tree, trees, true);
+	}
+
+	/**
+	 * Computes all trees from the given list {@code trees} which are not subsumed by {@code tree} under simple
+	 * entailment.
+	 * @param tree the tree
+	 * @param trees the trees
+	 * @return all trees from the given list {@code trees} which are not subsumed by {@code tree}
+	 */
+	public List<RDFResourceTree> getUncoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees) {
+		return filter(tree, trees, false);
+	}
+
+	private List<RDFResourceTree> filter(RDFResourceTree tree, List<RDFResourceTree> trees, boolean covered) {
+		BitSet candidates = getCandidates(tree);
+		List<RDFResourceTree> result = new ArrayList<>();
+		for (RDFResourceTree t : trees) {
+			boolean subsumed = (candidates == null || index.isCandidate(t, candidates)) && isSubsumedBy(t, tree);
+			if (subsumed == covered) {
+				result.add(t);
+			}
+		}
+		return result;
+	}
+
+	private boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2) {
+		if (subsumptionChecker != null) {
+			return subsumptionChecker.isSubsumedBy(tree1, tree2);
+		}
+		return QueryTreeUtils.isSubsumedBy(tree1, tree2);
+	}
+}
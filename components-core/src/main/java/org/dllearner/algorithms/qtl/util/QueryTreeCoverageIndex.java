@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.util;
+
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+
+import java.util.*;
+
+/**
+ * An in-memory index over a fixed list of example query trees that is used to compute which of the examples are
+ * covered by (i.e. subsumed by) a query tree under simple entailment.
+ * <p>
+ * For each path of the example trees, the index holds a bitset of the examples that contain the path, and for
+ * each resource at the end of the path a bitset of the examples containing it there. The paths and resources
+ * are those of the {@link QueryTreeSummary} of the trees, which is also used by
+ * {@link QueryTreeSubsumptionChecker}. The paths and resources required by a query tree give a necessary
+ * condition for the subsumption, so intersecting the bitsets yields a superset of the covered examples. Only
+ * those candidates are checked with {@link QueryTreeUtils#isSubsumedBy(RDFResourceTree, RDFResourceTree)},
+ * because the bitsets can not tell whether sibling edges of the query tree are matched by the same node of an
+ * example tree.
+ */
+public class QueryTreeCoverageIndex {
+
+	private final List<RDFResourceTree> trees;
+	private final Map<RDFResourceTree, Integer> tree2Index = new IdentityHashMap<>();
+	// the examples containing a path
+	private final Map<Long, BitSet> paths = new HashMap<>();
+	// the examples containing a resource at the end of a path
+	private final Map<Long, BitSet> resources = new HashMap<>();
+	// the examples having a literal or blank node at the end of a path, those can be subsumed by any resource
+	private final Map<Long, BitSet> wildcardPaths = new HashMap<>();
+
+	/**
+	 * @param trees the example trees
+	 */
+	public QueryTreeCoverageIndex(List<RDFResourceTree> trees) {
+		this.trees = new ArrayList<>(trees);
+		for (int i = 0; i < this.trees.size(); i++) {
+			RDFResourceTree tree = this.trees.get(i);
+			tree2Index.put(tree, i);
+			QueryTreeSummary summary = new QueryTreeSummary(tree);
+			index(summary.paths, paths, i);
+			index(summary.resources, resources, i);
+			index(summary.wildcardPaths, wildcardPaths, i);
+		}
+	}
+
+	private static void index(Set<Long> keys, Map<Long, BitSet> index, int example) {
+		for (Long key : keys) {
+			index.computeIfAbsent(key, k -> new BitSet()).set(example);
+		}
+	}
+
+	/**
+	 * @return the number of indexed example trees
+	 */
+	public int size() {
+		return trees.size();
+	}
+
+	/**
+	 * Computes a superset of the indexes of the example trees that are subsumed by the given tree.
+	 * @param tree the tree
+	 * @return the indexes of the candidate example trees
+	 */
+	public BitSet getCandidates(RDFResourceTree tree) {
+		QueryTreeSummary summary = new QueryTreeSummary(tree);
+		BitSet candidates = new BitSet();
+		candidates.set(0, trees.size());
+		// the example must have all required paths ...
+		for (Long path : summary.requiredPaths) {
+			BitSet examples = paths.get(path);
+			if (examples == null) {
+				candidates.clear();
+				return candidates;
+			}
+			candidates.and(examples);
+		}
+		// ... and the same resources, or literals or blank nodes, at their ends
+		for (long[] resource : summary.requiredResources) {
+			if (candidates.isEmpty()) {
+				break;
+			}
+			BitSet matching = new BitSet();
+			BitSet wildcards = wildcardPaths.get(resource[0]);
+			if (wildcards != null) {
+				matching.or(wildcards);
+			}
+			BitSet examples = resources.get(resource[1]);
+			if (examples != null) {
+				matching.or(examples);
+			}
+			candidates.and(matching);
+		}
+		return candidates;
+	}
+
+	/**
+	 * @param tree the example tree
+	 * @param candidates the candidates computed by {@link #getCandidates(RDFResourceTree)}
+	 * @return whether the example tree is among the candidates, trees which are not contained in the index
+	 * always are
+	 */
+	public boolean isCandidate(RDFResourceTree tree, BitSet candidates) {
+		Integer index = tree2Index.get(tree);
+		return index == null || candidates.get(index);
+	}
+
+	/**
+	 * Computes the indexes of the example trees that are subsumed by the given tree.
+	 * @param tree the tree
+	 * @return the indexes of the covered example trees
+	 */
+	public BitSet getCovered(RDFResourceTree tree) {
+		BitSet covered = getCandidates(tree);
+		for (int i = covered.nextSetBit(0); i >= 0; i = covered.nextSetBit(i + 1)) {
+			if (!QueryTreeUtils.isSubsumedBy(trees.get(i), tree)) {
+				covered.clear(i);
+			}
+		}
+		return covered;
+	}
+
+	/**
+	 * Computes all trees from the given list {@code trees} which are subsumed by {@code tree}. Trees which are
+	 * not contained in the index are checked directly.
+	 * @param tree the tree
+	 * @param trees the trees
+	 * @return all trees from the given list {@code trees} which are subsumed by {@code tree}
+	 */
+	public List<RDFResourceTree> getCoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees) {
+		return filter(tree, trees, true);
+	}
+
+	/**
+	 * Computes all trees from the given list {@code trees} which are not subsumed by {@code tree}. Trees which
+	 * are not contained in the index are checked directly.
+	 * @param tree the tree
+	 * @param trees the trees
+	 * @return all trees from the given list {@code trees} which are not subsumed by {@code tree}
+	 */
+	public List<RDFResourceTree> getUncoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees) {
+		return filter(tree, trees, false);
+	}
+
+	private List<RDFResourceTree> filter(RDFResourceTree tree, List<RDFResourceTree> trees, boolean covered) {
+		BitSet candidates = getCandidates(tree);
+		List<RDFResourceTree> result = new ArrayList<>();
+		for (RDFResourceTree t : trees) {
+			boolean subsumed = isCandidate(t, candidates) && QueryTreeUtils.isSubsumedBy(t, tree);
+			if (subsumed == covered) {
+				result.add(t);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.jena.graph.Node;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Decides the subsumption of query trees under simple entailment, i.e. the same as
+ * {@link QueryTreeUtils#isSubsumedBy(RDFResourceTree, RDFResourceTree)}, but avoids the recursive check for
+ * most pairs of trees.
+ * <p>
+ * For each tree a {@link QueryTreeSummary} is computed once, i.e. the edge label paths and the resources at the
+ * end of the paths, and the paths and resources a subsumed tree must contain. A pair is rejected if the more
+ * specific tree lacks a required path or resource. Otherwise the result of the recursive check is memoized on
+ * canonical forms of both trees, i.e. serializations which are independent of the names of variables and the
+ * order of children, so structurally equal trees, e.g. the same LGG computed twice, are only checked once.
+ * <p>
+ * The summaries are cached per tree instance, thus trees must not be modified after they have been checked,
+ * unless {@link #invalidate(RDFResourceTree)} or {@link #clear()} is called.
+ */
+public class QueryTreeSubsumptionChecker {
+
+	private static class Summary {
+		final QueryTreeSummary paths;
+		final String canonicalForm;
+
+		Summary(QueryTreeSummary paths, String canonicalForm) {
+			this.paths = paths;
+			this.canonicalForm = canonicalForm;
+		}
+	}
+
+	private final Cache<RDFResourceTree, Summary> summaries = CacheBuilder.newBuilder().weakKeys().build();
+	private final Cache<Pair<String, String>, Boolean> results;
+
+	public QueryTreeSubsumptionChecker() {
+		this(100000);
+	}
+
+	/**
+	 * @param maxCachedResults the maximum number of memoized results of the recursive check
+	 */
+	public QueryTreeSubsumptionChecker(int maxCachedResults) {
+		results = CacheBuilder.newBuilder().maximumSize(maxCachedResults).build();
+	}
+
+	/**
+	 * Determines if tree1 is subsumed by tree2, i.e. whether tree2 is more general than tree1.
+	 * @param tree1 the first query tree
+	 * @param tree2 the second query tree
+	 * @return whether <code>tree1</code> is subsumed by <code>tree2</code>
+	 */
+	public boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2) {
+		Summary summary1 = getSummary(tree1);
+		Summary summary2 = getSummary(tree2);
+
+		if (!summary1.paths.mayBeSubsumedBy(summary2.paths)) {
+			return false;
+		}
+
+		Pair<String, String> key = Pair.of(summary1.canonicalForm, summary2.canonicalForm);
+		Boolean result = results.getIfPresent(key);
+		if (result == null) {
+			result = QueryTreeUtils.isSubsumedBy(tree1, tree2);
+			results.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Drops the summary of the tree, which is necessary if the tree has been modified.
+	 * @param tree the tree
+	 */
+	public void invalidate(RDFResourceTree tree) {
+		summaries.invalidate(tree);
+	}
+
+	/**
+	 * Drops the summaries of all trees. The memoized results are kept, as they only depend on the
+	 * structure of the trees.
+	 */
+	public void clear() {
+		summaries.invalidateAll();
+	}
+
+	private Summary getSummary(RDFResourceTree tree) {
+		try {
+			return summaries.get(tree, () -> summarize(tree));
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Failed to compute summary of tree " + tree, e.getCause());
+		}
+	}
+
+	private Summary summarize(RDFResourceTree tree) {
+		return new Summary(new QueryTreeSummary(tree), canonicalForm(tree));
+	}
+
+	// labels are prefixed with their length, so the serialization is unambiguous
+	private String canonicalForm(RDFResourceTree node) {
+		StringBuilder sb = new StringBuilder();
+		if (node.isVarNode()) {
+			// the names of variables are not relevant for the subsumption
+			sb.append('?');
+		} else {
+			String label = node.getData().toString();
+			if (node.isLiteralNode() && !node.isLiteralValueNode() && node.getDatatype() != null) {
+				label += "^^" + node.getDatatype().getURI();
+			}
+			appendLabel(sb, label);
+		}
+		sb.append('(');
+		for (Node edge : node.getEdges()) {
+			appendLabel(sb, edge.toString());
+			// the order of the children doesn't matter
+			List<String> children = new ArrayList<>();
+			for (RDFResourceTree child : node.getChildren(edge)) {
+				children.add(canonicalForm(child));
+			}
+			Collections.sort(children);
+			sb.append('[');
+			children.forEach(sb::append);
+			sb.append(']');
+		}
+		return sb.append(')').toString();
+	}
+
+	private static void appendLabel(StringBuilder sb, String label) {
+		sb.append(label.length()).append(':').append(label);
+	}
+}
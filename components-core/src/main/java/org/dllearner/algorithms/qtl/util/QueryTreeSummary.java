@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.util;
+
+import org.apache.jena.graph.Node;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The edge label paths of a query tree and the resources at the end of the paths, as hashes, together with
+ * the paths and resources a tree must contain to be subsumed by it under simple entailment: a resource node
+ * can only subsume a node with the same resource (or a literal or blank node), a var node only a node having
+ * all of its edges. This is a necessary condition for the subsumption, which is used by
+ * {@link QueryTreeSubsumptionChecker} and {@link QueryTreeCoverageIndex} to reject trees early.
+ * <p>
+ * Paths and resources are hashed, so a collision can only make the condition weaker.
+ */
+class QueryTreeSummary {
+
+	// number of longs of the path signature, i.e. 256 bits
+	private static final int SIGNATURE_LENGTH = 4;
+	private static final long ROOT_PATH = 0x9E3779B97F4A7C15L;
+
+	// all paths of the tree
+	final long[] pathSignature = new long[SIGNATURE_LENGTH];
+	final Set<Long> paths = new HashSet<>();
+	// the resources at the end of the paths
+	final Set<Long> resources = new HashSet<>();
+	// the paths ending in a literal or blank node, those can be subsumed by any resource
+	final Set<Long> wildcardPaths = new HashSet<>();
+
+	// the paths and resources a tree subsumed by this tree must contain, the required resources
+	// are pairs of the path and the resource hash
+	final long[] requiredPathSignature = new long[SIGNATURE_LENGTH];
+	final List<Long> requiredPaths = new ArrayList<>();
+	final List<long[]> requiredResources = new ArrayList<>();
+
+	/**
+	 * @param tree the tree
+	 */
+	QueryTreeSummary(RDFResourceTree tree) {
+		collect(tree, ROOT_PATH);
+		require(tree, ROOT_PATH);
+	}
+
+	/**
+	 * @param other the summary of another tree
+	 * @return whether the other tree contains all paths and resources required by this tree
+	 */
+	boolean mayBeSubsumedBy(QueryTreeSummary other) {
+		for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+			if ((other.requiredPathSignature[i] & ~pathSignature[i]) != 0) {
+				return false;
+			}
+		}
+		for (Long path : other.requiredPaths) {
+			if (!paths.contains(path)) {
+				return false;
+			}
+		}
+		for (long[] resource : other.requiredResources) {
+			if (!resources.contains(resource[1]) && !wildcardPaths.contains(resource[0])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void collect(RDFResourceTree node, long path) {
+		if (node.isResourceNode()) {
+			resources.add(resource(path, node.getData()));
+		} else if (!node.isVarNode()) {
+			wildcardPaths.add(path);
+		}
+		for (Node edge : node.getEdges()) {
+			long childPath = child(path, edge);
+			paths.add(childPath);
+			setBits(pathSignature, childPath);
+			for (RDFResourceTree child : node.getChildren(edge)) {
+				collect(child, childPath);
+			}
+		}
+	}
+
+	private void require(RDFResourceTree node, long path) {
+		if (node.isResourceNode()) {
+			requiredResources.add(new long[]{path, resource(path, node.getData())});
+		} else if (node.isVarNode()) {
+			for (Node edge : node.getEdges()) {
+				long childPath = child(path, edge);
+				requiredPaths.add(childPath);
+				setBits(requiredPathSignature, childPath);
+				for (RDFResourceTree child : node.getChildren(edge)) {
+					require(child, childPath);
+				}
+			}
+		}
+	}
+
+	private static long child(long path, Node edge) {
+		return mix(path * 31 + edge.hashCode());
+	}
+
+	private static long resource(long path, Node resource) {
+		return mix(path * 31 + resource.hashCode());
+	}
+
+	private static void setBits(long[] signature, long hash) {
+		int bit1 = (int) (hash & 0xFF);
+		int bit2 = (int) ((hash >>> 8) & 0xFF);
+		signature[bit1 >>> 6] |= 1L << (bit1 & 63);
+		signature[bit2 >>> 6] |= 1L << (bit2 & 63);
+	}
+
+	// finalizer of SplitMix64
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
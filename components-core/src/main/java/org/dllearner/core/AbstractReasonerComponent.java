@@ -42,6 +42,7 @@ import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -136,6 +137,16 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	protected boolean precomputeObjectPropertyRanges = true;
 	protected Map<OWLObjectProperty, OWLClassExpression> objectPropertyRanges = new HashMap<>();
 
+	@ConfigOption(description = "whether to cache the results of subsumption, equivalence and disjointness checks " +
+			"of class expressions", defaultValue = "false")
+	protected boolean useSubsumptionCache = false;
+
+	@ConfigOption(description = "the maximum number of results in the subsumption cache", defaultValue = "100000")
+	protected int subsumptionCacheSize = 100000;
+
+	private volatile SubsumptionCache subsumptionCache;
+	private final Set<Runnable> subsumptionCacheInvalidationListeners = new CopyOnWriteArraySet<>();
+
 	/**
 	 * The underlying knowledge sources.
 	 */
@@ -188,6 +199,48 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	 */
 	public void changeSources(Set<KnowledgeSource> sources) {
 		this.sources = sources;
+		clearSubsumptionCache();
+	}
+
+	/**
+	 * Returns the cache of subsumption, equivalence and disjointness checks shared by all users of the reasoner.
+	 *
+	 * @return the cache, or <code>null</code> if caching is disabled
+	 */
+	public SubsumptionCache getSubsumptionCache() {
+		if (useSubsumptionCache && subsumptionCache == null) {
+			synchronized (this) {
+				if (subsumptionCache == null) {
+					subsumptionCache = new SubsumptionCache(subsumptionCacheSize);
+				}
+			}
+		}
+		return subsumptionCache;
+	}
+
+	/**
+	 * Removes all results from the subsumption cache and notifies the invalidation listeners. This has to be
+	 * called whenever the ontology changes.
+	 */
+	public void clearSubsumptionCache() {
+		if (subsumptionCache != null) {
+			subsumptionCache.invalidate();
+		}
+		subsumptionCacheInvalidationListeners.forEach(Runnable::run);
+	}
+
+	/**
+	 * Adds a listener which is called whenever the subsumption cache of this reasoner is cleared, e.g. by a
+	 * reasoner wrapping this one to clear its own cache after changes of the ontology.
+	 *
+	 * @param listener the listener
+	 */
+	public void addSubsumptionCacheInvalidationListener(Runnable listener) {
+		subsumptionCacheInvalidationListeners.add(listener);
+	}
+
+	public void removeSubsumptionCacheInvalidationListener(Runnable listener) {
+		subsumptionCacheInvalidationListeners.remove(listener);
 	}
 
 	/**
@@ -269,7 +322,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		if(precomputeClassHierarchy) {
 			if(superClass.isAnonymous() || subClass.isAnonymous()) {
 				try {
-					result = isSuperClassOfImpl(superClass, subClass);
+					result = isSuperClassOfCached(superClass, subClass);
 				} catch (ReasoningMethodUnsupportedException e) {
 					e.printStackTrace();
 				}
@@ -278,7 +331,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			}
 		} else {
 			try {
-				result = isSuperClassOfImpl(superClass, subClass);
+				result = isSuperClassOfCached(superClass, subClass);
 			} catch (ReasoningMethodUnsupportedException e) {
 				e.printStackTrace();
 			}
@@ -293,6 +346,20 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		return result;
 	}
 
+	private boolean isSuperClassOfCached(OWLClassExpression superClass, OWLClassExpression subClass)
+			throws ReasoningMethodUnsupportedException {
+		SubsumptionCache cache = getSubsumptionCache();
+		if (cache == null) {
+			return isSuperClassOfImpl(superClass, subClass);
+		}
+		Boolean result = cache.getSuperClassOf(superClass, subClass);
+		if (result == null) {
+			result = isSuperClassOfImpl(superClass, subClass);
+			cache.putSuperClassOf(superClass, subClass, result);
+		}
+		return result;
+	}
+
 	protected boolean isSuperClassOfImpl(OWLClassExpression superConcept, OWLClassExpression subConcept)
 			throws ReasoningMethodUnsupportedException {
 		throw new ReasoningMethodUnsupportedException();
@@ -303,7 +370,16 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		reasoningStartTimeTmp = System.nanoTime();
 		boolean result = false;
 		try {
-			result = isEquivalentClassImpl(class1, class2);
+			SubsumptionCache cache = getSubsumptionCache();
+			Boolean cached = cache != null ? cache.getEquivalentClass(class1, class2) : null;
+			if (cached != null) {
+				result = cached;
+			} else {
+				result = isEquivalentClassImpl(class1, class2);
+				if (cache != null) {
+					cache.putEquivalentClass(class1, class2, result);
+				}
+			}
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
@@ -326,7 +402,16 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		reasoningStartTimeTmp = System.nanoTime();
 		boolean result = false;
 		try {
-			result = isDisjointImpl(class1, class2);
+			SubsumptionCache cache = getSubsumptionCache();
+			Boolean cached = cache != null ? cache.getDisjoint(class1, class2) : null;
+			if (cached != null) {
+				result = cached;
+			} else {
+				result = isDisjointImpl(class1, class2);
+				if (cache != null) {
+					cache.putDisjoint(class1, class2, result);
+				}
+			}
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
@@ -340,6 +425,21 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		return result;
 	}
 
+	/**
+	 * Checks whether the intersection of both class expressions is unsatisfiable, i.e. subsumed by
+	 * <code>owl:Nothing</code>. In contrast to {@link #isDisjoint(OWLClass, OWLClass)}, this does not depend on the
+	 * disjointness semantics of the reasoner, e.g. the instance based one of the closed world reasoner. The result
+	 * is cached as subsumption check if the subsumption cache is enabled.
+	 *
+	 * @param ce1 the first class expression
+	 * @param ce2 the second class expression
+	 * @return whether both class expressions are disjoint
+	 */
+	public boolean isDisjointLogical(OWLClassExpression ce1, OWLClassExpression ce2) {
+		// the operands of the intersection are sorted, thus the cache key doesn't depend on the order
+		return isSuperClassOf(df.getOWLNothing(), df.getOWLObjectIntersectionOf(ce1, ce2));
+	}
+
 	protected boolean isDisjointImpl(OWLClass superConcept, OWLClass subConcept)
 			throws ReasoningMethodUnsupportedException {
 		throw new ReasoningMethodUnsupportedException();
@@ -459,20 +559,27 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean hasType(OWLClassExpression concept, OWLIndividual s) {
-		reasoningStartTimeTmp = System.nanoTime();
+		// instance checks may be done concurrently, thus, the time is measured locally
+		long startTime = System.nanoTime();
 		boolean result = false;
 		try {
 			result = hasTypeImpl(concept, s);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfInstanceChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		instanceCheckReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		addInstanceChecks(1, false, System.nanoTime() - startTime);
 		return result;
 	}
 
+	private synchronized void addInstanceChecks(int nrOfChecks, boolean multiple, long durationNs) {
+		nrOfInstanceChecks += nrOfChecks;
+		if (multiple) {
+			nrOfMultiInstanceChecks++;
+		}
+		instanceCheckReasoningTimeNs += durationNs;
+		overallReasoningTimeNs += durationNs;
+	}
+
 	protected boolean hasTypeImpl(OWLClassExpression concept, OWLIndividual individual)
 			throws ReasoningMethodUnsupportedException {
 		throw new ReasoningMethodUnsupportedException();
@@ -481,18 +588,14 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@Override
 	public final SortedSet<OWLIndividual> hasType(OWLClassExpression concept, Set<OWLIndividual> s) {
 		// logger.debug("instanceCheck "+concept.toKBSyntaxString());
-		reasoningStartTimeTmp = System.nanoTime();
+		long startTime = System.nanoTime();
 		SortedSet<OWLIndividual> result = null;
 		try {
 			result = hasTypeImpl(concept, s);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfInstanceChecks += s.size();
-		nrOfMultiInstanceChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		instanceCheckReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		addInstanceChecks(s.size(), true, System.nanoTime() - startTime);
 		// logger.debug("instanceCheck done");
 		return result;
 	}
@@ -1607,17 +1710,14 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	
 	@Override
 	public double hasTypeFuzzyMembership(OWLClassExpression description, FuzzyIndividual individual) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long startTime = System.nanoTime();
 		double result = -1;
 		try {
 			result = hasTypeFuzzyMembershipImpl(description, individual);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfInstanceChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		instanceCheckReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		addInstanceChecks(1, false, System.nanoTime() - startTime);
 		return result;		
 	}
 
@@ -1646,4 +1746,16 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	public void setUseInstanceChecks(boolean useInstanceChecks) {
 		this.useInstanceChecks = useInstanceChecks;
 	}
+
+	public boolean isUseSubsumptionCache() {
+		return useSubsumptionCache;
+	}
+
+	public void setUseSubsumptionCache(boolean useSubsumptionCache) {
+		this.useSubsumptionCache = useSubsumptionCache;
+	}
+
+	public void setSubsumptionCacheSize(int subsumptionCacheSize) {
+		this.subsumptionCacheSize = subsumptionCacheSize;
+	}
 }
\ No newline at end of file
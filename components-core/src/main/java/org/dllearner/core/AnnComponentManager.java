@@ -26,6 +26,7 @@ import org.dllearner.core.config.ConfigOption;
 import org.dllearner.accuracymethods.AccMethod;
 import org.dllearner.refinementoperators.RefinementOperator;
 import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +34,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.net.URL;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -121,8 +123,35 @@ public class AnnComponentManager {
 
 	private static AnnComponentManager cm = null;
 	private static Reflections reflectionScanner = null;
+	// the index of the components found without scanning, if any
+	private static ComponentIndex componentIndex = null;
+
+	/**
+	 * System property to scan the whole classpath for components even if there is a component index.
+	 */
+	public static final String SCAN_COMPONENTS_PROPERTY = "dllearner.components.scan";
 
 	private AnnComponentManager() {
+		componentIndex = null;
+		// use the component index generated at build time if available, as scanning the classpath is slow
+		if (componentClassNames == null && reflectionScanner == null && !Boolean.getBoolean(SCAN_COMPONENTS_PROPERTY)) {
+			ComponentIndex index = ComponentIndex.load();
+			if (!index.isEmpty()) {
+				componentIndex = index;
+				Set<String> classNames = new TreeSet<>(index.getComponentClassNames());
+				// modules without an index, e.g. compiled outside of Maven, are still scanned
+				List<URL> unindexed = ClasspathHelper.forPackage("org.dllearner").stream()
+						.filter(url -> !index.covers(url))
+						.collect(Collectors.toList());
+				if (!unindexed.isEmpty()) {
+					logger.debug("Scanning " + unindexed + " for components without index");
+					for (Class<? extends Component> component : ComponentIndex.scan(unindexed)) {
+						classNames.add(component.getName());
+					}
+				}
+				componentClassNames = new ArrayList<>(classNames);
+			}
+		}
 		if (componentClassNames == null) {
 			componentClassNames = new ArrayList<>();
 			if (reflectionScanner == null) {
@@ -157,8 +186,13 @@ public class AnnComponentManager {
 			try {
 				Class<? extends Component> component = Class.forName(componentClassName).asSubclass(Component.class);
 				components.add(component);
-				componentNames.put(component, getName(component));
-				componentNamesShort.put(component, getShortName(component));
+				if (componentIndex != null && componentIndex.contains(componentClassName)) {
+					componentNames.put(component, componentIndex.getName(componentClassName));
+					componentNamesShort.put(component, componentIndex.getShortName(componentClassName));
+				} else {
+					componentNames.put(component, getName(component));
+					componentNamesShort.put(component, getShortName(component));
+				}
 			} catch (ClassNotFoundException e) {
 				e.printStackTrace();
 			}
@@ -208,7 +242,7 @@ public class AnnComponentManager {
 	 */
 	public SortedSet<String> getComponentStrings() {
 		SortedSet<String> result = getComponents().stream()
-				.map(AnnComponentManager::getShortName)
+				.map(componentNamesShort::get)
 				.collect(Collectors.toCollection(TreeSet::new));
 		return result;
 	}
@@ -222,7 +256,7 @@ public class AnnComponentManager {
     public SortedSet<String> getComponentStringsOfType(Class type) {
 
     	SortedSet<String> result = getComponentsOfType(type).stream()
-			    .map(AnnComponentManager::getShortName)
+			    .map(componentNamesShort::get)
 			    .collect(Collectors.toCollection(TreeSet::new));
 
 	    return result;
@@ -283,6 +317,19 @@ public class AnnComponentManager {
 		return componentNamesShort;
 	}
 
+	/**
+	 * Returns the config options of a component. For components listed in the component index, they are
+	 * taken from the index, otherwise they are read from the annotated fields.
+	 * @param component the component
+	 * @return the config options of the component, including the inherited ones, ordered by name
+	 */
+	public List<ComponentIndex.Option> getConfigOptionInfo(Class<? extends Component> component) {
+		if (componentIndex != null && componentIndex.contains(component.getName())) {
+			return componentIndex.getConfigOptions(component.getName());
+		}
+		return ComponentIndex.readConfigOptions(component);
+	}
+
 	/**
 	 * Applies a config entry to a component. If the entry is not valid, the method
 	 * prints an exception and returns false.
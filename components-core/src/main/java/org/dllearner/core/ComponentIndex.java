@@ -0,0 +1,382 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+import org.apache.log4j.Level;
+import org.dllearner.core.config.ConfigOption;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.util.ConfigurationBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The index of the DL-Learner components of a module, which is generated at build time and allows the
+ * {@link AnnComponentManager} to find the components without scanning the classpath.
+ * <p>
+ * Each module containing components has an index file at {@link #LOCATION}, which is written by
+ * {@link #main(String[])} in the <code>process-classes</code> phase. It is a tab separated file with one
+ * line per component
+ * <pre>component	class name	name	short name	version</pre>
+ * followed by one line per config option of the component
+ * <pre>option	class name	option name	type	default value	example value	required	description</pre>
+ * Tabs, line breaks and backslashes in the values are escaped. Classpath entries without an index file,
+ * e.g. modules compiled outside of Maven, are not covered by the index and have to be scanned.
+ */
+public class ComponentIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ComponentIndex.class);
+
+	/**
+	 * The location of the index file within a module.
+	 */
+	public static final String LOCATION = "META-INF/dllearner/components.idx";
+
+	private static final String COMPONENT = "component";
+	private static final String OPTION = "option";
+
+	/**
+	 * A config option of a component as listed in the index.
+	 */
+	public static class Option {
+		private final String name;
+		private final String type;
+		private final String defaultValue;
+		private final String exampleValue;
+		private final boolean required;
+		private final String description;
+
+		public Option(String name, String type, String defaultValue, String exampleValue, boolean required,
+					  String description) {
+			this.name = name;
+			this.type = type;
+			this.defaultValue = defaultValue;
+			this.exampleValue = exampleValue;
+			this.required = required;
+			this.description = description;
+		}
+
+		/**
+		 * @param field a field annotated with {@link ConfigOption}
+		 * @return the option of the field
+		 */
+		public static Option of(Field field) {
+			ConfigOption option = field.getAnnotation(ConfigOption.class);
+			return new Option(field.getName(), field.getType().getName(), option.defaultValue(),
+					option.exampleValue(), option.required(), option.description());
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the class name of the type of the option
+		 */
+		public String getType() {
+			return type;
+		}
+
+		public String getDefaultValue() {
+			return defaultValue;
+		}
+
+		public String getExampleValue() {
+			return exampleValue;
+		}
+
+		public boolean isRequired() {
+			return required;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+	}
+
+	// class name -> name, short name and version
+	private final SortedMap<String, String[]> components = new TreeMap<>();
+	private final Map<String, List<Option>> options = new HashMap<>();
+	// the classpath entries containing an index file
+	private final Set<String> indexedRoots = new HashSet<>();
+
+	private ComponentIndex() {}
+
+	/**
+	 * Loads and merges the index files of all modules on the classpath.
+	 * @return the index, which is empty if there is no index file
+	 */
+	public static ComponentIndex load() {
+		ComponentIndex index = new ComponentIndex();
+		try {
+			Enumeration<URL> resources = ComponentIndex.class.getClassLoader().getResources(LOCATION);
+			while (resources.hasMoreElements()) {
+				URL url = resources.nextElement();
+				logger.debug("Loading component index from {}", url);
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+					index.read(reader);
+				}
+				String location = url.toExternalForm();
+				index.indexedRoots.add(normalize(location.substring(0, location.length() - LOCATION.length())));
+			}
+		} catch (IOException e) {
+			logger.warn("Failed to load component index", e);
+		}
+		return index;
+	}
+
+	/**
+	 * Reads a single index file.
+	 * @param reader the reader of the index file
+	 * @return the index
+	 */
+	static ComponentIndex read(Reader reader) throws IOException {
+		ComponentIndex index = new ComponentIndex();
+		index.read(new BufferedReader(reader));
+		return index;
+	}
+
+	private void read(BufferedReader reader) throws IOException {
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] values = line.split("\t", -1);
+			for (int i = 0; i < values.length; i++) {
+				values[i] = unescape(values[i]);
+			}
+			if (values[0].equals(COMPONENT) && values.length == 5) {
+				components.put(values[1], Arrays.copyOfRange(values, 2, 5));
+			} else if (values[0].equals(OPTION) && values.length == 8) {
+				options.computeIfAbsent(values[1], k -> new ArrayList<>())
+						.add(new Option(values[2], values[3], values[4], values[5], Boolean.parseBoolean(values[6]), values[7]));
+			} else {
+				logger.warn("Ignoring invalid line in component index: {}", line);
+			}
+		}
+	}
+
+	/**
+	 * @return whether the index doesn't contain any component
+	 */
+	public boolean isEmpty() {
+		return components.isEmpty();
+	}
+
+	/**
+	 * @return the class names of all components in the index
+	 */
+	public Set<String> getComponentClassNames() {
+		return Collections.unmodifiableSet(components.keySet());
+	}
+
+	/**
+	 * @param className the class name of a component
+	 * @return whether the component is in the index
+	 */
+	public boolean contains(String className) {
+		return components.containsKey(className);
+	}
+
+	/**
+	 * @param className the class name of a component
+	 * @return the name of the component, or <code>null</code> if it is not in the index
+	 */
+	public String getName(String className) {
+		String[] values = components.get(className);
+		return values == null ? null : values[0];
+	}
+
+	/**
+	 * @param className the class name of a component
+	 * @return the short name of the component, or <code>null</code> if it is not in the index
+	 */
+	public String getShortName(String className) {
+		String[] values = components.get(className);
+		return values == null ? null : values[1];
+	}
+
+	/**
+	 * @param className the class name of a component
+	 * @return the version of the component, or <code>null</code> if it is not in the index
+	 */
+	public Double getVersion(String className) {
+		String[] values = components.get(className);
+		return values == null ? null : Double.valueOf(values[2]);
+	}
+
+	/**
+	 * @param className the class name of a component
+	 * @return the config options of the component, including the inherited ones, ordered by name
+	 */
+	public List<Option> getConfigOptions(String className) {
+		return Collections.unmodifiableList(options.getOrDefault(className, Collections.emptyList()));
+	}
+
+	/**
+	 * @param root a classpath entry, i.e. a directory or a jar file
+	 * @return whether the components of the classpath entry are listed in the index
+	 */
+	public boolean covers(URL root) {
+		return indexedRoots.contains(normalize(root.toExternalForm()));
+	}
+
+	// the URL of a jar file, with or without the jar: protocol
+	private static String normalize(String root) {
+		if (root.startsWith("jar:")) {
+			root = root.substring(4);
+		}
+		if (root.endsWith("!/")) {
+			root = root.substring(0, root.length() - 2);
+		}
+		return root;
+	}
+
+	/**
+	 * Writes the index of the given components.
+	 * @param components the components
+	 * @param writer the writer
+	 */
+	public static void write(Collection<Class<? extends Component>> components, Writer writer) throws IOException {
+		SortedMap<String, Class<? extends Component>> sorted = new TreeMap<>();
+		for (Class<? extends Component> component : components) {
+			sorted.put(component.getName(), component);
+		}
+
+		PrintWriter out = new PrintWriter(writer);
+		out.println("# DL-Learner component index, generated by " + ComponentIndex.class.getName());
+		for (Class<? extends Component> component : sorted.values()) {
+			ComponentAnn ann = component.getAnnotation(ComponentAnn.class);
+			out.println(line(COMPONENT, component.getName(), ann.name(), ann.shortName(), String.valueOf(ann.version())));
+
+			for (Option option : readConfigOptions(component)) {
+				out.println(line(OPTION, component.getName(), option.getName(), option.getType(),
+						option.getDefaultValue(), option.getExampleValue(), String.valueOf(option.isRequired()),
+						option.getDescription()));
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads the config options of a component from the annotations of its fields.
+	 * @param component the component
+	 * @return the config options of the component, including the inherited ones, ordered by name
+	 */
+	public static List<Option> readConfigOptions(Class<? extends Component> component) {
+		// options of super classes which are hidden by a field of the same name are listed once
+		SortedMap<String, Field> fields = new TreeMap<>();
+		for (Field field : AnnComponentManager.getConfigOptions(component)) {
+			fields.putIfAbsent(field.getName(), field);
+		}
+		List<Option> options = new ArrayList<>();
+		for (Field field : fields.values()) {
+			options.add(Option.of(field));
+		}
+		return options;
+	}
+
+	private static String line(String... values) {
+		StringJoiner joiner = new StringJoiner("\t");
+		for (String value : values) {
+			joiner.add(escape(value));
+		}
+		return joiner.toString();
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\r", "\\r").replace("\n", "\\n");
+	}
+
+	private static String unescape(String value) {
+		if (value.indexOf('\\') < 0) {
+			return value;
+		}
+		StringBuilder sb = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length()) {
+				char next = value.charAt(++i);
+				switch (next) {
+					case 't': sb.append('\t'); break;
+					case 'r': sb.append('\r'); break;
+					case 'n': sb.append('\n'); break;
+					default: sb.append(next);
+				}
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Scans the given classpath entries for components, i.e. non-abstract classes implementing
+	 * {@link Component} which are annotated with {@link ComponentAnn}.
+	 * @param urls the classpath entries
+	 * @return the components
+	 */
+	public static List<Class<? extends Component>> scan(Collection<URL> urls) {
+		org.apache.log4j.Logger.getLogger(Reflections.class).setLevel(Level.OFF);
+		Reflections reflections = new Reflections(new ConfigurationBuilder()
+				.setUrls(urls)
+				.setScanners(new TypeAnnotationsScanner(), new SubTypesScanner()));
+
+		// the annotation is used for the lookup, because the subtype hierarchy is incomplete if the
+		// super classes are not in the scanned entries
+		List<Class<? extends Component>> components = new ArrayList<>();
+		for (Class<?> clazz : reflections.getTypesAnnotatedWith(ComponentAnn.class, true)) {
+			if (Component.class.isAssignableFrom(clazz)
+					&& !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers())) {
+				components.add(clazz.asSubclass(Component.class));
+			}
+		}
+		return components;
+	}
+
+	/**
+	 * Scans the compiled classes of a module for components and writes the index file.
+	 * @param args the output directory of the compiled classes
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("Usage: ComponentIndex <classes directory>");
+			System.exit(1);
+		}
+		File classesDir = new File(args[0]);
+
+		List<Class<? extends Component>> components = scan(Collections.singleton(classesDir.toURI().toURL()));
+
+		File indexFile = new File(classesDir, LOCATION);
+		indexFile.getParentFile().mkdirs();
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(indexFile), StandardCharsets.UTF_8)) {
+			write(components, writer);
+		}
+		System.out.println("Wrote index of " + components.size() + " components to " + indexFile);
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+import java.util.Objects;
+
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * A bounded, thread-safe cache of the subsumption, equivalence and disjointness checks of a reasoner, which is
+ * shared by all components using the reasoner, e.g. the refinement operators, the class expression minimizer
+ * and the learning algorithms.
+ * <p>
+ * Subsumption results are keyed by the ordered pair of class expressions, equivalence and disjointness results
+ * by the unordered pair. Disjointness results are those of {@link AbstractReasonerComponent#isDisjoint(OWLClass,
+ * OWLClass)}, i.e. under the disjointness semantics of the reasoner, which may be instance based. Logical
+ * disjointness ({@link AbstractReasonerComponent#isDisjointLogical(OWLClassExpression, OWLClassExpression)}) is
+ * cached as subsumption of the intersection by <code>owl:Nothing</code>. The cache has to be invalidated whenever
+ * the ontology of the reasoner changes.
+ *
+ * @see AbstractReasonerComponent#getSubsumptionCache()
+ */
+public class SubsumptionCache {
+
+	private enum Relation {
+		SUBCLASS, EQUIVALENT, DISJOINT
+	}
+
+	private static final class Key {
+		private final Relation relation;
+		private final OWLClassExpression ce1;
+		private final OWLClassExpression ce2;
+		private final int hashCode;
+
+		Key(Relation relation, OWLClassExpression ce1, OWLClassExpression ce2) {
+			this.relation = relation;
+			this.ce1 = ce1;
+			this.ce2 = ce2;
+			this.hashCode = Objects.hash(relation, ce1, ce2);
+		}
+
+		static Key unordered(Relation relation, OWLClassExpression ce1, OWLClassExpression ce2) {
+			return ce1.compareTo(ce2) <= 0 ? new Key(relation, ce1, ce2) : new Key(relation, ce2, ce1);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return relation == other.relation && ce1.equals(other.ce1) && ce2.equals(other.ce2);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private final Cache<Key, Boolean> cache;
+
+	/**
+	 * @param maxSize the maximum number of cached results
+	 */
+	public SubsumptionCache(int maxSize) {
+		cache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+	}
+
+	/**
+	 * @return the cached result of <code>superClass</code> subsumes <code>subClass</code>, or <code>null</code>
+	 */
+	public Boolean getSuperClassOf(OWLClassExpression superClass, OWLClassExpression subClass) {
+		return cache.getIfPresent(new Key(Relation.SUBCLASS, superClass, subClass));
+	}
+
+	public void putSuperClassOf(OWLClassExpression superClass, OWLClassExpression subClass, boolean result) {
+		cache.put(new Key(Relation.SUBCLASS, superClass, subClass), result);
+	}
+
+	/**
+	 * @return the cached result of the equivalence check, or <code>null</code>
+	 */
+	public Boolean getEquivalentClass(OWLClassExpression ce1, OWLClassExpression ce2) {
+		return cache.getIfPresent(Key.unordered(Relation.EQUIVALENT, ce1, ce2));
+	}
+
+	public void putEquivalentClass(OWLClassExpression ce1, OWLClassExpression ce2, boolean result) {
+		cache.put(Key.unordered(Relation.EQUIVALENT, ce1, ce2), result);
+	}
+
+	/**
+	 * @return the cached result of the disjointness check of the reasoner, or <code>null</code>
+	 */
+	public Boolean getDisjoint(OWLClassExpression ce1, OWLClassExpression ce2) {
+		return cache.getIfPresent(Key.unordered(Relation.DISJOINT, ce1, ce2));
+	}
+
+	public void putDisjoint(OWLClassExpression ce1, OWLClassExpression ce2, boolean result) {
+		cache.put(Key.unordered(Relation.DISJOINT, ce1, ce2), result);
+	}
+
+	/**
+	 * Removes all cached results, which is necessary if the ontology has changed.
+	 */
+	public void invalidate() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached results
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return the hit and miss statistics of the cache
+	 */
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+}
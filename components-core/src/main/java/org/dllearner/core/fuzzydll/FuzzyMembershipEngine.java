@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core.fuzzydll;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.owl.fuzzydll.FuzzyIndividual;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Computes the fuzzy membership degrees of a fixed list of individuals, e.g. the examples of a learning
+ * problem, for a class expression in one call. The degrees are computed bottom-up over the expression tree:
+ * intersections, unions and complements are evaluated element-wise with the configured t-norm, t-conorm and
+ * negation, all other sub-expressions are leaves whose degrees are asked from the fuzzy reasoner once per
+ * individual. The degree arrays of all sub-expressions are cached, so a refinement only needs the reasoner
+ * for the leaves it adds.
+ * <p>
+ * For the Zadeh semantics (min, max, 1-x), the degree of an intersection equals the entailed degree. For
+ * unions and complements it is a lower bound of what a fuzzy DL reasoner entails under the open world
+ * assumption.
+ */
+public class FuzzyMembershipEngine {
+
+	/**
+	 * The fuzzy logic used for intersection and union.
+	 */
+	public enum FuzzyLogic {
+		/** min and max */
+		ZADEH,
+		/** product and probabilistic sum */
+		PRODUCT,
+		/** Lukasiewicz t-norm and bounded sum */
+		LUKASIEWICZ
+	}
+
+	private final AbstractReasonerComponent reasoner;
+	private final FuzzyIndividual[] individuals;
+	private final FuzzyLogic logic;
+	private final Cache<OWLClassExpression, double[]> cache;
+
+	/**
+	 * @param reasoner the fuzzy reasoner used for the leaves of the class expressions
+	 * @param individuals the individuals, the degree arrays are in the iteration order of this collection
+	 * @param logic the fuzzy logic for intersection and union
+	 * @param cacheSize maximum number of cached sub-expressions
+	 */
+	public FuzzyMembershipEngine(AbstractReasonerComponent reasoner, Collection<FuzzyIndividual> individuals,
+								 FuzzyLogic logic, int cacheSize) {
+		this.reasoner = reasoner;
+		this.individuals = individuals.toArray(new FuzzyIndividual[individuals.size()]);
+		this.logic = logic;
+		this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+	}
+
+	/**
+	 * @return the individuals in the order of the degree arrays
+	 */
+	public FuzzyIndividual[] getIndividuals() {
+		return individuals;
+	}
+
+	/**
+	 * Returns the membership degrees of all individuals for the class expression. The returned array must
+	 * not be modified, because it is cached.
+	 * @param ce the class expression
+	 * @return the membership degrees, one per individual
+	 */
+	public double[] getMemberships(OWLClassExpression ce) {
+		try {
+			return cache.get(ce, () -> computeMemberships(ce));
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Computation of fuzzy membership degrees failed for " + ce, e.getCause());
+		}
+	}
+
+	private double[] computeMemberships(OWLClassExpression ce) {
+		double[] degrees = new double[individuals.length];
+		if (ce.isOWLThing()) {
+			Arrays.fill(degrees, 1d);
+		} else if (ce.isOWLNothing()) {
+			// all 0
+		} else if (ce instanceof OWLObjectIntersectionOf) {
+			List<double[]> operands = getOperandMemberships(((OWLObjectIntersectionOf) ce).getOperands());
+			Arrays.fill(degrees, 1d);
+			for (double[] operand : operands) {
+				for (int i = 0; i < degrees.length; i++) {
+					degrees[i] = tNorm(degrees[i], operand[i]);
+				}
+			}
+		} else if (ce instanceof OWLObjectUnionOf) {
+			List<double[]> operands = getOperandMemberships(((OWLObjectUnionOf) ce).getOperands());
+			for (double[] operand : operands) {
+				for (int i = 0; i < degrees.length; i++) {
+					degrees[i] = tConorm(degrees[i], operand[i]);
+				}
+			}
+		} else if (ce instanceof OWLObjectComplementOf) {
+			double[] operand = getMemberships(((OWLObjectComplementOf) ce).getOperand());
+			for (int i = 0; i < degrees.length; i++) {
+				degrees[i] = 1 - operand[i];
+			}
+		} else {
+			for (int i = 0; i < degrees.length; i++) {
+				degrees[i] = reasoner.hasTypeFuzzyMembership(ce, individuals[i]);
+			}
+		}
+		return degrees;
+	}
+
+	private List<double[]> getOperandMemberships(Collection<OWLClassExpression> operands) {
+		List<double[]> memberships = new ArrayList<>(operands.size());
+		for (OWLClassExpression operand : operands) {
+			memberships.add(getMemberships(operand));
+		}
+		return memberships;
+	}
+
+	private double tNorm(double a, double b) {
+		switch (logic) {
+			case PRODUCT:
+				return a * b;
+			case LUKASIEWICZ:
+				return Math.max(0, a + b - 1);
+			default:
+				return Math.min(a, b);
+		}
+	}
+
+	private double tConorm(double a, double b) {
+		switch (logic) {
+			case PRODUCT:
+				return a + b - a * b;
+			case LUKASIEWICZ:
+				return Math.min(1, a + b);
+			default:
+				return Math.max(a, b);
+		}
+	}
+
+	/**
+	 * discard all cached degree arrays
+	 */
+	public void clearCache() {
+		cache.invalidateAll();
+	}
+}
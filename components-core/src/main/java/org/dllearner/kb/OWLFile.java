@@ -19,12 +19,15 @@
 package org.dllearner.kb;
 
 import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.RDFDataMgr;
 import org.apache.log4j.Logger;
 import org.dllearner.core.AbstractKnowledgeSource;
 import org.dllearner.core.ComponentAnn;
 import org.dllearner.core.ComponentInitException;
 import org.dllearner.core.annotations.NoConfigOption;
 import org.dllearner.core.config.ConfigOption;
+import org.dllearner.utilities.StreamingRDFLoader;
 import org.dllearner.utilities.URLencodeUTF8;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -37,8 +40,10 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Jens Lehmann
@@ -66,6 +71,13 @@ public class OWLFile extends AbstractKnowledgeSource implements OWLOntologyKnowl
     @ConfigOption(description = "a list of named graph URIs to query from the Endpoint")
     private List<String> namedGraphURIs = new LinkedList<>();
 
+    @ConfigOption(description = "if set, the file is parsed in streaming mode and only triples whose resources " +
+            "belong to one of the given namespaces are loaded")
+    private Set<String> allowedNamespaces = new HashSet<>();
+    @ConfigOption(description = "if set, the file is parsed in streaming mode and only triples with one of the " +
+            "given properties (and the RDF/RDFS/OWL vocabulary) are loaded")
+    private Set<String> allowedProperties = new HashSet<>();
+
 	@NoConfigOption // set via reasoningString
     private OntModelSpec reasoning = OntModelSpec.OWL_MEM;
     @ConfigOption(defaultValue = "false", description = "Enable JENA reasoning on the Ontology Model."
@@ -136,12 +148,35 @@ public class OWLFile extends AbstractKnowledgeSource implements OWLOntologyKnowl
     @Override
     public OWLOntology createOWLOntology(OWLOntologyManager manager) {
         try {
+            if (isFiltered()) {
+                return new StreamingRDFLoader(allowedNamespaces, allowedProperties).loadOntology(getURL().toString(), manager);
+            }
 	        return manager.loadOntologyFromOntologyDocument(IRI.create(getURL().toURI()));
         } catch (OWLOntologyCreationException | URISyntaxException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Load the data as JENA model. If namespaces or properties to filter are given, the file will be parsed in
+     * streaming mode and only the relevant triples are kept, i.e. the whole file is never loaded into memory.
+     *
+     * @return the model
+     */
+    public Model createModel() {
+        if (isFiltered()) {
+            return new StreamingRDFLoader(allowedNamespaces, allowedProperties).loadModel(getURL().toString());
+        }
+        return RDFDataMgr.loadModel(getURL().getFile());
+    }
+
+    /**
+     * @return whether only a fragment of the data will be loaded
+     */
+    public boolean isFiltered() {
+        return sparql == null && !(allowedNamespaces.isEmpty() && allowedProperties.isEmpty());
+    }
+
     public URL getURL() {
         return url;
     }
@@ -206,6 +241,22 @@ public class OWLFile extends AbstractKnowledgeSource implements OWLOntologyKnowl
         this.namedGraphURIs = namedGraphURIs;
     }
 
+    public Set<String> getAllowedNamespaces() {
+        return allowedNamespaces;
+    }
+
+    public void setAllowedNamespaces(Set<String> allowedNamespaces) {
+        this.allowedNamespaces = allowedNamespaces;
+    }
+
+    public Set<String> getAllowedProperties() {
+        return allowedProperties;
+    }
+
+    public void setAllowedProperties(Set<String> allowedProperties) {
+        this.allowedProperties = allowedProperties;
+    }
+
     public void setReasoning(String reasoning) {
     	switch (reasoning) {
     	case "micro_rule":
@@ -0,0 +1,206 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb;
+
+import org.aksw.jena_sparql_api.cache.h2.CacheUtilsH2;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactoryDataset;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.tdb.TDB;
+import org.apache.jena.tdb.TDBFactory;
+import org.apache.jena.tdb.TDBLoader;
+import org.dllearner.core.ComponentAnn;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.core.config.ConfigOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A local SPARQL endpoint backed by an embedded persistent Jena TDB triple store. In contrast to
+ * {@link LocalModelBasedSparqlEndpointKS} with an in-memory model, the data does not have to fit into the heap.
+ * The store is loaded once from the given files and can be reused by subsequent runs, i.e. restarts do not have
+ * to parse the data again. A marker file is written once loading has finished, a store without it, e.g. after a
+ * crash during loading, is cleared and loaded again.
+ * <p>
+ * SPARQL queries are evaluated by the TDB query engine on the dataset. The store should be released by
+ * {@link #close()}.
+ */
+@ComponentAnn(name = "Local TDB Endpoint", shortName = "tdb_sparql", version = 0.1)
+public class TDBSparqlEndpointKS extends LocalModelBasedSparqlEndpointKS implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(TDBSparqlEndpointKS.class);
+
+	private static final String LOADED_MARKER = "dllearner.loaded";
+
+	@ConfigOption(description = "the directory of the TDB store", required = true)
+	private String location;
+
+	@ConfigOption(description = "a list of RDF files that will be loaded if the store is empty", defaultValue = "{}")
+	private List<String> files = new LinkedList<>();
+
+	@ConfigOption(defaultValue = "false", description = "clear the store and load the files again")
+	private boolean reload = false;
+
+	private Dataset dataset;
+	private OntModel model;
+
+	public TDBSparqlEndpointKS() {}
+
+	/**
+	 * @param location the directory of the TDB store
+	 */
+	public TDBSparqlEndpointKS(String location) {
+		this.location = location;
+	}
+
+	/**
+	 * @param location the directory of the TDB store
+	 * @param files the RDF files that will be loaded if the store is empty
+	 */
+	public TDBSparqlEndpointKS(String location, List<String> files) {
+		this.location = location;
+		this.files = files;
+	}
+
+	@Override
+	public void init() throws ComponentInitException {
+		if(!initialized) {
+			if(location == null) {
+				throw new ComponentInitException("The location of the TDB store has to be set.");
+			}
+			new File(location).mkdirs();
+			dataset = TDBFactory.createDataset(location);
+
+			File marker = new File(location, LOADED_MARKER);
+			Model data = dataset.getDefaultModel();
+			if(!data.isEmpty() && !marker.exists()) {
+				logger.warn("Loading of TDB store at {} did not finish, it will be loaded again.", location);
+			}
+			if((reload || !marker.exists()) && !data.isEmpty()) {
+				logger.info("Clearing TDB store at {} ...", location);
+				data.removeAll();
+			}
+
+			if(data.isEmpty()) {
+				try {
+					Files.deleteIfExists(marker.toPath());
+					bulkLoad(data);
+					Files.createFile(marker.toPath());
+				} catch (IOException e) {
+					throw new ComponentInitException("Failed to write the marker of TDB store " + location, e);
+				}
+			} else {
+				logger.info("Reusing TDB store at {} with {} triples.", location, data.size());
+			}
+
+			// the model is just a view on the store, nothing is loaded into memory
+			model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM, data);
+		}
+		super.init();
+	}
+
+	private void bulkLoad(Model data) {
+		for (String file : files) {
+			logger.info("Loading {} into TDB store at {} ...", file, location);
+			long startTime = System.currentTimeMillis();
+			TDBLoader.loadModel(data, file, logger.isDebugEnabled());
+			logger.info("...done in {}ms.", (System.currentTimeMillis() - startTime));
+		}
+		TDB.sync(dataset);
+		logger.info("TDB store contains {} triples.", data.size());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.kb.LocalModelBasedSparqlEndpointKS#buildQueryExecutionFactory()
+	 */
+	@Override
+	protected QueryExecutionFactory buildQueryExecutionFactory() {
+		// query the dataset, such that the TDB query engine is used instead of the generic one on the model
+		QueryExecutionFactory qef = new QueryExecutionFactoryDataset(dataset);
+		qef = CacheUtilsH2.createQueryExecutionFactory(qef, cacheDir, true, cacheTTL);
+		return qef;
+	}
+
+	/**
+	 * @return a view on the default graph of the store, nothing is loaded into memory
+	 */
+	@Override
+	public OntModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Release the TDB store, i.e. all data is flushed to disk and the files are closed.
+	 */
+	@Override
+	public void close() {
+		if(dataset != null) {
+			TDB.sync(dataset);
+			dataset.close();
+			TDBFactory.release(dataset);
+			dataset = null;
+			model = null;
+		}
+	}
+
+	public Dataset getDataset() {
+		return dataset;
+	}
+
+	public String getLocation() {
+		return location;
+	}
+
+	public void setLocation(String location) {
+		this.location = location;
+	}
+
+	public List<String> getFiles() {
+		return files;
+	}
+
+	public void setFiles(List<String> files) {
+		this.files = files;
+	}
+
+	public boolean isReload() {
+		return reload;
+	}
+
+	public void setReload(boolean reload) {
+		this.reload = reload;
+	}
+
+	@Override
+	public String toString() {
+		String out = String.format("%-15s %-25s%n", "Endpoint:", "TDB store");
+		out += String.format("%-15s %-25s%n", "Location:", location);
+		return out;
+	}
+}
@@ -18,6 +18,7 @@
  */
 package org.dllearner.kb.aquisitors;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -51,6 +52,7 @@ public class SparqlTupleAquisitor extends TupleAquisitor {
 	
 	protected SparqlQueryMaker sparqlQueryMaker;
 	protected SPARQLTasks sparqlTasks;
+	protected TupleStore tupleStore;
 	
 	
 	
@@ -66,7 +68,7 @@ public class SparqlTupleAquisitor extends TupleAquisitor {
 	public SortedSet<RDFNodeTuple> retrieveTupel(String uri){
 		// getQuery
 		String sparqlQueryString = sparqlQueryMaker.makeSubjectQueryUsingFilters(uri);
-		SortedSet<RDFNodeTuple> ret = sparqlTasks.queryAsRDFNodeTuple(sparqlQueryString, PREDICATE, OBJECT);
+		SortedSet<RDFNodeTuple> ret = queryAsRDFNodeTuple(uri, sparqlQueryString);
 		disambiguateBlankNodes(uri, ret);
 		
 		return ret;
@@ -75,7 +77,7 @@ public class SparqlTupleAquisitor extends TupleAquisitor {
 	public SortedSet<RDFNodeTuple> retrieveClassesForInstances(String uri){
 		// getQuery
 		String sparqlQueryString = sparqlQueryMaker.makeClassQueryUsingFilters(uri);
-		SortedSet<RDFNodeTuple> ret = sparqlTasks.queryAsRDFNodeTuple(sparqlQueryString, PREDICATE, OBJECT);
+		SortedSet<RDFNodeTuple> ret = queryAsRDFNodeTuple(uri, sparqlQueryString);
 		disambiguateBlankNodes(uri, ret);
 		return ret;
 		
@@ -88,6 +90,36 @@ public class SparqlTupleAquisitor extends TupleAquisitor {
 		return ret;
 	}
 	
+	/**
+	 * Reads the tuples of the query from the tuple store if there is one, otherwise they are
+	 * queried and added to the store. This has to happen before the blank nodes are replaced.
+	 */
+	private SortedSet<RDFNodeTuple> queryAsRDFNodeTuple(String uri, String sparqlQueryString){
+		if(tupleStore != null){
+			SortedSet<RDFNodeTuple> ret = tupleStore.get(sparqlQueryString);
+			if(ret != null){
+				return ret;
+			}
+		}
+		SortedSet<RDFNodeTuple> ret = sparqlTasks.queryAsRDFNodeTuple(sparqlQueryString, PREDICATE, OBJECT);
+		// empty results are not stored, as SPARQLTasks also returns them for failed queries
+		if(tupleStore != null && !ret.isEmpty()){
+			try {
+				tupleStore.put(sparqlQueryString, uri, ret);
+			} catch (IOException e) {
+				logger.warn("Could not write to tuple store: " + e.getMessage());
+			}
+		}
+		return ret;
+	}
+	
+	/**
+	 * @param tupleStore the store which persists the retrieved tuples, <code>null</code> disables it
+	 */
+	public void setTupleStore(TupleStore tupleStore) {
+		this.tupleStore = tupleStore;
+	}
+	
 	@Override
 	public SortedSet<RDFNodeTuple> getBlankNode(int id){
 		return BlankNodeCollector.getBlankNode(id);
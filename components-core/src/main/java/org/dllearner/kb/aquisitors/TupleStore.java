@@ -0,0 +1,728 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.aquisitors;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.log4j.Logger;
+import org.dllearner.utilities.datastructures.RDFNodeTuple;
+
+/**
+ * A persistent store for the tuples retrieved by a {@link TupleAquisitor}, which is used instead of parsing the
+ * cached JSON result of each query again. The tuples of a query are stored as rows of three int columns holding
+ * the subject, predicate and object, which refer to a dictionary of the RDF terms.
+ * <p>
+ * The store is a directory of immutable segment files. New results are kept in memory and written as a new segment
+ * on {@link #flush()}, segments are memory-mapped for reading. If a query is stored again, the latest result wins.
+ * {@link #compact()} merges all segments and drops replaced and outdated results; it is also triggered when a flush
+ * exceeds the maximum number of segments written since the last compaction. A segment is limited to 2 GB, so the
+ * compaction starts a new segment whenever one exceeds the maximum segment size.
+ * <p>
+ * A segment file consists of
+ * <ul>
+ * <li>a header with the number of queries, terms and rows</li>
+ * <li>the query index, i.e. for each query the query string, its timestamp and its range of rows</li>
+ * <li>the offsets of the terms and the encoded terms</li>
+ * <li>the subject, predicate and object column</li>
+ * </ul>
+ */
+public class TupleStore implements Closeable {
+
+	private static Logger logger = Logger.getLogger(TupleStore.class);
+
+	private static final int MAGIC = 0x444c5453;
+	private static final int VERSION = 1;
+
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".tuples";
+
+	// the size of the header of a segment file
+	private static final int HEADER_SIZE = 20;
+
+	private static final byte URI = 0;
+	private static final byte BLANK_NODE = 1;
+	private static final byte LITERAL = 2;
+
+	private final File directory;
+
+	// specifies after how many seconds a stored result becomes invalid, same default as the Cache
+	private long freshnessSeconds = 15 * 24 * 60 * 60;
+	private int maxSegments = 8;
+	private int maxPendingRows = 100000;
+	private long maxSegmentSize = 1 << 30;
+
+	private final List<Segment> segments = new ArrayList<>();
+	// the latest location of each query
+	private final Map<String, Location> locations = new HashMap<>();
+	private SegmentBuilder pending = new SegmentBuilder();
+	private int nextSegmentId = 0;
+	private int nrOfCompactedSegments = 0;
+
+	// the model the returned nodes belong to
+	private final Model model = ModelFactory.createDefaultModel();
+
+	/**
+	 * Opens the store in the given directory, which is created if it does not exist.
+	 *
+	 * @param directory the directory of the segment files
+	 * @throws IOException if a segment can not be read
+	 */
+	public TupleStore(File directory) throws IOException {
+		this.directory = directory;
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create tuple store directory " + directory);
+		}
+		File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+		Arrays.sort(files, Comparator.comparingInt(TupleStore::segmentId));
+		for (File file : files) {
+			addSegment(new Segment(file));
+			nextSegmentId = segmentId(file) + 1;
+		}
+		logger.debug("Opened tuple store " + directory + " with " + segments.size() + " segments and "
+				+ locations.size() + " queries.");
+	}
+
+	private static int segmentId(File file) {
+		String name = file.getName();
+		return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	private void addSegment(Segment segment) {
+		segments.add(segment);
+		for (int i = 0; i < segment.nrOfQueries; i++) {
+			locations.put(segment.queries[i], new Location(segment, i));
+		}
+	}
+
+	/**
+	 * @param freshnessSeconds the number of seconds after which a stored result is considered outdated
+	 */
+	public void setFreshnessInSeconds(long freshnessSeconds) {
+		this.freshnessSeconds = freshnessSeconds;
+	}
+
+	/**
+	 * @param maxSegments the number of segments written since the last compaction above which a flush compacts the
+	 * store
+	 */
+	public void setMaxSegments(int maxSegments) {
+		this.maxSegments = maxSegments;
+	}
+
+	/**
+	 * @param maxPendingRows the number of rows kept in memory before they are flushed
+	 */
+	public void setMaxPendingRows(int maxPendingRows) {
+		this.maxPendingRows = maxPendingRows;
+	}
+
+	/**
+	 * @param maxSegmentSize the size in bytes above which the pending results are flushed and a compaction starts a
+	 * new segment, at most {@link Integer#MAX_VALUE}
+	 */
+	public void setMaxSegmentSize(long maxSegmentSize) {
+		if (maxSegmentSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The segment size is limited to " + Integer.MAX_VALUE + " bytes.");
+		}
+		this.maxSegmentSize = maxSegmentSize;
+	}
+
+	/**
+	 * Returns the stored tuples of a query. The tuples are new objects, i.e. they can be modified by the caller.
+	 *
+	 * @param query the query
+	 * @return the tuples or <code>null</code> if there is no result for the query or it is outdated
+	 */
+	public synchronized SortedSet<RDFNodeTuple> get(String query) {
+		Location location = locations.get(query);
+		if (location == null) {
+			return null;
+		}
+		int index = location.index;
+		TermSource source = location.getSource();
+		if (isOutdated(source.getTimestamp(index))) {
+			return null;
+		}
+		SortedSet<RDFNodeTuple> tuples = new TreeSet<>();
+		int from = source.getFirstRow(index);
+		int to = from + source.getNrOfRows(index);
+		for (int row = from; row < to; row++) {
+			tuples.add(new RDFNodeTuple(source.getNode(source.getPredicate(row)), source.getNode(source.getObject(row))));
+		}
+		return tuples;
+	}
+
+	/**
+	 * Stores the tuples of a query, replacing any previous result. The tuples are encoded immediately, so they
+	 * can be modified after this call.
+	 *
+	 * @param query the query
+	 * @param subject the resource the tuples were retrieved for
+	 * @param tuples the predicate-object tuples of the subject
+	 * @throws IOException if the pending results are flushed and writing them fails
+	 */
+	public synchronized void put(String query, String subject, Collection<RDFNodeTuple> tuples) throws IOException {
+		int index = pending.add(query, System.currentTimeMillis(), NodeFactory.createURI(subject), tuples);
+		locations.put(query, new Location(null, index));
+		if (pending.nrOfRows >= maxPendingRows || pending.size >= maxSegmentSize) {
+			flush();
+		}
+	}
+
+	private boolean isOutdated(long timestamp) {
+		return System.currentTimeMillis() - timestamp > freshnessSeconds * 1000;
+	}
+
+	/**
+	 * Writes the pending results as a new segment and compacts the store if too many segments were written since
+	 * the last compaction.
+	 *
+	 * @throws IOException if writing the segment fails, the results are still pending then
+	 */
+	public synchronized void flush() throws IOException {
+		if (pending.nrOfQueries == 0) {
+			return;
+		}
+		writePending();
+		if (segments.size() - nrOfCompactedSegments > maxSegments) {
+			compact();
+		}
+	}
+
+	private void writePending() throws IOException {
+		File file = newSegmentFile();
+		Segment segment = writeSegment(pending, file);
+		// the results are only replaced by the segment once it is written
+		pending = new SegmentBuilder();
+		addSegment(segment);
+	}
+
+	private Segment writeSegment(SegmentBuilder builder, File file) throws IOException {
+		try {
+			builder.write(file);
+			return new Segment(file);
+		} catch (IOException | RuntimeException e) {
+			// don't leave a partial segment behind, the store could not be opened again
+			try {
+				Files.deleteIfExists(file.toPath());
+			} catch (IOException e1) {
+				e.addSuppressed(e1);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Flushes the pending results and merges all segments, keeping only the latest result of each query which is
+	 * not outdated. The encoded terms are copied without decoding them. A new segment is started whenever the
+	 * current one exceeds the maximum segment size.
+	 *
+	 * @throws IOException if writing the merged segments fails, the existing segments are kept then
+	 */
+	public synchronized void compact() throws IOException {
+		if (pending.nrOfQueries > 0) {
+			writePending();
+		}
+		if (segments.isEmpty()) {
+			return;
+		}
+		long startTime = System.currentTimeMillis();
+
+		List<File> tmpFiles = new ArrayList<>();
+		int nrOfQueries = 0;
+		int nrOfRows = 0;
+		try {
+			SegmentBuilder builder = new SegmentBuilder();
+			for (Map.Entry<String, Location> entry : locations.entrySet()) {
+				Location location = entry.getValue();
+				if (isOutdated(location.segment.getTimestamp(location.index))) {
+					continue;
+				}
+				builder.copy(entry.getKey(), location.segment, location.index);
+				if (builder.size >= maxSegmentSize) {
+					writeCompacted(builder, tmpFiles);
+					nrOfQueries += builder.nrOfQueries;
+					nrOfRows += builder.nrOfRows;
+					builder = new SegmentBuilder();
+				}
+			}
+			if (builder.nrOfQueries > 0) {
+				writeCompacted(builder, tmpFiles);
+				nrOfQueries += builder.nrOfQueries;
+				nrOfRows += builder.nrOfRows;
+			}
+		} catch (IOException | RuntimeException e) {
+			for (File tmpFile : tmpFiles) {
+				try {
+					Files.deleteIfExists(tmpFile.toPath());
+				} catch (IOException e1) {
+					e.addSuppressed(e1);
+				}
+			}
+			throw e;
+		}
+
+		List<Segment> oldSegments = new ArrayList<>(segments);
+		segments.clear();
+		locations.clear();
+		for (Segment segment : oldSegments) {
+			segment.close();
+		}
+		List<File> files = new ArrayList<>();
+		for (File tmpFile : tmpFiles) {
+			File file = newSegmentFile();
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			files.add(file);
+		}
+		for (Segment segment : oldSegments) {
+			Files.delete(segment.file.toPath());
+		}
+		for (File file : files) {
+			addSegment(new Segment(file));
+		}
+		nrOfCompactedSegments = files.size();
+		logger.debug("Compacted " + oldSegments.size() + " segments of tuple store " + directory + " into "
+				+ files.size() + " segments with " + nrOfQueries + " queries and " + nrOfRows + " rows in "
+				+ (System.currentTimeMillis() - startTime) + "ms.");
+	}
+
+	private void writeCompacted(SegmentBuilder builder, List<File> tmpFiles) throws IOException {
+		File tmpFile = new File(directory, "compaction-" + tmpFiles.size() + SEGMENT_SUFFIX + ".tmp");
+		tmpFiles.add(tmpFile);
+		builder.write(tmpFile);
+	}
+
+	private File newSegmentFile() {
+		return new File(directory, SEGMENT_PREFIX + nextSegmentId++ + SEGMENT_SUFFIX);
+	}
+
+	/**
+	 * Removes all results from the store and deletes its segment files.
+	 *
+	 * @throws IOException if a segment file can not be deleted
+	 */
+	public synchronized void clear() throws IOException {
+		for (Segment segment : segments) {
+			segment.close();
+			Files.delete(segment.file.toPath());
+		}
+		segments.clear();
+		locations.clear();
+		pending = new SegmentBuilder();
+		nrOfCompactedSegments = 0;
+	}
+
+	/**
+	 * @return the number of segment files
+	 */
+	public synchronized int getNrOfSegments() {
+		return segments.size();
+	}
+
+	/**
+	 * Flushes the pending results.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		flush();
+		for (Segment segment : segments) {
+			segment.close();
+		}
+		segments.clear();
+		locations.clear();
+	}
+
+	private RDFNode toRDFNode(ByteBuffer buffer, int offset) {
+		byte type = buffer.get(offset);
+		int[] position = {offset + 1};
+		Node node;
+		if (type == URI) {
+			node = NodeFactory.createURI(readString(buffer, position));
+		} else if (type == BLANK_NODE) {
+			node = NodeFactory.createBlankNode(readString(buffer, position));
+		} else if (type == LITERAL) {
+			String lexicalForm = readString(buffer, position);
+			String language = readString(buffer, position);
+			String datatype = readString(buffer, position);
+			if (!language.isEmpty()) {
+				node = NodeFactory.createLiteral(lexicalForm, language);
+			} else if (datatype.isEmpty()) {
+				node = NodeFactory.createLiteral(lexicalForm);
+			} else {
+				node = NodeFactory.createLiteral(lexicalForm, TypeMapper.getInstance().getSafeTypeByName(datatype));
+			}
+		} else {
+			throw new IllegalStateException("Unknown term type " + type);
+		}
+		return model.asRDFNode(node);
+	}
+
+	private static String readString(ByteBuffer buffer, int[] position) {
+		int length = buffer.getInt(position[0]);
+		byte[] bytes = new byte[length];
+		ByteBuffer view = buffer.duplicate();
+		view.position(position[0] + 4);
+		view.get(bytes);
+		position[0] += 4 + length;
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static byte[] encode(Node node) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			if (node.isURI()) {
+				out.writeByte(URI);
+				writeString(out, node.getURI());
+			} else if (node.isBlank()) {
+				out.writeByte(BLANK_NODE);
+				writeString(out, node.getBlankNodeLabel());
+			} else if (node.isLiteral()) {
+				out.writeByte(LITERAL);
+				writeString(out, node.getLiteralLexicalForm());
+				writeString(out, node.getLiteralLanguage());
+				String datatype = node.getLiteralDatatypeURI();
+				writeString(out, datatype == null ? "" : datatype);
+			} else {
+				throw new IllegalArgumentException("Can not store node " + node);
+			}
+		} catch (IOException e) {
+			// can't happen for a byte array
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * The access to the queries, terms and columns of a segment.
+	 */
+	private interface TermSource {
+		long getTimestamp(int query);
+
+		int getFirstRow(int query);
+
+		int getNrOfRows(int query);
+
+		int getPredicate(int row);
+
+		int getObject(int row);
+
+		RDFNode getNode(int term);
+
+		ByteBuffer getTerm(int term);
+	}
+
+	private class Location {
+		// null for the pending results
+		final Segment segment;
+		final int index;
+
+		Location(Segment segment, int index) {
+			this.segment = segment;
+			this.index = index;
+		}
+
+		TermSource getSource() {
+			return segment == null ? pending : segment;
+		}
+	}
+
+	/**
+	 * A memory-mapped segment file. The query index is read on opening, terms are decoded on first access.
+	 */
+	private class Segment implements TermSource, Closeable {
+		final File file;
+		private final MappedByteBuffer buffer;
+
+		final int nrOfQueries;
+		final String[] queries;
+		final long[] timestamps;
+		final int[] firstRows;
+		final int[] nrOfRows;
+
+		private final int nrOfTerms;
+		private final int termOffsetsStart;
+		private final int termsStart;
+		private final int subjectsStart;
+		private final int predicatesStart;
+		private final int objectsStart;
+		private final RDFNode[] nodes;
+
+		Segment(File file) throws IOException {
+			this.file = file;
+			try (FileChannel channel = FileChannel.open(file.toPath())) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+			if (buffer.getInt(0) != MAGIC) {
+				throw new IOException("Not a tuple store segment: " + file);
+			}
+			if (buffer.getInt(4) != VERSION) {
+				throw new IOException("Unsupported tuple store segment version " + buffer.getInt(4) + " in " + file);
+			}
+			nrOfQueries = buffer.getInt(8);
+			nrOfTerms = buffer.getInt(12);
+			int nrOfAllRows = buffer.getInt(16);
+
+			queries = new String[nrOfQueries];
+			timestamps = new long[nrOfQueries];
+			firstRows = new int[nrOfQueries];
+			nrOfRows = new int[nrOfQueries];
+			int[] position = {20};
+			for (int i = 0; i < nrOfQueries; i++) {
+				queries[i] = readString(buffer, position);
+				timestamps[i] = buffer.getLong(position[0]);
+				firstRows[i] = buffer.getInt(position[0] + 8);
+				nrOfRows[i] = buffer.getInt(position[0] + 12);
+				position[0] += 16;
+			}
+			termOffsetsStart = position[0];
+			termsStart = termOffsetsStart + 4 * (nrOfTerms + 1);
+			subjectsStart = termsStart + buffer.getInt(termOffsetsStart + 4 * nrOfTerms);
+			predicatesStart = subjectsStart + 4 * nrOfAllRows;
+			objectsStart = predicatesStart + 4 * nrOfAllRows;
+			if (objectsStart + 4L * nrOfAllRows != buffer.capacity()) {
+				throw new IOException("Corrupt tuple store segment " + file);
+			}
+			nodes = new RDFNode[nrOfTerms];
+		}
+
+		@Override
+		public long getTimestamp(int query) {
+			return timestamps[query];
+		}
+
+		@Override
+		public int getFirstRow(int query) {
+			return firstRows[query];
+		}
+
+		@Override
+		public int getNrOfRows(int query) {
+			return nrOfRows[query];
+		}
+
+		int getSubject(int row) {
+			return buffer.getInt(subjectsStart + 4 * row);
+		}
+
+		@Override
+		public int getPredicate(int row) {
+			return buffer.getInt(predicatesStart + 4 * row);
+		}
+
+		@Override
+		public int getObject(int row) {
+			return buffer.getInt(objectsStart + 4 * row);
+		}
+
+		@Override
+		public RDFNode getNode(int term) {
+			RDFNode node = nodes[term];
+			if (node == null) {
+				node = toRDFNode(buffer, termsStart + buffer.getInt(termOffsetsStart + 4 * term));
+				nodes[term] = node;
+			}
+			return node;
+		}
+
+		@Override
+		public ByteBuffer getTerm(int term) {
+			int from = buffer.getInt(termOffsetsStart + 4 * term);
+			int to = buffer.getInt(termOffsetsStart + 4 * (term + 1));
+			ByteBuffer term = buffer.duplicate();
+			term.limit(termsStart + to).position(termsStart + from);
+			return term.slice();
+		}
+
+		@Override
+		public void close() {
+			// the mapping is released by the garbage collector
+			Arrays.fill(nodes, null);
+		}
+	}
+
+	/**
+	 * The in-memory results which are not written yet, also used to write the merged segment of a compaction.
+	 */
+	private class SegmentBuilder implements TermSource {
+		int nrOfQueries = 0;
+		int nrOfRows = 0;
+		// the size of the segment file, including the end offset of the terms
+		long size = HEADER_SIZE + 4;
+
+		private final List<String> queries = new ArrayList<>();
+		private final List<long[]> queryInfo = new ArrayList<>();
+
+		private final Map<ByteBuffer, Integer> termIds = new HashMap<>();
+		private final List<ByteBuffer> terms = new ArrayList<>();
+
+		private int[] subjects = new int[1024];
+		private int[] predicates = new int[1024];
+		private int[] objects = new int[1024];
+
+		int add(String query, long timestamp, Node subject, Collection<RDFNodeTuple> tuples) {
+			int firstRow = nrOfRows;
+			int s = getTermId(ByteBuffer.wrap(encode(subject)));
+			for (RDFNodeTuple tuple : tuples) {
+				addRow(s, getTermId(ByteBuffer.wrap(encode(tuple.a.asNode()))),
+						getTermId(ByteBuffer.wrap(encode(tuple.b.asNode()))));
+			}
+			return addQuery(query, timestamp, firstRow);
+		}
+
+		void copy(String query, Segment segment, int index) {
+			int firstRow = nrOfRows;
+			int from = segment.getFirstRow(index);
+			int to = from + segment.getNrOfRows(index);
+			for (int row = from; row < to; row++) {
+				addRow(getTermId(segment.getTerm(segment.getSubject(row))),
+						getTermId(segment.getTerm(segment.getPredicate(row))),
+						getTermId(segment.getTerm(segment.getObject(row))));
+			}
+			addQuery(query, segment.getTimestamp(index), firstRow);
+		}
+
+		private int addQuery(String query, long timestamp, int firstRow) {
+			queries.add(query);
+			queryInfo.add(new long[]{timestamp, firstRow, nrOfRows - firstRow});
+			size += 4 + query.getBytes(StandardCharsets.UTF_8).length + 16;
+			return nrOfQueries++;
+		}
+
+		private int getTermId(ByteBuffer term) {
+			Integer id = termIds.get(term);
+			if (id == null) {
+				// the buffer might be a view on a segment which is deleted after a compaction
+				ByteBuffer copy = ByteBuffer.allocate(term.remaining());
+				copy.put(term.duplicate()).flip();
+				id = terms.size();
+				terms.add(copy);
+				termIds.put(copy, id);
+				size += 4 + copy.remaining();
+			}
+			return id;
+		}
+
+		private void addRow(int s, int p, int o) {
+			if (nrOfRows == subjects.length) {
+				subjects = Arrays.copyOf(subjects, 2 * nrOfRows);
+				predicates = Arrays.copyOf(predicates, 2 * nrOfRows);
+				objects = Arrays.copyOf(objects, 2 * nrOfRows);
+			}
+			subjects[nrOfRows] = s;
+			predicates[nrOfRows] = p;
+			objects[nrOfRows] = o;
+			nrOfRows++;
+			size += 12;
+		}
+
+		@Override
+		public long getTimestamp(int query) {
+			return queryInfo.get(query)[0];
+		}
+
+		@Override
+		public int getFirstRow(int query) {
+			return (int) queryInfo.get(query)[1];
+		}
+
+		@Override
+		public int getNrOfRows(int query) {
+			return (int) queryInfo.get(query)[2];
+		}
+
+		@Override
+		public int getPredicate(int row) {
+			return predicates[row];
+		}
+
+		@Override
+		public int getObject(int row) {
+			return objects[row];
+		}
+
+		@Override
+		public RDFNode getNode(int term) {
+			return toRDFNode(terms.get(term), 0);
+		}
+
+		@Override
+		public ByteBuffer getTerm(int term) {
+			return terms.get(term).duplicate();
+		}
+
+		void write(File file) throws IOException {
+			// the segments are read with int positions
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("The segment of " + nrOfQueries + " queries with " + nrOfRows + " rows exceeds "
+						+ "the max. segment size of " + Integer.MAX_VALUE + " bytes.");
+			}
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(nrOfQueries);
+				out.writeInt(terms.size());
+				out.writeInt(nrOfRows);
+
+				for (int i = 0; i < nrOfQueries; i++) {
+					writeString(out, queries.get(i));
+					long[] info = queryInfo.get(i);
+					out.writeLong(info[0]);
+					out.writeInt((int) info[1]);
+					out.writeInt((int) info[2]);
+				}
+
+				int offset = 0;
+				for (ByteBuffer term : terms) {
+					out.writeInt(offset);
+					offset += term.remaining();
+				}
+				out.writeInt(offset);
+				for (ByteBuffer term : terms) {
+					out.write(term.array(), term.arrayOffset() + term.position(), term.remaining());
+				}
+
+				for (int[] column : new int[][]{subjects, predicates, objects}) {
+					for (int row = 0; row < nrOfRows; row++) {
+						out.writeInt(column[row]);
+					}
+				}
+			}
+		}
+	}
+}
@@ -27,6 +27,7 @@ import org.dllearner.kb.OWLOntologyKnowledgeSource;
 import org.dllearner.kb.aquisitors.SparqlTupleAquisitor;
 import org.dllearner.kb.aquisitors.SparqlTupleAquisitorImproved;
 import org.dllearner.kb.aquisitors.TupleAquisitor;
+import org.dllearner.kb.aquisitors.TupleStore;
 import org.dllearner.kb.extraction.Configuration;
 import org.dllearner.kb.extraction.Manager;
 import org.dllearner.kb.extraction.Node;
@@ -45,6 +46,7 @@ import org.semanticweb.owlapi.model.OWLOntologyManager;
 
 import javax.swing.*;
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.*;
 
@@ -122,6 +124,11 @@ public class SparqlKnowledgeSource extends AbstractKnowledgeSource implements OW
 
 	private boolean useCacheDatabase;
 
+	// stores the extracted tuples in a columnar store below the cache directory
+	private boolean useTupleStore = false;
+
+	private TupleStore tupleStore;
+
 	private String predefinedFilter;
 
 	private Set<String> objList = new TreeSet<>();
@@ -220,6 +227,8 @@ public class SparqlKnowledgeSource extends AbstractKnowledgeSource implements OW
 
 		} catch (Exception e) {
 			e.printStackTrace();
+		} finally {
+			closeTupleStore();
 		}
 		//nrOfExtractedTriples = m.getNrOfExtractedTriples();
 		logger.info("SparqlModul: ****Finished " + totalTime.getAndSet(""));
@@ -365,10 +374,31 @@ public class SparqlKnowledgeSource extends AbstractKnowledgeSource implements OW
 			ret = new SparqlTupleAquisitor(getSparqlQueryMaker(),
 					getSPARQLTasks());
 		}
+		if (useTupleStore) {
+			try {
+				if (tupleStore == null) {
+					tupleStore = new TupleStore(new File(cacheDir, "tuples"));
+				}
+				((SparqlTupleAquisitor) ret).setTupleStore(tupleStore);
+			} catch (IOException e) {
+				logger.warn("Could not open tuple store, extracting without it: " + e.getMessage());
+			}
+		}
 		return ret;
 
 	}
 
+	private void closeTupleStore() {
+		if (tupleStore != null) {
+			try {
+				tupleStore.close();
+			} catch (IOException e) {
+				logger.warn("Could not write tuple store: " + e.getMessage());
+			}
+			tupleStore = null;
+		}
+	}
+
 	public URL getOntologyFragmentURL() {
 		return ontologyFragmentURL;
 	}
@@ -493,6 +523,14 @@ public class SparqlKnowledgeSource extends AbstractKnowledgeSource implements OW
 		this.useCacheDatabase = useCacheDatabase;
 	}
 
+	public boolean isUseTupleStore() {
+		return useTupleStore;
+	}
+
+	public void setUseTupleStore(boolean useTupleStore) {
+		this.useTupleStore = useTupleStore;
+	}
+
 	public String getPredefinedFilter() {
 		return predefinedFilter;
 	}
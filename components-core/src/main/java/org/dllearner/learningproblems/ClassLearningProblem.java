@@ -71,6 +71,7 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 
 	// instances of super classes excluding instances of the class itself
 	private List<OWLIndividual> superClassInstances;
+	private TreeSet<OWLIndividual> superClassInstancesSet;
 	// instances of super classes including instances of the class itself
 	private List<OWLIndividual> classAndSuperClassInstances;
 	// specific variables for generalised F-measure
@@ -85,6 +86,13 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 	              defaultValue = "true")
 	private boolean checkConsistency = true;
 
+	@ConfigOption(description = "whether to compile the class and super class instances once into an indexed form, such that " +
+			"candidates are evaluated without copying the instances and, when using instance checks, tests of too weak " +
+			"candidates are aborted as soon as the accuracy bound is exceeded",
+	              required = false,
+	              defaultValue = "false")
+	private boolean useCompiledEvaluation = false;
+
 	private OWLDataFactory df = new OWLDataFactoryImpl();
 
 	public ClassLearningProblem() {
@@ -137,6 +145,7 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 		classAndSuperClassInstances = new LinkedList<>(superClassInstancesTmp);
 		// ... and a second list not including them
 		superClassInstancesTmp.removeAll(classInstances);
+		superClassInstancesSet = superClassInstancesTmp;
 		// since we use the instance list for approximations, we want to avoid
 		// any bias through URI names, so we shuffle the list once pseudo-randomly
 		superClassInstances = new LinkedList<>(superClassInstancesTmp);
@@ -158,6 +167,11 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 		if (accuracyMethod instanceof AccMethodWithBeta) {
 			((AccMethodWithBeta)accuracyMethod).setBeta(coverageFactor);
 		}
+		if (useCompiledEvaluation) {
+			((ReasoningUtilsCLP)reasoningUtil).compile(classInstancesSet, superClassInstancesSet);
+		} else {
+			((ReasoningUtilsCLP)reasoningUtil).clearCompiledExamples();
+		}
 
 //		System.out.println(classInstances.size() + " " + superClassInstances.size());
 		
@@ -180,7 +194,7 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 		if (accuracyMethod instanceof AccMethodTwoValued) {
 			acc = reasoningUtil.getAccuracyOrTooWeakExact2((AccMethodTwoValued) accuracyMethod, cc, noise);
 		} else if (accuracyMethod instanceof AccMethodThreeValued) {
-			acc = ((ReasoningUtilsCLP)reasoningUtil).getAccuracyOrTooWeakExact3((AccMethodThreeValued) accuracyMethod, description, classInstances, superClassInstances, negatedClassInstances, noise);
+			acc = getAccuracyOrTooWeakExact3(description, noise);
 		} else {
 			throw new RuntimeException();
 		}
@@ -208,15 +222,34 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 	@Override
 	public double getAccuracyOrTooWeak(OWLClassExpression description, double noise) {
 		nanoStartTime = System.nanoTime();
+		ReasoningUtilsCLP reasoningUtilCLP = (ReasoningUtilsCLP) reasoningUtil;
 		if (accuracyMethod instanceof AccMethodThreeValued) {
-			return ((ReasoningUtilsCLP)reasoningUtil).getAccuracyOrTooWeak3((AccMethodThreeValued) accuracyMethod, description, classInstances, superClassInstances, negatedClassInstances, noise);
+			if (useCompiledEvaluation) {
+				// same evaluation, only on the instance sets instead of copies of the lists
+				return reasoningUtilCLP.getAccuracyOrTooWeak3((AccMethodThreeValued) accuracyMethod, description, classInstancesSet, superClassInstancesSet, negatedClassInstances, noise);
+			}
+			return reasoningUtilCLP.getAccuracyOrTooWeak3((AccMethodThreeValued) accuracyMethod, description, classInstances, superClassInstances, negatedClassInstances, noise);
 		} else if (accuracyMethod instanceof  AccMethodTwoValued) {
+			if (useCompiledEvaluation && !(accuracyMethod instanceof AccMethodApproximate)) {
+				double acc = reasoningUtilCLP.getAccuracyOrTooWeakCompiled((AccMethodTwoValued) accuracyMethod, description, noise);
+				// a test which timed out has no accuracy, so the description is discarded like a too weak one
+				return Double.isNaN(acc) ? -1 : acc;
+			}
 			return reasoningUtil.getAccuracyOrTooWeak2((AccMethodTwoValued) accuracyMethod, description, classInstances, superClassInstances, noise);
 		} else {
 			throw new RuntimeException();
 		}
 	}
 
+	private double getAccuracyOrTooWeakExact3(OWLClassExpression description, double noise) {
+		ReasoningUtilsCLP reasoningUtilCLP = (ReasoningUtilsCLP) reasoningUtil;
+		if (useCompiledEvaluation) {
+			return reasoningUtilCLP.getAccuracyOrTooWeakExact3((AccMethodThreeValued) accuracyMethod, description,
+					classInstancesSet, superClassInstancesSet, negatedClassInstances, noise);
+		}
+		return reasoningUtilCLP.getAccuracyOrTooWeakExact3((AccMethodThreeValued) accuracyMethod, description, classInstances, superClassInstances, negatedClassInstances, noise);
+	}
+
 	/**
 	 * @return whether the description test should be aborted because time expired
 	 */
@@ -312,6 +345,14 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 		this.checkConsistency = checkConsistency;
 	}
 
+	public boolean isUseCompiledEvaluation() {
+		return useCompiledEvaluation;
+	}
+
+	public void setUseCompiledEvaluation(boolean useCompiledEvaluation) {
+		this.useCompiledEvaluation = useCompiledEvaluation;
+	}
+
 	public AccMethod getAccuracyMethod() {
 		return accuracyMethod;
 	}
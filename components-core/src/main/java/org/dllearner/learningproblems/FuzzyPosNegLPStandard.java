@@ -23,6 +23,8 @@ import org.dllearner.core.ComponentAnn;
 import org.dllearner.core.ComponentInitException;
 import org.dllearner.core.EvaluatedDescription;
 import org.dllearner.core.config.ConfigOption;
+import org.dllearner.core.fuzzydll.FuzzyMembershipEngine;
+import org.dllearner.core.fuzzydll.FuzzyMembershipEngine.FuzzyLogic;
 import org.dllearner.core.owl.fuzzydll.FuzzyIndividual;
 import org.dllearner.learningproblems.Heuristics.HeuristicType;
 import org.dllearner.utilities.owl.OWLClassExpressionUtils;
@@ -68,6 +70,22 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 	
 	@ConfigOption(description = "Specifies, which method/function to use for computing accuracy. Available measues are \"PRED_ACC\" (predictive accuracy), \"FMEASURE\" (F measure), \"GEN_FMEASURE\" (generalised F-Measure according to Fanizzi and d'Amato).",defaultValue = "PRED_ACC")
     private HeuristicType accuracyMethod = HeuristicType.PRED_ACC;
+
+	@ConfigOption(defaultValue = "false", description = "compute the membership degrees of all fuzzy examples at once by composing the " +
+			"cached degrees of the sub-expressions of a class expression instead of asking the reasoner per example; " +
+			"unions and complements are only approximated under the open world assumption")
+	private boolean useMembershipEngine = false;
+
+	@ConfigOption(defaultValue = "ZADEH", description = "the fuzzy logic used by the membership engine for intersections and unions " +
+			"(ZADEH, PRODUCT or LUKASIEWICZ)")
+	private FuzzyLogic fuzzyLogic = FuzzyLogic.ZADEH;
+
+	@ConfigOption(defaultValue = "10000", description = "the maximum number of sub-expressions whose membership degrees are cached by the membership engine")
+	private int membershipCacheSize = 10000;
+
+	private FuzzyMembershipEngine membershipEngine;
+	// truth degrees of the fuzzy examples, in the order of the membership engine
+	private double[] truthDegrees;
 	
 	public FuzzyPosNegLPStandard() {}
 	
@@ -88,6 +106,18 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 		if(useApproximations && accuracyMethod.equals(HeuristicType.PRED_ACC)) {
 			logger.warn("Approximating predictive accuracy is an experimental feature. USE IT AT YOUR OWN RISK. If you consider to use it for anything serious, please extend the unit tests at org.dllearner.test.junit.HeuristicTests first and verify that it works.");
 		}
+
+		if(useMembershipEngine) {
+			membershipEngine = new FuzzyMembershipEngine(getReasoner(), fuzzyExamples, fuzzyLogic, membershipCacheSize);
+			FuzzyIndividual[] individuals = membershipEngine.getIndividuals();
+			truthDegrees = new double[individuals.length];
+			for (int i = 0; i < individuals.length; i++) {
+				truthDegrees[i] = individuals[i].getTruthDegree();
+			}
+		} else {
+			membershipEngine = null;
+			truthDegrees = null;
+		}
 		
 		initialized = true;
 	}
@@ -242,6 +272,9 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 	 * @see org.dllearner.core.LearningProblem#getAccuracyOrTooWeak(org.dllearner.core.owl.Description, double)
 	 */
 	private double getPredAccuracyOrTooWeakExact(OWLClassExpression description, double noise) {
+		if(membershipEngine != null) {
+			return getPredAccuracyOrTooWeakVectorized(description, noise);
+		}
 		
 		// System.out.println(errorIndex++);
 
@@ -296,6 +329,49 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 		return fuzzyAccuracy;
 	}
 
+	// same as getPredAccuracyOrTooWeakExact, but on the degree arrays of the membership engine;
+	// the sum of (membership - 1) * truth degree only decreases, so checking the noise bound
+	// once at the end gives the same result as the check after each example
+	private double getPredAccuracyOrTooWeakVectorized(OWLClassExpression description, double noise) {
+		double[] degrees = membershipEngine.getMemberships(description);
+		
+		double descriptionMembership = 0;
+		double accumulativeDescriptionMembership = 0;
+		double truthSum = 0;
+		for (int i = 0; i < degrees.length; i++) {
+			double membership = 1 - Math.abs(truthDegrees[i] - degrees[i]);
+			descriptionMembership += membership;
+			accumulativeDescriptionMembership += membership * truthDegrees[i];
+			truthSum += truthDegrees[i];
+		}
+		
+		if (accumulativeDescriptionMembership + totalTruth - truthSum < (1 - noise) * totalTruth) {
+			return -1;
+		}
+		return descriptionMembership / degrees.length;
+	}
+	
+	private double getFMeasureOrTooWeakVectorized(OWLClassExpression description, double noise) {
+		double[] degrees = membershipEngine.getMemberships(description);
+		
+		double coveredMembershipDegree = 0;
+		double totalMembershipDegree = 0;
+		double invertedCoveredMembershipDegree = 0;
+		for (int i = 0; i < degrees.length; i++) {
+			double membership = 1 - Math.abs(truthDegrees[i] - degrees[i]);
+			coveredMembershipDegree += membership * truthDegrees[i];
+			totalMembershipDegree += truthDegrees[i];
+			invertedCoveredMembershipDegree += (1 - truthDegrees[i]) * (1 - membership);
+		}
+		double fuzzyRecall = totalMembershipDegree == 0 ? 0 : coveredMembershipDegree / totalMembershipDegree;
+		
+		if(fuzzyRecall < 1 - noise) {
+			return -1;
+		}
+		double fuzzyPrecision = (coveredMembershipDegree + invertedCoveredMembershipDegree) == 0 ? 0 : coveredMembershipDegree / (coveredMembershipDegree + invertedCoveredMembershipDegree);
+		return Heuristics.getFScore(fuzzyRecall, fuzzyPrecision);
+	}
+
 	// added by Josue
 	private double crispAccuracy(OWLClassExpression description, double noise) {
 		int maxNotCovered = (int) Math.ceil(noise*positiveExamples.size());
@@ -348,6 +424,9 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 	}
 	
 	private double getFMeasureOrTooWeakExact(OWLClassExpression description, double noise) {
+		if(membershipEngine != null) {
+			return getFMeasureOrTooWeakVectorized(description, noise);
+		}
 		
 		// added by Josue
 		// fuzzy F-measure
@@ -555,6 +634,30 @@ public class FuzzyPosNegLPStandard extends FuzzyPosNegLP {
 		this.accuracyMethod = accuracyMethod;
 	}
 
+	public boolean isUseMembershipEngine() {
+		return useMembershipEngine;
+	}
+
+	public void setUseMembershipEngine(boolean useMembershipEngine) {
+		this.useMembershipEngine = useMembershipEngine;
+	}
+
+	public FuzzyLogic getFuzzyLogic() {
+		return fuzzyLogic;
+	}
+
+	public void setFuzzyLogic(FuzzyLogic fuzzyLogic) {
+		this.fuzzyLogic = fuzzyLogic;
+	}
+
+	public int getMembershipCacheSize() {
+		return membershipCacheSize;
+	}
+
+	public void setMembershipCacheSize(int membershipCacheSize) {
+		this.membershipCacheSize = membershipCacheSize;
+	}
+
 	
 	public double getAccuracy(int posAsPos, int posAsNeg, int negAsPos, int negAsNeg, double noise) {
 		int maxNotCovered = (int) Math.ceil(noise * positiveExamples.size());
@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.learningproblems;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+/**
+ * Computes the coverage of class expressions for the {@link PosOnlyLP}.
+ * <p>
+ * The positive examples and a fixed background sample of the other individuals are interned once, such that
+ * the covered individuals of a class expression are a bitset. The sample is drawn with a fixed seed, so the
+ * evaluation is reproducible, and the number of instances of a class expression outside of the positive
+ * examples is extrapolated from it. If the sample size is at least the number of other individuals, the
+ * sample contains all of them and the result is exact.
+ * <p>
+ * If the reasoner uses instance checks, they are run in chunks on the given number of threads (which requires
+ * a reasoner that supports concurrent instance checks), otherwise the instances of a class expression are
+ * retrieved at once and intersected with the interned individuals.
+ * <p>
+ * The evaluator only computes the coverage, the accuracy is computed by the learning problem with the same
+ * heuristic as without sampling.
+ */
+public class PosOnlyEvaluator implements AutoCloseable {
+
+	/**
+	 * The number of positive examples covered by a class expression and the estimated number of its other
+	 * instances.
+	 */
+	public static class Coverage {
+
+		private final int coveredPositives;
+		private final double additionalInstances;
+
+		Coverage(int coveredPositives, double additionalInstances) {
+			this.coveredPositives = coveredPositives;
+			this.additionalInstances = additionalInstances;
+		}
+
+		public int getCoveredPositives() {
+			return coveredPositives;
+		}
+
+		public double getAdditionalInstances() {
+			return additionalInstances;
+		}
+	}
+
+	private final AbstractReasonerComponent reasoner;
+
+	// positives first, then the sample
+	private final List<OWLIndividual> individuals = new ArrayList<>();
+	private final Map<OWLIndividual, Integer> index = new HashMap<>();
+	private final int nrOfPositives;
+	// the number of individuals which are not positive examples
+	private final int nrOfOtherIndividuals;
+
+	private final int nrOfThreads;
+	private ExecutorService instanceCheckPool;
+
+	/**
+	 * @param reasoner the reasoner
+	 * @param positiveExamples the positive examples
+	 * @param allIndividuals all individuals of the knowledge base
+	 * @param sampleSize the maximum number of individuals in the background sample
+	 * @param seed the seed of the sample
+	 * @param nrOfThreads the number of threads used for instance checks
+	 */
+	public PosOnlyEvaluator(AbstractReasonerComponent reasoner, Collection<OWLIndividual> positiveExamples,
+							Collection<OWLIndividual> allIndividuals, int sampleSize, long seed, int nrOfThreads) {
+		this.reasoner = reasoner;
+		this.nrOfThreads = nrOfThreads;
+
+		for (OWLIndividual ind : positiveExamples) {
+			intern(ind);
+		}
+		nrOfPositives = individuals.size();
+
+		List<OWLIndividual> others = new ArrayList<>();
+		for (OWLIndividual ind : allIndividuals) {
+			if (!index.containsKey(ind)) {
+				others.add(ind);
+			}
+		}
+		nrOfOtherIndividuals = others.size();
+		Collections.shuffle(others, new Random(seed));
+		for (OWLIndividual ind : others.subList(0, Math.min(sampleSize, others.size()))) {
+			intern(ind);
+		}
+
+		if (nrOfThreads > 1 && reasoner.isUseInstanceChecks()) {
+			instanceCheckPool = Executors.newFixedThreadPool(nrOfThreads, r -> {
+				Thread thread = new Thread(r, "posonly-instance-check");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	private void intern(OWLIndividual ind) {
+		if (!index.containsKey(ind)) {
+			index.put(ind, individuals.size());
+			individuals.add(ind);
+		}
+	}
+
+	/**
+	 * @return the number of individuals in the background sample
+	 */
+	public int getSampleSize() {
+		return individuals.size() - nrOfPositives;
+	}
+
+	/**
+	 * Computes the coverage of the class expression, where the number of other instances is estimated from the
+	 * sample.
+	 *
+	 * @param description the class expression
+	 * @param maxNotCovered the number of positive examples which may be not covered
+	 * @return the coverage, or null if too many positive examples are not covered
+	 */
+	public Coverage getCoverage(OWLClassExpression description, int maxNotCovered) {
+		BitSet covered;
+		if (reasoner.isUseInstanceChecks()) {
+			// check the positives first, such that we can abort early
+			covered = instanceChecks(description, 0, nrOfPositives);
+			if (nrOfPositives - covered.cardinality() > maxNotCovered) {
+				return null;
+			}
+			covered.or(instanceChecks(description, nrOfPositives, individuals.size()));
+		} else {
+			covered = retrieval(description);
+		}
+
+		int coveredPositives = covered.get(0, nrOfPositives).cardinality();
+		if (nrOfPositives - coveredPositives > maxNotCovered) {
+			return null;
+		}
+		int coveredSample = covered.cardinality() - coveredPositives;
+
+		int sampleSize = getSampleSize();
+		double additionalInstances = sampleSize == 0 ? 0 : coveredSample / (double) sampleSize * nrOfOtherIndividuals;
+		return new Coverage(coveredPositives, additionalInstances);
+	}
+
+	private BitSet retrieval(OWLClassExpression description) {
+		BitSet covered = new BitSet(individuals.size());
+		SortedSet<OWLIndividual> instances = reasoner.getIndividuals(description);
+		// iterate over the smaller one of both sets
+		if (instances.size() < individuals.size()) {
+			for (OWLIndividual ind : instances) {
+				Integer i = index.get(ind);
+				if (i != null) {
+					covered.set(i);
+				}
+			}
+		} else {
+			for (int i = 0; i < individuals.size(); i++) {
+				if (instances.contains(individuals.get(i))) {
+					covered.set(i);
+				}
+			}
+		}
+		return covered;
+	}
+
+	private BitSet instanceChecks(OWLClassExpression description, int from, int to) {
+		if (instanceCheckPool == null) {
+			BitSet covered = new BitSet(to);
+			for (int i = from; i < to; i++) {
+				if (reasoner.hasType(description, individuals.get(i))) {
+					covered.set(i);
+				}
+			}
+			return covered;
+		}
+
+		// several chunks per thread for a better load balance
+		int chunkSize = Math.max(1, (to - from) / (4 * nrOfThreads));
+		List<Future<BitSet>> futures = new ArrayList<>();
+		for (int start = from; start < to; start += chunkSize) {
+			int chunkStart = start;
+			int chunkEnd = Math.min(start + chunkSize, to);
+			futures.add(instanceCheckPool.submit(() -> {
+				BitSet covered = new BitSet(chunkEnd);
+				for (int i = chunkStart; i < chunkEnd; i++) {
+					if (reasoner.hasType(description, individuals.get(i))) {
+						covered.set(i);
+					}
+				}
+				return covered;
+			}));
+		}
+		BitSet covered = new BitSet(to);
+		for (Future<BitSet> future : futures) {
+			try {
+				covered.or(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Instance checks interrupted", e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException("Instance check failed", e.getCause());
+			}
+		}
+		return covered;
+	}
+
+	/**
+	 * Stops the threads used for instance checks.
+	 */
+	@Override
+	public void close() {
+		if (instanceCheckPool != null) {
+			instanceCheckPool.shutdownNow();
+		}
+	}
+}
@@ -37,7 +37,7 @@ import java.util.*;
  *
  */
 @ComponentAnn(name = "positive only learning problem", shortName = "posonlylp", version = 0.6)
-public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOnly<OWLNamedIndividual>> {
+public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOnly<OWLNamedIndividual>> implements AutoCloseable {
 
 	private static Logger logger = Logger.getLogger(PosOnlyLP.class);
     private long nanoStartTime;
@@ -51,6 +51,20 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 
 	private boolean useApproximations = false;
 
+	@ConfigOption(defaultValue = "false", description = "compute the accuracy on bitsets of the positive examples and " +
+			"a fixed random sample of the other individuals instead of testing the individuals one by one")
+	private boolean useSampleEvaluation = false;
+
+	@ConfigOption(defaultValue = "10000", description = "the number of other individuals in the sample of the sample " +
+			"evaluation; if it is at least the number of individuals, the accuracy is exact")
+	private int sampleSize = 10000;
+
+	@ConfigOption(defaultValue = "1", description = "number of threads used for the instance checks of the sample " +
+			"evaluation, only used if the reasoner uses instance checks and supports concurrent ones")
+	private int nrOfThreads = 1;
+
+	private PosOnlyEvaluator evaluator;
+
 	// approximation of accuracy +- 0.03 %
 	private static final double approx = 0.03;
 
@@ -95,6 +109,13 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 
 		positiveExamplesShuffled = new LinkedList<>(positiveExamples);
 		Collections.shuffle(positiveExamplesShuffled, rand);
+
+		close();
+		if (useSampleEvaluation && individuals != null) {
+			evaluator = new PosOnlyEvaluator(reasoner, positiveExamples, individuals, sampleSize, 1, nrOfThreads);
+			logger.info("Using sample evaluation with " + evaluator.getSampleSize() + " of " +
+					(individuals.size() - positiveExamples.size()) + " other individuals");
+		}
 		
 		initialized = true;
 	}
@@ -258,6 +279,9 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 	 */
 	@Override
 	public double getAccuracyOrTooWeak(OWLClassExpression description, double noise) {
+		if (evaluator != null) {
+			return getAccuracyOrTooWeakSampled(description, noise);
+		}
 		return useApproximations ? getAccuracyOrTooWeakApprox(description, noise) : getAccuracyOrTooWeakExact(description, noise);
 	}
 
@@ -276,6 +300,10 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 		// computing R(A)
 		int coveredInstances = Sets.intersection(individualsC, positiveExamples).size();
 
+		return getAccuracyOrTooWeakExact(coveredInstances, additionalInstances, noise);
+	}
+
+	private double getAccuracyOrTooWeakExact(int coveredInstances, double additionalInstances, double noise) {
 		double recall = coveredInstances / (double) positiveExamples.size();
 
 		// noise computation is incorrect
@@ -295,6 +323,25 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 
 	}
 
+	// the sample evaluation only estimates the number of instances, the accuracy is computed
+	// in the same way as by the approximate or exact computation
+	private double getAccuracyOrTooWeakSampled(OWLClassExpression description, double noise) {
+		int maxNotCovered = (int) Math.ceil(noise*positiveExamples.size());
+		PosOnlyEvaluator.Coverage coverage = evaluator.getCoverage(description, maxNotCovered);
+		if (coverage == null) {
+			return -1;
+		}
+
+		int coveredInstances = coverage.getCoveredPositives();
+		double additionalInstances = coverage.getAdditionalInstances();
+		if (useApproximations) {
+			double protusion = (coveredInstances + additionalInstances == 0) ? 0 : coveredInstances
+					/ (coveredInstances + additionalInstances);
+			return getAccuracy(coveredInstances / (double) positiveExamples.size(), protusion);
+		}
+		return getAccuracyOrTooWeakExact(coveredInstances, additionalInstances, noise);
+	}
+
 	// see paper: expression used in confidence interval estimation
 	private static double p3(double p1, int total) {
 		return 1.96 * Math.sqrt(p1*(1-p1)/(total+4));
@@ -316,6 +363,30 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 		return 0.5 * (coverage + Math.sqrt(protusion));
 	}
 
+	public boolean isUseSampleEvaluation() {
+		return useSampleEvaluation;
+	}
+
+	public void setUseSampleEvaluation(boolean useSampleEvaluation) {
+		this.useSampleEvaluation = useSampleEvaluation;
+	}
+
+	public int getSampleSize() {
+		return sampleSize;
+	}
+
+	public void setSampleSize(int sampleSize) {
+		this.sampleSize = sampleSize;
+	}
+
+	public int getNrOfThreads() {
+		return nrOfThreads;
+	}
+
+	public void setNrOfThreads(int nrOfThreads) {
+		this.nrOfThreads = nrOfThreads;
+	}
+
 	public void setPositiveExamples(SortedSet<OWLIndividual> positiveExamples) {
 		this.positiveExamples = positiveExamples;
 	}
@@ -323,4 +394,15 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 	public void setPositiveExamples(Set<OWLIndividual> positiveExamples) {
 		this.positiveExamples = new TreeSet<>(positiveExamples);
 	}
+
+	/**
+	 * Stops the threads of the sample evaluation, if any.
+	 */
+	@Override
+	public void close() {
+		if (evaluator != null) {
+			evaluator.close();
+			evaluator = null;
+		}
+	}
 }
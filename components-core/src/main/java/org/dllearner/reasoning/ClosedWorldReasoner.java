@@ -76,6 +76,8 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     // the underlying base reasoner implementation
     private OWLAPIReasoner baseReasoner;
+    // clears the subsumption cache if the one of the base reasoner is cleared, i.e. the ontology has changed
+    private final Runnable subsumptionCacheInvalidation = this::clearSubsumptionCache;
     @ConfigOption(description = "the underlying reasoner implementation", defaultValue = "OWL API Reasoner")
     private final OWLAPIReasoner reasonerComponent = null;
     /**
@@ -221,6 +223,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             baseReasoner = new OWLAPIReasoner(sources);
             baseReasoner.init();
         }
+        baseReasoner.addSubsumptionCacheInvalidationListener(subsumptionCacheInvalidation);
 
 //		loadOrDematerialize();
         materialize();
@@ -1673,6 +1676,10 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         this.handlePunning = handlePunning;
     }
 
+    public boolean isMaterializeExistentialRestrictions() {
+        return materializeExistentialRestrictions;
+    }
+
     /**
      * @param materializeExistentialRestrictions the
      * materializeExistentialRestrictions to set
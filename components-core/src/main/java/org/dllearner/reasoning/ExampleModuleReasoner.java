@@ -0,0 +1,546 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dllearner.core.*;
+import org.dllearner.core.annotations.NoConfigOption;
+import org.dllearner.core.config.ConfigOption;
+import org.dllearner.utilities.owl.OWLAxiomCBDGenerator;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * A reasoner which answers instance checks of the given example individuals against small, example-local
+ * modules of the ontology instead of the whole ontology. A module consists of the TBox and RBox of the
+ * ontology and the ABox neighbourhood of the individual up to the given depth, computed by the
+ * {@link OWLAxiomCBDGenerator}. For each module a separate reasoner of the same implementation as the
+ * base reasoner is created. The modules of all examples are built in parallel at init time.
+ * <p>
+ * Because a module is a subset of the ontology, a positive instance check is always correct. A negative
+ * one is only guaranteed if the class expression doesn't look further than the module depth from the
+ * individual. Thus, a module is only used if the property restrictions of the class expression, including
+ * those of the axioms about its named classes, are nested less deep than the module depth and if neither
+ * the class expression nor the schema contains nominals, inverse, symmetric or transitive properties or
+ * property chains, which can relate the individual to parts of the ABox outside of its module. The modules
+ * contain only the outgoing property assertions, thus modules are not built at all if the schema or the
+ * class assertions can entail types or equalities of an individual from the assertions pointing to it, i.e.
+ * if there are property ranges, (inverse) functional properties, keys or universal and maximum cardinality
+ * restrictions in superclasses. Instance checks of other individuals and all other reasoning tasks are
+ * delegated to the base reasoner.
+ */
+@ComponentAnn(name = "example module reasoner", shortName = "emr", version = 0.1)
+public class ExampleModuleReasoner extends AbstractReasonerComponent {
+
+	private static Logger logger = LoggerFactory.getLogger(ExampleModuleReasoner.class);
+
+	private OWLAPIReasoner baseReasoner;
+	// clears the subsumption cache if the one of the base reasoner is cleared, i.e. the ontology has changed
+	private final Runnable subsumptionCacheInvalidation = this::clearSubsumptionCache;
+
+	@ConfigOption(description = "the individuals for which a module is built, usually the examples of the learning problem", required = true)
+	private Set<OWLIndividual> examples = new TreeSet<>();
+
+	@ConfigOption(description = "the depth of the ABox neighbourhood of an individual contained in its module", defaultValue = "2")
+	private int moduleDepth = 2;
+
+	@ConfigOption(description = "the number of threads used to build the modules", defaultValue = "number of available processors")
+	private int nrOfThreads = Runtime.getRuntime().availableProcessors();
+
+	private Map<OWLIndividual, OWLReasoner> moduleReasoners = new ConcurrentHashMap<>();
+
+	// the restriction depth of the axioms about a named class, capped at the module depth
+	private Map<OWLClass, Integer> classDepths = new HashMap<>();
+
+	// axiom types of the schema which make an individual depend on ABox axioms outside of its module
+	private static final Set<AxiomType<?>> NON_LOCAL_AXIOM_TYPES = new HashSet<>(Arrays.asList(
+			AxiomType.INVERSE_OBJECT_PROPERTIES,
+			AxiomType.SYMMETRIC_OBJECT_PROPERTY,
+			AxiomType.TRANSITIVE_OBJECT_PROPERTY,
+			AxiomType.SUB_PROPERTY_CHAIN_OF,
+			// entail types or equalities of the objects of property assertions
+			AxiomType.OBJECT_PROPERTY_RANGE,
+			AxiomType.FUNCTIONAL_OBJECT_PROPERTY,
+			AxiomType.INVERSE_FUNCTIONAL_OBJECT_PROPERTY,
+			AxiomType.HAS_KEY));
+
+	private OWLDataFactory df;
+
+	public ExampleModuleReasoner() {}
+
+	public ExampleModuleReasoner(OWLAPIReasoner baseReasoner, Set<OWLIndividual> examples) {
+		super(baseReasoner.getSources());
+		this.baseReasoner = baseReasoner;
+		this.examples = examples;
+	}
+
+	@Override
+	public void init() throws ComponentInitException {
+		if (baseReasoner == null) {
+			baseReasoner = new OWLAPIReasoner(sources);
+			baseReasoner.init();
+		}
+		baseReasoner.addSubsumptionCacheInvalidationListener(subsumptionCacheInvalidation);
+		df = baseReasoner.getManager().getOWLDataFactory();
+
+		releaseModules();
+
+		OWLOntology ontology = baseReasoner.getOntology();
+
+		// the TBox and RBox are part of every module
+		Set<OWLAxiom> schemaAxioms = new HashSet<>();
+		schemaAxioms.addAll(ontology.getTBoxAxioms(Imports.INCLUDED));
+		schemaAxioms.addAll(ontology.getRBoxAxioms(Imports.INCLUDED));
+
+		for (OWLAxiom axiom : schemaAxioms) {
+			if (NON_LOCAL_AXIOM_TYPES.contains(axiom.getAxiomType()) || !isLocal(axiom)
+					|| asSubClassOfAxioms(axiom).stream().anyMatch(gci -> isPropagatedToObjects(gci.getSuperClass()))) {
+				logger.warn("No modules built, because the schema contains the axiom " + axiom
+						+ ", which is not restricted to the neighbourhood of an individual.");
+				initialized = true;
+				return;
+			}
+		}
+		for (OWLClassAssertionAxiom axiom : ontology.getAxioms(AxiomType.CLASS_ASSERTION, Imports.INCLUDED)) {
+			if (isPropagatedToObjects(axiom.getClassExpression())) {
+				logger.warn("No modules built, because the ABox contains the axiom " + axiom
+						+ ", which is not restricted to the neighbourhood of an individual.");
+				initialized = true;
+				return;
+			}
+		}
+		computeClassDepths(schemaAxioms);
+
+		logger.info("Building modules for " + examples.size() + " individuals ...");
+		long startTime = System.currentTimeMillis();
+
+		// the CBD generator keeps state during the traversal, so each thread needs its own one
+		ThreadLocal<OWLAxiomCBDGenerator> cbdGenerator = ThreadLocal.withInitial(() -> new OWLAxiomCBDGenerator(ontology));
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, nrOfThreads));
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (OWLIndividual ind : examples) {
+				futures.add(executor.submit(() -> {
+					Set<OWLAxiom> axioms = new HashSet<>(schemaAxioms);
+					axioms.addAll(cbdGenerator.get().getCBD(ind, moduleDepth));
+					try {
+						OWLOntology module = OWLManager.createOWLOntologyManager().createOntology(axioms);
+						OWLReasoner moduleReasoner = baseReasoner.createReasoner(module);
+						if (moduleReasoner != null) {
+							moduleReasoners.put(ind, moduleReasoner);
+						}
+					} catch (OWLOntologyCreationException e) {
+						throw new RuntimeException("Failed to create module of " + ind, e);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ComponentInitException("Building of the modules interrupted", e);
+		} catch (ExecutionException e) {
+			throw new ComponentInitException("Building of the modules failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		logger.info("... done in " + (System.currentTimeMillis() - startTime) + "ms.");
+		if (moduleReasoners.isEmpty() && !examples.isEmpty()) {
+			logger.warn("No modules built, because the base reasoner was not created by its component.");
+		}
+
+		initialized = true;
+	}
+
+	private void releaseModules() {
+		moduleReasoners.values().forEach(OWLReasoner::dispose);
+		moduleReasoners.clear();
+	}
+
+	@Override
+	public boolean hasTypeImpl(OWLClassExpression concept, OWLIndividual individual) {
+		OWLReasoner moduleReasoner = moduleReasoners.get(individual);
+		if (moduleReasoner == null || concept.isOWLThing() || concept.isOWLNothing()
+				|| !isLocal(concept) || getRestrictionDepth(concept) >= moduleDepth) {
+			return baseReasoner.hasTypeImpl(concept, individual);
+		}
+		OWLClassAssertionAxiom axiom = df.getOWLClassAssertionAxiom(concept, individual);
+		// the OWL API reasoners are not thread-safe
+		synchronized (moduleReasoner) {
+			return moduleReasoner.isEntailed(axiom);
+		}
+	}
+
+	/**
+	 * @return whether the object doesn't contain nominals or inverse properties
+	 */
+	private static boolean isLocal(OWLObject object) {
+		if (!object.getIndividualsInSignature().isEmpty()) {
+			return false;
+		}
+		for (OWLClassExpression ce : object.getNestedClassExpressions()) {
+			if (ce instanceof OWLRestriction && ((OWLRestriction) ce).getProperty().isAnonymous()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether the class expression can entail types or equalities of the objects of the property
+	 * assertions of its instances, i.e. whether its negation normal form contains universal or maximum
+	 * cardinality restrictions
+	 */
+	private static boolean isPropagatedToObjects(OWLClassExpression ce) {
+		for (OWLClassExpression nested : ce.getNNF().getNestedClassExpressions()) {
+			if (nested instanceof OWLObjectAllValuesFrom || nested instanceof OWLObjectMaxCardinality
+					|| nested instanceof OWLObjectExactCardinality) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Collection<OWLSubClassOfAxiom> asSubClassOfAxioms(OWLAxiom axiom) {
+		if (axiom instanceof OWLSubClassOfAxiom) {
+			return Collections.singleton((OWLSubClassOfAxiom) axiom);
+		} else if (axiom instanceof OWLSubClassOfAxiomShortCut) {
+			// domains, ranges and functional properties
+			return Collections.singleton(((OWLSubClassOfAxiomShortCut) axiom).asOWLSubClassOfAxiom());
+		} else if (axiom instanceof OWLNaryClassAxiom) {
+			return ((OWLNaryClassAxiom) axiom).asOWLSubClassOfAxioms();
+		} else if (axiom instanceof OWLDisjointUnionAxiom) {
+			Set<OWLSubClassOfAxiom> gcis = new HashSet<>();
+			gcis.addAll(((OWLDisjointUnionAxiom) axiom).getOWLEquivalentClassesAxiom().asOWLSubClassOfAxioms());
+			gcis.addAll(((OWLDisjointUnionAxiom) axiom).getOWLDisjointClassesAxiom().asOWLSubClassOfAxioms());
+			return gcis;
+		}
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Computes the restriction depth of the named classes, which is the maximum restriction depth of the
+	 * axioms they occur in, because an individual can be entailed to be or not to be an instance of the class
+	 * by each of them.
+	 */
+	private void computeClassDepths(Set<OWLAxiom> schemaAxioms) {
+		classDepths.clear();
+		List<OWLSubClassOfAxiom> gcis = new ArrayList<>();
+		for (OWLAxiom axiom : schemaAxioms) {
+			gcis.addAll(asSubClassOfAxioms(axiom));
+		}
+		// the depths only grow and are capped at the module depth, thus the iteration terminates
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (OWLSubClassOfAxiom gci : gcis) {
+				int depth = Math.min(moduleDepth,
+						Math.max(getRestrictionDepth(gci.getSubClass()), getRestrictionDepth(gci.getSuperClass())));
+				for (OWLClass cls : gci.getClassesInSignature()) {
+					if (!cls.isBuiltIn() && depth > classDepths.getOrDefault(cls, 0)) {
+						classDepths.put(cls, depth);
+						changed = true;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the maximum nesting of object property restrictions, including those of the axioms about the
+	 * named classes, i.e. the number of hops from the individual up to the last individual whose assertions
+	 * are used to check the class expression
+	 */
+	private int getRestrictionDepth(OWLClassExpression ce) {
+		if (ce instanceof OWLClass) {
+			return classDepths.getOrDefault(ce, 0);
+		} else if (ce instanceof OWLQuantifiedObjectRestriction) {
+			return 1 + getRestrictionDepth(((OWLQuantifiedObjectRestriction) ce).getFiller());
+		} else if (ce instanceof OWLNaryBooleanClassExpression) {
+			int depth = 0;
+			for (OWLClassExpression operand : ((OWLNaryBooleanClassExpression) ce).getOperands()) {
+				depth = Math.max(depth, getRestrictionDepth(operand));
+			}
+			return depth;
+		} else if (ce instanceof OWLObjectComplementOf) {
+			return getRestrictionDepth(((OWLObjectComplementOf) ce).getOperand());
+		}
+		// restrictions on the individual itself
+		return 0;
+	}
+
+	@Override
+	public SortedSet<OWLIndividual> getIndividualsImpl(OWLClassExpression concept) {
+		return baseReasoner.getIndividualsImpl(concept);
+	}
+
+	@Override
+	public Set<OWLClass> getClasses() {
+		return baseReasoner.getClasses();
+	}
+
+	@Override
+	public SortedSet<OWLIndividual> getIndividuals() {
+		return baseReasoner.getIndividuals();
+	}
+
+	@Override
+	public Set<OWLObjectProperty> getObjectPropertiesImpl() {
+		return baseReasoner.getObjectProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getDatatypePropertiesImpl() {
+		return baseReasoner.getDatatypeProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getBooleanDatatypePropertiesImpl() {
+		return baseReasoner.getBooleanDatatypeProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getDoubleDatatypePropertiesImpl() {
+		return baseReasoner.getDoubleDatatypeProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getIntDatatypePropertiesImpl() {
+		return baseReasoner.getIntDatatypeProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getStringDatatypePropertiesImpl() {
+		return baseReasoner.getStringDatatypeProperties();
+	}
+
+	@Override
+	protected SortedSet<OWLClassExpression> getSuperClassesImpl(OWLClassExpression concept) {
+		return baseReasoner.getSuperClassesImpl(concept);
+	}
+
+	@Override
+	protected SortedSet<OWLClassExpression> getSubClassesImpl(OWLClassExpression concept) {
+		return baseReasoner.getSubClassesImpl(concept);
+	}
+
+	@Override
+	protected SortedSet<OWLObjectProperty> getSuperPropertiesImpl(OWLObjectProperty role) {
+		return baseReasoner.getSuperPropertiesImpl(role);
+	}
+
+	@Override
+	protected SortedSet<OWLObjectProperty> getSubPropertiesImpl(OWLObjectProperty role) {
+		return baseReasoner.getSubPropertiesImpl(role);
+	}
+
+	@Override
+	protected SortedSet<OWLDataProperty> getSuperPropertiesImpl(OWLDataProperty role) {
+		return baseReasoner.getSuperPropertiesImpl(role);
+	}
+
+	@Override
+	protected SortedSet<OWLDataProperty> getSubPropertiesImpl(OWLDataProperty role) {
+		return baseReasoner.getSubPropertiesImpl(role);
+	}
+
+	@Override
+	public ReasonerType getReasonerType() {
+		return baseReasoner.getReasonerType();
+	}
+
+	@Override
+	public boolean isSuperClassOfImpl(OWLClassExpression superConcept, OWLClassExpression subConcept) {
+		return baseReasoner.isSuperClassOfImpl(superConcept, subConcept);
+	}
+
+	@Override
+	public boolean isDisjointImpl(OWLClass clsA, OWLClass clsB) {
+		return baseReasoner.isDisjointImpl(clsA, clsB);
+	}
+
+	@Override
+	public String getBaseURI() {
+		return baseReasoner.getBaseURI();
+	}
+
+	@Override
+	public Map<String, String> getPrefixes() {
+		return baseReasoner.getPrefixes();
+	}
+
+	@Override
+	public OWLClassExpression getDomainImpl(OWLObjectProperty objectProperty) {
+		return baseReasoner.getDomain(objectProperty);
+	}
+
+	@Override
+	public OWLClassExpression getDomainImpl(OWLDataProperty datatypeProperty) {
+		return baseReasoner.getDomain(datatypeProperty);
+	}
+
+	@Override
+	public OWLClassExpression getRangeImpl(OWLObjectProperty objectProperty) {
+		return baseReasoner.getRange(objectProperty);
+	}
+
+	@Override
+	public OWLDataRange getRangeImpl(OWLDataProperty datatypeProperty) {
+		return baseReasoner.getRange(datatypeProperty);
+	}
+
+	@Override
+	public Map<OWLIndividual, SortedSet<OWLIndividual>> getPropertyMembersImpl(OWLObjectProperty atomicRole) {
+		return baseReasoner.getPropertyMembers(atomicRole);
+	}
+
+	@Override
+	public Map<OWLIndividual, SortedSet<OWLLiteral>> getDatatypeMembersImpl(OWLDataProperty datatypeProperty) {
+		return baseReasoner.getDatatypeMembers(datatypeProperty);
+	}
+
+	@Override
+	protected Map<OWLDataProperty, Set<OWLLiteral>> getDataPropertyRelationshipsImpl(OWLIndividual individual) {
+		return baseReasoner.getDataPropertyRelationships(individual);
+	}
+
+	@Override
+	public Set<OWLIndividual> getRelatedIndividualsImpl(OWLIndividual individual, OWLObjectProperty objectProperty) {
+		return baseReasoner.getRelatedIndividuals(individual, objectProperty);
+	}
+
+	@Override
+	protected Map<OWLObjectProperty, Set<OWLIndividual>> getObjectPropertyRelationshipsImpl(OWLIndividual individual) {
+		return baseReasoner.getObjectPropertyRelationships(individual);
+	}
+
+	@Override
+	public Set<OWLLiteral> getRelatedValuesImpl(OWLIndividual individual, OWLDataProperty datatypeProperty) {
+		return baseReasoner.getRelatedValues(individual, datatypeProperty);
+	}
+
+	@Override
+	public boolean isSatisfiableImpl() {
+		return baseReasoner.isSatisfiable();
+	}
+
+	@Override
+	public Set<OWLLiteral> getLabelImpl(OWLEntity entity) {
+		return baseReasoner.getLabel(entity);
+	}
+
+	@Override
+	protected Set<OWLClass> getTypesImpl(OWLIndividual individual) {
+		return baseReasoner.getTypesImpl(individual);
+	}
+
+	@Override
+	public boolean remainsSatisfiableImpl(OWLAxiom axiom) {
+		return baseReasoner.remainsSatisfiableImpl(axiom);
+	}
+
+	@Override
+	protected Set<OWLClassExpression> getAssertedDefinitionsImpl(OWLClass nc) {
+		return baseReasoner.getAssertedDefinitionsImpl(nc);
+	}
+
+	@Override
+	protected Set<OWLClass> getInconsistentClassesImpl() {
+		return baseReasoner.getInconsistentClasses();
+	}
+
+	@Override
+	public void releaseKB() {
+		releaseModules();
+		baseReasoner.releaseKB();
+	}
+
+	@Override
+	@NoConfigOption
+	public OWLDatatype getDatatype(OWLDataProperty dp) {
+		return baseReasoner.getDatatype(dp);
+	}
+
+	@Override
+	@NoConfigOption
+	public void setSynchronized() {
+		baseReasoner.setSynchronized();
+	}
+
+	public OWLAPIReasoner getReasonerComponent() {
+		return baseReasoner;
+	}
+
+	@Autowired(required = false)
+	public void setReasonerComponent(OWLAPIReasoner baseReasoner) {
+		this.baseReasoner = baseReasoner;
+	}
+
+	/**
+	 * @return the number of modules
+	 */
+	public int getNrOfModules() {
+		return moduleReasoners.size();
+	}
+
+	public Set<OWLIndividual> getExamples() {
+		return examples;
+	}
+
+	/**
+	 * @param examples the individuals for which a module is built
+	 */
+	public void setExamples(Set<OWLIndividual> examples) {
+		this.examples = examples;
+	}
+
+	public int getModuleDepth() {
+		return moduleDepth;
+	}
+
+	/**
+	 * @param moduleDepth the depth of the ABox neighbourhood of an individual contained in its module
+	 */
+	public void setModuleDepth(int moduleDepth) {
+		this.moduleDepth = moduleDepth;
+	}
+
+	public int getNrOfThreads() {
+		return nrOfThreads;
+	}
+
+	/**
+	 * @param nrOfThreads the number of threads used to build the modules
+	 */
+	public void setNrOfThreads(int nrOfThreads) {
+		this.nrOfThreads = nrOfThreads;
+	}
+}
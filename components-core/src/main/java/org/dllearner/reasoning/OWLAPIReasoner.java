@@ -22,6 +22,11 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.clarkparsia.owlapi.explanation.PelletExplanation;
@@ -94,6 +99,22 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
     private OWLClassExpressionMinimizer minimizer;
 
     private OWLReasoner fallbackReasoner;
+
+    // set while an axiom is added temporarily, e.g. in the satisfiability check
+    private boolean temporaryChange = false;
+
+    // used to create the pooled reasoner instances
+    private OWLReasonerFactory reasonerFactory;
+    private OWLReasonerConfiguration reasonerConfiguration;
+
+    // independently initialized reasoners for concurrent calls (null if the pool is disabled)
+    private BlockingQueue<OWLReasoner> reasonerPool;
+    private List<OWLReasoner> pooledReasoners;
+    private ExecutorService reasonerPoolExecutor;
+
+    // all reasoners listen to the same ontology, thus temporary changes of the ontology (write lock)
+    // must not overlap with queries (read lock)
+    private final ReadWriteLock ontologyLock = new ReentrantReadWriteLock();
     
     
  // default reasoner is Pellet
@@ -106,6 +127,11 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
     @ConfigOption(defaultValue="null", description="specifies the URL of the remote OWLLink server")
     private String owlLinkURL;
 
+    @ConfigOption(defaultValue="0", description="the number of additional, independently initialized reasoner instances " +
+    		"over the same ontology, which are used for concurrent instance checks, retrieval and subsumption checks " +
+    		"(0 disables the pool)")
+    private int reasonerPoolSize = 0;
+
     public OWLAPIReasoner() {
 
     }
@@ -132,6 +158,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
         atomicRoles = new TreeSet<>();
         datatypeProperties = new TreeSet<>();
         individuals = new TreeSet<>();
+        clearSubsumptionCache();
 
         // create OWL API ontology manager - make sure we use a new data factory so that we don't default to the static one which can cause problems in a multi threaded environment.
         df = new OWLDataFactoryImpl();
@@ -198,6 +225,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
         if(reasoner == null) {
         	initBaseReasoner();
         }
+        disposeReasonerPool();
 
         // compute class hierarchy and types of individuals
         // (done here to speed up later reasoner calls)
@@ -219,8 +247,17 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
             throw new ComponentInitException("Inconsistent ontologies.");
         }
 
+        initReasonerPool();
+
         df = manager.getOWLDataFactory();
 
+        // cached subsumption results are invalid after changes of the ontology
+        manager.addOntologyChangeListener(changes -> {
+            if (!temporaryChange) {
+                clearSubsumptionCache();
+            }
+        });
+
         initDatatypes();
 
         // remove top and bottom properties (for backwards compatibility)
@@ -337,12 +374,130 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 		if (null != reasonerFactory) {
 			reasoner = reasonerFactory.createNonBufferingReasoner(ontology, conf);
 		}
+		this.reasonerFactory = reasonerFactory;
+		this.reasonerConfiguration = conf;
 
         if(useFallbackReasoner){
         	fallbackReasoner = new StructuralReasonerExtended(ontology, conf, BufferingMode.NON_BUFFERING);
         }
     }
 
+    private void initReasonerPool() throws ComponentInitException {
+    	if (reasonerPoolSize <= 0) {
+    		return;
+    	}
+    	if (reasonerFactory == null) {
+    		logger.warn("Reasoner pool disabled, because the reasoner was not created by this component.");
+    		return;
+    	}
+    	logger.info("Initializing pool of " + reasonerPoolSize + " reasoners ...");
+    	reasonerPoolExecutor = Executors.newFixedThreadPool(reasonerPoolSize, r -> {
+    		Thread thread = new Thread(r, "owlapi-reasoner-pool");
+    		thread.setDaemon(true);
+    		return thread;
+    	});
+    	// the reasoners are created and classified in parallel
+    	List<Future<OWLReasoner>> futures = new ArrayList<>();
+    	for (int i = 0; i < reasonerPoolSize; i++) {
+    		futures.add(reasonerPoolExecutor.submit(() -> {
+    			OWLReasoner r = reasonerFactory.createNonBufferingReasoner(ontology, reasonerConfiguration);
+    			r.precomputeInferences(
+    					InferenceType.CLASS_HIERARCHY,
+    					InferenceType.CLASS_ASSERTIONS,
+    					InferenceType.OBJECT_PROPERTY_HIERARCHY,
+    					InferenceType.DATA_PROPERTY_HIERARCHY,
+    					InferenceType.OBJECT_PROPERTY_ASSERTIONS,
+    					InferenceType.DATA_PROPERTY_ASSERTIONS,
+    					InferenceType.SAME_INDIVIDUAL);
+    			return r;
+    		}));
+    	}
+    	pooledReasoners = new ArrayList<>();
+    	try {
+    		for (Future<OWLReasoner> future : futures) {
+    			pooledReasoners.add(future.get());
+    		}
+    	} catch (InterruptedException e) {
+    		Thread.currentThread().interrupt();
+    		disposeReasonerPool();
+    		throw new ComponentInitException("Initialization of the reasoner pool interrupted", e);
+    	} catch (ExecutionException e) {
+    		disposeReasonerPool();
+    		throw new ComponentInitException("Initialization of the reasoner pool failed", e.getCause());
+    	}
+    	reasonerPool = new ArrayBlockingQueue<>(reasonerPoolSize, false, pooledReasoners);
+    }
+
+    private void disposeReasonerPool() {
+    	if (reasonerPoolExecutor != null) {
+    		reasonerPoolExecutor.shutdownNow();
+    		reasonerPoolExecutor = null;
+    	}
+    	if (pooledReasoners != null) {
+    		pooledReasoners.forEach(OWLReasoner::dispose);
+    		pooledReasoners = null;
+    	}
+    	reasonerPool = null;
+    }
+
+    /**
+     * Creates a new, independent reasoner over the given ontology with the same implementation and configuration
+     * as the base reasoner of this component.
+     *
+     * @param ontology the ontology
+     * @return the reasoner, or <code>null</code> if the base reasoner was not created by this component
+     */
+    public OWLReasoner createReasoner(OWLOntology ontology) {
+    	if (reasonerFactory == null) {
+    		return null;
+    	}
+    	return reasonerFactory.createNonBufferingReasoner(ontology, reasonerConfiguration);
+    }
+
+    /**
+     * Runs the call with a reasoner borrowed from the pool, which blocks until a reasoner is available. If the
+     * pool is disabled, the call is run with the base reasoner.
+     */
+    private <T> T withReasoner(Function<OWLReasoner, T> call) {
+    	Lock lock = ontologyLock.readLock();
+    	lock.lock();
+    	try {
+    		BlockingQueue<OWLReasoner> pool = reasonerPool;
+    		if (pool == null) {
+    			return call.apply(reasoner);
+    		}
+    		OWLReasoner r;
+    		try {
+    			r = pool.take();
+    		} catch (InterruptedException e) {
+    			Thread.currentThread().interrupt();
+    			throw new RuntimeException("Interrupted while waiting for a pooled reasoner", e);
+    		}
+    		try {
+    			return call.apply(r);
+    		} finally {
+    			pool.offer(r);
+    		}
+    	} finally {
+    		lock.unlock();
+    	}
+    }
+
+    /**
+     * Runs the call with the fallback reasoner, which is not thread-safe and thus used by one thread at a time.
+     */
+    private <T> T withFallbackReasoner(Function<OWLReasoner, T> call) {
+    	Lock lock = ontologyLock.readLock();
+    	lock.lock();
+    	try {
+    		synchronized (fallbackReasoner) {
+    			return call.apply(fallbackReasoner);
+    		}
+    	} finally {
+    		lock.unlock();
+    	}
+    }
+
     /* (non-Javadoc)
       * @see org.dllearner.core.Reasoner#getAtomicConcepts()
       */
@@ -417,10 +572,10 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 	 */
 	public boolean isEntailed(OWLAxiom axiom) {
 		try {
-			return reasoner.isEntailed(axiom);
+			return withReasoner(r -> r.isEntailed(axiom));
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				return fallbackReasoner.isEntailed(axiom);
+				return withFallbackReasoner(r -> r.isEntailed(axiom));
 			} else {
 				throw e;
 			}
@@ -435,12 +590,12 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 		}
 		boolean res;
 		try {
-			res = reasoner.isEntailed(df.getOWLSubClassOfAxiom(subConcept,
-					superConcept));
+			res = withReasoner(r -> r.isEntailed(df.getOWLSubClassOfAxiom(subConcept,
+					superConcept)));
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				res = fallbackReasoner.isEntailed(df.getOWLSubClassOfAxiom(
-						subConcept, superConcept));
+				res = withFallbackReasoner(r -> r.isEntailed(df.getOWLSubClassOfAxiom(
+						subConcept, superConcept)));
 			} else {
 				throw e;
 			}
@@ -480,7 +635,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 		} catch (UnsupportedOperationException e) {
 			e.printStackTrace();
 			if (useFallbackReasoner) {
-				classes = fallbackReasoner.getSubClasses(concept, true);
+				classes = withFallbackReasoner(r -> r.getSubClasses(concept, true));
 			} else {
 				throw e;
 			}
@@ -497,7 +652,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			classes = reasoner.getSubClasses(ce, true);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				classes = fallbackReasoner.getSubClasses(ce, true);
+				classes = withFallbackReasoner(r -> r.getSubClasses(ce, true));
 			} else {
 				throw e;
 			}
@@ -530,7 +685,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			classNodes = reasoner.getEquivalentClasses(ce);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				classNodes = fallbackReasoner.getEquivalentClasses(ce);
+				classNodes = withFallbackReasoner(r -> r.getEquivalentClasses(ce));
 			} else {
 				throw e;
 			}
@@ -549,8 +704,8 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 					.getSuperObjectProperties(objectProperty, true);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				properties = fallbackReasoner.getSubObjectProperties(
-						objectProperty, true);
+				properties = withFallbackReasoner(r -> r.getSubObjectProperties(
+						objectProperty, true));
 			} else {
 				throw e;
 			}
@@ -566,8 +721,8 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			properties = reasoner.getSubObjectProperties(objectProperty, true);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				properties = fallbackReasoner.getSubObjectProperties(
-						objectProperty, true);
+				properties = withFallbackReasoner(r -> r.getSubObjectProperties(
+						objectProperty, true));
 			} else {
 				throw e;
 			}
@@ -583,7 +738,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			properties = reasoner.getSuperDataProperties(dataProperty, true);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				properties = fallbackReasoner.getSuperDataProperties(dataProperty, true);
+				properties = withFallbackReasoner(r -> r.getSuperDataProperties(dataProperty, true));
 			} else {
 				throw e;
 			}
@@ -599,7 +754,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			properties = reasoner.getSubDataProperties(dataProperty, true);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				properties = fallbackReasoner.getSubDataProperties(dataProperty, true);
+				properties = withFallbackReasoner(r -> r.getSubDataProperties(dataProperty, true));
 			} else {
 				throw e;
 			}
@@ -609,6 +764,10 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 
 	@Override
 	public boolean hasTypeImpl(OWLClassExpression concept, OWLIndividual individual) {
+		return withReasoner(r -> hasType(r, concept, individual));
+	}
+
+	private boolean hasType(OWLReasoner owlReasoner, OWLClassExpression concept, OWLIndividual individual) {
 		if (concept.isOWLThing()) {
 			return true;
 
@@ -620,10 +779,10 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 					concept, individual);
 			boolean res;
 			try {
-				res = reasoner.isEntailed(axiom);
+				res = owlReasoner.isEntailed(axiom);
 			} catch (UnsupportedOperationException e) {
 				if (useFallbackReasoner) {
-					res = fallbackReasoner.isEntailed(axiom);
+					res = withFallbackReasoner(r -> r.isEntailed(axiom));
 				} else {
 					throw e;
 				}
@@ -638,10 +797,10 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 		Set<OWLNamedIndividual> individuals;
 		logger.trace("getIndividuals for " + ce);
 		try {
-			individuals = reasoner.getInstances(ce, false).getFlattened();
+			individuals = withReasoner(r -> r.getInstances(ce, false).getFlattened());
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				individuals = fallbackReasoner.getInstances(ce, false).getFlattened();
+				individuals = withFallbackReasoner(r -> r.getInstances(ce, false).getFlattened());
 			} else {
 				throw e;
 			}
@@ -650,6 +809,45 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 		return new TreeSet<>(individuals);
 	}
 
+	/**
+	 * If the reasoner pool is enabled, the individuals are split into chunks, which are checked concurrently
+	 * by the pooled reasoners.
+	 */
+	@Override
+	protected SortedSet<OWLIndividual> hasTypeImpl(OWLClassExpression concept, Set<OWLIndividual> individuals)
+			throws ReasoningMethodUnsupportedException {
+		ExecutorService executor = reasonerPoolExecutor;
+		if (executor == null || individuals.size() < 2) {
+			return super.hasTypeImpl(concept, individuals);
+		}
+
+		List<OWLIndividual> list = new ArrayList<>(individuals);
+		// several chunks per reasoner for a better load balance
+		int chunkSize = Math.max(1, list.size() / (4 * reasonerPoolSize));
+		List<Future<List<OWLIndividual>>> futures = new ArrayList<>();
+		for (int start = 0; start < list.size(); start += chunkSize) {
+			List<OWLIndividual> chunk = list.subList(start, Math.min(start + chunkSize, list.size()));
+			futures.add(executor.submit(() -> withReasoner(r -> chunk.stream()
+					.filter(ind -> hasType(r, concept, ind))
+					.collect(Collectors.toList()))));
+		}
+		SortedSet<OWLIndividual> result = new TreeSet<>();
+		try {
+			for (Future<List<OWLIndividual>> future : futures) {
+				result.addAll(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Instance checks interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException("Instance check failed", e.getCause());
+		}
+		return result;
+	}
+
 	@Override
 	public Set<OWLClass> getTypesImpl(OWLIndividual individual) {
 		NodeSet<OWLClass> nodeSet;
@@ -657,7 +855,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			nodeSet = reasoner.getTypes(individual.asOWLNamedIndividual(), false);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				nodeSet = fallbackReasoner.getTypes(individual.asOWLNamedIndividual(), false);
+				nodeSet = withFallbackReasoner(r -> r.getTypes(individual.asOWLNamedIndividual(), false));
 			} else {
 				throw e;
 			}
@@ -672,7 +870,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			res = reasoner.isSatisfiable(df.getOWLThing());
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				res = fallbackReasoner.isSatisfiable(df.getOWLThing());
+				res = withFallbackReasoner(r -> r.isSatisfiable(df.getOWLThing()));
 			} else {
 				throw e;
 			}
@@ -703,7 +901,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			nodeSet = reasoner.getObjectPropertyDomains(objectProperty, true);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				nodeSet = fallbackReasoner.getObjectPropertyDomains(objectProperty, true);
+				nodeSet = withFallbackReasoner(r -> r.getObjectPropertyDomains(objectProperty, true));
 			} else {
 				throw e;
 			}
@@ -749,7 +947,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			nodeSet = reasoner.getDataPropertyDomains(dataProperty, true);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				nodeSet = fallbackReasoner.getDataPropertyDomains(dataProperty, true);
+				nodeSet = withFallbackReasoner(r -> r.getDataPropertyDomains(dataProperty, true));
 			} else {
 				throw e;
 			}
@@ -794,7 +992,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			nodeSet = reasoner.getObjectPropertyRanges(objectProperty, true);
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				nodeSet = fallbackReasoner.getObjectPropertyRanges(objectProperty, true);
+				nodeSet = withFallbackReasoner(r -> r.getObjectPropertyRanges(objectProperty, true));
 			} else {
 				throw e;
 			}
@@ -904,8 +1102,8 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 					individual.asOWLNamedIndividual(), objectProperty).getFlattened();
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				namedIndividuals = fallbackReasoner.getObjectPropertyValues(
-						individual.asOWLNamedIndividual(), objectProperty).getFlattened();
+				namedIndividuals = withFallbackReasoner(r -> r.getObjectPropertyValues(
+						individual.asOWLNamedIndividual(), objectProperty).getFlattened());
 			} else {
 				throw e;
 			}
@@ -925,8 +1123,8 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				propVals = fallbackReasoner.getDataPropertyValues(
-						individual.asOWLNamedIndividual(), datatypeProperty);
+				propVals = withFallbackReasoner(r -> r.getDataPropertyValues(
+						individual.asOWLNamedIndividual(), datatypeProperty));
 			} else {
 				throw e;
 			}
@@ -1098,6 +1296,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
     @Override
     public void releaseKB() {
         reasoner.dispose();
+        disposeReasonerPool();
     }
 
 //    public Set<OWLOntology> getOWLAPIOntologies() {
@@ -1121,7 +1320,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			unsatisfiableClasses = reasoner.getUnsatisfiableClasses().getEntitiesMinusBottom();
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				unsatisfiableClasses = fallbackReasoner.getUnsatisfiableClasses().getEntitiesMinusBottom();
+				unsatisfiableClasses = withFallbackReasoner(r -> r.getUnsatisfiableClasses().getEntitiesMinusBottom());
 			} else {
 				throw e;
 			}
@@ -1136,7 +1335,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			inconsClsNodes = reasoner.getUnsatisfiableClasses();
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				inconsClsNodes = fallbackReasoner.getUnsatisfiableClasses();
+				inconsClsNodes = withFallbackReasoner(r -> r.getUnsatisfiableClasses());
 			} else {
 				throw e;
 			}
@@ -1163,20 +1362,26 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 	public boolean remainsSatisfiableImpl(OWLAxiom axiom) {
 		boolean consistent;
 
+		// the pooled reasoners see the change as well, thus no query must run meanwhile
+		Lock lock = ontologyLock.writeLock();
+		lock.lock();
+		temporaryChange = true;
 		manager.addAxiom(ontology, axiom);
 
 		try {
 			consistent = reasoner.isConsistent();
 		} catch (UnsupportedOperationException e) {
 			if (useFallbackReasoner) {
-				consistent = fallbackReasoner.isConsistent();
+				consistent = withFallbackReasoner(r -> r.isConsistent());
 			} else {
 				throw e;
 			}
+		} finally {
+			manager.removeAxiom(ontology, axiom);
+			temporaryChange = false;
+			lock.unlock();
 		}
 
-		manager.removeAxiom(ontology, axiom);
-
 		return consistent;
 	}
 
@@ -1226,6 +1431,20 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 		this.reasonerImplementation = reasonerImplementation;
 	}
 
+    public int getReasonerPoolSize() {
+        return reasonerPoolSize;
+    }
+
+    /**
+     * Sets the number of additional reasoner instances over the same ontology, which are used for concurrent
+     * instance checks, retrieval and subsumption checks. Each instance holds its own copy of the inferences,
+     * thus the memory consumption grows linearly with the pool size.
+     * @param reasonerPoolSize the number of pooled reasoners (0 disables the pool)
+     */
+    public void setReasonerPoolSize(int reasonerPoolSize) {
+        this.reasonerPoolSize = reasonerPoolSize;
+    }
+
     public String getOwlLinkURL() {
         return owlLinkURL;
     }
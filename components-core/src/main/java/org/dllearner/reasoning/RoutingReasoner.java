@@ -0,0 +1,409 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dllearner.core.*;
+import org.dllearner.core.annotations.NoConfigOption;
+import org.semanticweb.owlapi.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * A reasoner which routes each instance check and retrieval to the cheapest backend that answers it
+ * correctly. Class expressions built from classes, intersections and value restrictions are answered from the
+ * materialization of a {@link ClosedWorldReasoner}. Everything else, e.g. universal restrictions and negation,
+ * which have a different meaning under the open world assumption, is sent to the {@link OWLAPIReasoner}.
+ * <p>
+ * Existential restrictions can also be implied by the TBox without a named individual as witness. Thus,
+ * expressions of the EL fragment with existential restrictions are only answered by the closed world reasoner
+ * if its option <code>materializeExistentialRestrictions</code> is enabled.
+ * <p>
+ * All schema reasoning is done by the OWL API reasoner, all other assertional reasoning by the closed world
+ * reasoner. The number of queries and the time spent per route are available via {@link #getStatistics(Route)}.
+ */
+@ComponentAnn(name = "routing reasoner", shortName = "rr", version = 0.1)
+public class RoutingReasoner extends AbstractReasonerComponent {
+
+	/**
+	 * The backends a query can be routed to.
+	 */
+	public enum Route {
+		CLOSED_WORLD, OPEN_WORLD
+	}
+
+	/**
+	 * The number of queries answered by a route and the time spent on them.
+	 */
+	public static class RouteStatistics {
+		private final AtomicLong nrOfQueries = new AtomicLong();
+		private final AtomicLong timeNs = new AtomicLong();
+
+		private void add(long durationNs) {
+			nrOfQueries.incrementAndGet();
+			timeNs.addAndGet(durationNs);
+		}
+
+		public long getNrOfQueries() {
+			return nrOfQueries.get();
+		}
+
+		public long getTimeNs() {
+			return timeNs.get();
+		}
+
+		/**
+		 * @return the average time per query in ms
+		 */
+		public double getAverageTimeMs() {
+			long n = nrOfQueries.get();
+			return n == 0 ? 0 : timeNs.get() / (double) n / 1000000;
+		}
+
+		private void reset() {
+			nrOfQueries.set(0);
+			timeNs.set(0);
+		}
+
+		@Override
+		public String toString() {
+			return getNrOfQueries() + " queries, " + String.format("%.3f", getAverageTimeMs()) + "ms avg.";
+		}
+	}
+
+	private ClosedWorldReasoner closedWorldReasoner;
+	private OWLAPIReasoner baseReasoner;
+	// clears the subsumption cache if the one of the base reasoner is cleared, i.e. the ontology has changed
+	private final Runnable subsumptionCacheInvalidation = this::clearSubsumptionCache;
+
+	private final Map<Route, RouteStatistics> statistics = new EnumMap<>(Route.class);
+
+	public RoutingReasoner() {
+		for (Route route : Route.values()) {
+			statistics.put(route, new RouteStatistics());
+		}
+	}
+
+	public RoutingReasoner(KnowledgeSource... sources) {
+		this();
+		this.sources = new HashSet<>(Arrays.asList(sources));
+	}
+
+	public RoutingReasoner(ClosedWorldReasoner closedWorldReasoner) {
+		this();
+		this.sources = closedWorldReasoner.getSources();
+		this.closedWorldReasoner = closedWorldReasoner;
+	}
+
+	@Override
+	public void init() throws ComponentInitException {
+		if (closedWorldReasoner == null) {
+			baseReasoner = new OWLAPIReasoner(sources);
+			baseReasoner.init();
+			closedWorldReasoner = new ClosedWorldReasoner(baseReasoner);
+		}
+		if (!closedWorldReasoner.isInitialized()) {
+			closedWorldReasoner.init();
+		}
+		baseReasoner = closedWorldReasoner.getReasonerComponent();
+		baseReasoner.addSubsumptionCacheInvalidationListener(subsumptionCacheInvalidation);
+
+		resetStatistics();
+
+		initialized = true;
+	}
+
+	/**
+	 * @param ce the class expression
+	 * @return the route of instance checks and retrievals of the class expression
+	 */
+	public Route getRoute(OWLClassExpression ce) {
+		return isEL(ce) ? Route.CLOSED_WORLD : Route.OPEN_WORLD;
+	}
+
+	private boolean isEL(OWLClassExpression ce) {
+		switch (ce.getClassExpressionType()) {
+			case OWL_CLASS:
+				return true;
+			case OBJECT_INTERSECTION_OF:
+				return ((OWLObjectIntersectionOf) ce).getOperands().stream().allMatch(this::isEL);
+			case OBJECT_SOME_VALUES_FROM:
+				// the witness of an existential restriction implied by the TBox is not materialized by default
+				OWLObjectSomeValuesFrom some = (OWLObjectSomeValuesFrom) ce;
+				return closedWorldReasoner.isMaterializeExistentialRestrictions()
+						&& !some.getProperty().isAnonymous() && isEL(some.getFiller());
+			case OBJECT_HAS_VALUE:
+				return !((OWLObjectHasValue) ce).getProperty().isAnonymous();
+			case DATA_HAS_VALUE:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private AbstractReasonerComponent getBackend(Route route) {
+		return route == Route.CLOSED_WORLD ? closedWorldReasoner : baseReasoner;
+	}
+
+	@Override
+	public boolean hasTypeImpl(OWLClassExpression concept, OWLIndividual individual) {
+		Route route = getRoute(concept);
+		long startTime = System.nanoTime();
+		boolean result = getBackend(route).hasType(concept, individual);
+		statistics.get(route).add(System.nanoTime() - startTime);
+		return result;
+	}
+
+	@Override
+	protected SortedSet<OWLIndividual> hasTypeImpl(OWLClassExpression concept, Set<OWLIndividual> individuals) {
+		Route route = getRoute(concept);
+		long startTime = System.nanoTime();
+		SortedSet<OWLIndividual> result = getBackend(route).hasType(concept, individuals);
+		statistics.get(route).add(System.nanoTime() - startTime);
+		return result;
+	}
+
+	@Override
+	public SortedSet<OWLIndividual> getIndividualsImpl(OWLClassExpression concept) {
+		Route route = getRoute(concept);
+		long startTime = System.nanoTime();
+		SortedSet<OWLIndividual> result = getBackend(route).getIndividuals(concept);
+		statistics.get(route).add(System.nanoTime() - startTime);
+		return result;
+	}
+
+	/**
+	 * @param route the route
+	 * @return the number of queries answered by the route and the time spent on them
+	 */
+	public RouteStatistics getStatistics(Route route) {
+		return statistics.get(route);
+	}
+
+	public void resetStatistics() {
+		statistics.values().forEach(RouteStatistics::reset);
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "\nroutes: " + statistics;
+	}
+
+	@Override
+	public Set<OWLClass> getClasses() {
+		return baseReasoner.getClasses();
+	}
+
+	@Override
+	public SortedSet<OWLIndividual> getIndividuals() {
+		return closedWorldReasoner.getIndividuals();
+	}
+
+	@Override
+	public Set<OWLObjectProperty> getObjectPropertiesImpl() {
+		return closedWorldReasoner.getObjectProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getDatatypePropertiesImpl() {
+		return baseReasoner.getDatatypeProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getBooleanDatatypePropertiesImpl() {
+		return baseReasoner.getBooleanDatatypeProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getDoubleDatatypePropertiesImpl() {
+		return baseReasoner.getDoubleDatatypeProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getIntDatatypePropertiesImpl() {
+		return baseReasoner.getIntDatatypeProperties();
+	}
+
+	@Override
+	public Set<OWLDataProperty> getStringDatatypePropertiesImpl() {
+		return baseReasoner.getStringDatatypeProperties();
+	}
+
+	@Override
+	protected SortedSet<OWLClassExpression> getSuperClassesImpl(OWLClassExpression concept) {
+		return baseReasoner.getSuperClassesImpl(concept);
+	}
+
+	@Override
+	protected SortedSet<OWLClassExpression> getSubClassesImpl(OWLClassExpression concept) {
+		return baseReasoner.getSubClassesImpl(concept);
+	}
+
+	@Override
+	protected SortedSet<OWLObjectProperty> getSuperPropertiesImpl(OWLObjectProperty role) {
+		return baseReasoner.getSuperPropertiesImpl(role);
+	}
+
+	@Override
+	protected SortedSet<OWLObjectProperty> getSubPropertiesImpl(OWLObjectProperty role) {
+		return baseReasoner.getSubPropertiesImpl(role);
+	}
+
+	@Override
+	protected SortedSet<OWLDataProperty> getSuperPropertiesImpl(OWLDataProperty role) {
+		return baseReasoner.getSuperPropertiesImpl(role);
+	}
+
+	@Override
+	protected SortedSet<OWLDataProperty> getSubPropertiesImpl(OWLDataProperty role) {
+		return baseReasoner.getSubPropertiesImpl(role);
+	}
+
+	@Override
+	public ReasonerType getReasonerType() {
+		return baseReasoner.getReasonerType();
+	}
+
+	@Override
+	public boolean isSuperClassOfImpl(OWLClassExpression superConcept, OWLClassExpression subConcept) {
+		return baseReasoner.isSuperClassOfImpl(superConcept, subConcept);
+	}
+
+	@Override
+	public boolean isDisjointImpl(OWLClass clsA, OWLClass clsB) {
+		return baseReasoner.isDisjointImpl(clsA, clsB);
+	}
+
+	@Override
+	public String getBaseURI() {
+		return baseReasoner.getBaseURI();
+	}
+
+	@Override
+	public Map<String, String> getPrefixes() {
+		return baseReasoner.getPrefixes();
+	}
+
+	@Override
+	public OWLClassExpression getDomainImpl(OWLObjectProperty objectProperty) {
+		return baseReasoner.getDomain(objectProperty);
+	}
+
+	@Override
+	public OWLClassExpression getDomainImpl(OWLDataProperty datatypeProperty) {
+		return baseReasoner.getDomain(datatypeProperty);
+	}
+
+	@Override
+	public OWLClassExpression getRangeImpl(OWLObjectProperty objectProperty) {
+		return baseReasoner.getRange(objectProperty);
+	}
+
+	@Override
+	public OWLDataRange getRangeImpl(OWLDataProperty datatypeProperty) {
+		return baseReasoner.getRange(datatypeProperty);
+	}
+
+	@Override
+	public Map<OWLIndividual, SortedSet<OWLIndividual>> getPropertyMembersImpl(OWLObjectProperty atomicRole) {
+		return closedWorldReasoner.getPropertyMembers(atomicRole);
+	}
+
+	@Override
+	public Map<OWLIndividual, SortedSet<OWLLiteral>> getDatatypeMembersImpl(OWLDataProperty datatypeProperty) {
+		return closedWorldReasoner.getDatatypeMembers(datatypeProperty);
+	}
+
+	@Override
+	protected Map<OWLDataProperty, Set<OWLLiteral>> getDataPropertyRelationshipsImpl(OWLIndividual individual) {
+		return closedWorldReasoner.getDataPropertyRelationships(individual);
+	}
+
+	@Override
+	public Set<OWLIndividual> getRelatedIndividualsImpl(OWLIndividual individual, OWLObjectProperty objectProperty) {
+		return closedWorldReasoner.getRelatedIndividuals(individual, objectProperty);
+	}
+
+	@Override
+	protected Map<OWLObjectProperty, Set<OWLIndividual>> getObjectPropertyRelationshipsImpl(OWLIndividual individual) {
+		return closedWorldReasoner.getObjectPropertyRelationships(individual);
+	}
+
+	@Override
+	public Set<OWLLiteral> getRelatedValuesImpl(OWLIndividual individual, OWLDataProperty datatypeProperty) {
+		return closedWorldReasoner.getRelatedValues(individual, datatypeProperty);
+	}
+
+	@Override
+	public boolean isSatisfiableImpl() {
+		return baseReasoner.isSatisfiable();
+	}
+
+	@Override
+	public Set<OWLLiteral> getLabelImpl(OWLEntity entity) {
+		return baseReasoner.getLabel(entity);
+	}
+
+	@Override
+	protected Set<OWLClass> getTypesImpl(OWLIndividual individual) {
+		return baseReasoner.getTypesImpl(individual);
+	}
+
+	@Override
+	public boolean remainsSatisfiableImpl(OWLAxiom axiom) {
+		return baseReasoner.remainsSatisfiableImpl(axiom);
+	}
+
+	@Override
+	protected Set<OWLClassExpression> getAssertedDefinitionsImpl(OWLClass nc) {
+		return baseReasoner.getAssertedDefinitionsImpl(nc);
+	}
+
+	@Override
+	protected Set<OWLClass> getInconsistentClassesImpl() {
+		return baseReasoner.getInconsistentClasses();
+	}
+
+	@Override
+	public void releaseKB() {
+		closedWorldReasoner.releaseKB();
+	}
+
+	@Override
+	@NoConfigOption
+	public OWLDatatype getDatatype(OWLDataProperty dp) {
+		return baseReasoner.getDatatype(dp);
+	}
+
+	@Override
+	@NoConfigOption
+	public void setSynchronized() {
+		baseReasoner.setSynchronized();
+	}
+
+	public ClosedWorldReasoner getReasonerComponent() {
+		return closedWorldReasoner;
+	}
+
+	@Autowired(required = false)
+	public void setReasonerComponent(ClosedWorldReasoner closedWorldReasoner) {
+		this.closedWorldReasoner = closedWorldReasoner;
+	}
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.Syntax;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementSubQuery;
+import org.apache.jena.sparql.syntax.ElementVisitorBase;
+import org.apache.jena.sparql.syntax.ElementWalker;
+import org.apache.jena.sparql.syntax.PatternVars;
+import org.dllearner.utilities.owl.OWLClassExpressionToSPARQLConverter;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Caches the SPARQL queries of class expressions used by the {@link SPARQLReasoner} for instance checks and
+ * retrieval.
+ * <p>
+ * For each class expression the triple pattern is computed once by the {@link OWLClassExpressionToSPARQLConverter}
+ * and the query is parsed once per query form. The individuals to check are not part of the cached query: a
+ * copy of the parsed query gets a <code>VALUES</code> block for the individuals as first element of its
+ * pattern, which is the same query the reasoner builds as string otherwise, but neither the conversion nor
+ * the parsing is repeated.
+ * <p>
+ * For ASK queries the reasoner otherwise substitutes the individual for <code>?ind</code>. Binding it by
+ * <code>VALUES</code> is equivalent, except within a sub-query which uses <code>?ind</code> without projecting
+ * it: there it is a different variable, which the substitution would bind as well. Class expressions whose
+ * queries contain such a sub-query are therefore not cached, i.e. {@link #getAskQuery(OWLClassExpression,
+ * OWLIndividual)} and {@link #getIndividualsQuery(OWLClassExpression, Collection, boolean, int)} return
+ * <code>null</code> and the reasoner falls back to its string queries.
+ */
+public class SPARQLQueryTemplateCache {
+
+	private static final String ROOT_VARIABLE = "?ind";
+	private static final Var IND = Var.alloc("ind");
+
+	private enum Form {
+		SELECT, COUNT, ASK
+	}
+
+	private final OWLClassExpressionToSPARQLConverter converter = new OWLClassExpressionToSPARQLConverter();
+
+	private final LoadingCache<OWLClassExpression, String> triplePatterns;
+	// absent if the individuals can not be bound by VALUES
+	private final LoadingCache<Pair<OWLClassExpression, Form>, Optional<Query>> templates;
+
+	/**
+	 * @param maxSize the maximum number of cached class expressions
+	 */
+	public SPARQLQueryTemplateCache(int maxSize) {
+		triplePatterns = CacheBuilder.newBuilder().maximumSize(maxSize).build(
+				new CacheLoader<OWLClassExpression, String>() {
+					@Override
+					public String load(OWLClassExpression ce) {
+						// the converter is not thread-safe
+						synchronized (converter) {
+							return converter.convert(ROOT_VARIABLE, ce);
+						}
+					}
+				});
+		templates = CacheBuilder.newBuilder().maximumSize(maxSize).build(
+				new CacheLoader<Pair<OWLClassExpression, Form>, Optional<Query>>() {
+					@Override
+					public Optional<Query> load(Pair<OWLClassExpression, Form> key) {
+						Query template = createTemplate(key.getLeft(), key.getRight());
+						return isBindable(template.getQueryPattern()) ? Optional.of(template) : Optional.empty();
+					}
+				});
+	}
+
+	private Query createTemplate(OWLClassExpression ce, Form form) {
+		String triplePattern = getTriplePattern(ce);
+		String query;
+		switch (form) {
+			case COUNT:
+				query = "SELECT (COUNT(DISTINCT ?ind) as ?cnt) WHERE { \n" + triplePattern + "\n}";
+				break;
+			case ASK:
+				query = "ASK {" + triplePattern + "}";
+				break;
+			default:
+				query = "SELECT DISTINCT ?ind WHERE { \n" + triplePattern + "\n}";
+		}
+		return QueryFactory.create(query, Syntax.syntaxARQ);
+	}
+
+	// whether binding ?ind in the outermost group is the same as binding it everywhere in the pattern
+	static boolean isBindable(Element pattern) {
+		AtomicBoolean bindable = new AtomicBoolean(true);
+		ElementWalker.walk(pattern, new ElementVisitorBase() {
+			@Override
+			public void visit(ElementSubQuery el) {
+				Query subQuery = el.getQuery();
+				if (subQuery.getProjectVars().contains(IND)) {
+					// joined with the outer ?ind, sub-queries of the sub-query are checked the same way
+					if (!isBindable(subQuery.getQueryPattern())) {
+						bindable.set(false);
+					}
+				} else if (PatternVars.vars(subQuery.getQueryPattern()).contains(IND)) {
+					bindable.set(false);
+				}
+			}
+		});
+		return bindable.get();
+	}
+
+	/**
+	 * @param ce the class expression
+	 * @return the triple pattern of the class expression with root variable <code>?ind</code>
+	 */
+	public String getTriplePattern(OWLClassExpression ce) {
+		return triplePatterns.getUnchecked(ce);
+	}
+
+	/**
+	 * Returns the query for the instances of the class expression among the given individuals.
+	 *
+	 * @param ce the class expression
+	 * @param individuals the individuals bound to <code>?ind</code>
+	 * @param countQuery whether to count the instances instead of selecting them
+	 * @param limit the limit of the query, no limit if 0
+	 * @return the query, or <code>null</code> if the individuals can not be bound by <code>VALUES</code>
+	 */
+	public Query getIndividualsQuery(OWLClassExpression ce, Collection<OWLIndividual> individuals, boolean countQuery, int limit) {
+		Optional<Query> template = templates.getUnchecked(Pair.of(ce, countQuery ? Form.COUNT : Form.SELECT));
+		if (!template.isPresent()) {
+			return null;
+		}
+		Query query = instantiate(template.get(), individuals);
+		if (limit != 0) {
+			query.setLimit(limit);
+		}
+		return query;
+	}
+
+	/**
+	 * Returns the ASK query checking whether the individual is an instance of the class expression.
+	 *
+	 * @param ce the class expression
+	 * @param individual the individual
+	 * @return the query, or <code>null</code> if the individual can not be bound by <code>VALUES</code>
+	 */
+	public Query getAskQuery(OWLClassExpression ce, OWLIndividual individual) {
+		Optional<Query> template = templates.getUnchecked(Pair.of(ce, Form.ASK));
+		return template.isPresent() ? instantiate(template.get(), Collections.singleton(individual)) : null;
+	}
+
+	private Query instantiate(Query template, Collection<OWLIndividual> individuals) {
+		ElementData values = new ElementData();
+		values.add(IND);
+		for (OWLIndividual ind : individuals) {
+			values.add(BindingFactory.binding(IND, NodeFactory.createURI(ind.toStringID())));
+		}
+
+		Query query = template.cloneQuery();
+		Element pattern = query.getQueryPattern();
+		ElementGroup group;
+		if (pattern instanceof ElementGroup) {
+			group = (ElementGroup) pattern;
+		} else {
+			group = new ElementGroup();
+			group.addElement(pattern);
+			query.setQueryPattern(group);
+		}
+		group.getElements().add(0, values);
+		return query;
+	}
+
+	/**
+	 * Removes all cached queries.
+	 */
+	public void clear() {
+		templates.invalidateAll();
+		triplePatterns.invalidateAll();
+	}
+}
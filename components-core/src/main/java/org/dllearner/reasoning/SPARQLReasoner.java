@@ -31,7 +31,6 @@ import org.apache.commons.lang3.NotImplementedException;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.*;
 import org.apache.jena.riot.Lang;
-import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.system.StreamRDF;
 import org.apache.jena.riot.system.StreamRDFOps;
 import org.apache.jena.riot.system.StreamRDFWriter;
@@ -125,6 +124,13 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	@ConfigOption(defaultValue = "true", description = "Prefer ASK queries when there is a choice in implementation", required = false)
 	private boolean preferAsk = true;
 
+	@ConfigOption(defaultValue = "false", description = "Cache the parsed SPARQL query of each class expression used for " +
+			"instance checks and retrieval, such that only the individuals are bound for repeated evaluations")
+	private boolean useQueryTemplateCache = false;
+
+	@ConfigOption(defaultValue = "10000", description = "The maximum number of class expressions in the query template cache")
+	private int queryTemplateCacheSize = 10000;
+
 	@ConfigOption(defaultValue = "false", description = "Log reasoner requests", required = false)
 	private boolean requestLogging = false;
 
@@ -153,6 +159,8 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	
 	protected OWLClassExpressionToSPARQLConverter converter = new OWLClassExpressionToSPARQLConverter();
 
+	private SPARQLQueryTemplateCache queryTemplates;
+
 	private OWLDataFactory df = new OWLDataFactoryImpl();
 	private OWLObjectDuplicator duplicator = new OWLObjectDuplicator(df);
 
@@ -233,7 +241,7 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 					ks = (SparqlEndpointKS) abstract_ks;
 				} else {
 					OWLFile owl_file = (OWLFile) abstract_ks;
-					Model model = RDFDataMgr.loadModel(owl_file.getURL().getFile());
+					Model model = owl_file.createModel();
 					logger.debug(sparql_debug, "file reasoning: " + ((owl_file.getReasoning() == null || owl_file.getReasoning().getReasonerFactory() == null) ? "(none)"
 							: owl_file.getReasoning().getReasonerFactory().getURI()));
 					ks = new LocalModelBasedSparqlEndpointKS(model, owl_file.getReasoning());
@@ -260,6 +268,10 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 			qef = new QueryExecutionFactoryQueryLogging(qef, this);
 		}
 
+		if (useQueryTemplateCache) {
+			queryTemplates = new SPARQLQueryTemplateCache(queryTemplateCacheSize);
+		}
+
 		initialized = true;
 	}
 
@@ -1326,6 +1338,15 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 //			SortedSet<OWLIndividual> individuals = getIndividuals(description, Collections.singleton(individual));
 //			return individuals.contains(individual);
 			// FIXME universal and cardinality restrictions do not work with ASK queries
+			if (queryTemplates != null) {
+				if (queryTemplates.getTriplePattern(description).isEmpty()) {
+					return true;
+				}
+				Query query = queryTemplates.getAskQuery(description, individual);
+				if (query != null) {
+					return executeAskQuery(query);
+				}
+			}
 			String queryBody = converter.convert("?ind", description);
 			if (queryBody.isEmpty())
 				return true;
@@ -1384,20 +1405,29 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		description = duplicator.duplicateObject(description);
 		
 		SortedSet<OWLIndividual> individuals = new TreeSet<>();
-		String query;
-		
-		if (indValues != null) {
-			query = buildIndividualsQueryValues(description, indValues, false);
+		ResultSet rs;
+
+		Query cachedQuery = indValues != null && queryTemplates != null
+				? queryTemplates.getIndividualsQuery(description, indValues, false, limit)
+				: null;
+		if (cachedQuery != null) {
+			logger.trace(sparql_debug, "get individuals query: " + cachedQuery);
+			rs = executeSelectQuery(cachedQuery);
 		} else {
-			query = converter.asQuery("?ind", description, false).toString();
-		}
-		if(limit != 0) {
-			query += " LIMIT " + limit;
-		}
-//		query = String.format(SPARQLQueryUtils.PREFIXES + " SELECT ?ind WHERE {?ind rdf:type/rdfs:subClassOf* <%s> .}", description.asOWLClass().toStringID());
-		logger.trace(sparql_debug, "get individuals query: " + query);
+			String query;
+			if (indValues != null) {
+				query = buildIndividualsQueryValues(description, indValues, false);
+			} else {
+				query = converter.asQuery("?ind", description, false).toString();
+			}
+			if(limit != 0) {
+				query += " LIMIT " + limit;
+			}
+//			query = String.format(SPARQLQueryUtils.PREFIXES + " SELECT ?ind WHERE {?ind rdf:type/rdfs:subClassOf* <%s> .}", description.asOWLClass().toStringID());
+			logger.trace(sparql_debug, "get individuals query: " + query);
 
-		ResultSet rs = executeSelectQuery(query);
+			rs = executeSelectQuery(query);
+		}
 		while(rs.hasNext()){
 			QuerySolution qs = rs.next();
 			if(qs.get("ind").isURIResource()){
@@ -1432,22 +1462,33 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		}
 		description = duplicator.duplicateObject(description);
 		
-		String query;
-		
-		if (indValues != null) {
-			query = buildIndividualsQueryValues(description, indValues, true);
+		ResultSet rs;
+
+		Query cachedQuery = indValues != null && queryTemplates != null
+				? queryTemplates.getIndividualsQuery(description, indValues, true, limit)
+				: null;
+		if (cachedQuery != null) {
+			if(logger.isTraceEnabled()){
+				logger.trace(sparql_debug, "get individuals query: " + cachedQuery);
+			}
+			rs = executeSelectQuery(cachedQuery);
 		} else {
-			query = converter.asQuery("?ind", description, true).toString();
-			System.err.println(query);
-			throw new RuntimeException();
-		}
-		if(limit != 0) {
-			query += " LIMIT " + limit;
-		}
-		if(logger.isTraceEnabled()){
-			logger.trace(sparql_debug, "get individuals query: " + query);
+			String query;
+			if (indValues != null) {
+				query = buildIndividualsQueryValues(description, indValues, true);
+			} else {
+				query = converter.asQuery("?ind", description, true).toString();
+				System.err.println(query);
+				throw new RuntimeException();
+			}
+			if(limit != 0) {
+				query += " LIMIT " + limit;
+			}
+			if(logger.isTraceEnabled()){
+				logger.trace(sparql_debug, "get individuals query: " + query);
+			}
+			rs = executeSelectQuery(query);
 		}
-		ResultSet rs = executeSelectQuery(query);
 		while(rs.hasNext()){
 			QuerySolution qs = rs.next();
 			if(qs.get("cnt").isLiteral()){
@@ -2638,6 +2679,31 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		return executeSelectQuery(queryString, -1, TimeUnit.MILLISECONDS);
 	}
 	
+	protected ResultSet executeSelectQuery(Query query) {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Sending query \n {}", query);
+		}
+		try(QueryExecution qe = qef.createQueryExecution(query)) {
+			ResultSet rs = qe.execSelect();
+			return ResultSetFactory.copyResults(rs);
+		} catch (QueryExceptionHTTP e) {
+			throw new QueryExceptionHTTP("Error sending query \"" + query + "\" to endpoint " + qef.getId(), e);
+		} catch (Exception e) {
+			throw new RuntimeException("Error sending query \"" + query + "\" to endpoint " + qef.getId(), e);
+		}
+	}
+
+	protected boolean executeAskQuery(Query query) {
+		if (logger.isTraceEnabled()) logger.trace("Sending query \n {}", query);
+		try(QueryExecution qe = qef.createQueryExecution(query)) {
+			return qe.execAsk();
+		} catch (QueryExceptionHTTP e)  {
+			throw new QueryExceptionHTTP("Error sending query \"" + query + "\" to endpoint " + qef.getId(), e);
+		} catch (Exception e) {
+			throw new RuntimeException("Error sending query \"" + query + "\" to endpoint " + qef.getId(), e);
+		}
+	}
+
 	protected boolean executeAskQuery(String queryString){
 		if (logger.isTraceEnabled()) logger.trace("Sending query \n {}", queryString);
 		try(QueryExecution qe = qef.createQueryExecution(queryString)) {
@@ -2757,6 +2823,18 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		this.useValueLists = useValueLists;
 	}
 
+	public boolean isUseQueryTemplateCache() {
+		return useQueryTemplateCache;
+	}
+
+	public void setUseQueryTemplateCache(boolean useQueryTemplateCache) {
+		this.useQueryTemplateCache = useQueryTemplateCache;
+	}
+
+	public void setQueryTemplateCacheSize(int queryTemplateCacheSize) {
+		this.queryTemplateCacheSize = queryTemplateCacheSize;
+	}
+
 	public boolean isPreferAsk() {
 		return preferAsk;
 	}
@@ -1695,6 +1695,11 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			return true;
 		}
 
+		// use the cache of the reasoner, which is shared with other components
+		if(!instanceBasedDisjoints && reasoner.getSubsumptionCache() != null) {
+			return reasoner.isDisjointLogical(d1, d2);
+		}
+
 		// check whether we have cached this query
 		Map<OWLClassExpression,Boolean> tmp = cachedDisjoints.get(d1);
 		if(tmp != null && tmp.containsKey(d2)) {
@@ -251,6 +251,11 @@ public final class Utility {
 //		System.out.println("d2: " + d2);
 //		System.out.println("cache: " + cachedDisjoints);
 		
+		// use the cache of the reasoner, which is shared with other components
+		if(!instanceBasedDisjoints && reasoner.getSubsumptionCache() != null) {
+			return reasoner.isDisjointLogical(d1, d2);
+		}
+
 		// check whether we have cached this query
 		Map<OWLClassExpression,Boolean> tmp = cachedDisjoints.get(d1);
 		Boolean tmp2 = null;
@@ -20,8 +20,10 @@ package org.dllearner.utilities;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import org.apache.commons.math3.distribution.NormalDistribution;
 import org.dllearner.core.AbstractReasonerComponent;
 import org.dllearner.core.Component;
+import org.dllearner.core.config.ConfigOption;
 import org.dllearner.accuracymethods.AccMethodApproximate;
 import org.dllearner.accuracymethods.AccMethodTwoValued;
 import org.dllearner.accuracymethods.AccMethodTwoValuedApproximate;
@@ -31,7 +33,11 @@ import org.semanticweb.owlapi.model.OWLIndividual;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -76,8 +82,50 @@ public class ReasoningUtils implements Component {
 		final SortedSet<OWLIndividual> unknownSet = new TreeSet<>();
 	}
 
+	/**
+	 * confidence intervals for the coverage rates in sampling-based accuracy estimation
+	 */
+	public enum ConfidenceBound {
+		WILSON,
+		HOEFFDING
+	}
+
 	protected AbstractReasonerComponent reasoner;
 
+	@ConfigOption(description = "Whether to evaluate candidates on growing random samples of the positive and negative examples. " +
+			"The evaluation stops as soon as the confidence interval of the accuracy shows that the candidate is too weak " +
+			"or cannot reach the accuracy threshold of the learning algorithm, otherwise the samples grow until all " +
+			"examples are evaluated.",
+			defaultValue = "false")
+	private boolean useSampling = false;
+
+	@ConfigOption(description = "size of the first sample of each example set, the samples are doubled in each round",
+			defaultValue = "1000")
+	private int initialSampleSize = 1000;
+
+	@ConfigOption(description = "confidence level of the intervals used in sampling-based evaluation",
+			defaultValue = "0.95")
+	private double sampleConfidence = 0.95;
+
+	// the quantile of the standard normal distribution for the confidence level, used by the Wilson interval
+	private double z = normalQuantile(0.95);
+
+	@ConfigOption(description = "the confidence interval used in sampling-based evaluation (WILSON or HOEFFDING)",
+			defaultValue = "WILSON")
+	private ConfidenceBound confidenceBound = ConfidenceBound.WILSON;
+
+	@ConfigOption(description = "seed of the random order in which the examples are sampled",
+			defaultValue = "1")
+	private long sampleSeed = 1;
+
+	// accuracy a candidate must reach to be stored as solution, candidates clearly below are not evaluated completely
+	private volatile double accuracyThreshold = -1;
+
+	// shuffled copies of the last evaluated example collections
+	private Collection<OWLIndividual> lastPositiveExamples;
+	private Collection<OWLIndividual> lastNegativeExamples;
+	private OWLIndividual[][] shuffledExamples;
+
 	/**
 	 * create new reasoning utils
 	 * @param reasoner reasoner to use
@@ -323,6 +371,8 @@ public class ReasoningUtils implements Component {
 		if (accuracyMethod instanceof AccMethodApproximate) {
 			logger.trace("AccMethodApproximate");
 			return ((AccMethodTwoValuedApproximate) accuracyMethod).getAccApprox2(description, positiveExamples, negativeExamples, noise);
+		} else if (useSampling) {
+			return getAccuracyOrTooWeakSampled(accuracyMethod, description, positiveExamples, negativeExamples, noise);
 		} else {
 			CoverageCount[] cc = getCoverageCount(description, positiveExamples, negativeExamples);
 			logger.trace("AccMethodExact: " + (new CoverageAdapter.CoverageCountAdapter2(cc)));
@@ -345,6 +395,206 @@ public class ReasoningUtils implements Component {
 		return accuracyMethod.getAccOrTooWeak2(c2.tp(), c2.fn(), c2.fp(), c2.tn(), noise);
 	}
 
+	/**
+	 * calculate the accuracy of a concept on growing stratified random samples of the positive and negative
+	 * examples. After each round, the accuracy is computed for the best case within the confidence intervals of
+	 * the coverage rates, i.e. for the upper bound of covered positives and the lower bound of covered negatives.
+	 * If it is too weak, -1 is returned; if it is below the accuracy threshold (see {@link #setAccuracyThreshold(double)}),
+	 * this upper bound is returned as estimate. Otherwise the samples are doubled, so every accuracy which reaches
+	 * the threshold is computed on all examples.
+	 * This requires an accuracy method which grows with the covered positives and shrinks with the covered negatives.
+	 * @param accuracyMethod accuracy method to use
+	 * @param description concept to test
+	 * @param positiveExamples set of positive examples to use for calculating the accuracy
+	 * @param negativeExamples set of negative examples to use for calculating the accuracy
+	 * @param noise noise level of the data
+	 * @return -1 when the concept is too weak, an upper bound of the accuracy which is below the accuracy threshold
+	 * or the exact accuracy
+	 */
+	public double getAccuracyOrTooWeakSampled(AccMethodTwoValued accuracyMethod, OWLClassExpression description,
+	                                          Collection<OWLIndividual> positiveExamples,
+	                                          Collection<OWLIndividual> negativeExamples, double noise) {
+		OWLIndividual[][] examples = getShuffledExamples(positiveExamples, negativeExamples);
+		OWLIndividual[] pos = examples[0];
+		OWLIndividual[] neg = examples[1];
+
+		int posTested = 0, posCovered = 0;
+		int negTested = 0, negCovered = 0;
+		int sampleSize = Math.max(1, initialSampleSize);
+		while (true) {
+			int posLimit = Math.min(sampleSize, pos.length);
+			int negLimit = Math.min(sampleSize, neg.length);
+			int posCnt = countCovered(description, pos, posTested, posLimit);
+			int negCnt = countCovered(description, neg, negTested, negLimit);
+			if (posCnt == -1 || negCnt == -1) { // timeout
+				return 0;
+			}
+			posCovered += posCnt;
+			negCovered += negCnt;
+			posTested = posLimit;
+			negTested = negLimit;
+
+			if (posTested == pos.length && negTested == neg.length) {
+				return accuracyMethod.getAccOrTooWeak2(posCovered, pos.length - posCovered,
+						negCovered, neg.length - negCovered, noise);
+			}
+
+			// best case within the confidence intervals
+			int tp = (int) Math.ceil(confidenceInterval(posCovered, posTested, pos.length)[1] * pos.length);
+			tp = Math.max(posCovered, Math.min(tp, pos.length - (posTested - posCovered)));
+			int fp = (int) Math.floor(confidenceInterval(negCovered, negTested, neg.length)[0] * neg.length);
+			fp = Math.max(negCovered, Math.min(fp, neg.length - (negTested - negCovered)));
+			double optimisticAccuracy = accuracyMethod.getAccOrTooWeak2(tp, pos.length - tp, fp, neg.length - fp, noise);
+			logger.trace("sample " + posTested + "/" + negTested + ": optimistic accuracy " + optimisticAccuracy);
+			if (optimisticAccuracy == -1 || optimisticAccuracy < accuracyThreshold) {
+				return optimisticAccuracy;
+			}
+
+			sampleSize *= 2;
+		}
+	}
+
+	/**
+	 * compute the confidence interval of a coverage rate, including finite population correction
+	 * @param covered number of covered individuals in the sample
+	 * @param tested sample size
+	 * @param total population size
+	 * @return lower and upper bound of the rate
+	 */
+	protected double[] confidenceInterval(int covered, int tested, int total) {
+		if (tested == 0) {
+			return new double[] {0, 1};
+		}
+		double p = covered / (double) tested;
+		if (tested >= total) {
+			return new double[] {p, p};
+		}
+		double fpc = Math.sqrt((total - tested) / (double) (total - 1));
+		double alpha = 1 - sampleConfidence;
+		double lower, upper;
+		switch (confidenceBound) {
+			case HOEFFDING:
+				double eps = Math.sqrt(Math.log(2 / alpha) / (2.0 * tested)) * fpc;
+				lower = p - eps;
+				upper = p + eps;
+				break;
+			default:
+				double z2 = z * z / tested;
+				double center = (p + z2 / 2) / (1 + z2);
+				double halfWidth = z * Math.sqrt(p * (1 - p) / tested + z2 / (4.0 * tested)) / (1 + z2) * fpc;
+				lower = center - halfWidth;
+				upper = center + halfWidth;
+		}
+		return new double[] {Math.max(0, lower), Math.min(1, upper)};
+	}
+
+	/**
+	 * count the individuals of an array range which are instances of a concept
+	 * @return the count or -1 if interrupted
+	 */
+	private int countCovered(OWLClassExpression description, OWLIndividual[] individuals, int from, int to) {
+		if (from >= to) {
+			return 0;
+		}
+		if (reasoner.isUseInstanceChecks()) {
+			int cnt = 0;
+			for (int i = from; i < to; i++) {
+				if (reasoner.hasType(description, individuals[i])) {
+					cnt++;
+				}
+				if (interrupted()) {
+					return -1;
+				}
+			}
+			return cnt;
+		} else {
+			return reasoner.hasType(description, ImmutableSet.copyOf(Arrays.asList(individuals).subList(from, to))).size();
+		}
+	}
+
+	/**
+	 * shuffle the examples pseudo-randomly, such that each prefix is a random sample. The shuffled copies
+	 * are reused as long as the same example collections are evaluated.
+	 */
+	private synchronized OWLIndividual[][] getShuffledExamples(Collection<OWLIndividual> positiveExamples,
+	                                                           Collection<OWLIndividual> negativeExamples) {
+		if (shuffledExamples == null || lastPositiveExamples != positiveExamples || lastNegativeExamples != negativeExamples) {
+			Random rnd = new Random(sampleSeed);
+			OWLIndividual[][] examples = new OWLIndividual[2][];
+			int i = 0;
+			for (Collection<OWLIndividual> collection : Arrays.asList(positiveExamples, negativeExamples)) {
+				List<OWLIndividual> list = Arrays.asList(collection.toArray(new OWLIndividual[collection.size()]));
+				Collections.shuffle(list, rnd);
+				examples[i++] = list.toArray(new OWLIndividual[list.size()]);
+			}
+			lastPositiveExamples = positiveExamples;
+			lastNegativeExamples = negativeExamples;
+			shuffledExamples = examples;
+		}
+		return shuffledExamples;
+	}
+
+	private static double normalQuantile(double confidence) {
+		return new NormalDistribution().inverseCumulativeProbability(1 - (1 - confidence) / 2);
+	}
+
+	/**
+	 * set the accuracy a candidate has to exceed to be stored as solution by the learning algorithm, e.g. the
+	 * accuracy of the worst stored solution; -1 if every candidate could be stored. In sampling-based evaluation,
+	 * candidates whose accuracy is clearly below are not evaluated on all examples and their upper bound is
+	 * returned instead, which is below the threshold, too. Thus, such an estimate must only be used to guide the
+	 * search, never as accuracy of a solution.
+	 * @param accuracyThreshold the accuracy threshold
+	 */
+	public void setAccuracyThreshold(double accuracyThreshold) {
+		this.accuracyThreshold = accuracyThreshold;
+	}
+
+	public double getAccuracyThreshold() {
+		return accuracyThreshold;
+	}
+
+	public boolean isUseSampling() {
+		return useSampling;
+	}
+
+	public void setUseSampling(boolean useSampling) {
+		this.useSampling = useSampling;
+	}
+
+	public int getInitialSampleSize() {
+		return initialSampleSize;
+	}
+
+	public void setInitialSampleSize(int initialSampleSize) {
+		this.initialSampleSize = initialSampleSize;
+	}
+
+	public double getSampleConfidence() {
+		return sampleConfidence;
+	}
+
+	public void setSampleConfidence(double sampleConfidence) {
+		this.sampleConfidence = sampleConfidence;
+		this.z = normalQuantile(sampleConfidence);
+	}
+
+	public ConfidenceBound getConfidenceBound() {
+		return confidenceBound;
+	}
+
+	public void setConfidenceBound(ConfidenceBound confidenceBound) {
+		this.confidenceBound = confidenceBound;
+	}
+
+	public long getSampleSeed() {
+		return sampleSeed;
+	}
+
+	public void setSampleSeed(long sampleSeed) {
+		this.sampleSeed = sampleSeed;
+	}
+
 	@Override
 	public void init() {
 	}
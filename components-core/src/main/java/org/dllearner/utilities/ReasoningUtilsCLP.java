@@ -6,6 +6,7 @@ import org.apache.jena.query.QueryExecution;
 import org.dllearner.core.AbstractReasonerComponent;
 import org.dllearner.accuracymethods.AccMethodApproximate;
 import org.dllearner.accuracymethods.AccMethodThreeValued;
+import org.dllearner.accuracymethods.AccMethodTwoValued;
 import org.dllearner.learningproblems.ClassLearningProblem;
 import org.dllearner.reasoning.SPARQLReasoner;
 import org.dllearner.utilities.owl.OWLClassExpressionToSPARQLConverter;
@@ -15,8 +16,12 @@ import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
 
 /**
  * Extension of ReasoningUtils for ClassLearningProblem
@@ -26,6 +31,14 @@ public class ReasoningUtilsCLP extends ReasoningUtils {
 	private OWLDataFactory df = new OWLDataFactoryImpl();
 	private OWLClassExpressionToSPARQLConverter converter = new OWLClassExpressionToSPARQLConverter();
 
+	// compiled examples, see compile(): the class instances get the ids [0, nrOfClassInstances),
+	// the super class instances the ids [nrOfClassInstances, individuals.length)
+	private OWLIndividual[] individuals;
+	private Map<OWLIndividual, Integer> ids;
+	private int nrOfClassInstances;
+	// the instance sets of the problem, not copied
+	private Set<OWLIndividual> classInstances;
+	private Set<OWLIndividual> superClassInstances;
 
 	/**
 	 * @param problem class learning problem
@@ -54,7 +67,10 @@ public class ReasoningUtilsCLP extends ReasoningUtils {
 	 */
 	public Coverage[] getCoverageCLP(OWLClassExpression description, Collection<OWLIndividual> classInstances,
 	                             Collection<OWLIndividual> superClassInstances) {
-		if (reasoner instanceof SPARQLReasoner) {
+		if (isCompiled() && !(reasoner instanceof SPARQLReasoner)) {
+			BitSet covered = getCoveredExamples(description, false, null, 0);
+			return covered == null ? null : toCoverage(covered);
+		} else if (reasoner instanceof SPARQLReasoner) {
 			SPARQLReasoner reasoner2 = (SPARQLReasoner)reasoner;
 			Coverage[] ret = new Coverage[2];
 			ret[0] = new Coverage();
@@ -143,4 +159,149 @@ public class ReasoningUtilsCLP extends ReasoningUtils {
 		// ---> @@@@ AccMethodGenFMeasure
 		return accuracyMethod.getAccOrTooWeak3(tmp1Pos.size(), tmp1Neg.size(), cc[0].trueCount, cc[0].falseCount, classInstances.size(), negatedClassInstances.size(), noise);
 	}
+
+	/**
+	 * Compile the examples of the class learning problem once, i.e. the class instances and the super class
+	 * instances are interned into ids. Afterwards, candidates can be evaluated by
+	 * {@link #getAccuracyOrTooWeakCompiled(AccMethodTwoValued, OWLClassExpression, double)} without copying the
+	 * example lists for each candidate. The sets are kept by reference and must not change until
+	 * {@link #clearCompiledExamples()} is called.
+	 * @param classInstances instances of the target class
+	 * @param superClassInstances instances of the super classes excluding the instances of the target class
+	 */
+	public void compile(Set<OWLIndividual> classInstances, Set<OWLIndividual> superClassInstances) {
+		nrOfClassInstances = classInstances.size();
+		individuals = new OWLIndividual[classInstances.size() + superClassInstances.size()];
+		ids = new HashMap<>(individuals.length * 2);
+		int id = 0;
+		for (OWLIndividual ind : classInstances) {
+			individuals[id] = ind;
+			ids.put(ind, id++);
+		}
+		for (OWLIndividual ind : superClassInstances) {
+			individuals[id] = ind;
+			ids.put(ind, id++);
+		}
+		this.classInstances = classInstances;
+		this.superClassInstances = superClassInstances;
+	}
+
+	/**
+	 * discard the examples compiled by {@link #compile(Set, Set)}
+	 */
+	public void clearCompiledExamples() {
+		individuals = null;
+		ids = null;
+		classInstances = null;
+		superClassInstances = null;
+	}
+
+	/**
+	 * @return whether the examples have been compiled by {@link #compile(Set, Set)}
+	 */
+	public boolean isCompiled() {
+		return individuals != null;
+	}
+
+	/**
+	 * calculate the accuracy of a concept on the compiled examples. If instance checks are used, the class
+	 * instances are checked first and the test is aborted as soon as the concept is too weak even in the best
+	 * case, i.e. if all remaining class instances were covered and no super class instance was covered.
+	 * This is exact for all accuracy methods that decide tooWeak by the class instances not covered.
+	 * @param accuracyMethod method to use
+	 * @param description description to test
+	 * @param noise problem noise
+	 * @return accuracy, -1 if the concept is too weak or {@link Double#NaN} if the test timed out
+	 */
+	public double getAccuracyOrTooWeakCompiled(AccMethodTwoValued accuracyMethod, OWLClassExpression description, double noise) {
+		int nrOfSuperClassInstances = individuals.length - nrOfClassInstances;
+		BitSet covered = getCoveredExamples(description, true, accuracyMethod, noise);
+		if (covered == null) { // timeout
+			return Double.NaN;
+		}
+		if (covered == TOO_WEAK) {
+			return -1;
+		}
+		int tp = covered.get(0, nrOfClassInstances).cardinality();
+		int fp = covered.cardinality() - tp;
+		return accuracyMethod.getAccOrTooWeak2(tp, nrOfClassInstances - tp, fp, nrOfSuperClassInstances - fp, noise);
+	}
+
+	// marker for an aborted test of a too weak concept
+	private static final BitSet TOO_WEAK = new BitSet(0);
+
+	/**
+	 * compute the ids of the compiled examples covered by a concept
+	 * @return the covered ids, null on timeout or {@link #TOO_WEAK} if the test was aborted early
+	 */
+	private BitSet getCoveredExamples(OWLClassExpression description, boolean abortTooWeak, AccMethodTwoValued accuracyMethod, double noise) {
+		BitSet covered = new BitSet(individuals.length);
+		if (!reasoner.isUseInstanceChecks()) {
+			if (reasoner instanceof SPARQLReasoner &&
+					((SPARQLReasoner)reasoner).isUseValueLists()) {
+				for (OWLIndividual ind : reasoner.hasType(description, classInstances)) {
+					covered.set(ids.get(ind));
+				}
+				for (OWLIndividual ind : reasoner.hasType(description, superClassInstances)) {
+					covered.set(ids.get(ind));
+				}
+			} else {
+				SortedSet<OWLIndividual> instances = reasoner.getIndividuals(description);
+				if (instances.size() < individuals.length) {
+					for (OWLIndividual ind : instances) {
+						Integer id = ids.get(ind);
+						if (id != null) {
+							covered.set(id);
+						}
+					}
+				} else {
+					for (int id = 0; id < individuals.length; id++) {
+						if (instances.contains(individuals[id])) {
+							covered.set(id);
+						}
+					}
+				}
+			}
+		} else {
+			int nrOfSuperClassInstances = individuals.length - nrOfClassInstances;
+			int fn = 0;
+			for (int id = 0; id < individuals.length; id++) {
+				if (reasoner.hasType(description, individuals[id])) {
+					covered.set(id);
+				} else if (id < nrOfClassInstances) {
+					fn++;
+					// best case: all remaining class instances covered, no super class instance covered
+					if (abortTooWeak &&
+							accuracyMethod.getAccOrTooWeak2(nrOfClassInstances - fn, fn, 0, nrOfSuperClassInstances, noise) == -1) {
+						return TOO_WEAK;
+					}
+				}
+				if (interrupted()) {
+					return null;
+				}
+			}
+		}
+		return covered;
+	}
+
+	private Coverage[] toCoverage(BitSet covered) {
+		Coverage[] rv = new Coverage[2];
+		rv[0] = new Coverage();
+		rv[1] = new Coverage();
+		rv[0].total = nrOfClassInstances;
+		rv[1].total = individuals.length - nrOfClassInstances;
+		for (int id = 0; id < individuals.length; id++) {
+			Coverage c = id < nrOfClassInstances ? rv[0] : rv[1];
+			if (covered.get(id)) {
+				c.trueSet.add(individuals[id]);
+			} else {
+				c.falseSet.add(individuals[id]);
+			}
+		}
+		for (Coverage c : rv) {
+			c.trueCount = c.trueSet.size();
+			c.falseCount = c.falseSet.size();
+		}
+		return rv;
+	}
 }
@@ -0,0 +1,241 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.XSD;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads RDF data (N-Triples, Turtle, RDF/XML, ...) with a streaming parser and keeps only the triples that
+ * belong to the configured namespaces and properties. The filter is applied while parsing, i.e. the whole
+ * data is never materialized in memory, only the (usually much smaller) relevant fragment.
+ * <p>
+ * Triples with a predicate of the RDF, RDFS or OWL vocabulary are always kept if their subject is allowed,
+ * thus, the schema and the class assertions of the allowed resources will be loaded.
+ */
+public class StreamingRDFLoader {
+
+	private static final Logger logger = LoggerFactory.getLogger(StreamingRDFLoader.class);
+
+	private final Set<String> allowedNamespaces;
+	private final Set<String> allowedProperties;
+
+	private final AtomicLong nrOfParsedTriples = new AtomicLong();
+	private final AtomicLong nrOfAcceptedTriples = new AtomicLong();
+
+	/**
+	 * @param allowedNamespaces the namespaces of the resources to keep, if empty all resources will be kept
+	 * @param allowedProperties the properties to keep, if empty all properties will be kept
+	 */
+	public StreamingRDFLoader(Collection<String> allowedNamespaces, Collection<String> allowedProperties) {
+		this.allowedNamespaces = new HashSet<>(allowedNamespaces);
+		this.allowedProperties = new HashSet<>(allowedProperties);
+	}
+
+	/**
+	 * Parse the data located at the given URI and return the filtered triples as JENA model.
+	 *
+	 * @param uri the URI of the data
+	 * @return the model containing the filtered triples
+	 */
+	public Model loadModel(String uri) {
+		Model model = ModelFactory.createDefaultModel();
+		parse(uri, StreamRDFLib.graph(model.getGraph()));
+		return model;
+	}
+
+	/**
+	 * Parse the data located at the given URI and load the filtered triples as OWL ontology. The triples are
+	 * directly piped into the OWL API parser, i.e. no intermediate JENA model will be created.
+	 *
+	 * @param uri the URI of the data
+	 * @param manager the ontology manager used for loading
+	 * @return the ontology containing the filtered triples
+	 * @throws OWLOntologyCreationException if the data could not be parsed or the ontology could not be created
+	 */
+	public OWLOntology loadOntology(String uri, OWLOntologyManager manager) throws OWLOntologyCreationException {
+		// closing the pipe on failure looks like a regular end of the data to the OWL API parser, thus, the
+		// failure of the parser thread has to be checked after loading
+		AtomicReference<Throwable> parseFailure = new AtomicReference<>();
+		OWLOntology ontology = null;
+		OWLOntologyCreationException loadFailure = null;
+		try (PipedInputStream is = new PipedInputStream(); PipedOutputStream os = new PipedOutputStream(is)) {
+			Thread writer = new Thread(() -> {
+				try {
+					StreamRDF sink = StreamRDFWriter.getWriterStream(os, Lang.NTRIPLES);
+					parse(uri, sink);
+				} catch (Throwable t) {
+					parseFailure.set(t);
+				} finally {
+					try {
+						os.close();
+					} catch (IOException e) {
+						logger.error("Failed to close stream", e);
+					}
+				}
+			});
+			writer.start();
+			try {
+				ontology = manager.loadOntologyFromOntologyDocument(is);
+			} catch (OWLOntologyCreationException e) {
+				loadFailure = e;
+			}
+			// unblocks the parser thread if the OWL API stopped reading early
+			is.close();
+			writer.join();
+		} catch (IOException e) {
+			throw new OWLOntologyCreationException("Could not load ontology from " + uri, e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OWLOntologyCreationException("Interrupted while loading ontology from " + uri, e);
+		}
+
+		if (loadFailure != null) {
+			if (parseFailure.get() != null) {
+				loadFailure.addSuppressed(parseFailure.get());
+			}
+			throw loadFailure;
+		}
+		if (parseFailure.get() != null) {
+			// the ontology is incomplete
+			manager.removeOntology(ontology);
+			throw new OWLOntologyCreationException("Could not parse data from " + uri, parseFailure.get());
+		}
+		return ontology;
+	}
+
+	/**
+	 * Parse the data located at the given URI and send the filtered triples to the given sink.
+	 *
+	 * @param uri the URI of the data
+	 * @param sink the destination of the filtered triples
+	 */
+	public void parse(String uri, StreamRDF sink) {
+		logger.info("Streaming data from {} ...", uri);
+		long startTime = System.currentTimeMillis();
+		nrOfParsedTriples.set(0);
+		nrOfAcceptedTriples.set(0);
+
+		RDFDataMgr.parse(new FilteringStreamRDF(sink), uri);
+
+		logger.info("...done in {}ms. Kept {} out of {} triples.",
+					(System.currentTimeMillis() - startTime), nrOfAcceptedTriples.get(), nrOfParsedTriples.get());
+	}
+
+	/**
+	 * @param triple the triple
+	 * @return whether the triple belongs to the allowed namespaces and properties
+	 */
+	public boolean accept(Triple triple) {
+		Node s = triple.getSubject();
+		Node p = triple.getPredicate();
+		Node o = triple.getObject();
+
+		if(!isAllowedResource(s)) {
+			return false;
+		}
+
+		if(isBuiltIn(p)) {
+			return true;
+		}
+
+		if(!allowedProperties.isEmpty() && !allowedProperties.contains(p.getURI())) {
+			return false;
+		}
+
+		return isAllowedResource(o);
+	}
+
+	private boolean isAllowedResource(Node node) {
+		if(allowedNamespaces.isEmpty() || !node.isURI() || isBuiltIn(node)) {
+			return true;
+		}
+		String uri = node.getURI();
+		for (String ns : allowedNamespaces) {
+			if(uri.startsWith(ns)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isBuiltIn(Node node) {
+		String uri = node.getURI();
+		return uri.startsWith(RDF.getURI())
+				|| uri.startsWith(RDFS.getURI())
+				|| uri.startsWith(OWL2.getURI())
+				|| uri.startsWith(XSD.getURI());
+	}
+
+	/**
+	 * @return the number of triples parsed during the last run
+	 */
+	public long getNrOfParsedTriples() {
+		return nrOfParsedTriples.get();
+	}
+
+	/**
+	 * @return the number of triples kept during the last run
+	 */
+	public long getNrOfAcceptedTriples() {
+		return nrOfAcceptedTriples.get();
+	}
+
+	class FilteringStreamRDF extends StreamRDFWrapper {
+
+		FilteringStreamRDF(StreamRDF other) {
+			super(other);
+		}
+
+		@Override
+		public void triple(Triple triple) {
+			nrOfParsedTriples.incrementAndGet();
+			if(accept(triple)) {
+				nrOfAcceptedTriples.incrementAndGet();
+				super.triple(triple);
+			}
+		}
+	}
+}
@@ -0,0 +1,440 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.examples;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.RDFNode;
+import org.dllearner.kb.sparql.SPARQLQueryUtils;
+import org.dllearner.reasoning.SPARQLReasoner;
+import org.dllearner.utilities.datastructures.SetManipulation;
+import org.dllearner.utilities.examples.AutomaticNegativeExampleFinderSPARQL2.Strategy;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.dllearner.utilities.examples.AutomaticNegativeExampleFinderSPARQL2.Strategy.*;
+
+/**
+ * Generates positive and negative examples for many classes of a SPARQL endpoint, e.g. in an enrichment run.
+ * <p>
+ * In contrast to {@link AutomaticNegativeExampleFinderSPARQL2}, which sends a query for the types of each
+ * positive example and for the instances of each candidate class, the data is fetched in bulk:
+ * <ul>
+ * <li>the types of a set of individuals by a single <code>VALUES</code> query,</li>
+ * <li>the super and sibling classes of a set of classes by a single <code>VALUES</code> query,</li>
+ * <li>a sample of instances for a set of classes by a single query, which contains a limited sub-query per class.</li>
+ * </ul>
+ * The queries are split into pages of at most <code>batchSize</code> individuals or classes. The class frequencies
+ * and the exclusion of instances of the positive types are computed locally. All results are cached, such that
+ * the examples of later classes reuse the types, class hierarchy and instance samples fetched for earlier ones.
+ * <p>
+ * Only asserted types are used, i.e. <code>?ind a ?type</code> without inference.
+ */
+public class SPARQLExampleGenerator {
+
+	private static final Logger logger = LoggerFactory.getLogger(SPARQLExampleGenerator.class);
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final QueryExecutionFactory qef;
+
+	private String namespace;
+	private int batchSize = 200;
+
+	// caches
+	private final Map<OWLIndividual, Set<OWLClass>> types = new HashMap<>();
+	private final Map<OWLClass, Set<OWLClass>> superClasses = new HashMap<>();
+	private final Map<OWLClass, Set<OWLClass>> siblingClasses = new HashMap<>();
+	private final Map<OWLClass, SortedSet<OWLIndividual>> instances = new HashMap<>();
+	// the limit that was used to fetch the cached instances of a class
+	private final Map<OWLClass, Integer> instanceLimits = new HashMap<>();
+
+	public SPARQLExampleGenerator(QueryExecutionFactory qef) {
+		this.qef = qef;
+	}
+
+	public SPARQLExampleGenerator(SPARQLReasoner reasoner) {
+		this(reasoner.getQueryExecutionFactory());
+	}
+
+	/**
+	 * @param namespace only classes in this namespace are used as types and candidate classes
+	 */
+	public void setNamespace(String namespace) {
+		this.namespace = namespace;
+	}
+
+	/**
+	 * @param batchSize the max. number of individuals or classes per query
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Removes all cached data.
+	 */
+	public void clearCache() {
+		types.clear();
+		superClasses.clear();
+		siblingClasses.clear();
+		instances.clear();
+		instanceLimits.clear();
+	}
+
+	/**
+	 * @param cls the class
+	 * @param limit the max. number of examples
+	 * @return instances of the class as positive examples
+	 */
+	public SortedSet<OWLIndividual> getPositiveExamples(OWLClass cls, int limit) {
+		return getPositiveExamples(Collections.singleton(cls), limit).get(cls);
+	}
+
+	/**
+	 * Fetches the positive examples for all given classes with one query per page of classes.
+	 *
+	 * @param classes the classes
+	 * @param limit the max. number of examples per class
+	 * @return instances of each class as positive examples
+	 */
+	public Map<OWLClass, SortedSet<OWLIndividual>> getPositiveExamples(Collection<OWLClass> classes, int limit) {
+		fetchInstances(classes, limit);
+		Map<OWLClass, SortedSet<OWLIndividual>> positiveExamples = new HashMap<>();
+		for (OWLClass cls : classes) {
+			positiveExamples.put(cls, SetManipulation.stableShrink(new TreeSet<>(instances.get(cls)), limit));
+		}
+		return positiveExamples;
+	}
+
+	public SortedSet<OWLIndividual> getNegativeExamples(OWLClass classToDescribe, Set<OWLIndividual> positiveExamples, int limit) {
+		return getNegativeExamples(classToDescribe, positiveExamples, Arrays.asList(SUPERCLASS, SIBLING, RANDOM), limit);
+	}
+
+	public SortedSet<OWLIndividual> getNegativeExamples(OWLClass classToDescribe, Set<OWLIndividual> positiveExamples, Collection<Strategy> strategies, int limit) {
+		Map<Strategy, Double> strategiesWithWeight = Maps.newLinkedHashMap();
+		double weight = 1d/strategies.size();
+		for (Strategy strategy : strategies) {
+			strategiesWithWeight.put(strategy, weight);
+		}
+		return getNegativeExamples(classToDescribe, positiveExamples, strategiesWithWeight, limit);
+	}
+
+	/**
+	 * Computes negative examples based on the types of the positive examples. The negative examples never contain
+	 * a positive example or an instance of the class to describe.
+	 *
+	 * @param classToDescribe the class to describe, or <code>null</code> if unknown
+	 * @param positiveExamples the positive examples
+	 * @param strategiesWithWeight the strategies with their share of the negative examples
+	 * @param maxNrOfReturnedInstances the max. number of negative examples
+	 * @return the negative examples
+	 */
+	public SortedSet<OWLIndividual> getNegativeExamples(OWLClass classToDescribe, Set<OWLIndividual> positiveExamples,
+														Map<Strategy, Double> strategiesWithWeight,
+														int maxNrOfReturnedInstances) {
+		// the frequencies of the most specific types of the positive examples
+		Multiset<OWLClass> positiveExamplesTypes = HashMultiset.create();
+		for (Set<OWLClass> classes : getTypes(positiveExamples).values()) {
+			positiveExamplesTypes.addAll(classes);
+		}
+		if (classToDescribe != null && positiveExamplesTypes.isEmpty()) {
+			positiveExamplesTypes.add(classToDescribe);
+		}
+		keepMostSpecificClasses(positiveExamplesTypes);
+
+		SortedSet<OWLIndividual> negativeExamples = new TreeSet<>();
+		if (positiveExamplesTypes.isEmpty()) {
+			logger.warn("No types found for the positive examples, can't compute negative examples.");
+			return negativeExamples;
+		}
+
+		for (Entry<Strategy, Double> entry : strategiesWithWeight.entrySet()) {
+			Strategy strategy = entry.getKey();
+
+			// the max number of instances returned by the current strategy
+			int strategyLimit = (int)(entry.getValue() * maxNrOfReturnedInstances);
+
+			if (strategy == SUPERCLASS || strategy == SIBLING) {
+				logger.info("Applying " + (strategy == SUPERCLASS ? "super class" : "sibling classes") + " strategy...");
+				Map<OWLClass, Set<OWLClass>> candidates = strategy == SUPERCLASS
+						? getSuperClasses(positiveExamplesTypes.elementSet())
+						: getSiblingClasses(positiveExamplesTypes.elementSet());
+				negativeExamples.addAll(negativeExamplesByCandidateClasses(classToDescribe, positiveExamples,
+						positiveExamplesTypes, candidates, negativeExamples, strategyLimit, maxNrOfReturnedInstances));
+			} else if (strategy == RANDOM) {
+				logger.info("Applying random strategy...");
+				SortedSet<OWLIndividual> randomNegativeExamples = randomNegativeExamples(classToDescribe,
+						positiveExamplesTypes.elementSet(), maxNrOfReturnedInstances);
+				randomNegativeExamples.removeAll(negativeExamples);
+				randomNegativeExamples.removeAll(positiveExamples);
+				randomNegativeExamples = SetManipulation.stableShrink(randomNegativeExamples,
+						Math.min(strategyLimit, maxNrOfReturnedInstances - negativeExamples.size()));
+				negativeExamples.addAll(randomNegativeExamples);
+				logger.info("Negative examples(" + randomNegativeExamples.size() + "): " + randomNegativeExamples);
+			}
+		}
+		return negativeExamples;
+	}
+
+	private SortedSet<OWLIndividual> negativeExamplesByCandidateClasses(OWLClass classToDescribe,
+																		Set<OWLIndividual> positiveExamples,
+																		Multiset<OWLClass> positiveExamplesTypes,
+																		Map<OWLClass, Set<OWLClass>> candidates,
+																		Set<OWLIndividual> negativeExamples,
+																		int cnt, int totalCnt) {
+		// fetch the instances of all candidate classes at once, and the types of those instances
+		Set<OWLClass> candidateClasses = new HashSet<>();
+		candidates.values().forEach(candidateClasses::addAll);
+		fetchInstances(candidateClasses, totalCnt);
+		Set<OWLIndividual> candidateInstances = new HashSet<>();
+		for (OWLClass cls : candidateClasses) {
+			candidateInstances.addAll(instances.get(cls));
+		}
+		Map<OWLIndividual, Set<OWLClass>> candidateTypes = getTypes(candidateInstances);
+
+		SortedSet<OWLIndividual> negExamples = new TreeSet<>();
+		for (OWLClass nc : positiveExamplesTypes.elementSet()) {
+			Set<OWLClass> classes = candidates.get(nc);
+			if (classes.isEmpty()) {
+				continue;
+			}
+			int frequency = positiveExamplesTypes.count(nc);
+			int limit = (int)Math.ceil(((double)frequency / positiveExamplesTypes.size()) / classes.size() * cnt);
+
+			for (OWLClass cls : classes) {
+				SortedSet<OWLIndividual> individuals = new TreeSet<>();
+				for (OWLIndividual ind : instances.get(cls)) {
+					Set<OWLClass> indTypes = candidateTypes.getOrDefault(ind, Collections.emptySet());
+					if (!indTypes.contains(nc) && (classToDescribe == null || !indTypes.contains(classToDescribe))) {
+						individuals.add(ind);
+					}
+				}
+				individuals.removeAll(positiveExamples);
+				individuals.removeAll(negativeExamples);
+				individuals.removeAll(negExamples);
+				negExamples.addAll(SetManipulation.stableShrink(individuals, limit));
+			}
+		}
+		negExamples = SetManipulation.stableShrink(negExamples, cnt);
+		logger.info("Negative examples(" + negExamples.size() + "): " + negExamples);
+		return negExamples;
+	}
+
+	private SortedSet<OWLIndividual> randomNegativeExamples(OWLClass classToDescribe, Set<OWLClass> positiveExamplesTypes, int limit) {
+		String query = "SELECT DISTINCT ?s WHERE {?s a ?type. ?type a <" + OWLRDFVocabulary.OWL_CLASS.getIRI() + "> .";
+		if (classToDescribe != null) {
+			query += "FILTER NOT EXISTS{?s a <" + classToDescribe.toStringID() + "> }";
+		} else {
+			query += "FILTER NOT EXISTS{VALUES ?posType {" + asValues(positiveExamplesTypes) + "} ?s a ?posType }";
+		}
+		query += "} LIMIT " + limit;
+
+		SortedSet<OWLIndividual> individuals = new TreeSet<>();
+		try (QueryExecution qe = qef.createQueryExecution(query)) {
+			ResultSet rs = qe.execSelect();
+			while (rs.hasNext()) {
+				QuerySolution qs = rs.next();
+				if (qs.get("s").isURIResource()) {
+					individuals.add(df.getOWLNamedIndividual(IRI.create(qs.getResource("s").getURI())));
+				}
+			}
+		}
+		return individuals;
+	}
+
+	/**
+	 * Returns the asserted types of the given individuals. The types of individuals which are not cached yet are
+	 * fetched by one query per page of individuals.
+	 *
+	 * @param individuals the individuals
+	 * @return the types of each individual
+	 */
+	public Map<OWLIndividual, Set<OWLClass>> getTypes(Collection<OWLIndividual> individuals) {
+		List<OWLIndividual> missing = individuals.stream()
+				.filter(ind -> ind.isNamed() && !types.containsKey(ind))
+				.collect(Collectors.toList());
+		for (List<OWLIndividual> batch : Iterables.partition(missing, batchSize)) {
+			for (OWLIndividual ind : batch) {
+				types.put(ind, new HashSet<>());
+			}
+			String query = "SELECT ?ind ?type WHERE { VALUES ?ind {" + asValues(batch) + "} ?ind a ?type . }";
+			executeSelect(query, qs -> {
+				OWLClass cls = asClass(qs.get("type"));
+				if (cls != null) {
+					types.get(df.getOWLNamedIndividual(IRI.create(qs.getResource("ind").getURI()))).add(cls);
+				}
+			});
+		}
+
+		Map<OWLIndividual, Set<OWLClass>> result = new HashMap<>();
+		for (OWLIndividual ind : individuals) {
+			result.put(ind, types.getOrDefault(ind, Collections.emptySet()));
+		}
+		return result;
+	}
+
+	/**
+	 * @param classes the classes
+	 * @return the asserted super classes of each class, without owl:Thing and rdfs:Resource
+	 */
+	public Map<OWLClass, Set<OWLClass>> getSuperClasses(Collection<OWLClass> classes) {
+		return getRelatedClasses(classes, superClasses,
+				"SELECT ?cls ?related WHERE { VALUES ?cls {%s} ?cls rdfs:subClassOf ?related . }");
+	}
+
+	/**
+	 * @param classes the classes
+	 * @return the classes which share an asserted super class with each class
+	 */
+	public Map<OWLClass, Set<OWLClass>> getSiblingClasses(Collection<OWLClass> classes) {
+		return getRelatedClasses(classes, siblingClasses,
+				"SELECT ?cls ?related WHERE { VALUES ?cls {%s} ?cls rdfs:subClassOf ?sup . ?related rdfs:subClassOf ?sup . }");
+	}
+
+	private Map<OWLClass, Set<OWLClass>> getRelatedClasses(Collection<OWLClass> classes, Map<OWLClass, Set<OWLClass>> cache,
+														   String queryTemplate) {
+		List<OWLClass> missing = classes.stream().filter(cls -> !cache.containsKey(cls)).collect(Collectors.toList());
+		for (List<OWLClass> batch : Iterables.partition(missing, batchSize)) {
+			for (OWLClass cls : batch) {
+				cache.put(cls, new HashSet<>());
+			}
+			String query = SPARQLQueryUtils.PREFIXES + String.format(queryTemplate, asValues(batch));
+			executeSelect(query, qs -> {
+				OWLClass cls = df.getOWLClass(IRI.create(qs.getResource("cls").getURI()));
+				OWLClass related = asClass(qs.get("related"));
+				if (related != null && !related.equals(cls)) {
+					cache.get(cls).add(related);
+				}
+			});
+		}
+
+		Map<OWLClass, Set<OWLClass>> result = new HashMap<>();
+		for (OWLClass cls : classes) {
+			result.put(cls, cache.get(cls));
+		}
+		return result;
+	}
+
+	/**
+	 * Fetches up to <code>limit</code> instances for each class which is not cached with at least this limit, with
+	 * one query per page of classes that contains a limited sub-query per class.
+	 */
+	private void fetchInstances(Collection<OWLClass> classes, int limit) {
+		List<OWLClass> missing = classes.stream()
+				.filter(cls -> !instances.containsKey(cls) || !isComplete(cls, limit))
+				.collect(Collectors.toList());
+		for (List<OWLClass> batch : Iterables.partition(missing, batchSize)) {
+			StringBuilder query = new StringBuilder("SELECT ?cls ?ind WHERE {");
+			for (int i = 0; i < batch.size(); i++) {
+				OWLClass cls = batch.get(i);
+				instances.put(cls, new TreeSet<>());
+				instanceLimits.put(cls, limit);
+				if (i > 0) {
+					query.append(" UNION ");
+				}
+				query.append("{ { SELECT DISTINCT ?ind WHERE { ?ind a <").append(cls.toStringID()).append("> . }");
+				if (limit > 0) {
+					query.append(" LIMIT ").append(limit);
+				}
+				query.append(" } BIND(<").append(cls.toStringID()).append("> AS ?cls) }");
+			}
+			query.append("}");
+			executeSelect(query.toString(), qs -> {
+				if (qs.get("ind").isURIResource()) {
+					instances.get(df.getOWLClass(IRI.create(qs.getResource("cls").getURI())))
+							.add(df.getOWLNamedIndividual(IRI.create(qs.getResource("ind").getURI())));
+				}
+			});
+		}
+		logger.debug("Fetched instances of " + missing.size() + " classes, " + (classes.size() - missing.size()) + " cached.");
+	}
+
+	/**
+	 * @return whether the cached instances of the class contain the first <code>limit</code> instances
+	 */
+	private boolean isComplete(OWLClass cls, int limit) {
+		int cachedLimit = instanceLimits.get(cls);
+		// a smaller limit is fine if all instances were returned
+		return cachedLimit == 0
+				|| (limit != 0 && limit <= cachedLimit)
+				|| instances.get(cls).size() < cachedLimit;
+	}
+
+	/**
+	 * Removes each class which is a super class of another class, based on the cached class hierarchy.
+	 */
+	private void keepMostSpecificClasses(Multiset<OWLClass> classes) {
+		Map<OWLClass, Set<OWLClass>> superClassesOf = getSuperClasses(classes.elementSet());
+		Set<OWLClass> toRemove = new HashSet<>();
+		for (OWLClass cls : classes.elementSet()) {
+			for (OWLClass sup : superClassesOf.get(cls)) {
+				if (classes.contains(sup)) {
+					toRemove.add(sup);
+				}
+			}
+		}
+		classes.elementSet().removeAll(toRemove);
+	}
+
+	/**
+	 * @return the class, or <code>null</code> if the node is not a class of the namespace
+	 */
+	private OWLClass asClass(RDFNode node) {
+		if (!node.isURIResource()) {
+			return null;
+		}
+		IRI iri = IRI.create(node.asResource().getURI());
+		if (iri.isReservedVocabulary() || iri.equals(OWLRDFVocabulary.RDFS_RESOURCE.getIRI())
+				|| (namespace != null && !iri.toString().startsWith(namespace))) {
+			return null;
+		}
+		return df.getOWLClass(iri);
+	}
+
+	private String asValues(Collection<? extends OWLObject> objects) {
+		return objects.stream()
+				.map(o -> "<" + (o instanceof OWLIndividual ? ((OWLIndividual) o).toStringID() : ((OWLEntity) o).toStringID()) + ">")
+				.collect(Collectors.joining(" "));
+	}
+
+	private void executeSelect(String query, Consumer<QuerySolution> consumer) {
+		logger.trace("Sending query \n {}", query);
+		try (QueryExecution qe = qef.createQueryExecution(query)) {
+			ResultSet rs = qe.execSelect();
+			while (rs.hasNext()) {
+				consumer.accept(rs.next());
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.ocel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.kb.OWLFile;
+import org.dllearner.learningproblems.PosNegLPStandard;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.PrefixManager;
+import org.semanticweb.owlapi.util.DefaultPrefixManager;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * Checks that the parallel coverage computation leads to the same search as the sequential one.
+ */
+public class OCELParallelCoverageTest {
+
+	private static final int MAX_TESTS = 300;
+
+	private List<OWLClassExpression> run(int nrOfThreads) throws Exception {
+		KnowledgeSource ks = new OWLFile("../examples/family/uncle.owl");
+		ks.init();
+		AbstractReasonerComponent reasoner = new ClosedWorldReasoner(ks);
+		reasoner.init();
+
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		PrefixManager pm = new DefaultPrefixManager();
+		pm.setDefaultPrefix("http://localhost/foo#");
+
+		Set<OWLIndividual> pos = new TreeSet<>();
+		pos.add(df.getOWLNamedIndividual("heinz", pm));
+		pos.add(df.getOWLNamedIndividual("alex", pm));
+		Set<OWLIndividual> neg = new TreeSet<>();
+		neg.add(df.getOWLNamedIndividual("jan", pm));
+		neg.add(df.getOWLNamedIndividual("anna", pm));
+		neg.add(df.getOWLNamedIndividual("hanna", pm));
+
+		PosNegLPStandard lp = new PosNegLPStandard(reasoner);
+		lp.setPositiveExamples(pos);
+		lp.setNegativeExamples(neg);
+		lp.init();
+
+		OCEL la = new OCEL(lp, reasoner);
+		// a fixed number of tests instead of a time limit makes both runs comparable
+		la.setMaxClassDescriptionTests(MAX_TESTS);
+		la.setMaxExecutionTimeInSeconds(0);
+		la.setNrOfThreads(nrOfThreads);
+		la.init();
+		la.start();
+
+		return la.getCurrentlyBestDescriptions();
+	}
+
+	@Test
+	public void testParallelCoverageEqualsSequential() throws Exception {
+		List<OWLClassExpression> sequential = run(1);
+		List<OWLClassExpression> parallel = run(4);
+		assertEquals(sequential, parallel);
+	}
+}
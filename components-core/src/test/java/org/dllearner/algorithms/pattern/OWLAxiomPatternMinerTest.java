@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.pattern;
+
+import org.dllearner.kb.repository.LocalDirectoryOntologyRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class OWLAxiomPatternMinerTest {
+
+	private static final String NS = "http://examples.org/ontology#";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final OWLDataFactory df = OWLManager.getOWLDataFactory();
+	private final OWLClass clsA = df.getOWLClass(IRI.create(NS + "A"));
+	private final OWLClass clsB = df.getOWLClass(IRI.create(NS + "B"));
+	private final OWLClass clsC = df.getOWLClass(IRI.create(NS + "C"));
+	private final OWLClass clsD = df.getOWLClass(IRI.create(NS + "D"));
+	private final OWLObjectProperty propR = df.getOWLObjectProperty(IRI.create(NS + "r"));
+
+	private File dir;
+	private Connection conn;
+
+	@Before
+	public void setUp() throws Exception {
+		dir = folder.newFolder();
+		conn = DriverManager.getConnection("jdbc:h2:mem:");
+		// the tables of OWLAxiomPatternFinder.createTables, without the MySQL specific options
+		try (Statement statement = conn.createStatement()) {
+			statement.execute("CREATE TABLE Pattern (id INT NOT NULL AUTO_INCREMENT, pattern VARCHAR(10000) NOT NULL,"
+									  + "pattern_pretty VARCHAR(10000) NOT NULL, axiom_type VARCHAR(15) NOT NULL, PRIMARY KEY(id))");
+			statement.execute("CREATE TABLE Ontology (id INT NOT NULL AUTO_INCREMENT, url VARCHAR(1000) NOT NULL,"
+									  + "iri VARCHAR(2000) NOT NULL, repository VARCHAR(200) NOT NULL,"
+									  + "logical_axioms INT DEFAULT 0, tbox_axioms INT DEFAULT 0, rbox_axioms INT DEFAULT 0,"
+									  + "abox_axioms INT DEFAULT 0, classes INT DEFAULT 0, object_properties INT DEFAULT 0,"
+									  + "data_properties INT DEFAULT 0, individuals INT DEFAULT 0, PRIMARY KEY(id))");
+			statement.execute("CREATE TABLE Ontology_Import (ontology_id1 INT NOT NULL, ontology_id2 INT NOT NULL,"
+									  + "PRIMARY KEY(ontology_id1, ontology_id2))");
+			statement.execute("CREATE TABLE Ontology_Error (url VARCHAR(1000) NOT NULL, repository VARCHAR(200) NOT NULL,"
+									  + "error VARCHAR(2000) NOT NULL, PRIMARY KEY(url, repository))");
+			statement.execute("CREATE TABLE Ontology_Pattern (ontology_id INT NOT NULL, pattern_id INT NOT NULL,"
+									  + "occurrences INT NOT NULL, PRIMARY KEY(ontology_id, pattern_id))");
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		conn.close();
+	}
+
+	private void createOntology(String name, OWLAxiom... axioms) throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLOntology ontology = man.createOntology(IRI.create("http://examples.org/" + name));
+		man.addAxioms(ontology, Arrays.asList(axioms));
+		man.saveOntology(ontology, IRI.create(new File(dir, name + ".owl")));
+	}
+
+	private OWLAxiomPatternMiner createMiner(Connection conn) {
+		OWLAxiomPatternMiner miner = new OWLAxiomPatternMiner(new LocalDirectoryOntologyRepository(dir), conn);
+		miner.setNumThreads(2);
+		miner.setBatchSize(1);
+		miner.setComputeGeneralizedPatterns(false);
+		return miner;
+	}
+
+	private int count(String sql) throws SQLException {
+		try (Statement statement = conn.createStatement();
+			 ResultSet rs = statement.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	/**
+	 * @return a connection which throws the failure on the first commit
+	 */
+	private Connection failingOnFirstCommit(Throwable failure) {
+		AtomicBoolean failed = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("commit") && failed.compareAndSet(false, true)) {
+						throw failure;
+					}
+					try {
+						return method.invoke(conn, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+
+	@Test(timeout = 60000)
+	public void testResume() throws Exception {
+		createOntology("a", df.getOWLSubClassOfAxiom(clsA, clsB), df.getOWLSubClassOfAxiom(clsC, clsD));
+		Files.write(new File(dir, "bad.owl").toPath(), "not an ontology".getBytes(StandardCharsets.UTF_8));
+
+		OWLAxiomPatternMiner miner = createMiner(conn);
+		miner.start();
+		assertEquals(1, miner.getPatternCounts().size());
+		assertEquals(1, count("SELECT COUNT(*) FROM Ontology"));
+		assertEquals(1, count("SELECT COUNT(*) FROM Ontology_Error"));
+		assertEquals(2, count("SELECT COUNT(*) FROM Ontology_Progress"));
+		assertEquals(1, count("SELECT COUNT(*) FROM Pattern"));
+		assertEquals(2, count("SELECT SUM(occurrences) FROM Ontology_Pattern"));
+
+		// the next run skips the ontologies processed before, including the failed one
+		createOntology("b", df.getOWLSubClassOfAxiom(clsA, df.getOWLObjectSomeValuesFrom(propR, clsB)),
+					   df.getOWLSubClassOfAxiom(clsA, clsC));
+		miner = createMiner(conn);
+		miner.start();
+		assertEquals(2, miner.getPatternCounts().size());
+		assertEquals(2, count("SELECT COUNT(*) FROM Ontology"));
+		assertEquals(1, count("SELECT COUNT(*) FROM Ontology_Error"));
+		assertEquals(3, count("SELECT COUNT(*) FROM Ontology_Progress"));
+		// the pattern of the first run is reused
+		assertEquals(2, count("SELECT COUNT(*) FROM Pattern"));
+		assertEquals(4, count("SELECT SUM(occurrences) FROM Ontology_Pattern"));
+	}
+
+	@Test(timeout = 60000)
+	public void testFailedBatchIsProcessedAgain() throws Exception {
+		createOntology("a", df.getOWLSubClassOfAxiom(clsA, clsB));
+		createOntology("b", df.getOWLSubClassOfAxiom(clsA, df.getOWLObjectSomeValuesFrom(propR, clsB)));
+
+		// the first batch is rolled back, the second one is written
+		createMiner(failingOnFirstCommit(new SQLException("commit failed"))).start();
+		assertEquals(1, count("SELECT COUNT(*) FROM Ontology"));
+		assertEquals(1, count("SELECT COUNT(*) FROM Ontology_Progress"));
+		assertEquals(1, count("SELECT COUNT(*) FROM Pattern"));
+
+		createMiner(conn).start();
+		assertEquals(2, count("SELECT COUNT(*) FROM Ontology"));
+		assertEquals(2, count("SELECT COUNT(*) FROM Ontology_Progress"));
+		assertEquals(2, count("SELECT COUNT(*) FROM Pattern"));
+	}
+
+	@Test(timeout = 60000)
+	public void testWriterFailure() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			createOntology("o" + i, df.getOWLSubClassOfAxiom(clsA, clsB));
+		}
+
+		try {
+			createMiner(failingOnFirstCommit(new IllegalStateException("unexpected"))).start();
+			fail("The failure of the writer was not reported.");
+		} catch (IllegalStateException e) {
+			assertEquals("unexpected", e.getCause().getMessage());
+		}
+		assertEquals(0, count("SELECT COUNT(*) FROM Ontology_Progress"));
+
+		createMiner(conn).start();
+		assertEquals(10, count("SELECT COUNT(*) FROM Ontology_Progress"));
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.properties;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import static org.junit.Assert.assertEquals;
+
+public class ObjectPropertyStatisticsTest {
+
+	private static final String NS = "http://examples.org/ontology#";
+
+	private OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private Model model;
+	private OWLObjectProperty propR;
+
+	@Before
+	public void setUp() throws Exception {
+		model = ModelFactory.createDefaultModel();
+
+		Property r = model.createProperty(NS + "r");
+		Property s = model.createProperty(NS + "s");
+		Resource clsA = model.createResource(NS + "A");
+		Resource clsB = model.createResource(NS + "B");
+
+		Resource a = model.createResource(NS + "a");
+		Resource b = model.createResource(NS + "b");
+		Resource c = model.createResource(NS + "c");
+		Resource d = model.createResource(NS + "d");
+
+		// r(a,b), r(b,a), r(b,c), r(a,c), r(d,d)
+		model.add(a, r, b);
+		model.add(b, r, a);
+		model.add(b, r, c);
+		model.add(a, r, c);
+		model.add(d, r, d);
+
+		// s(a,b), s(b,c)
+		model.add(a, s, b);
+		model.add(b, s, c);
+
+		model.add(a, RDF.type, clsA);
+		model.add(b, RDF.type, clsA);
+		model.add(c, RDF.type, clsB);
+
+		propR = df.getOWLObjectProperty(IRI.create(NS + "r"));
+	}
+
+	@Test
+	public void testStatistics() {
+		ObjectPropertyStatistics statistics = ObjectPropertyStatistics.compute(model, propR);
+
+		assertEquals(5, statistics.getNrOfTriples());
+		assertEquals(3, statistics.getNrOfDistinctSubjects());
+		assertEquals(4, statistics.getNrOfDistinctObjects());
+
+		// only d has a single object
+		assertEquals(1, statistics.getNrOfFunctionalSubjects());
+		// a, b and d have a single subject, c has two
+		assertEquals(3, statistics.getNrOfInverseFunctionalObjects());
+
+		// r(a,b), r(b,a), r(d,d)
+		assertEquals(3, statistics.getNrOfSymmetricTriples());
+		assertEquals(1, statistics.getNrOfReflexiveSubjects());
+		assertEquals(2, statistics.getNrOfIrreflexiveSubjects());
+
+		// (a,b,a), (a,b,c), (b,a,b), (b,a,c), (d,d,d)
+		assertEquals(5, statistics.getNrOfChains());
+		// (a,b,c), (b,a,c), (d,d,d) are closed
+		assertEquals(3, statistics.getNrOfClosedChains());
+
+		assertEquals(2, (int) statistics.getSubjectTypeCounts().get(df.getOWLClass(IRI.create(NS + "A"))));
+		assertEquals(1, (int) statistics.getObjectTypeCounts().get(df.getOWLClass(IRI.create(NS + "B"))));
+
+		assertEquals(2, statistics.getCooccurrenceCount(df.getOWLObjectProperty(IRI.create(NS + "s"))));
+	}
+}
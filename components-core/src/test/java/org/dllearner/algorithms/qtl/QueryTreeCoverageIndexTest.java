@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGenerator;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorSimple;
+import org.dllearner.algorithms.qtl.util.Entailment;
+import org.dllearner.algorithms.qtl.util.ExampleTreeCoverage;
+import org.dllearner.algorithms.qtl.util.QueryTreeCoverageIndex;
+import org.dllearner.algorithms.qtl.util.QueryTreeSubsumptionChecker;
+import org.junit.Test;
+
+public class QueryTreeCoverageIndexTest {
+
+	private static final String kb = "@prefix : <http://test.org/> ."
+			+ ":e1 :p :a ; :q _:b1 . _:b1 :r :c ; :s \"x\" ."
+			+ ":e2 :p :a ; :q _:b2 . _:b2 :r :d ."
+			+ ":e3 :p :b ; :q _:b3 . _:b3 :r :c ; :s \"y\" ."
+			+ ":e4 :p :a ; :q :f1 , :f2 . :f1 :r :c . :f2 :s \"x\" ."
+			+ ":e5 :p \"a\" ."
+			+ ":e6 :q _:b6 . _:b6 :r :c , :d .";
+
+	private static List<RDFResourceTree> getExampleTrees() {
+		Model model = ModelFactory.createDefaultModel();
+		model.read(new ByteArrayInputStream(kb.getBytes()), null, "TURTLE");
+
+		QueryTreeFactory treeFactory = new QueryTreeFactoryBase();
+		List<RDFResourceTree> trees = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			trees.add(treeFactory.getQueryTree("http://test.org/e" + i, model, 2));
+		}
+		return trees;
+	}
+
+	// the example trees and the pairwise LGGs
+	private static List<RDFResourceTree> getQueryTrees(List<RDFResourceTree> trees) {
+		LGGGenerator lggGenerator = new LGGGeneratorSimple();
+		List<RDFResourceTree> queryTrees = new ArrayList<>(trees);
+		for (int i = 0; i < trees.size(); i++) {
+			for (int j = i + 1; j < trees.size(); j++) {
+				queryTrees.add(lggGenerator.getLGG(trees.get(i), trees.get(j)));
+			}
+		}
+		return queryTrees;
+	}
+
+	@Test
+	public void testCoverageMatchesSubsumption() {
+		List<RDFResourceTree> trees = getExampleTrees();
+		List<RDFResourceTree> queryTrees = getQueryTrees(trees);
+
+		QueryTreeCoverageIndex index = new QueryTreeCoverageIndex(trees);
+		for (RDFResourceTree queryTree : queryTrees) {
+			BitSet expected = new BitSet();
+			for (int i = 0; i < trees.size(); i++) {
+				if (QueryTreeUtils.isSubsumedBy(trees.get(i), queryTree)) {
+					expected.set(i);
+				}
+			}
+			// the candidates must not lose any covered example
+			BitSet candidates = index.getCandidates(queryTree);
+			BitSet missing = (BitSet) expected.clone();
+			missing.andNot(candidates);
+			assertTrue(missing.isEmpty());
+
+			assertEquals(expected, index.getCovered(queryTree));
+			assertEquals(expected.cardinality(), index.getCoveredTrees(queryTree, trees).size());
+			assertEquals(trees.size() - expected.cardinality(), index.getUncoveredTrees(queryTree, trees).size());
+		}
+	}
+
+	@Test
+	public void testExampleTreeCoverage() {
+		List<RDFResourceTree> trees = getExampleTrees();
+		List<RDFResourceTree> queryTrees = getQueryTrees(trees);
+
+		// only the first examples are indexed, the others have to be checked directly
+		ExampleTreeCoverage coverage = new ExampleTreeCoverage(trees.subList(0, 4), Entailment.SIMPLE, null,
+				true, new QueryTreeSubsumptionChecker());
+		for (RDFResourceTree queryTree : queryTrees) {
+			List<RDFResourceTree> expected = new ArrayList<>();
+			for (RDFResourceTree tree : trees) {
+				if (QueryTreeUtils.isSubsumedBy(tree, queryTree)) {
+					expected.add(tree);
+				}
+			}
+			assertEquals(expected, coverage.getCoveredTrees(queryTree, trees));
+			BitSet candidates = coverage.getCandidates(queryTree);
+			for (RDFResourceTree tree : trees) {
+				assertEquals(expected.contains(tree), coverage.isCovered(tree, queryTree, candidates));
+			}
+			assertEquals(trees.size() - expected.size(), coverage.getUncoveredTrees(queryTree, trees).size());
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGenerator;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorSimple;
+import org.dllearner.algorithms.qtl.util.QueryTreeSubsumptionChecker;
+import org.junit.Test;
+
+public class QueryTreeSubsumptionCheckerTest {
+
+	private static final String kb = "@prefix : <http://test.org/> ."
+			+ ":e1 :p :a ; :q _:b1 . _:b1 :r :c ; :s \"x\" ."
+			+ ":e2 :p :a ; :q _:b2 . _:b2 :r :d ."
+			+ ":e3 :p :b ; :q _:b3 . _:b3 :r :c ; :s \"y\" ."
+			+ ":e4 :p :a ; :q :f1 , :f2 . :f1 :r :c . :f2 :s \"x\" ."
+			+ ":e5 :p \"a\" ."
+			+ ":e6 :q _:b6 . _:b6 :r :c , :d .";
+
+	@Test
+	public void testCheckerMatchesSubsumption() {
+		Model model = ModelFactory.createDefaultModel();
+		model.read(new ByteArrayInputStream(kb.getBytes()), null, "TURTLE");
+
+		QueryTreeFactory treeFactory = new QueryTreeFactoryBase();
+		List<RDFResourceTree> trees = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			trees.add(treeFactory.getQueryTree("http://test.org/e" + i, model, 2));
+		}
+
+		// the example trees, the pairwise LGGs and the LGGs computed with the checker
+		LGGGenerator lggGenerator = new LGGGeneratorSimple();
+		LGGGeneratorSimple lggGeneratorWithChecker = new LGGGeneratorSimple();
+		lggGeneratorWithChecker.setUseSubsumptionChecker(true);
+		List<RDFResourceTree> queryTrees = new ArrayList<>(trees);
+		for (int i = 0; i < trees.size(); i++) {
+			for (int j = i + 1; j < trees.size(); j++) {
+				RDFResourceTree lgg = lggGenerator.getLGG(trees.get(i), trees.get(j));
+				RDFResourceTree lgg2 = lggGeneratorWithChecker.getLGG(trees.get(i), trees.get(j));
+				assertTrue(QueryTreeUtils.sameTrees(lgg, lgg2));
+				queryTrees.add(lgg);
+				queryTrees.add(lgg2);
+			}
+		}
+
+		QueryTreeSubsumptionChecker checker = new QueryTreeSubsumptionChecker();
+		// check twice to use the memoized results
+		for (int run = 0; run < 2; run++) {
+			for (RDFResourceTree tree1 : queryTrees) {
+				for (RDFResourceTree tree2 : queryTrees) {
+					assertEquals(QueryTreeUtils.isSubsumedBy(tree1, tree2), checker.isSubsumedBy(tree1, tree2));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.dllearner.algorithms.celoe.CELOE;
+import org.dllearner.learningproblems.PosNegLPStandard;
+import org.junit.Assert;
+import org.junit.Test;
+import org.reflections.util.ClasspathHelper;
+
+/**
+ * Tests for the component index read by the AnnComponentManager
+ */
+public class ComponentIndexTest {
+
+	@Test
+	public void testWriteAndRead() throws Exception {
+		Collection<Class<? extends Component>> components = Arrays.asList(CELOE.class, PosNegLPStandard.class);
+
+		StringWriter writer = new StringWriter();
+		ComponentIndex.write(components, writer);
+		ComponentIndex index = ComponentIndex.read(new StringReader(writer.toString()));
+
+		Assert.assertEquals(2, index.getComponentClassNames().size());
+		Assert.assertTrue(index.getComponentClassNames().contains(CELOE.class.getName()));
+		Assert.assertTrue(index.getComponentClassNames().contains(PosNegLPStandard.class.getName()));
+		Assert.assertEquals(AnnComponentManager.getName(CELOE.class), index.getName(CELOE.class.getName()));
+		Assert.assertEquals(AnnComponentManager.getShortName(CELOE.class), index.getShortName(CELOE.class.getName()));
+		Assert.assertEquals(AnnComponentManager.getVersion(CELOE.class), index.getVersion(CELOE.class.getName()), 0);
+
+		// all config options, including inherited ones, as read from the annotations
+		List<ComponentIndex.Option> options = index.getConfigOptions(CELOE.class.getName());
+		Assert.assertTrue(options.stream().anyMatch(option -> option.getName().equals("maxExecutionTimeInSeconds")));
+		List<ComponentIndex.Option> expected = ComponentIndex.readConfigOptions(CELOE.class);
+		Assert.assertEquals(expected.size(), options.size());
+		for (int i = 0; i < options.size(); i++) {
+			Assert.assertEquals(expected.get(i).getName(), options.get(i).getName());
+			Assert.assertEquals(expected.get(i).getType(), options.get(i).getType());
+			Assert.assertEquals(expected.get(i).getDefaultValue(), options.get(i).getDefaultValue());
+			Assert.assertEquals(expected.get(i).isRequired(), options.get(i).isRequired());
+			Assert.assertEquals(expected.get(i).getDescription(), options.get(i).getDescription());
+		}
+	}
+
+	@Test
+	public void testScan() throws Exception {
+		// the classpath entry of the core components
+		List<Class<? extends Component>> components = ComponentIndex.scan(
+				Collections.singleton(ClasspathHelper.forClass(CELOE.class)));
+
+		Assert.assertTrue(components.contains(CELOE.class));
+		Assert.assertTrue(components.contains(PosNegLPStandard.class));
+		Assert.assertTrue(components.stream().allMatch(c -> c.isAnnotationPresent(ComponentAnn.class)));
+	}
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.dllearner.reasoning.OWLAPIReasoner;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class SubsumptionCacheTest {
+
+	private static final String NS = "http://test.org/";
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+	private final OWLClass a = df.getOWLClass(IRI.create("http://test.org/A"));
+	private final OWLClass c = df.getOWLClass(IRI.create("http://test.org/C"));
+	private final OWLClassExpression b = df.getOWLObjectSomeValuesFrom(
+			df.getOWLObjectProperty(IRI.create("http://test.org/r")), df.getOWLClass(IRI.create("http://test.org/B")));
+
+	@Test
+	public void testSubsumptionIsOrdered() {
+		SubsumptionCache cache = new SubsumptionCache(100);
+		cache.putSuperClassOf(a, b, true);
+		assertEquals(Boolean.TRUE, cache.getSuperClassOf(a, b));
+		assertNull(cache.getSuperClassOf(b, a));
+	}
+
+	@Test
+	public void testDisjointnessIsSymmetric() {
+		SubsumptionCache cache = new SubsumptionCache(100);
+		cache.putDisjoint(b, a, false);
+		assertEquals(Boolean.FALSE, cache.getDisjoint(a, b));
+		assertEquals(Boolean.FALSE, cache.getDisjoint(b, a));
+		// the relations don't share entries
+		assertNull(cache.getEquivalentClass(a, b));
+	}
+
+	@Test
+	public void testInvalidate() {
+		SubsumptionCache cache = new SubsumptionCache(100);
+		cache.putEquivalentClass(a, b, false);
+		assertEquals(1, cache.size());
+		cache.invalidate();
+		assertNull(cache.getEquivalentClass(b, a));
+	}
+
+	// A and B without common instances, but not declared disjoint
+	private OWLAPIReasoner createBaseReasoner() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLOntology ontology = man.createOntology();
+		man.addAxiom(ontology, df.getOWLClassAssertionAxiom(a, df.getOWLNamedIndividual(IRI.create(NS + "i1"))));
+		man.addAxiom(ontology, df.getOWLClassAssertionAxiom(c, df.getOWLNamedIndividual(IRI.create(NS + "i2"))));
+
+		KnowledgeSource ks = new OWLAPIOntology(ontology);
+		ks.init();
+		OWLAPIReasoner reasoner = new OWLAPIReasoner(ks);
+		reasoner.setUseSubsumptionCache(true);
+		reasoner.init();
+		return reasoner;
+	}
+
+	@Test
+	public void testReasonerUsesCache() throws Exception {
+		OWLAPIReasoner reasoner = createBaseReasoner();
+		OWLClassExpression intersection = df.getOWLObjectIntersectionOf(a, c);
+
+		assertTrue(reasoner.isSuperClassOf(a, intersection));
+		assertEquals(Boolean.TRUE, reasoner.getSubsumptionCache().getSuperClassOf(a, intersection));
+		assertFalse(reasoner.isDisjointLogical(a, c));
+		// cached as subsumption by owl:Nothing, independent of the order
+		assertEquals(Boolean.FALSE, reasoner.getSubsumptionCache().getSuperClassOf(df.getOWLNothing(),
+				df.getOWLObjectIntersectionOf(c, a)));
+	}
+
+	@Test
+	public void testInstanceBasedAndLogicalDisjointnessAreSeparated() throws Exception {
+		ClosedWorldReasoner reasoner = new ClosedWorldReasoner(createBaseReasoner());
+		reasoner.setUseSubsumptionCache(true);
+		reasoner.init();
+
+		// twice to use the cached results
+		for (int i = 0; i < 2; i++) {
+			// no common instances
+			assertTrue(reasoner.isDisjoint(a, c));
+			// but not entailed
+			assertFalse(reasoner.isDisjointLogical(a, c));
+		}
+	}
+
+	@Test
+	public void testInvalidationAfterOntologyChange() throws Exception {
+		OWLAPIReasoner baseReasoner = createBaseReasoner();
+		ClosedWorldReasoner reasoner = new ClosedWorldReasoner(baseReasoner);
+		reasoner.setUseSubsumptionCache(true);
+		reasoner.init();
+
+		assertFalse(reasoner.isDisjointLogical(a, c));
+		assertFalse(baseReasoner.isDisjointLogical(a, c));
+		assertTrue(reasoner.getSubsumptionCache().size() > 0);
+
+		baseReasoner.getManager().addAxiom(baseReasoner.getOntology(), df.getOWLDisjointClassesAxiom(a, c));
+
+		// the cache of the wrapping reasoner is cleared as well
+		assertEquals(0, baseReasoner.getSubsumptionCache().size());
+		assertEquals(0, reasoner.getSubsumptionCache().size());
+		assertTrue(reasoner.isDisjointLogical(a, c));
+	}
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core.fuzzydll;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.core.fuzzydll.FuzzyMembershipEngine.FuzzyLogic;
+import org.dllearner.core.owl.fuzzydll.FuzzyIndividual;
+import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.learningproblems.FuzzyPosNegLPStandard;
+import org.dllearner.learningproblems.Heuristics.HeuristicType;
+import org.dllearner.reasoning.OWLAPIReasoner;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectComplementOf;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectUnionOf;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Tests the fuzzy membership engine against a reasoner which evaluates class expressions per
+ * individual with the Zadeh semantics.
+ */
+public class FuzzyMembershipEngineTest {
+
+	private static final String NS = "http://test.org/fuzzy#";
+	private static final double DELTA = 1e-9;
+
+	private OWLDataFactory df;
+	private OWLClass a;
+	private OWLClass b;
+	private OWLClass c;
+	private SortedSet<FuzzyIndividual> examples;
+	private StubFuzzyReasoner reasoner;
+
+	/**
+	 * Looks up the degrees of atomic classes in a table and combines them with min, max and 1-x.
+	 */
+	private static class StubFuzzyReasoner extends OWLAPIReasoner {
+
+		private final Map<OWLClass, Map<IRI, Double>> degrees;
+		private int nrOfCalls = 0;
+
+		StubFuzzyReasoner(KnowledgeSource ks, Map<OWLClass, Map<IRI, Double>> degrees) {
+			super(ks);
+			this.degrees = degrees;
+		}
+
+		@Override
+		protected double hasTypeFuzzyMembershipImpl(OWLClassExpression concept, FuzzyIndividual individual) {
+			nrOfCalls++;
+			return degree(concept, individual.getIRI());
+		}
+
+		private double degree(OWLClassExpression ce, IRI individual) {
+			if (ce.isOWLThing()) {
+				return 1;
+			} else if (ce.isOWLNothing()) {
+				return 0;
+			} else if (ce instanceof OWLObjectIntersectionOf) {
+				return ((OWLObjectIntersectionOf) ce).getOperands().stream()
+						.mapToDouble(op -> degree(op, individual)).min().getAsDouble();
+			} else if (ce instanceof OWLObjectUnionOf) {
+				return ((OWLObjectUnionOf) ce).getOperands().stream()
+						.mapToDouble(op -> degree(op, individual)).max().getAsDouble();
+			} else if (ce instanceof OWLObjectComplementOf) {
+				return 1 - degree(((OWLObjectComplementOf) ce).getOperand(), individual);
+			}
+			return degrees.getOrDefault(ce.asOWLClass(), Collections.emptyMap()).getOrDefault(individual, 0d);
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		df = man.getOWLDataFactory();
+		OWLOntology ontology = man.createOntology();
+
+		a = df.getOWLClass(IRI.create(NS + "A"));
+		b = df.getOWLClass(IRI.create(NS + "B"));
+		c = df.getOWLClass(IRI.create(NS + "C"));
+
+		double[][] table = {
+				// truth degree, A, B, C
+				{1.0, 0.6, 0.3, 0.9},
+				{0.8, 1.0, 0.7, 0.2},
+				{0.5, 0.4, 0.0, 0.5},
+				{0.0, 0.1, 0.9, 1.0}
+		};
+		Map<OWLClass, Map<IRI, Double>> degrees = new HashMap<>();
+		List<OWLClass> classes = Arrays.asList(a, b, c);
+		examples = new TreeSet<>();
+		for (int i = 0; i < table.length; i++) {
+			IRI iri = IRI.create(NS + "i" + i);
+			man.addAxiom(ontology, df.getOWLClassAssertionAxiom(df.getOWLThing(), df.getOWLNamedIndividual(iri)));
+			examples.add(new FuzzyIndividual(iri.toString(), table[i][0]));
+			for (int j = 0; j < classes.size(); j++) {
+				degrees.computeIfAbsent(classes.get(j), k -> new HashMap<>()).put(iri, table[i][j + 1]);
+			}
+		}
+
+		KnowledgeSource ks = new OWLAPIOntology(ontology);
+		ks.init();
+		reasoner = new StubFuzzyReasoner(ks, degrees);
+		reasoner.init();
+	}
+
+	private double membership(FuzzyLogic logic, OWLClassExpression ce) {
+		FuzzyIndividual individual = new FuzzyIndividual(NS + "i0", 1.0);
+		FuzzyMembershipEngine engine = new FuzzyMembershipEngine(reasoner, Collections.singleton(individual), logic, 100);
+		return engine.getMemberships(ce)[0];
+	}
+
+	@Test
+	public void testTNorms() {
+		// A = 0.6, B = 0.3
+		OWLClassExpression and = df.getOWLObjectIntersectionOf(a, b);
+		OWLClassExpression or = df.getOWLObjectUnionOf(a, b);
+
+		assertEquals(0.3, membership(FuzzyLogic.ZADEH, and), DELTA);
+		assertEquals(0.6, membership(FuzzyLogic.ZADEH, or), DELTA);
+		assertEquals(0.18, membership(FuzzyLogic.PRODUCT, and), DELTA);
+		assertEquals(0.72, membership(FuzzyLogic.PRODUCT, or), DELTA);
+		assertEquals(0.0, membership(FuzzyLogic.LUKASIEWICZ, and), DELTA);
+		assertEquals(0.9, membership(FuzzyLogic.LUKASIEWICZ, or), DELTA);
+
+		for (FuzzyLogic logic : FuzzyLogic.values()) {
+			assertEquals(0.4, membership(logic, df.getOWLObjectComplementOf(a)), DELTA);
+			assertEquals(1.0, membership(logic, df.getOWLThing()), DELTA);
+			assertEquals(0.0, membership(logic, df.getOWLNothing()), DELTA);
+		}
+	}
+
+	@Test
+	public void testCache() {
+		FuzzyMembershipEngine engine = new FuzzyMembershipEngine(reasoner, examples, FuzzyLogic.ZADEH, 100);
+		int n = examples.size();
+
+		double[] ab = engine.getMemberships(df.getOWLObjectIntersectionOf(a, b));
+		assertEquals(2 * n, reasoner.nrOfCalls);
+
+		// only the new leaf C is asked from the reasoner
+		engine.getMemberships(df.getOWLObjectIntersectionOf(a, b, c));
+		assertEquals(3 * n, reasoner.nrOfCalls);
+
+		// cache hit
+		assertArrayEquals(ab, engine.getMemberships(df.getOWLObjectIntersectionOf(a, b)), DELTA);
+		assertEquals(3 * n, reasoner.nrOfCalls);
+
+		engine.clearCache();
+		engine.getMemberships(df.getOWLObjectIntersectionOf(a, b));
+		assertEquals(5 * n, reasoner.nrOfCalls);
+	}
+
+	private FuzzyPosNegLPStandard learningProblem(HeuristicType heuristic, boolean useMembershipEngine) throws Exception {
+		FuzzyPosNegLPStandard lp = new FuzzyPosNegLPStandard(reasoner);
+		lp.setPositiveExamples(new TreeSet<OWLIndividual>());
+		lp.setNegativeExamples(new TreeSet<OWLIndividual>());
+		lp.setFuzzyExamples(examples);
+		lp.setHeuristic(heuristic);
+		lp.setUseMembershipEngine(useMembershipEngine);
+		lp.init();
+		return lp;
+	}
+
+	@Test
+	public void testEquivalenceWithPerExampleEvaluation() throws Exception {
+		List<OWLClassExpression> expressions = Arrays.asList(
+				a, b, c, df.getOWLThing(), df.getOWLNothing(),
+				df.getOWLObjectIntersectionOf(a, b),
+				df.getOWLObjectUnionOf(b, c),
+				df.getOWLObjectComplementOf(c),
+				df.getOWLObjectIntersectionOf(a, df.getOWLObjectUnionOf(b, df.getOWLObjectComplementOf(c))));
+
+		for (HeuristicType heuristic : Arrays.asList(HeuristicType.PRED_ACC, HeuristicType.FMEASURE)) {
+			FuzzyPosNegLPStandard perExample = learningProblem(heuristic, false);
+			FuzzyPosNegLPStandard vectorized = learningProblem(heuristic, true);
+			for (OWLClassExpression ce : expressions) {
+				for (double noise : new double[] {0.0, 0.3, 1.0}) {
+					assertEquals(ce + ", noise " + noise,
+							perExample.getAccuracyOrTooWeak(ce, noise),
+							vectorized.getAccuracyOrTooWeak(ce, noise), DELTA);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.query.QueryExecution;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class TDBSparqlEndpointKSTest {
+
+	private static final String DATA = "src/test/resources/org/dllearner/utilities/streaming_loader.ttl";
+
+	private File location;
+
+	@Before
+	public void setUp() throws IOException {
+		location = Files.createTempDirectory("dllearner-tdb").toFile();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(location);
+	}
+
+	@Test
+	public void testLoadAndReuse() throws Exception {
+		TDBSparqlEndpointKS ks = new TDBSparqlEndpointKS(location.getPath(), Collections.singletonList(DATA));
+		ks.init();
+		assertEquals(9, ks.getModel().getBaseModel().size());
+		assertEquals(2, countInstances(ks));
+		ks.close();
+
+		// the store must be reused without loading any file
+		ks = new TDBSparqlEndpointKS(location.getPath());
+		ks.init();
+		assertEquals(9, ks.getModel().getBaseModel().size());
+		assertEquals(2, countInstances(ks));
+		ks.close();
+	}
+
+	@Test
+	public void testIncompleteStoreIsNotReused() throws Exception {
+		TDBSparqlEndpointKS ks = new TDBSparqlEndpointKS(location.getPath(), Collections.singletonList(DATA));
+		ks.init();
+		ks.close();
+
+		// simulate a crash during loading
+		Files.delete(new File(location, "dllearner.loaded").toPath());
+
+		ks = new TDBSparqlEndpointKS(location.getPath());
+		ks.init();
+		assertEquals(0, ks.getModel().getBaseModel().size());
+		ks.close();
+	}
+
+	private int countInstances(TDBSparqlEndpointKS ks) {
+		try (QueryExecution qe = ks.getQueryExecutionFactory().createQueryExecution(
+				"SELECT (COUNT(DISTINCT ?s) AS ?cnt) WHERE {?s a ?cls . ?cls a <http://www.w3.org/2002/07/owl#Class>}")) {
+			return qe.execSelect().next().getLiteral("cnt").getInt();
+		}
+	}
+}
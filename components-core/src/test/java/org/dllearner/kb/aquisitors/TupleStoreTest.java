@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.aquisitors;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.dllearner.utilities.datastructures.RDFNodeTuple;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TupleStoreTest {
+
+	private static final String NS = "http://www.dl-learner.org/test/tuples#";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static SortedSet<RDFNodeTuple> tuples() {
+		SortedSet<RDFNodeTuple> tuples = new TreeSet<>();
+		tuples.add(new RDFNodeTuple(RDF.type, ResourceFactory.createResource(NS + "A")));
+		tuples.add(new RDFNodeTuple(RDFS.label, ResourceFactory.createLangLiteral("a", "en")));
+		tuples.add(new RDFNodeTuple(ResourceFactory.createProperty(NS + "p"),
+				ResourceFactory.createTypedLiteral("1", XSDDatatype.XSDint)));
+		tuples.add(new RDFNodeTuple(ResourceFactory.createProperty(NS + "q"), ResourceFactory.createResource()));
+		return tuples;
+	}
+
+	private static void assertSameTuples(SortedSet<RDFNodeTuple> expected, SortedSet<RDFNodeTuple> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (RDFNodeTuple tuple : expected) {
+			if (tuple.b.isAnon()) {
+				assertTrue(actual.stream().anyMatch(t -> t.a.equals(tuple.a) && t.b.isAnon()));
+			} else {
+				assertTrue(actual.stream().anyMatch(t -> t.a.equals(tuple.a) && t.b.equals(tuple.b)));
+			}
+		}
+	}
+
+	@Test
+	public void testReadAfterReopening() throws Exception {
+		File dir = folder.newFolder();
+		SortedSet<RDFNodeTuple> tuples = tuples();
+
+		try (TupleStore store = new TupleStore(dir)) {
+			store.put("q1", NS + "a", tuples);
+			assertSameTuples(tuples, store.get("q1"));
+			assertNull(store.get("q2"));
+		}
+
+		try (TupleStore store = new TupleStore(dir)) {
+			assertEquals(1, store.getNrOfSegments());
+			assertSameTuples(tuples, store.get("q1"));
+		}
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		File dir = folder.newFolder();
+		SortedSet<RDFNodeTuple> tuples = tuples();
+		SortedSet<RDFNodeTuple> replaced = new TreeSet<>();
+		replaced.add(new RDFNodeTuple(RDF.type, ResourceFactory.createResource(NS + "B")));
+
+		try (TupleStore store = new TupleStore(dir)) {
+			store.setMaxSegments(2);
+			store.put("q1", NS + "a", tuples);
+			store.flush();
+			store.put("q2", NS + "b", tuples);
+			store.flush();
+			store.put("q1", NS + "a", replaced);
+			store.flush();
+
+			// the third segment triggers the compaction
+			assertEquals(1, store.getNrOfSegments());
+			assertSameTuples(replaced, store.get("q1"));
+			assertSameTuples(tuples, store.get("q2"));
+		}
+
+		try (TupleStore store = new TupleStore(dir)) {
+			assertSameTuples(replaced, store.get("q1"));
+			assertSameTuples(tuples, store.get("q2"));
+
+			store.setFreshnessInSeconds(-1);
+			assertNull(store.get("q1"));
+			store.compact();
+			store.setFreshnessInSeconds(60);
+			assertNull(store.get("q2"));
+		}
+	}
+
+	@Test
+	public void testCompactionIntoSeveralSegments() throws Exception {
+		File dir = folder.newFolder();
+		SortedSet<RDFNodeTuple> tuples = tuples();
+
+		try (TupleStore store = new TupleStore(dir)) {
+			// every segment of the compaction holds a single query
+			store.setMaxSegmentSize(1);
+			store.setMaxSegments(1);
+			for (int i = 0; i < 3; i++) {
+				store.put("q" + i, NS + "a", tuples);
+			}
+			store.compact();
+			assertEquals(3, store.getNrOfSegments());
+
+			// only the segments written after the compaction count towards the max. number of segments
+			store.put("q3", NS + "a", tuples);
+			store.flush();
+			assertEquals(4, store.getNrOfSegments());
+			store.put("q4", NS + "a", tuples);
+			store.flush();
+			assertEquals(5, store.getNrOfSegments());
+		}
+
+		try (TupleStore store = new TupleStore(dir)) {
+			assertEquals(5, store.getNrOfSegments());
+			for (int i = 0; i < 5; i++) {
+				assertSameTuples(tuples, store.get("q" + i));
+			}
+		}
+	}
+
+	@Test
+	public void testFailedFlush() throws Exception {
+		File dir = folder.newFolder();
+		SortedSet<RDFNodeTuple> tuples = tuples();
+
+		try (TupleStore store = new TupleStore(dir)) {
+			// a directory in place of the first segment file lets writing it fail
+			File blocked = new File(dir, "segment-0.tuples");
+			assertTrue(blocked.mkdir());
+			store.put("q1", NS + "a", tuples);
+			try {
+				store.flush();
+				fail("Writing the segment did not fail.");
+			} catch (IOException e) {
+				// expected
+			}
+			assertEquals(0, store.getNrOfSegments());
+			assertSameTuples(tuples, store.get("q1"));
+
+			blocked.delete();
+			store.flush();
+			assertEquals(1, store.getNrOfSegments());
+		}
+
+		try (TupleStore store = new TupleStore(dir)) {
+			assertSameTuples(tuples, store.get("q1"));
+		}
+	}
+
+	@Test
+	public void testFailedCompaction() throws Exception {
+		File dir = folder.newFolder();
+		SortedSet<RDFNodeTuple> tuples = tuples();
+
+		try (TupleStore store = new TupleStore(dir)) {
+			store.put("q1", NS + "a", tuples);
+			store.flush();
+			store.put("q2", NS + "b", tuples);
+			store.flush();
+
+			File blocked = new File(dir, "compaction-0.tuples.tmp");
+			assertTrue(blocked.mkdir());
+			try {
+				store.compact();
+				fail("Writing the compacted segment did not fail.");
+			} catch (IOException e) {
+				// expected
+			}
+			assertEquals(2, store.getNrOfSegments());
+			assertSameTuples(tuples, store.get("q1"));
+			assertSameTuples(tuples, store.get("q2"));
+		}
+	}
+}
+}
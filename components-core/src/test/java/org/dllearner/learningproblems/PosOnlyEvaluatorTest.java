@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.learningproblems;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+public class PosOnlyEvaluatorTest {
+
+	@Test
+	public void testExactWithFullSample() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLOntology ontology = man.createOntology();
+
+		// 10 individuals, 6 of them instances of A, 4 of them positive examples
+		OWLClass a = df.getOWLClass(IRI.create("http://test.org/A"));
+		SortedSet<OWLIndividual> posExamples = new TreeSet<>();
+		for (int i = 0; i < 10; i++) {
+			OWLIndividual ind = df.getOWLNamedIndividual(IRI.create("http://test.org/i" + i));
+			man.addAxiom(ontology, df.getOWLClassAssertionAxiom(i < 6 ? a : df.getOWLThing(), ind));
+			if (i < 4) {
+				posExamples.add(ind);
+			}
+		}
+
+		KnowledgeSource ks = new OWLAPIOntology(ontology);
+		ks.init();
+		AbstractReasonerComponent reasoner = new ClosedWorldReasoner(ks);
+		reasoner.init();
+
+		PosOnlyLP lp = new PosOnlyLP(reasoner, posExamples);
+		lp.init();
+		double expected = lp.getAccuracyOrTooWeak(a, 0.0);
+		assertEquals(Heuristics.getFScore(1, 4 / 6d, 0), expected, 0.0001);
+
+		// the sample evaluation computes the same heuristic as the exact computation
+		lp.setUseSampleEvaluation(true);
+		lp.init();
+		assertEquals(expected, lp.getAccuracyOrTooWeak(a, 0.0), 0.0001);
+
+		// the same with parallel instance checks
+		reasoner.setUseInstanceChecks(true);
+		lp.setNrOfThreads(2);
+		lp.init();
+		assertEquals(expected, lp.getAccuracyOrTooWeak(a, 0.0), 0.0001);
+
+		// too weak if a positive example is not covered
+		assertEquals(-1, lp.getAccuracyOrTooWeak(df.getOWLObjectComplementOf(a), 0.0), 0.0001);
+		lp.close();
+	}
+
+	@Test
+	public void testApproximationHeuristic() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLOntology ontology = man.createOntology();
+
+		// 10 individuals, 6 of them instances of A, 4 of them positive examples
+		OWLClass a = df.getOWLClass(IRI.create("http://test.org/A"));
+		SortedSet<OWLIndividual> posExamples = new TreeSet<>();
+		for (int i = 0; i < 10; i++) {
+			OWLIndividual ind = df.getOWLNamedIndividual(IRI.create("http://test.org/i" + i));
+			man.addAxiom(ontology, df.getOWLClassAssertionAxiom(i < 6 ? a : df.getOWLThing(), ind));
+			if (i < 4) {
+				posExamples.add(ind);
+			}
+		}
+
+		KnowledgeSource ks = new OWLAPIOntology(ontology);
+		ks.init();
+		AbstractReasonerComponent reasoner = new ClosedWorldReasoner(ks);
+		reasoner.init();
+
+		try (PosOnlyLP lp = new PosOnlyLP(reasoner, posExamples)) {
+			lp.setUseApproximations(true);
+			lp.setUseSampleEvaluation(true);
+			lp.init();
+
+			double expected = 0.5 * (1 + Math.sqrt(4 / 6d));
+			assertEquals(expected, lp.getAccuracyOrTooWeak(a, 0.0), 0.0001);
+			assertEquals(lp.computeScore(a, 0.0).getAccuracy(), lp.getAccuracyOrTooWeak(a, 0.0), 0.0001);
+		}
+	}
+}
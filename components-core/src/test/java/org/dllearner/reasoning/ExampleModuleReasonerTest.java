@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.kb.OWLAPIOntology;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class ExampleModuleReasonerTest {
+
+	private static final String NS = "http://test.org/";
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+	private final OWLClass a = df.getOWLClass(IRI.create(NS + "A"));
+	private final OWLClass b = df.getOWLClass(IRI.create(NS + "B"));
+	private final OWLClass c = df.getOWLClass(IRI.create(NS + "C"));
+	private final OWLObjectProperty r = df.getOWLObjectProperty(IRI.create(NS + "r"));
+	private final Set<OWLIndividual> examples = new TreeSet<>();
+
+	// a chain i0 -r-> i1 -r-> ... -r-> i9 where only the last individual is a B
+	private OWLAPIReasoner createBaseReasoner(OWLAxiom... schemaAxioms) throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLOntology ontology = man.createOntology();
+		man.addAxiom(ontology, df.getOWLSubClassOfAxiom(b, a));
+		for (OWLAxiom axiom : schemaAxioms) {
+			man.addAxiom(ontology, axiom);
+		}
+
+		for (int i = 0; i < 10; i++) {
+			OWLIndividual ind = df.getOWLNamedIndividual(IRI.create(NS + "i" + i));
+			examples.add(ind);
+			if (i < 9) {
+				man.addAxiom(ontology, df.getOWLObjectPropertyAssertionAxiom(r, ind,
+						df.getOWLNamedIndividual(IRI.create(NS + "i" + (i + 1)))));
+			} else {
+				man.addAxiom(ontology, df.getOWLClassAssertionAxiom(b, ind));
+			}
+		}
+
+		KnowledgeSource ks = new OWLAPIOntology(ontology);
+		ks.init();
+		OWLAPIReasoner baseReasoner = new OWLAPIReasoner(ks);
+		baseReasoner.init();
+		return baseReasoner;
+	}
+
+	@Test
+	public void testSameResultsAsBaseReasoner() throws Exception {
+		OWLAPIReasoner baseReasoner = createBaseReasoner();
+		ExampleModuleReasoner reasoner = new ExampleModuleReasoner(baseReasoner, examples);
+		reasoner.setModuleDepth(3);
+		reasoner.init();
+		assertEquals(examples.size(), reasoner.getNrOfModules());
+
+		// expressions within the module depth are answered like by the base reasoner
+		OWLClassExpression ce = df.getOWLObjectSomeValuesFrom(r, df.getOWLObjectSomeValuesFrom(r, a));
+		for (OWLIndividual ind : examples) {
+			assertEquals(baseReasoner.hasType(ce, ind), reasoner.hasType(ce, ind));
+		}
+
+		// positive results are always correct
+		for (OWLIndividual ind : examples) {
+			if (reasoner.hasType(a, ind)) {
+				assertTrue(baseReasoner.hasType(a, ind));
+			}
+		}
+
+		reasoner.releaseKB();
+	}
+
+	@Test
+	public void testExpressionsBeyondTheModules() throws Exception {
+		OWLAPIReasoner baseReasoner = createBaseReasoner();
+		ExampleModuleReasoner reasoner = new ExampleModuleReasoner(baseReasoner, examples);
+		reasoner.setModuleDepth(2);
+		reasoner.init();
+		assertEquals(examples.size(), reasoner.getNrOfModules());
+
+		OWLClassExpression some = df.getOWLObjectSomeValuesFrom(r, a);
+		List<OWLClassExpression> expressions = Arrays.asList(
+				// deeper than the modules
+				df.getOWLObjectSomeValuesFrom(r, some),
+				df.getOWLObjectIntersectionOf(a, df.getOWLObjectSomeValuesFrom(r, df.getOWLObjectSomeValuesFrom(r, some))),
+				// inverse property
+				df.getOWLObjectSomeValuesFrom(df.getOWLObjectInverseOf(r), df.getOWLObjectSomeValuesFrom(r, b)),
+				// nominal
+				df.getOWLObjectSomeValuesFrom(r, df.getOWLObjectOneOf(df.getOWLNamedIndividual(IRI.create(NS + "i9")))));
+		for (OWLClassExpression ce : expressions) {
+			for (OWLIndividual ind : examples) {
+				assertEquals(ce + " " + ind, baseReasoner.hasType(ce, ind), reasoner.hasType(ce, ind));
+			}
+			// consistent with the retrieval
+			assertEquals(reasoner.getIndividuals(ce), reasoner.hasType(ce, examples));
+		}
+
+		reasoner.releaseKB();
+	}
+
+	@Test
+	public void testNoModulesForNonLocalSchema() throws Exception {
+		// the transitive closure of the chain is not contained in the modules
+		OWLAPIReasoner baseReasoner = createBaseReasoner(df.getOWLTransitiveObjectPropertyAxiom(r));
+		ExampleModuleReasoner reasoner = new ExampleModuleReasoner(baseReasoner, examples);
+		reasoner.setModuleDepth(2);
+		reasoner.init();
+		assertEquals(0, reasoner.getNrOfModules());
+
+		OWLClassExpression ce = df.getOWLObjectSomeValuesFrom(r, b);
+		for (OWLIndividual ind : examples) {
+			assertEquals(baseReasoner.hasType(ce, ind), reasoner.hasType(ce, ind));
+		}
+
+		reasoner.releaseKB();
+	}
+
+	@Test
+	public void testNoModulesForIncomingAssertions() throws Exception {
+		// the range entails the types of i1, ..., i9 from the assertions pointing to them,
+		// which are not contained in their modules
+		OWLAPIReasoner baseReasoner = createBaseReasoner(df.getOWLObjectPropertyRangeAxiom(r, c));
+		ExampleModuleReasoner reasoner = new ExampleModuleReasoner(baseReasoner, examples);
+		reasoner.setModuleDepth(2);
+		reasoner.init();
+		assertEquals(0, reasoner.getNrOfModules());
+
+		for (OWLIndividual ind : examples) {
+			assertEquals(baseReasoner.hasType(c, ind), reasoner.hasType(c, ind));
+		}
+		assertTrue(reasoner.hasType(c, df.getOWLNamedIndividual(IRI.create(NS + "i1"))));
+
+		reasoner.releaseKB();
+	}
+
+	@Test
+	public void testDefinitionsBeyondTheModules() throws Exception {
+		// the definition of C looks further than the modules
+		OWLAPIReasoner baseReasoner = createBaseReasoner(df.getOWLEquivalentClassesAxiom(c,
+				df.getOWLObjectSomeValuesFrom(r, df.getOWLObjectSomeValuesFrom(r, df.getOWLObjectSomeValuesFrom(r, b)))));
+		ExampleModuleReasoner reasoner = new ExampleModuleReasoner(baseReasoner, examples);
+		reasoner.setModuleDepth(2);
+		reasoner.init();
+		assertEquals(examples.size(), reasoner.getNrOfModules());
+
+		for (OWLClassExpression ce : Arrays.asList(c, df.getOWLObjectIntersectionOf(a, c))) {
+			for (OWLIndividual ind : examples) {
+				assertEquals(ce + " " + ind, baseReasoner.hasType(ce, ind), reasoner.hasType(ce, ind));
+			}
+		}
+		assertTrue(reasoner.hasType(c, df.getOWLNamedIndividual(IRI.create(NS + "i6"))));
+
+		reasoner.releaseKB();
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.kb.OWLAPIOntology;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class OWLAPIReasonerPoolTest {
+
+	private static final String NS = "http://test.org/";
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+	private final OWLClass a = df.getOWLClass(IRI.create(NS + "A"));
+	private final OWLClass b = df.getOWLClass(IRI.create(NS + "B"));
+	private final OWLObjectProperty r = df.getOWLObjectProperty(IRI.create(NS + "r"));
+	private final Set<OWLIndividual> individuals = new TreeSet<>();
+
+	private KnowledgeSource createKnowledgeSource() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLOntology ontology = man.createOntology();
+		man.addAxiom(ontology, df.getOWLSubClassOfAxiom(b, a));
+
+		// every third individual is a B, every second one has an r-successor of type B
+		for (int i = 0; i < 30; i++) {
+			OWLIndividual ind = df.getOWLNamedIndividual(IRI.create(NS + "i" + i));
+			individuals.add(ind);
+			man.addAxiom(ontology, df.getOWLClassAssertionAxiom(i % 3 == 0 ? b : df.getOWLThing(), ind));
+			if (i % 2 == 0) {
+				man.addAxiom(ontology, df.getOWLObjectPropertyAssertionAxiom(r, ind,
+						df.getOWLNamedIndividual(IRI.create(NS + "i" + (i + 3) % 30))));
+			}
+		}
+
+		KnowledgeSource ks = new OWLAPIOntology(ontology);
+		ks.init();
+		return ks;
+	}
+
+	@Test
+	public void testSameResultsAsSingleReasoner() throws Exception {
+		KnowledgeSource ks = createKnowledgeSource();
+		OWLAPIReasoner reasoner = new OWLAPIReasoner(ks);
+		reasoner.init();
+		OWLAPIReasoner pooledReasoner = new OWLAPIReasoner(ks);
+		pooledReasoner.setReasonerPoolSize(3);
+		pooledReasoner.init();
+
+		OWLClassExpression ce = df.getOWLObjectSomeValuesFrom(r, a);
+		assertEquals(reasoner.hasType(ce, individuals), pooledReasoner.hasType(ce, individuals));
+		assertEquals(reasoner.getIndividuals(ce), pooledReasoner.getIndividuals(ce));
+		assertTrue(pooledReasoner.isSuperClassOf(a, b));
+
+		pooledReasoner.releaseKB();
+		reasoner.releaseKB();
+	}
+
+	@Test
+	public void testQueriesConcurrentToTemporaryChanges() throws Exception {
+		OWLAPIReasoner reasoner = new OWLAPIReasoner(createKnowledgeSource());
+		reasoner.setReasonerPoolSize(3);
+		reasoner.setUseFallbackReasoner(true);
+		reasoner.init();
+		int nrOfAxioms = reasoner.getOntology().getAxiomCount();
+
+		OWLClassExpression ce = df.getOWLObjectSomeValuesFrom(r, a);
+		SortedSet<OWLIndividual> expected = reasoner.getIndividuals(ce);
+		// i0 is a B and thus an A
+		OWLAxiom inconsistent = df.getOWLClassAssertionAxiom(df.getOWLObjectComplementOf(a),
+				df.getOWLNamedIndividual(IRI.create(NS + "i0")));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				if (i % 2 == 0) {
+					futures.add(executor.submit(() -> assertFalse(reasoner.remainsSatisfiable(inconsistent))));
+				} else {
+					futures.add(executor.submit(() -> {
+						assertEquals(expected, reasoner.hasType(ce, individuals));
+						assertTrue(reasoner.isSuperClassOf(a, b));
+					}));
+				}
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// the temporary axioms are removed
+		assertEquals(nrOfAxioms, reasoner.getOntology().getAxiomCount());
+		assertEquals(expected, reasoner.getIndividuals(ce));
+		reasoner.releaseKB();
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import static org.junit.Assert.assertEquals;
+
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.reasoning.RoutingReasoner.Route;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+public class RoutingReasonerTest {
+
+	private static final String NS = "http://test.org/";
+
+	@Test
+	public void testRouting() throws Exception {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLOntology ontology = man.createOntology();
+
+		OWLClass a = df.getOWLClass(IRI.create(NS + "A"));
+		OWLClass b = df.getOWLClass(IRI.create(NS + "B"));
+		OWLObjectProperty r = df.getOWLObjectProperty(IRI.create(NS + "r"));
+		OWLIndividual i1 = df.getOWLNamedIndividual(IRI.create(NS + "i1"));
+		OWLIndividual i2 = df.getOWLNamedIndividual(IRI.create(NS + "i2"));
+		OWLIndividual i3 = df.getOWLNamedIndividual(IRI.create(NS + "i3"));
+		OWLIndividual i4 = df.getOWLNamedIndividual(IRI.create(NS + "i4"));
+		OWLClass c = df.getOWLClass(IRI.create(NS + "C"));
+		man.addAxiom(ontology, df.getOWLSubClassOfAxiom(b, a));
+		// the r-successor of i4 is only implied by the TBox
+		man.addAxiom(ontology, df.getOWLSubClassOfAxiom(c, df.getOWLObjectSomeValuesFrom(r, a)));
+		man.addAxiom(ontology, df.getOWLClassAssertionAxiom(c, i4));
+		man.addAxiom(ontology, df.getOWLClassAssertionAxiom(b, i2));
+		man.addAxiom(ontology, df.getOWLClassAssertionAxiom(a, i3));
+		man.addAxiom(ontology, df.getOWLObjectPropertyAssertionAxiom(r, i1, i2));
+
+		KnowledgeSource ks = new OWLAPIOntology(ontology);
+		ks.init();
+		OWLAPIReasoner baseReasoner = new OWLAPIReasoner(ks);
+		baseReasoner.init();
+		RoutingReasoner reasoner = new RoutingReasoner(new ClosedWorldReasoner(baseReasoner));
+		reasoner.init();
+
+		OWLClassExpression el = df.getOWLObjectSomeValuesFrom(r, a);
+		OWLClassExpression universal = df.getOWLObjectAllValuesFrom(r, a);
+		assertEquals(Route.CLOSED_WORLD, reasoner.getRoute(df.getOWLObjectIntersectionOf(a, b)));
+		assertEquals(Route.OPEN_WORLD, reasoner.getRoute(universal));
+		assertEquals(Route.OPEN_WORLD, reasoner.getRoute(df.getOWLObjectComplementOf(a)));
+		// existential restrictions are not materialized by default
+		assertEquals(Route.OPEN_WORLD, reasoner.getRoute(el));
+
+		// the closed world reasoner would return all individuals without an r-successor
+		assertEquals(baseReasoner.getIndividuals(el), reasoner.getIndividuals(el));
+		assertEquals(baseReasoner.getIndividuals(universal), reasoner.getIndividuals(universal));
+		assertEquals(baseReasoner.hasType(b, i3), reasoner.hasType(b, i3));
+		assertEquals(baseReasoner.hasType(el, i4), reasoner.hasType(el, i4));
+
+		assertEquals(1, reasoner.getStatistics(Route.CLOSED_WORLD).getNrOfQueries());
+		assertEquals(3, reasoner.getStatistics(Route.OPEN_WORLD).getNrOfQueries());
+
+		// with the materialization of existential restrictions, EL expressions are answered in closed world
+		ClosedWorldReasoner closedWorldReasoner = new ClosedWorldReasoner(baseReasoner);
+		closedWorldReasoner.setMaterializeExistentialRestrictions(true);
+		reasoner = new RoutingReasoner(closedWorldReasoner);
+		reasoner.init();
+		assertEquals(Route.CLOSED_WORLD, reasoner.getRoute(el));
+		assertEquals(baseReasoner.hasType(el, i1), reasoner.hasType(el, i1));
+		assertEquals(baseReasoner.hasType(el, i4), reasoner.hasType(el, i4));
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * Tests that the SPARQL reasoner returns the same results with the query template cache as with its
+ * string queries.
+ */
+public class SPARQLQueryTemplateCacheTest {
+
+	private static final String NS = "http://test.org/";
+
+	private static final String kb = "@prefix : <" + NS + "> ."
+			+ ":a1 a :A ; :r :b1 . :b1 a :B ."
+			+ ":a2 a :A ; :r :c1 . :c1 a :C ."
+			+ ":a3 a :A , :B ."
+			+ ":a4 a :C ; :r :b1 .";
+
+	@Test
+	public void testSameResultsAsStringQueries() throws Exception {
+		Model model = ModelFactory.createDefaultModel();
+		model.read(new ByteArrayInputStream(kb.getBytes()), null, "TURTLE");
+
+		SPARQLReasoner reasoner = new SPARQLReasoner(model);
+		reasoner.init();
+		SPARQLReasoner cachingReasoner = new SPARQLReasoner(model);
+		cachingReasoner.setUseQueryTemplateCache(true);
+		cachingReasoner.init();
+
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		OWLObjectProperty r = df.getOWLObjectProperty(IRI.create(NS + "r"));
+		List<OWLClassExpression> expressions = Arrays.asList(
+				df.getOWLObjectSomeValuesFrom(r, df.getOWLClass(IRI.create(NS + "B"))),
+				df.getOWLObjectIntersectionOf(df.getOWLClass(IRI.create(NS + "A")), df.getOWLClass(IRI.create(NS + "B"))),
+				df.getOWLObjectUnionOf(df.getOWLClass(IRI.create(NS + "B")), df.getOWLClass(IRI.create(NS + "C"))),
+				// converted to a sub-query projecting ?ind
+				df.getOWLObjectMinCardinality(1, r, df.getOWLClass(IRI.create(NS + "B"))));
+
+		Set<OWLIndividual> examples1 = new TreeSet<>();
+		Set<OWLIndividual> examples2 = new TreeSet<>();
+		for (int i = 1; i <= 4; i++) {
+			OWLIndividual ind = df.getOWLNamedIndividual(IRI.create(NS + "a" + i));
+			(i % 2 == 0 ? examples2 : examples1).add(ind);
+		}
+
+		// evaluate each expression twice against different example sets
+		for (int i = 0; i < 2; i++) {
+			for (OWLClassExpression ce : expressions) {
+				for (Set<OWLIndividual> examples : Arrays.asList(examples1, examples2)) {
+					assertEquals(reasoner.getIndividuals(ce, examples), cachingReasoner.getIndividuals(ce, examples));
+					assertEquals(reasoner.getIndividualsCount(ce, 0, examples), cachingReasoner.getIndividualsCount(ce, 0, examples));
+					// the string ASK queries do not support cardinality restrictions, thus the
+					// instance checks are compared with the retrieval
+					Set<OWLIndividual> instances = reasoner.getIndividuals(ce, examples);
+					for (OWLIndividual ind : examples) {
+						assertEquals(instances.contains(ind), cachingReasoner.hasType(ce, ind));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSubQueriesWithoutProjectedRootVariable() {
+		Query joined = QueryFactory.create(
+				"ASK { ?ind a <" + NS + "A> { SELECT ?ind (COUNT(?o) AS ?cnt) WHERE { ?ind <" + NS + "r> ?o } GROUP BY ?ind } }");
+		assertTrue(SPARQLQueryTemplateCache.isBindable(joined.getQueryPattern()));
+
+		// ?ind is a different variable within the sub-query, VALUES would not bind it
+		Query unprojected = QueryFactory.create(
+				"ASK { ?ind a <" + NS + "A> { SELECT (COUNT(?ind) AS ?cnt) WHERE { ?ind <" + NS + "r> ?o } } }");
+		assertFalse(SPARQLQueryTemplateCache.isBindable(unprojected.getQueryPattern()));
+	}
+}
@@ -33,6 +33,7 @@ import org.dllearner.core.ComponentInitException;
 import org.dllearner.kb.OWLAPIOntology;
 import org.dllearner.learningproblems.*;
 import org.dllearner.reasoning.OWLAPIReasoner;
+import org.dllearner.utilities.ReasoningUtils;
 import org.junit.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLClass;
@@ -161,7 +162,32 @@ public class HeuristicTest {
 		
 		HeuristicTest.configureClassLP(problem, nc[0], new AccMethodFMeasureApprox(true, reasoner), false, 0.05);
 		assertEquals(problem.getAccuracyOrTooWeak(nc[3], 0.5),-1,delta);
-		
+
+		//// compiled evaluation ////
+
+		problem.setUseCompiledEvaluation(true);
+		HeuristicTest.configureClassLP(problem, nc[0], new AccMethodPredAcc(true));
+		assertEqualsClassLP(problem, nc[1], (10+70)/(double)100);
+		assertEqualsClassLP(problem, nc[2], (10+50)/(double)100);
+
+		HeuristicTest.configureClassLP(problem, nc[0], new AccMethodFMeasure(true), false, 0.05);
+		assertEqualsClassLP(problem, nc[1], 0.5);
+		assertEqualsClassLP(problem, nc[2], 5d/11);
+
+		// with instance checks, the test of A3 (recall 0.25) is aborted early: the class instances are
+		// checked first and at most the 5 instances of A3 and 11 misses are needed to know it is too weak,
+		// while the full evaluation checks all 100 individuals
+		reasoner.setUseInstanceChecks(true);
+		assertEqualsClassLP(problem, nc[1], 0.5);
+		reasoner.resetStatistics();
+		assertEquals(problem.getAccuracyOrTooWeak(nc[3], 0.5),-1,delta);
+		assertTrue(reasoner.getNrOfInstanceChecks() <= 16);
+		reasoner.resetStatistics();
+		problem.computeScore(nc[3], 0.5);
+		assertEquals(100, reasoner.getNrOfInstanceChecks());
+		reasoner.setUseInstanceChecks(false);
+		problem.setUseCompiledEvaluation(false);
+
 		// TODO: test approximations
 
 		
@@ -231,6 +257,77 @@ public class HeuristicTest {
 		assertEqualsPosNegLPStandard(problem, nc[0], 0.5); // precision 2/3, recall 2/5
 		assertEqualsPosNegLPStandard(problem, nc[1], 2/3d); // precision 3/4, recall 3/5
 	}
+
+	@Test
+	public void sampledAccuracyTests() throws ComponentInitException, OWLOntologyCreationException {
+		// create artificial ontology with 40 positive and 40 negative examples
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		OWLOntology kb = man.createOntology();
+		String ns = "http://dl-learner.org/junit/";
+		PrefixManager pm = new DefaultPrefixManager();
+		pm.setDefaultPrefix(ns);
+		OWLClass[] nc = new OWLClass[3];
+		for(int i=0; i<3; i++) {
+			nc[i] = df.getOWLClass("A" + i, pm);
+		}
+		OWLIndividual[] pos = new OWLIndividual[40];
+		OWLIndividual[] neg = new OWLIndividual[40];
+		for(int i=0; i<40; i++) {
+			pos[i] = df.getOWLNamedIndividual("p" + i, pm);
+			neg[i] = df.getOWLNamedIndividual("n" + i, pm);
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(df.getOWLThing(), pos[i]));
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(df.getOWLThing(), neg[i]));
+			// A0 covers all positives, A1 half of the positives and a quarter of the negatives, A2 all negatives
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(nc[0], pos[i]));
+			if(i < 20) {
+				man.addAxiom(kb, df.getOWLClassAssertionAxiom(nc[1], pos[i]));
+			}
+			if(i < 10) {
+				man.addAxiom(kb, df.getOWLClassAssertionAxiom(nc[1], neg[i]));
+			}
+			man.addAxiom(kb, df.getOWLClassAssertionAxiom(nc[2], neg[i]));
+		}
+
+		AbstractKnowledgeSource ks = new OWLAPIOntology(kb);
+		ks.init();
+
+		AbstractReasonerComponent reasoner = new OWLAPIReasoner(ks);
+		reasoner.init();
+
+		PosNegLPStandard problem = new PosNegLPStandard(reasoner);
+		HeuristicTest.configurePosNegStandardLP(problem, pos, neg, new AccMethodFMeasure(true));
+
+		double[] exact = new double[3];
+		for(int i=0; i<3; i++) {
+			exact[i] = problem.getAccuracyOrTooWeak(nc[i], 1.0);
+		}
+		assertEquals(1.0, exact[0], delta);
+		assertEquals(4/7d, exact[1], delta); // precision 2/3, recall 1/2
+		assertEquals(0.0, exact[2], delta);
+
+		ReasoningUtils reasoningUtil = problem.getReasoningUtil();
+		reasoningUtil.setUseSampling(true);
+		reasoningUtil.setInitialSampleSize(2);
+
+		// without a threshold, every accuracy is computed on all examples
+		for(int i=0; i<3; i++) {
+			assertEquals(exact[i], problem.getAccuracyOrTooWeak(nc[i], 1.0), delta);
+		}
+
+		// with a threshold, candidates which can reach it are still computed on all examples ...
+		double threshold = 0.99;
+		reasoningUtil.setAccuracyThreshold(threshold);
+		assertEquals(exact[0], problem.getAccuracyOrTooWeak(nc[0], 1.0), delta);
+		// ... while the others are stopped early with an upper bound below the threshold
+		for(int i=1; i<3; i++) {
+			double accuracy = problem.getAccuracyOrTooWeak(nc[i], 1.0);
+			assertTrue(accuracy >= exact[i] - delta);
+			assertTrue(accuracy < threshold);
+		}
+		// A2 does not cover any of the first positive examples, but the bound of the 2 sampled ones is above 0
+		assertTrue(problem.getAccuracyOrTooWeak(nc[2], 1.0) > exact[2]);
+	}
 	
 	
 	@Test
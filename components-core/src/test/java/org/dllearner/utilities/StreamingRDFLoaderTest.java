@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities;
+
+import org.apache.jena.rdf.model.Model;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import java.io.File;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StreamingRDFLoaderTest {
+
+	private static final String DATA = new File("src/test/resources/org/dllearner/utilities/streaming_loader.ttl").toURI().toString();
+	private static final String MALFORMED_DATA = new File("src/test/resources/org/dllearner/utilities/streaming_loader_malformed.ttl").toURI().toString();
+
+	private static final String NS = "http://www.dl-learner.org/test/streaming#";
+	private static final String OTHER_NS = "http://www.example.org/other#";
+
+	@Test
+	public void testNamespaceFilter() {
+		StreamingRDFLoader loader = new StreamingRDFLoader(Collections.singleton(NS), Collections.emptySet());
+		Model model = loader.loadModel(DATA);
+
+		assertEquals(9, loader.getNrOfParsedTriples());
+		assertEquals(7, loader.getNrOfAcceptedTriples());
+		assertTrue(model.listSubjects().toList().stream().noneMatch(s -> s.getURI().startsWith(OTHER_NS)));
+	}
+
+	@Test
+	public void testPropertyFilter() {
+		StreamingRDFLoader loader = new StreamingRDFLoader(Collections.emptySet(), Collections.singleton(NS + "r"));
+		Model model = loader.loadModel(DATA);
+
+		// schema, class assertions and r triples
+		assertEquals(8, model.size());
+		assertTrue(model.listStatements(null, model.createProperty(NS + "s"), (String) null).toList().isEmpty());
+	}
+
+	@Test
+	public void testMalformedDataFailsOntologyLoading() {
+		StreamingRDFLoader loader = new StreamingRDFLoader(Collections.singleton(NS), Collections.emptySet());
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+
+		try {
+			loader.loadOntology(MALFORMED_DATA, man);
+			fail("The partial ontology of malformed data must not be returned.");
+		} catch (OWLOntologyCreationException e) {
+			// expected
+		}
+		assertTrue(man.getOntologies().isEmpty());
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.examples;
+
+import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.dllearner.utilities.examples.AutomaticNegativeExampleFinderSPARQL2.Strategy.SIBLING;
+import static org.dllearner.utilities.examples.AutomaticNegativeExampleFinderSPARQL2.Strategy.SUPERCLASS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SPARQLExampleGeneratorTest {
+
+	private static final String NS = "http://www.dl-learner.org/test/examples#";
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private Model model;
+	private SPARQLExampleGenerator generator;
+
+	@Before
+	public void setUp() {
+		// A and B are siblings below S
+		model = ModelFactory.createDefaultModel();
+		Resource s = model.createResource(NS + "S").addProperty(RDF.type, OWL.Class);
+		model.createResource(NS + "A").addProperty(RDF.type, OWL.Class).addProperty(RDFS.subClassOf, s);
+		model.createResource(NS + "B").addProperty(RDF.type, OWL.Class).addProperty(RDFS.subClassOf, s);
+		for (String a : new String[]{"a1", "a2"}) {
+			model.createResource(NS + a).addProperty(RDF.type, model.getResource(NS + "A")).addProperty(RDF.type, s);
+		}
+		for (String b : new String[]{"b1", "b2"}) {
+			model.createResource(NS + b).addProperty(RDF.type, model.getResource(NS + "B"));
+		}
+		model.createResource(NS + "s1").addProperty(RDF.type, s);
+
+		generator = new SPARQLExampleGenerator(new QueryExecutionFactoryModel(model));
+	}
+
+	private OWLClass cls(String name) {
+		return df.getOWLClass(IRI.create(NS + name));
+	}
+
+	private OWLIndividual ind(String name) {
+		return df.getOWLNamedIndividual(IRI.create(NS + name));
+	}
+
+	@Test
+	public void testPositiveExamples() {
+		assertEquals(set(ind("a1"), ind("a2")), generator.getPositiveExamples(cls("A"), 10));
+		assertEquals(1, generator.getPositiveExamples(cls("A"), 1).size());
+	}
+
+	@Test
+	public void testSiblingStrategy() {
+		SortedSet<OWLIndividual> positives = generator.getPositiveExamples(cls("A"), 10);
+		SortedSet<OWLIndividual> negatives = generator.getNegativeExamples(cls("A"), positives,
+				Collections.singleton(SIBLING), 10);
+
+		assertEquals(set(ind("b1"), ind("b2")), negatives);
+	}
+
+	@Test
+	public void testSuperClassStrategy() {
+		SortedSet<OWLIndividual> positives = generator.getPositiveExamples(cls("A"), 10);
+		SortedSet<OWLIndividual> negatives = generator.getNegativeExamples(cls("A"), positives,
+				Collections.singleton(SUPERCLASS), 10);
+
+		// instances of S which are not instances of A
+		assertEquals(set(ind("s1")), negatives);
+	}
+
+	@Test
+	public void testCache() {
+		SortedSet<OWLIndividual> positives = generator.getPositiveExamples(cls("A"), 10);
+		generator.getNegativeExamples(cls("A"), positives, Collections.singleton(SIBLING), 10);
+
+		// the instances of B were fetched for the siblings of A and are reused as positives of B
+		model.removeAll(model.getResource(NS + "b1"), null, null);
+		assertTrue(generator.getPositiveExamples(cls("B"), 10).contains(ind("b1")));
+
+		generator.clearCache();
+		assertEquals(set(ind("b2")), generator.getPositiveExamples(cls("B"), 10));
+	}
+
+	private static Set<OWLIndividual> set(OWLIndividual... individuals) {
+		return new TreeSet<>(Arrays.asList(individuals));
+	}
+}
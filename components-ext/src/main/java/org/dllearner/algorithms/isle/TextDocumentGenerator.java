@@ -46,6 +46,16 @@ public class TextDocumentGenerator {
 		return instance;
 	}
 
+	/**
+	 * Creates a new generator with its own NLP pipelines, e.g. for each thread of a parallel annotation, instead
+	 * of sharing the pipelines of the shared instance.
+	 *
+	 * @return a new generator
+	 */
+	public static TextDocumentGenerator newInstance(){
+		return new TextDocumentGenerator();
+	}
+
 	public TextDocument generateDocument(String text) {
 		return generateDocument(text, false);
 	}
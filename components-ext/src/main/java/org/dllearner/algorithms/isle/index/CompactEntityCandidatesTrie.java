@@ -0,0 +1,639 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.isle.index;
+
+import java.io.*;
+import java.util.*;
+import java.util.Map.Entry;
+
+import org.dllearner.algorithms.isle.textretrieval.EntityTextRetriever;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * An immutable entity candidates trie, stored in a few flat arrays instead of one {@link TokenTree} object with a
+ * map per node.
+ * <p>
+ * Each token is interned to an integer label by its stemmed form and word type, see {@link WordTypeComparator}.
+ * The outgoing edges of all nodes are stored in one array sorted by node and label, such that the child for a
+ * token is found by a binary search. Alternative forms of the ontology tokens, e.g. from WordNet, are added as
+ * additional edges with the score of the alternative form. The longest match lookup works on index ranges of the
+ * token list and doesn't create any intermediate lists.
+ * <p>
+ * For token sequences without stop words that match the ontology strings exactly, the results are the same as the ones of a
+ * {@link SimpleEntityCandidatesTrie} built from the same ontology. Otherwise the matching differs from the one of
+ * {@link TokenTree}:
+ * <ul>
+ * <li>An alternative form only matches tokens of the same word type, and the alternative forms of all entries
+ * sharing a path are kept, not only the ones of the first entry.</li>
+ * <li>The longest match tries all edges matching a token, by its stemmed form or one of its alternative forms, and
+ * ends on the deepest node with entities. {@link TokenTree#getLongestMatch(List)} follows only the first matching
+ * child and also returns paths that don't lead to any entity.</li>
+ * <li>Stop words are dropped from the entries, and skipped in the looked up tokens as well. For example, "part of
+ * the body" matches an entry "part body", and the stop words inside a match count towards its length.</li>
+ * </ul>
+ * <p>
+ * A trie is created by a {@link Builder}, or built from the ontology by {@link #build(EntityTextRetriever,
+ * OWLOntology)} like {@link SimpleEntityCandidatesTrie}, and can be written to and read from a file.
+ */
+public class CompactEntityCandidatesTrie implements EntityCandidatesTrie {
+
+	private static final int MAGIC = 0x45435452;
+	private static final int VERSION = 2;
+
+	private static final int ROOT = 0;
+
+	// the word types, where the first four are the classes of WordTypeComparator
+	private static final String[] WORD_TYPE_CLASSES = {"NN", "V", "JJ", "RB"};
+	private final List<String> wordTypes;
+	private final Map<String, Integer> wordTypeIds = new HashMap<>();
+
+	// the labels as (stemmed form, word type) pairs; the map contains pairs of (word type, label) per stemmed form
+	private final String[] labelForms;
+	private final int[] labelWordTypes;
+	private final Map<String, int[]> labels = new HashMap<>();
+
+	// the edges of node i are at [edgeOffsets[i], edgeOffsets[i + 1]), sorted by label
+	private final int[] edgeOffsets;
+	private final int[] edgeLabels;
+	private final int[] edgeTargets;
+	private final double[] edgeScores;
+
+	// the entities of node i are at [entityOffsets[i], entityOffsets[i + 1])
+	private final int[] entityOffsets;
+	private final int[] entityIds;
+	private final OWLEntity[] entities;
+
+	// the original token sequence of each node, or -1
+	private final int[] originals;
+	private final int[] sequenceOffsets;
+	private final int[] sequenceTokens;
+	private final Token[] tokens;
+
+	private CompactEntityCandidatesTrie(List<String> wordTypes, String[] labelForms, int[] labelWordTypes,
+										int[] edgeOffsets, int[] edgeLabels, int[] edgeTargets, double[] edgeScores,
+										int[] entityOffsets, int[] entityIds, OWLEntity[] entities,
+										int[] originals, int[] sequenceOffsets, int[] sequenceTokens, Token[] tokens) {
+		this.wordTypes = wordTypes;
+		for (int i = 0; i < wordTypes.size(); i++) {
+			wordTypeIds.put(wordTypes.get(i), i);
+		}
+		this.labelForms = labelForms;
+		this.labelWordTypes = labelWordTypes;
+		for (int label = 0; label < labelForms.length; label++) {
+			int[] pairs = labels.get(labelForms[label]);
+			pairs = pairs == null ? new int[2] : Arrays.copyOf(pairs, pairs.length + 2);
+			pairs[pairs.length - 2] = labelWordTypes[label];
+			pairs[pairs.length - 1] = label;
+			labels.put(labelForms[label], pairs);
+		}
+		this.edgeOffsets = edgeOffsets;
+		this.edgeLabels = edgeLabels;
+		this.edgeTargets = edgeTargets;
+		this.edgeScores = edgeScores;
+		this.entityOffsets = entityOffsets;
+		this.entityIds = entityIds;
+		this.entities = entities;
+		this.originals = originals;
+		this.sequenceOffsets = sequenceOffsets;
+		this.sequenceTokens = sequenceTokens;
+		this.tokens = tokens;
+	}
+
+	/**
+	 * Builds the trie from the strings of the given ontology, including the alternative forms from WordNet and all
+	 * subsequences, in the same way as {@link SimpleEntityCandidatesTrie}.
+	 *
+	 * @param entityTextRetriever the text retriever to use
+	 * @param ontology the ontology to get strings from
+	 * @return the trie
+	 */
+	public static CompactEntityCandidatesTrie build(EntityTextRetriever entityTextRetriever, OWLOntology ontology) {
+		Builder builder = new Builder();
+		Map<OWLEntity, Set<List<Token>>> entity2TokenSet = entityTextRetriever.getRelevantText(ontology);
+		for (Entry<OWLEntity, Set<List<Token>>> entry : entity2TokenSet.entrySet()) {
+			OWLEntity entity = entry.getKey();
+			for (List<Token> tokens : entry.getValue()) {
+				SimpleEntityCandidatesTrie.addAlternativeFormsFromWordNet(tokens);
+				builder.addEntry(tokens, entity);
+				for (int size = 1; size < tokens.size(); size++) {
+					for (int start = 0; start < tokens.size() - size + 1; start++) {
+						List<Token> subsequence = tokens.subList(start, start + size);
+						builder.addEntry(subsequence, entity, subsequence);
+					}
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Collects the entries of a trie.
+	 */
+	public static class Builder {
+
+		private static class Node {
+			final Map<Integer, Node> children = new HashMap<>();
+			// the alternative edges as label -> child -> score
+			final Map<Integer, Map<Node, Double>> alternatives = new HashMap<>();
+			final Set<Integer> entities = new LinkedHashSet<>();
+			int original = -1;
+			int id;
+		}
+
+		private final Node root = new Node();
+
+		private final List<String> wordTypes = new ArrayList<>(Arrays.asList(WORD_TYPE_CLASSES));
+		private final Map<String, Integer> wordTypeIds = new HashMap<>();
+		private final Map<List<Object>, Integer> labelIds = new HashMap<>();
+		private final List<List<Object>> labels = new ArrayList<>();
+		private final Map<OWLEntity, Integer> entityIds = new LinkedHashMap<>();
+		private final Map<List<String>, Integer> tokenIds = new LinkedHashMap<>();
+		private final List<Token> tokens = new ArrayList<>();
+		private final Map<List<Integer>, Integer> sequenceIds = new LinkedHashMap<>();
+
+		public Builder() {
+			for (int i = 0; i < wordTypes.size(); i++) {
+				wordTypeIds.put(wordTypes.get(i), i);
+			}
+		}
+
+		/**
+		 * Adds an entity to the set of candidates of a token sequence. Stop words are ignored.
+		 *
+		 * @param tokens the token sequence
+		 * @param entity the entity
+		 */
+		public void addEntry(List<Token> tokens, OWLEntity entity) {
+			addEntry(tokens, entity, tokens);
+		}
+
+		/**
+		 * Adds an entity to the set of candidates of a token sequence, which was generated from the given
+		 * original token sequence. Stop words are ignored.
+		 *
+		 * @param tokens the token sequence
+		 * @param entity the entity
+		 * @param originalTokens the original token sequence
+		 */
+		public void addEntry(List<Token> tokens, OWLEntity entity, List<Token> originalTokens) {
+			Node node = root;
+			for (Token token : tokens) {
+				if (token.isStopWord()) {
+					continue;
+				}
+				int wordType = getWordType(token.getPOSTag());
+				Node child = node.children.computeIfAbsent(getLabel(token.getStemmedForm(), wordType), l -> new Node());
+				for (Entry<String, Double> alternative : token.getScoredAlternativeForms().entrySet()) {
+					node.alternatives.computeIfAbsent(getLabel(alternative.getKey(), wordType), l -> new HashMap<>())
+							.merge(child, alternative.getValue(), Math::max);
+				}
+				node = child;
+			}
+			node.entities.add(entityIds.computeIfAbsent(entity, e -> entityIds.size()));
+			node.original = getSequence(originalTokens);
+		}
+
+		private int getWordType(String posTag) {
+			return wordTypeIds.computeIfAbsent(wordTypeClass(posTag), w -> {
+				wordTypes.add(w);
+				return wordTypes.size() - 1;
+			});
+		}
+
+		private int getLabel(String form, int wordType) {
+			return labelIds.computeIfAbsent(Arrays.asList(form, wordType), l -> {
+				labels.add(l);
+				return labels.size() - 1;
+			});
+		}
+
+		private int getSequence(List<Token> sequence) {
+			List<Integer> ids = new ArrayList<>(sequence.size());
+			for (Token token : sequence) {
+				ids.add(tokenIds.computeIfAbsent(
+						Arrays.asList(token.getRawForm(), token.getStemmedForm(), token.getPOSTag()),
+						t -> {
+							tokens.add(new Token(token.getRawForm(), token.getStemmedForm(), token.getPOSTag(),
+									token.isPunctuation(), token.isStopWord()));
+							return tokens.size() - 1;
+						}));
+			}
+			return sequenceIds.computeIfAbsent(ids, s -> sequenceIds.size());
+		}
+
+		/**
+		 * @return the trie with all entries added so far
+		 */
+		public CompactEntityCandidatesTrie build() {
+			// number the nodes breadth-first
+			List<Node> nodes = new ArrayList<>();
+			Deque<Node> queue = new ArrayDeque<>();
+			queue.add(root);
+			while (!queue.isEmpty()) {
+				Node node = queue.poll();
+				node.id = nodes.size();
+				nodes.add(node);
+				queue.addAll(node.children.values());
+			}
+
+			int n = nodes.size();
+			int[] edgeOffsets = new int[n + 1];
+			int[] entityOffsets = new int[n + 1];
+			int[] originals = new int[n];
+			int nrOfEdges = 0;
+			int nrOfEntities = 0;
+			for (Node node : nodes) {
+				for (Map<Node, Double> targets : node.alternatives.values()) {
+					nrOfEdges += targets.size();
+				}
+				nrOfEdges += node.children.size();
+				nrOfEntities += node.entities.size();
+			}
+			int[] edgeLabels = new int[nrOfEdges];
+			int[] edgeTargets = new int[nrOfEdges];
+			double[] edgeScores = new double[nrOfEdges];
+			int[] entityIdArray = new int[nrOfEntities];
+
+			int edge = 0;
+			int entity = 0;
+			for (Node node : nodes) {
+				// label -> target -> score, where original edges have score 1
+				SortedMap<Integer, SortedMap<Integer, Double>> edges = new TreeMap<>();
+				for (Entry<Integer, Map<Node, Double>> alternative : node.alternatives.entrySet()) {
+					for (Entry<Node, Double> target : alternative.getValue().entrySet()) {
+						edges.computeIfAbsent(alternative.getKey(), l -> new TreeMap<>())
+								.merge(target.getKey().id, target.getValue(), Math::max);
+					}
+				}
+				for (Entry<Integer, Node> child : node.children.entrySet()) {
+					edges.computeIfAbsent(child.getKey(), l -> new TreeMap<>())
+							.put(child.getValue().id, TokenTree.ORIGINAL_FACTOR);
+				}
+				edgeOffsets[node.id] = edge;
+				for (Entry<Integer, SortedMap<Integer, Double>> label : edges.entrySet()) {
+					for (Entry<Integer, Double> target : label.getValue().entrySet()) {
+						edgeLabels[edge] = label.getKey();
+						edgeTargets[edge] = target.getKey();
+						edgeScores[edge] = target.getValue();
+						edge++;
+					}
+				}
+				entityOffsets[node.id] = entity;
+				for (int id : node.entities) {
+					entityIdArray[entity++] = id;
+				}
+				originals[node.id] = node.original;
+			}
+			edgeOffsets[n] = edge;
+			entityOffsets[n] = entity;
+
+			String[] labelForms = new String[labels.size()];
+			int[] labelWordTypes = new int[labels.size()];
+			for (int i = 0; i < labels.size(); i++) {
+				labelForms[i] = (String) labels.get(i).get(0);
+				labelWordTypes[i] = (Integer) labels.get(i).get(1);
+			}
+
+			int[] sequenceOffsets = new int[sequenceIds.size() + 1];
+			int length = 0;
+			for (List<Integer> sequence : sequenceIds.keySet()) {
+				length += sequence.size();
+			}
+			int[] sequenceTokens = new int[length];
+			int i = 0;
+			int offset = 0;
+			for (List<Integer> sequence : sequenceIds.keySet()) {
+				sequenceOffsets[i++] = offset;
+				for (int token : sequence) {
+					sequenceTokens[offset++] = token;
+				}
+			}
+			sequenceOffsets[i] = offset;
+
+			return new CompactEntityCandidatesTrie(new ArrayList<>(wordTypes), labelForms, labelWordTypes,
+					edgeOffsets, edgeLabels, edgeTargets, edgeScores,
+					entityOffsets, entityIdArray, entityIds.keySet().toArray(new OWLEntity[entityIds.size()]),
+					originals, sequenceOffsets, sequenceTokens, tokens.toArray(new Token[tokens.size()]));
+		}
+	}
+
+	/**
+	 * Reduces a POS tag to its word type like {@link WordTypeComparator#sameWordType(String, String)}.
+	 */
+	private static String wordTypeClass(String posTag) {
+		for (String wordType : WORD_TYPE_CLASSES) {
+			if (posTag.startsWith(wordType)) {
+				return wordType;
+			}
+		}
+		return posTag;
+	}
+
+	private int getLabel(String form, String posTag) {
+		int[] pairs = labels.get(form);
+		if (pairs == null) {
+			return -1;
+		}
+		Integer wordType = wordTypeIds.get(wordTypeClass(posTag));
+		if (wordType == null) {
+			return -1;
+		}
+		for (int i = 0; i < pairs.length; i += 2) {
+			if (pairs[i] == wordType) {
+				return pairs[i + 1];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the index of the first edge of the node with the label, or -1
+	 */
+	private int findEdge(int node, int label) {
+		int low = edgeOffsets[node];
+		int high = edgeOffsets[node + 1] - 1;
+		int found = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (edgeLabels[mid] < label) {
+				low = mid + 1;
+			} else {
+				if (edgeLabels[mid] == label) {
+					found = mid;
+				}
+				high = mid - 1;
+			}
+		}
+		return found;
+	}
+
+	private boolean hasEntities(int node) {
+		return entityOffsets[node] < entityOffsets[node + 1];
+	}
+
+	/**
+	 * Returns the longest match of the tokens starting at the given position, packed as the number of matched
+	 * tokens in the upper and the node of the match in the lower half, or -1 if no node with entities is reached.
+	 */
+	private long match(List<Token> tokens, int position, int end, int node, int length) {
+		long best = hasEntities(node) ? ((long) length << 32) | node : -1;
+		// the stop words were dropped from the entries, and only count if a matching token follows
+		int next = skipStopWords(tokens, position, end);
+		if (next == end) {
+			return best;
+		}
+		length += next - position;
+		Token token = tokens.get(next);
+		best = Math.max(best, matchLabel(tokens, next, end, node, length,
+				getLabel(token.getStemmedForm(), token.getPOSTag())));
+		if (token.hasAlternativeForms()) {
+			for (String alternativeForm : token.getAlternativeForms()) {
+				best = Math.max(best, matchLabel(tokens, next, end, node, length,
+						getLabel(alternativeForm, token.getPOSTag())));
+			}
+		}
+		return best;
+	}
+
+	private static int skipStopWords(List<Token> tokens, int position, int end) {
+		while (position < end && tokens.get(position).isStopWord()) {
+			position++;
+		}
+		return position;
+	}
+
+	private long matchLabel(List<Token> tokens, int position, int end, int node, int length, int label) {
+		long best = -1;
+		if (label >= 0) {
+			for (int edge = findEdge(node, label); edge >= 0 && edge < edgeOffsets[node + 1] && edgeLabels[edge] == label; edge++) {
+				best = Math.max(best, match(tokens, position + 1, end, edgeTargets[edge], length + 1));
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the number of tokens of the longest match starting at the given position, without creating any
+	 * intermediate lists.
+	 *
+	 * @param tokens the tokens, which should support fast random access
+	 * @param start the position of the first token
+	 * @return the number of matched tokens, or 0 if there is no match
+	 */
+	@Override
+	public int getLongestMatchLength(List<Token> tokens, int start) {
+		long match = match(tokens, start, tokens.size(), ROOT, 0);
+		return match < 0 ? 0 : (int) (match >>> 32);
+	}
+
+	@Override
+	public List<Token> getLongestMatchingText(List<Token> tokens) {
+		return new ArrayList<>(tokens.subList(0, getLongestMatchLength(tokens, 0)));
+	}
+
+	@Override
+	public List<Token> getGeneratingStringForLongestMatch(List<Token> tokens) {
+		long match = match(tokens, 0, tokens.size(), ROOT, 0);
+		if (match < 0 || originals[(int) match] < 0) {
+			return Collections.emptyList();
+		}
+		int sequence = originals[(int) match];
+		List<Token> original = new ArrayList<>();
+		for (int i = sequenceOffsets[sequence]; i < sequenceOffsets[sequence + 1]; i++) {
+			original.add(this.tokens[sequenceTokens[i]]);
+		}
+		return original;
+	}
+
+	/**
+	 * Returns the entities of all paths matching the complete token sequence without its stop words, scored by the
+	 * product of the scores of the alternative forms used on the path, and keeps the highest score per entity like
+	 * {@link TokenTree#getAllEntitiesScored(List)}.
+	 */
+	@Override
+	public Set<EntityScorePair> getCandidateEntities(List<Token> tokens) {
+		Map<OWLEntity, Double> entityScores = new HashMap<>();
+		collect(tokens, 0, ROOT, 1.0, entityScores);
+
+		TreeSet<EntityScorePair> result = new TreeSet<>();
+		for (Entry<OWLEntity, Double> e : entityScores.entrySet()) {
+			result.add(new EntityScorePair(e.getKey(), e.getValue()));
+		}
+		return result;
+	}
+
+	private void collect(List<Token> tokens, int position, int node, double score, Map<OWLEntity, Double> entityScores) {
+		position = skipStopWords(tokens, position, tokens.size());
+		if (position == tokens.size()) {
+			for (int i = entityOffsets[node]; i < entityOffsets[node + 1]; i++) {
+				entityScores.merge(entities[entityIds[i]], score, Math::max);
+			}
+			return;
+		}
+		Token token = tokens.get(position);
+		collectLabel(tokens, position, node, score, getLabel(token.getStemmedForm(), token.getPOSTag()), entityScores);
+		if (token.hasAlternativeForms()) {
+			for (Entry<String, Double> alternative : token.getScoredAlternativeForms().entrySet()) {
+				collectLabel(tokens, position, node, score * alternative.getValue(),
+						getLabel(alternative.getKey(), token.getPOSTag()), entityScores);
+			}
+		}
+	}
+
+	private void collectLabel(List<Token> tokens, int position, int node, double score, int label,
+							  Map<OWLEntity, Double> entityScores) {
+		if (label >= 0) {
+			for (int edge = findEdge(node, label); edge >= 0 && edge < edgeOffsets[node + 1] && edgeLabels[edge] == label; edge++) {
+				collect(tokens, position + 1, edgeTargets[edge], score * edgeScores[edge], entityScores);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of nodes of the trie
+	 */
+	public int getNumberOfNodes() {
+		return edgeOffsets.length - 1;
+	}
+
+	/**
+	 * Writes the trie to a file, which can be read by {@link #read(File)}.
+	 *
+	 * @param file the file
+	 * @throws IOException if writing fails
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(wordTypes.size());
+			for (String wordType : wordTypes) {
+				out.writeUTF(wordType);
+			}
+			out.writeInt(labelForms.length);
+			for (int i = 0; i < labelForms.length; i++) {
+				out.writeUTF(labelForms[i]);
+				out.writeInt(labelWordTypes[i]);
+			}
+			out.writeInt(entities.length);
+			for (OWLEntity entity : entities) {
+				out.writeUTF(entity.getEntityType().getName());
+				out.writeUTF(entity.toStringID());
+			}
+			out.writeInt(tokens.length);
+			for (Token token : tokens) {
+				out.writeUTF(token.getRawForm());
+				out.writeUTF(token.getStemmedForm());
+				out.writeUTF(token.getPOSTag());
+				out.writeBoolean(token.isPunctuation());
+				out.writeBoolean(token.isStopWord());
+			}
+			writeInts(out, edgeOffsets);
+			writeInts(out, edgeLabels);
+			writeInts(out, edgeTargets);
+			out.writeInt(edgeScores.length);
+			for (double score : edgeScores) {
+				out.writeDouble(score);
+			}
+			writeInts(out, entityOffsets);
+			writeInts(out, entityIds);
+			writeInts(out, originals);
+			writeInts(out, sequenceOffsets);
+			writeInts(out, sequenceTokens);
+		}
+	}
+
+	/**
+	 * Reads a trie written by {@link #write(File)}.
+	 *
+	 * @param file the file
+	 * @return the trie
+	 * @throws IOException if the file can't be read or is not a trie file
+	 */
+	public static CompactEntityCandidatesTrie read(File file) throws IOException {
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		Map<String, EntityType<?>> entityTypes = new HashMap<>();
+		for (EntityType<?> type : EntityType.values()) {
+			entityTypes.put(type.getName(), type);
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not an entity candidates trie file: " + file);
+			}
+			int nrOfWordTypes = in.readInt();
+			List<String> wordTypes = new ArrayList<>(nrOfWordTypes);
+			for (int i = 0; i < nrOfWordTypes; i++) {
+				wordTypes.add(in.readUTF());
+			}
+			int nrOfLabels = in.readInt();
+			String[] labelForms = new String[nrOfLabels];
+			int[] labelWordTypes = new int[nrOfLabels];
+			for (int i = 0; i < nrOfLabels; i++) {
+				labelForms[i] = in.readUTF();
+				labelWordTypes[i] = in.readInt();
+			}
+			OWLEntity[] entities = new OWLEntity[in.readInt()];
+			for (int i = 0; i < entities.length; i++) {
+				EntityType<?> type = entityTypes.get(in.readUTF());
+				entities[i] = df.getOWLEntity(type, IRI.create(in.readUTF()));
+			}
+			Token[] tokens = new Token[in.readInt()];
+			for (int i = 0; i < tokens.length; i++) {
+				tokens[i] = new Token(in.readUTF(), in.readUTF(), in.readUTF(), in.readBoolean(), in.readBoolean());
+			}
+			int[] edgeOffsets = readInts(in);
+			int[] edgeLabels = readInts(in);
+			int[] edgeTargets = readInts(in);
+			double[] edgeScores = new double[in.readInt()];
+			for (int i = 0; i < edgeScores.length; i++) {
+				edgeScores[i] = in.readDouble();
+			}
+			int[] entityOffsets = readInts(in);
+			int[] entityIds = readInts(in);
+			int[] originals = readInts(in);
+			int[] sequenceOffsets = readInts(in);
+			int[] sequenceTokens = readInts(in);
+			return new CompactEntityCandidatesTrie(wordTypes, labelForms, labelWordTypes,
+					edgeOffsets, edgeLabels, edgeTargets, edgeScores, entityOffsets, entityIds, entities,
+					originals, sequenceOffsets, sequenceTokens, tokens);
+		}
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int[] values = new int[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+}
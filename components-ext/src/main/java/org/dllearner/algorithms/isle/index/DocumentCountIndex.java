@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.isle.index;
+
+import org.semanticweb.owlapi.model.OWLEntity;
+
+/**
+ * An index which answers the number of documents containing entities, as needed by the relevance metrics,
+ * without necessarily providing the documents themselves (see {@link Index}).
+ */
+public interface DocumentCountIndex {
+
+	/**
+	 * Returns the number of documents containing the given entity.
+	 *
+	 * @param entity the entity
+	 * @return the number of documents containing the entity
+	 */
+	long getNumberOfDocumentsFor(OWLEntity entity);
+
+	/**
+	 * Returns the number of documents containing all of the given entities.
+	 *
+	 * @param entities the entities
+	 * @return the number of documents containing all entities
+	 */
+	long getNumberOfDocumentsFor(OWLEntity... entities);
+
+	/**
+	 * Returns the total number of documents contained in the index.
+	 *
+	 * @return the total number of documents contained in the index
+	 */
+	long getTotalNumberOfDocuments();
+}
@@ -3,18 +3,12 @@ package org.dllearner.algorithms.isle.index;
 import java.util.List;
 import java.util.Set;
 
-import org.semanticweb.owlapi.model.OWLEntity;
-
+/**
+ * Looks up the candidate entities of token sequences. Tries that can be extended after their creation, like
+ * {@link SimpleEntityCandidatesTrie}, provide their own methods for adding entries.
+ */
 public interface EntityCandidatesTrie {
 	
-	/**
-	 * Adds an entity to the set of candidates of a string
-	 * @param s
-	 * @param e
-	 */
-	void addEntry(List<Token> s, OWLEntity e);
-	
-	
 	/**
 	 * Gets set of candidate entities for a list of tokens
 	 * @return
@@ -36,4 +30,15 @@ public interface EntityCandidatesTrie {
      * @return
      */
     List<Token> getLongestMatchingText(List<Token> tokens);
+
+    /**
+     * Gets the number of tokens of the longest matching string starting at the given position
+     * @param tokens the tokens
+     * @param start the position of the first token
+     * @return the number of matched tokens, 0 if there is no match
+     */
+    default int getLongestMatchLength(List<Token> tokens, int start) {
+        List<Token> match = getLongestMatchingText(tokens.subList(start, tokens.size()));
+        return match == null ? 0 : match.size();
+    }
 }
@@ -11,7 +11,7 @@ import java.util.Set;
  * @author Lorenz Buehmann
  *
  */
-public interface Index {
+public interface Index extends DocumentCountIndex {
 	
 	/**
      * Returns a set of documents based on how the underlying index is processing the given
@@ -21,29 +21,4 @@ public interface Index {
      * @return set of documents retrieved based on the given query string
      */
 	Set<AnnotatedDocument> getDocuments(OWLEntity entity);
-	
-	/**
-     * Returns a set of documents based on how the underlying index is processing the given
-     * search string.
-     *
-     * @param entity Entity specifying the documents to retrieve
-     * @return set of documents retrieved based on the given query string
-     */
-	long getNumberOfDocumentsFor(OWLEntity entity);
-	
-	/**
-     * Returns a set of documents based on how the underlying index is processing the given
-     * search string.
-     *
-     * @param entities Entities specifying the documents to retrieve
-     * @return set of documents retrieved based on the given query string
-     */
-	long getNumberOfDocumentsFor(OWLEntity... entities);
-
-	/**
-     * Returns the total number of documents contained in the index.
-     *
-     * @return the total number of documents contained in the index
-     */
-	long getTotalNumberOfDocuments();
 }
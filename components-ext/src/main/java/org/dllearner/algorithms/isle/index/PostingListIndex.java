@@ -0,0 +1,440 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.isle.index;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import com.google.common.hash.Hasher;
+
+/**
+ * An inverted index from entities to the ids of the documents containing them, which only answers the document
+ * counts needed by the relevance metrics. Each posting list is stored either as a sorted array of document ids
+ * or, if that is smaller, as a bitmap over the document ids. All posting lists are kept in a single buffer,
+ * such that the number of documents containing several entities is counted by intersecting the lists in
+ * place, without creating any objects.
+ * <p>
+ * The index can be written to a file and loaded again by memory-mapping the posting lists, thus large indexes
+ * don't have to fit on the heap. As the posting lists are kept in a single buffer, their total size is limited
+ * to 2 GB. The documents themselves are not part of the index, thus it is only a {@link DocumentCountIndex}.
+ */
+public class PostingListIndex implements DocumentCountIndex {
+
+	private static final int MAGIC = 0x504c4958;
+	private static final int VERSION = 1;
+
+	private static final byte ARRAY = 0;
+	private static final byte BITMAP = 1;
+
+	/**
+	 * The location of a posting list in the buffer.
+	 */
+	private static final class Entry {
+		final byte kind;
+		final int cardinality;
+		// offset in bytes
+		final int offset;
+		// number of ints of an array, number of longs of a bitmap
+		final int length;
+
+		Entry(byte kind, int cardinality, int offset, int length) {
+			this.kind = kind;
+			this.cardinality = cardinality;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	private final Map<OWLEntity, Entry> entries;
+	private final ByteBuffer postings;
+	private final long totalNrOfDocuments;
+
+	private PostingListIndex(Map<OWLEntity, Entry> entries, ByteBuffer postings, long totalNrOfDocuments) {
+		this.entries = entries;
+		this.postings = postings;
+		this.totalNrOfDocuments = totalNrOfDocuments;
+	}
+
+	/**
+	 * Collects the posting lists of an index. The document ids are assigned in the order in which the documents
+	 * are added.
+	 */
+	public static class Builder {
+		private final Map<OWLEntity, int[]> lists = new HashMap<>();
+		private final Map<OWLEntity, Integer> sizes = new HashMap<>();
+		private int nrOfDocuments = 0;
+
+		/**
+		 * Adds a document.
+		 *
+		 * @param entities the entities contained in the document
+		 * @return the id of the document
+		 */
+		public synchronized int addDocument(Collection<OWLEntity> entities) {
+			if (nrOfDocuments == Integer.MAX_VALUE) {
+				throw new IllegalStateException("The number of documents exceeds the range of the document ids.");
+			}
+			int id = nrOfDocuments++;
+			for (OWLEntity entity : new HashSet<>(entities)) {
+				int[] list = lists.get(entity);
+				int size = sizes.getOrDefault(entity, 0);
+				if (list == null) {
+					list = new int[4];
+				} else if (size == list.length) {
+					list = Arrays.copyOf(list, 2 * size);
+				}
+				list[size] = id;
+				lists.put(entity, list);
+				sizes.put(entity, size + 1);
+			}
+			return id;
+		}
+
+		/**
+		 * @return the number of documents added so far
+		 */
+		public synchronized int getNrOfDocuments() {
+			return nrOfDocuments;
+		}
+
+		/**
+		 * @return the index, where the total number of documents is the number of added documents
+		 */
+		public PostingListIndex build() {
+			return build(getNrOfDocuments());
+		}
+
+		/**
+		 * @param totalNrOfDocuments the total number of documents, which can be larger than the number of added
+		 *                           documents if some documents don't contain any entity
+		 * @return the index
+		 */
+		public synchronized PostingListIndex build(long totalNrOfDocuments) {
+			int bitmapLength = (nrOfDocuments + 63) / 64;
+
+			Map<OWLEntity, Entry> entries = new HashMap<>();
+			long offset = 0;
+			for (Map.Entry<OWLEntity, int[]> e : lists.entrySet()) {
+				int size = sizes.get(e.getKey());
+				Entry entry;
+				if (4L * size <= 8L * bitmapLength) {
+					entry = new Entry(ARRAY, size, (int) offset, size);
+				} else {
+					entry = new Entry(BITMAP, size, (int) offset, bitmapLength);
+				}
+				entries.put(e.getKey(), entry);
+				offset += entry.kind == ARRAY ? 4L * entry.length : 8L * entry.length;
+				if (offset > Integer.MAX_VALUE) {
+					throw new IllegalStateException("The posting lists exceed the maximum size of a buffer (2 GB).");
+				}
+			}
+
+			ByteBuffer postings = ByteBuffer.allocate((int) offset);
+			for (Map.Entry<OWLEntity, int[]> e : lists.entrySet()) {
+				Entry entry = entries.get(e.getKey());
+				int[] list = e.getValue();
+				if (entry.kind == ARRAY) {
+					// the ids were added in increasing order
+					for (int i = 0; i < entry.length; i++) {
+						postings.putInt(entry.offset + 4 * i, list[i]);
+					}
+				} else {
+					long[] words = new long[entry.length];
+					for (int i = 0; i < entry.cardinality; i++) {
+						words[list[i] >>> 6] |= 1L << list[i];
+					}
+					for (int i = 0; i < words.length; i++) {
+						postings.putLong(entry.offset + 8 * i, words[i]);
+					}
+				}
+			}
+			return new PostingListIndex(entries, postings, totalNrOfDocuments);
+		}
+	}
+
+	/**
+	 * Builds the posting lists of an index which maps entities to documents, e.g. a semantic index. Documents
+	 * are identified by equality.
+	 *
+	 * @param index the index
+	 * @param totalNrOfDocuments the total number of documents
+	 * @return the posting list index
+	 */
+	public static PostingListIndex build(Map<OWLEntity, ? extends Collection<AnnotatedDocument>> index, long totalNrOfDocuments) {
+		Map<AnnotatedDocument, Set<OWLEntity>> document2Entities = new LinkedHashMap<>();
+		index.forEach((entity, documents) -> {
+			for (AnnotatedDocument document : documents) {
+				document2Entities.computeIfAbsent(document, d -> new HashSet<>()).add(entity);
+			}
+		});
+		Builder builder = new Builder();
+		document2Entities.values().forEach(builder::addDocument);
+		return builder.build(totalNrOfDocuments);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.isle.index.DocumentCountIndex#getNumberOfDocumentsFor(org.semanticweb.owlapi.model.OWLEntity)
+	 */
+	@Override
+	public long getNumberOfDocumentsFor(OWLEntity entity) {
+		Entry entry = entries.get(entity);
+		return entry == null ? 0 : entry.cardinality;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.isle.index.DocumentCountIndex#getNumberOfDocumentsFor(org.semanticweb.owlapi.model.OWLEntity[])
+	 */
+	@Override
+	public long getNumberOfDocumentsFor(OWLEntity... entities) {
+		if (entities.length == 0) {
+			return 0;
+		}
+		if (entities.length == 1) {
+			return getNumberOfDocumentsFor(entities[0]);
+		}
+		Entry[] lists = new Entry[entities.length];
+		for (int i = 0; i < entities.length; i++) {
+			lists[i] = entries.get(entities[i]);
+			if (lists[i] == null) {
+				return 0;
+			}
+		}
+		if (lists.length == 2) {
+			return intersectionCount(lists[0], lists[1]);
+		}
+
+		// start with the smallest list
+		Arrays.sort(lists, Comparator.comparingInt(e -> e.cardinality));
+		int count = 0;
+		Entry first = lists[0];
+		if (first.kind == ARRAY) {
+			for (int i = 0; i < first.length; i++) {
+				if (containedInAll(lists, postings.getInt(first.offset + 4 * i))) {
+					count++;
+				}
+			}
+		} else {
+			for (int i = 0; i < first.length; i++) {
+				long word = postings.getLong(first.offset + 8 * i);
+				while (word != 0) {
+					if (containedInAll(lists, 64 * i + Long.numberOfTrailingZeros(word))) {
+						count++;
+					}
+					word &= word - 1;
+				}
+			}
+		}
+		return count;
+	}
+
+	private boolean containedInAll(Entry[] lists, int id) {
+		for (int j = 1; j < lists.length; j++) {
+			if (!contains(lists[j], id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.algorithms.isle.index.DocumentCountIndex#getTotalNumberOfDocuments()
+	 */
+	@Override
+	public long getTotalNumberOfDocuments() {
+		return totalNrOfDocuments;
+	}
+
+	/**
+	 * @return the entities contained in at least one document
+	 */
+	public Set<OWLEntity> getEntities() {
+		return Collections.unmodifiableSet(entries.keySet());
+	}
+
+	/**
+	 * Adds the content of the index, i.e. the total number of documents and all posting lists, to the hasher.
+	 * Indexes with the same content give the same hash, independent of the order of the posting lists in the
+	 * buffer.
+	 *
+	 * @param hasher the hasher
+	 */
+	public void hashContent(Hasher hasher) {
+		hasher.putLong(totalNrOfDocuments);
+		for (OWLEntity entity : new TreeSet<>(entries.keySet())) {
+			Entry entry = entries.get(entity);
+			hasher.putUnencodedChars(entity.toStringID());
+			hasher.putByte(entry.kind).putInt(entry.cardinality).putInt(entry.length);
+			ByteBuffer list = postings.duplicate();
+			list.clear();
+			list.position(entry.offset);
+			list.limit(entry.offset + (entry.kind == ARRAY ? 4 * entry.length : 8 * entry.length));
+			hasher.putBytes(list);
+		}
+	}
+
+	private int intersectionCount(Entry a, Entry b) {
+		if (a.kind == BITMAP && b.kind == BITMAP) {
+			int count = 0;
+			int length = Math.min(a.length, b.length);
+			for (int i = 0; i < length; i++) {
+				count += Long.bitCount(postings.getLong(a.offset + 8 * i) & postings.getLong(b.offset + 8 * i));
+			}
+			return count;
+		}
+		if (a.kind == BITMAP) {
+			return intersectionCount(b, a);
+		}
+		if (b.kind == BITMAP) {
+			int count = 0;
+			for (int i = 0; i < a.length; i++) {
+				if (contains(b, postings.getInt(a.offset + 4 * i))) {
+					count++;
+				}
+			}
+			return count;
+		}
+		// merge of two sorted arrays
+		int count = 0;
+		int i = 0, j = 0;
+		while (i < a.length && j < b.length) {
+			int idA = postings.getInt(a.offset + 4 * i);
+			int idB = postings.getInt(b.offset + 4 * j);
+			if (idA < idB) {
+				i++;
+			} else if (idA > idB) {
+				j++;
+			} else {
+				count++;
+				i++;
+				j++;
+			}
+		}
+		return count;
+	}
+
+	private boolean contains(Entry entry, int id) {
+		if (entry.kind == BITMAP) {
+			int word = id >>> 6;
+			return word < entry.length && (postings.getLong(entry.offset + 8 * word) & (1L << id)) != 0;
+		}
+		// binary search in the sorted array
+		int low = 0;
+		int high = entry.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midId = postings.getInt(entry.offset + 4 * mid);
+			if (midId < id) {
+				low = mid + 1;
+			} else if (midId > id) {
+				high = mid - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the index to a file, which can be loaded by {@link #load(File)}.
+	 *
+	 * @param file the file
+	 * @throws IOException if writing fails
+	 */
+	public void write(File file) throws IOException {
+		ByteArrayOutputStream table = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(table)) {
+			for (Map.Entry<OWLEntity, Entry> e : entries.entrySet()) {
+				Entry entry = e.getValue();
+				out.writeUTF(e.getKey().getEntityType().getName());
+				out.writeUTF(e.getKey().toStringID());
+				out.writeByte(entry.kind);
+				out.writeInt(entry.cardinality);
+				out.writeInt(entry.offset);
+				out.writeInt(entry.length);
+			}
+		}
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(totalNrOfDocuments);
+			out.writeInt(entries.size());
+			out.writeInt(table.size());
+			table.writeTo(out);
+			ByteBuffer buffer = postings.duplicate();
+			buffer.clear();
+			byte[] chunk = new byte[8192];
+			while (buffer.hasRemaining()) {
+				int n = Math.min(chunk.length, buffer.remaining());
+				buffer.get(chunk, 0, n);
+				out.write(chunk, 0, n);
+			}
+		}
+	}
+
+	/**
+	 * Loads an index written by {@link #write(File)}. The posting lists are memory-mapped.
+	 *
+	 * @param file the file
+	 * @return the index
+	 * @throws IOException if the file can't be read or is not an index file
+	 */
+	public static PostingListIndex load(File file) throws IOException {
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		Map<String, EntityType<?>> entityTypes = new HashMap<>();
+		for (EntityType<?> type : EntityType.values()) {
+			entityTypes.put(type.getName(), type);
+		}
+
+		Map<OWLEntity, Entry> entries = new HashMap<>();
+		long totalNrOfDocuments;
+		long dataStart;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a posting list index file: " + file);
+			}
+			totalNrOfDocuments = in.readLong();
+			int nrOfEntities = in.readInt();
+			int tableSize = in.readInt();
+			dataStart = 4 + 4 + 8 + 4 + 4 + tableSize;
+			for (int i = 0; i < nrOfEntities; i++) {
+				EntityType<?> type = entityTypes.get(in.readUTF());
+				OWLEntity entity = df.getOWLEntity(type, IRI.create(in.readUTF()));
+				entries.put(entity, new Entry(in.readByte(), in.readInt(), in.readInt(), in.readInt()));
+			}
+		}
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			if (channel.size() - dataStart > Integer.MAX_VALUE) {
+				throw new IOException("The posting lists exceed the maximum size of a buffer (2 GB): " + file);
+			}
+			MappedByteBuffer postings = channel.map(FileChannel.MapMode.READ_ONLY, dataStart, channel.size() - dataStart);
+			return new PostingListIndex(entries, postings, totalNrOfDocuments);
+		}
+	}
+}
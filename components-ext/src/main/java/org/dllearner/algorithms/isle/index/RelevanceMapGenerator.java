@@ -11,8 +11,12 @@ import java.net.URLEncoder;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.log4j.Logger;
+import org.dllearner.algorithms.isle.metrics.AbstractRelevanceMetric;
+import org.dllearner.algorithms.isle.metrics.RelevanceMatrix;
 import org.dllearner.algorithms.isle.metrics.RelevanceMetric;
 import org.dllearner.algorithms.isle.metrics.RelevanceUtils;
 import org.semanticweb.owlapi.model.OWLClass;
@@ -20,6 +24,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLOntology;
 
 import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 
 /**
@@ -89,4 +94,64 @@ public abstract class RelevanceMapGenerator {
     public static Map<OWLEntity, Double> generateRelevanceMap(OWLClass cls, OWLOntology ontology, RelevanceMetric relevanceMetric){
     	return generateRelevanceMap(cls, ontology, relevanceMetric, false);
     }
+
+    /**
+     * Returns the relevance matrix of all classes and properties of the ontology, which holds the relevance maps
+     * of all entities at once. If cached, the matrix is loaded from or written to the cache directory, where the
+     * file is identified by the entities, the metric, the content of its index and k. The content of a
+     * {@link PostingListIndex} is hashed completely, for other indexes the number of documents of each entity
+     * is used.
+     *
+     * @param ontology the ontology
+     * @param relevanceMetric the relevance metric
+     * @param k the maximum number of relevant entities stored per entity
+     * @param cached whether to use the cache
+     * @return the relevance matrix
+     */
+    public static synchronized RelevanceMatrix generateRelevanceMatrix(OWLOntology ontology, RelevanceMetric relevanceMetric, int k, boolean cached){
+    	Set<OWLEntity> entities = new TreeSet<>();
+    	entities.addAll(ontology.getClassesInSignature());
+    	entities.addAll(ontology.getDataPropertiesInSignature());
+    	entities.addAll(ontology.getObjectPropertiesInSignature());
+
+    	Hasher hasher = Hashing.md5().newHasher();
+    	for (OWLEntity entity : entities) {
+    		hasher.putUnencodedChars(entity.toStringID());
+    	}
+    	hasher.putUnencodedChars(relevanceMetric.getClass().getName()).putInt(k);
+    	if (relevanceMetric instanceof AbstractRelevanceMetric) {
+    		DocumentCountIndex index = ((AbstractRelevanceMetric) relevanceMetric).getIndex();
+    		if (index instanceof PostingListIndex) {
+    			((PostingListIndex) index).hashContent(hasher);
+    		} else {
+    			hasher.putLong(index.getTotalNumberOfDocuments());
+    			for (OWLEntity entity : entities) {
+    				hasher.putLong(index.getNumberOfDocumentsFor(entity));
+    			}
+    		}
+    	}
+    	File folder = new File(cacheDirectory);
+    	folder.mkdirs();
+    	File file = new File(folder, hasher.hash().toString() + ".relmatrix");
+
+    	if(cached && file.exists()){
+    		try {
+    			logger.info("Loading relevance matrix from disk...");
+    			RelevanceMatrix matrix = RelevanceMatrix.read(file);
+    			logger.info("...done.");
+    			return matrix;
+    		} catch (IOException e) {
+    			logger.error("Failed to load relevance matrix from " + file, e);
+    		}
+    	}
+    	RelevanceMatrix matrix = RelevanceMatrix.compute(entities, relevanceMetric, k, Runtime.getRuntime().availableProcessors());
+    	if(cached){
+    		try {
+    			matrix.write(file);
+    		} catch (IOException e) {
+    			logger.error("Failed to write relevance matrix to " + file, e);
+    		}
+    	}
+    	return matrix;
+    }
 }
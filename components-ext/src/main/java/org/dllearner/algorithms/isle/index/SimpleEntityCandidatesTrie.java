@@ -74,7 +74,7 @@ public class SimpleEntityCandidatesTrie implements EntityCandidatesTrie {
         }
     }
 
-    private void addAlternativeFormsFromWordNet(List<Token> tokens) {
+    static void addAlternativeFormsFromWordNet(List<Token> tokens) {
         for (Token t : tokens) {
             POS wordnetPos = null;
             String posTag = t.getPOSTag();
@@ -108,7 +108,11 @@ public class SimpleEntityCandidatesTrie implements EntityCandidatesTrie {
         }
     }
 
-    @Override
+    /**
+     * Adds an entity to the set of candidates of a string
+     * @param s
+     * @param e
+     */
 	public void addEntry(List<Token> s, OWLEntity e) {
         tree.add(s, e);
 	}
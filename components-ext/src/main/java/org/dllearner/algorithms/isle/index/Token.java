@@ -78,6 +78,13 @@ public class Token implements Comparable<Token>, Serializable{
         return Collections.unmodifiableMap(alternativeForms);
     }
 
+    /**
+     * @return whether this token has alternative forms, without creating a view of them
+     */
+    public boolean hasAlternativeForms() {
+        return alternativeForms != null && !alternativeForms.isEmpty();
+    }
+
     /**
      * Adds a new surface form to the alternative forms of this token. Alternative forms are included in comparison of
      * two tokens when using the {@link #equalsWithAlternativeForms}.
@@ -30,7 +30,6 @@ public class TrieEntityCandidateGenerator extends EntityCandidateGenerator{
 	@Override
 	public Set<EntityScorePair> getCandidates(Annotation annotation) {
         Set<EntityScorePair> candidateEntities = candidatesTrie.getCandidateEntities(annotation.getTokens());
-        System.out.println(annotation + " --> " + candidateEntities);
         return candidateEntities;
 	}
 
@@ -1,5 +1,6 @@
 package org.dllearner.algorithms.isle.index;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -30,12 +31,14 @@ public class TrieLinguisticAnnotator implements LinguisticAnnotator {
     public Set<Annotation> annotate(TextDocument document) {
         Set<Annotation> annotations = new HashSet<>();
         
-        List<Token> matchedTokens;
-        for (Token token : document) {
+        // random access to the tokens, such that the trie can match on index ranges of the document
+        List<Token> tokens = new ArrayList<>(document);
+        for (int i = 0; i < tokens.size(); i++) {
+        	Token token = tokens.get(i);
         	if(!(token.isPunctuation() ||token.isStopWord())){
-        		matchedTokens = candidatesTrie.getLongestMatchingText(document.getTokensStartingAtToken(token, true));
-            	if(matchedTokens != null && !matchedTokens.isEmpty()){
-            		Annotation annotation = new Annotation(document, matchedTokens);
+        		int length = candidatesTrie.getLongestMatchLength(tokens, i);
+            	if(length > 0){
+            		Annotation annotation = new Annotation(document, tokens.subList(i, i + length));
                     annotations.add(annotation);
             	}
         	} 
@@ -6,6 +6,7 @@ import java.util.Set;
 
 import org.dllearner.algorithms.isle.index.AnnotatedDocument;
 import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.PostingListIndex;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -73,11 +74,22 @@ public class SemanticIndex extends HashMap<OWLEntity, Set<AnnotatedDocument>> im
 	@Override
 	public long getNumberOfDocumentsFor(OWLEntity... entities) {
 		
-		Set<AnnotatedDocument> documents = getDocuments(entities[0]);
+		// copy, otherwise the documents of the first entity would be modified
+		Set<AnnotatedDocument> documents = new HashSet<>(getDocuments(entities[0]));
 		for (int i = 1; i < entities.length; i++) {
 			documents.retainAll(getDocuments(entities[i]));
 		}
-		return 0;
+		return documents.size();
+	}
+
+	/**
+	 * Converts this index into a posting list index, which answers the document counts used by the relevance
+	 * metrics by intersecting posting lists instead of copying sets of documents.
+	 *
+	 * @return the posting list index
+	 */
+	public PostingListIndex toPostingListIndex() {
+		return PostingListIndex.build(this, getTotalNumberOfDocuments());
 	}
 
 }
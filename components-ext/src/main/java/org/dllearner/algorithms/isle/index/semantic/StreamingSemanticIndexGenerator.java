@@ -0,0 +1,344 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.isle.index.semantic;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.log4j.Logger;
+import org.dllearner.algorithms.isle.TextDocumentGenerator;
+import org.dllearner.algorithms.isle.index.AnnotatedDocument;
+import org.dllearner.algorithms.isle.index.PostingListIndex;
+import org.dllearner.algorithms.isle.index.SemanticAnnotator;
+import org.dllearner.algorithms.isle.index.TextDocument;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Generates a {@link PostingListIndex} from a corpus file with one document per line, without keeping the
+ * documents in memory. The lines are streamed from disk and annotated on a pool of worker threads, where each
+ * thread has its own NLP pipeline and semantic annotator. Only the entities found in a document are kept.
+ * <p>
+ * The entities of each annotated document are appended to a postings log next to the index file, which is
+ * flushed every <code>checkpointInterval</code> documents. If the generation is interrupted, the next run over
+ * the same corpus reads the log and only annotates the remaining documents. The header of the log contains the
+ * size and a hash of the corpus, such that a log of a different or modified corpus is rejected. The log is
+ * deleted once the index has been written.
+ */
+public class StreamingSemanticIndexGenerator {
+
+	private static final Logger logger = Logger.getLogger(StreamingSemanticIndexGenerator.class);
+
+	private static final int MAGIC = 0x53494c47;
+	private static final int VERSION = 1;
+
+	private static final byte ENTITY_RECORD = 0;
+	private static final byte DOCUMENT_RECORD = 1;
+
+	private final Supplier<SemanticAnnotator> annotatorFactory;
+	private final Supplier<Function<String, TextDocument>> documentGeneratorFactory;
+	private final int nrOfThreads;
+	private int checkpointInterval = 1000;
+
+	// the state of the current run, guarded by stateLock; generateIndex holds the monitor of this during the
+	// whole run, thus the workers can't use it
+	private final Object stateLock = new Object();
+	private DataOutputStream log;
+	private Map<OWLEntity, Integer> entityIds;
+	private PostingListIndex.Builder builder;
+	private int nrOfDocumentsSinceCheckpoint;
+
+	/**
+	 * @param annotatorFactory creates the semantic annotator of each worker thread
+	 * @param nrOfThreads the number of worker threads
+	 */
+	public StreamingSemanticIndexGenerator(Supplier<SemanticAnnotator> annotatorFactory, int nrOfThreads) {
+		this(annotatorFactory, () -> TextDocumentGenerator.newInstance()::generateDocument, nrOfThreads);
+	}
+
+	/**
+	 * @param annotatorFactory creates the semantic annotator of each worker thread
+	 * @param documentGeneratorFactory creates the function of each worker thread which turns a line of the corpus
+	 *                                 into a document, by default the NLP pipeline of a {@link TextDocumentGenerator}
+	 * @param nrOfThreads the number of worker threads
+	 */
+	public StreamingSemanticIndexGenerator(Supplier<SemanticAnnotator> annotatorFactory,
+										   Supplier<Function<String, TextDocument>> documentGeneratorFactory,
+										   int nrOfThreads) {
+		this.annotatorFactory = annotatorFactory;
+		this.documentGeneratorFactory = documentGeneratorFactory;
+		this.nrOfThreads = nrOfThreads;
+	}
+
+	/**
+	 * @param checkpointInterval the number of documents after which the postings log is flushed
+	 */
+	public void setCheckpointInterval(int checkpointInterval) {
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * Annotates all non-empty lines of the corpus and writes the resulting index to the index file. Documents
+	 * found in the postings log of an earlier, interrupted run over the same corpus are not annotated again.
+	 *
+	 * @param corpus the corpus file, UTF-8 encoded with one document per line
+	 * @param indexFile the file the index is written to
+	 * @return the index
+	 * @throws IOException if reading the corpus or writing the index fails, or if the postings log was written
+	 * for a different corpus
+	 */
+	public synchronized PostingListIndex generateIndex(File corpus, File indexFile) throws IOException {
+		File logFile = new File(indexFile.getPath() + ".postings");
+
+		long corpusLength = corpus.length();
+		String corpusHash = com.google.common.io.Files.asByteSource(corpus).hash(Hashing.md5()).toString();
+
+		entityIds = new HashMap<>();
+		builder = new PostingListIndex.Builder();
+		nrOfDocumentsSinceCheckpoint = 0;
+		Set<Integer> processedLines = resume(logFile, corpusLength, corpusHash);
+		if (!processedLines.isEmpty()) {
+			logger.info("Resuming semantic index generation after " + processedLines.size() + " documents.");
+		}
+		boolean newLog = !logFile.exists();
+
+		ThreadLocal<Function<String, TextDocument>> documentGenerator = ThreadLocal.withInitial(documentGeneratorFactory);
+		ThreadLocal<SemanticAnnotator> annotator = ThreadLocal.withInitial(annotatorFactory);
+		// the bounded queue makes the reader wait for the workers instead of loading the whole corpus
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(nrOfThreads, nrOfThreads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(4 * nrOfThreads), new ThreadPoolExecutor.CallerRunsPolicy());
+		List<Future<?>> pending = new LinkedList<>();
+
+		int nrOfDocuments = 0;
+		long startTime = System.currentTimeMillis();
+		log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, true)));
+		if (newLog) {
+			log.writeInt(MAGIC);
+			log.writeInt(VERSION);
+			log.writeLong(corpusLength);
+			log.writeUTF(corpusHash);
+			log.flush();
+		}
+		try (BufferedReader reader = Files.newBufferedReader(corpus.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				int currentLine = lineNumber++;
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				nrOfDocuments++;
+				if (processedLines.contains(currentLine)) {
+					continue;
+				}
+				String text = line;
+				pending.add(executor.submit(() -> {
+					TextDocument document = documentGenerator.get().apply(text);
+					AnnotatedDocument annotatedDocument = annotator.get().processDocument(document);
+					addDocument(currentLine, annotatedDocument.getContainedEntities());
+					return null;
+				}));
+				// check the finished tasks for failures, such that the list doesn't grow with the corpus
+				for (Iterator<Future<?>> it = pending.iterator(); it.hasNext(); ) {
+					Future<?> future = it.next();
+					if (!future.isDone()) {
+						break;
+					}
+					get(future);
+					it.remove();
+				}
+			}
+			for (Future<?> future : pending) {
+				get(future);
+			}
+		} finally {
+			executor.shutdownNow();
+			synchronized (stateLock) {
+				log.close();
+				log = null;
+			}
+		}
+		logger.info("Annotated " + nrOfDocuments + " documents in " + (System.currentTimeMillis() - startTime) + "ms.");
+
+		PostingListIndex index = builder.build(nrOfDocuments);
+		index.write(indexFile);
+		Files.delete(logFile.toPath());
+		return PostingListIndex.load(indexFile);
+	}
+
+	private static void get(Future<?> future) throws IOException {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Semantic index generation interrupted");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new RuntimeException("Annotation of a document failed", e.getCause());
+		}
+	}
+
+	private void addDocument(int lineNumber, Collection<OWLEntity> entities) throws IOException {
+		synchronized (stateLock) {
+			// the run was aborted, e.g. because the annotation of another document failed
+			if (log == null) {
+				return;
+			}
+			logDocument(lineNumber, entities);
+		}
+	}
+
+	private void logDocument(int lineNumber, Collection<OWLEntity> entities) throws IOException {
+		int[] ids = new int[entities.size()];
+		int i = 0;
+		for (OWLEntity entity : entities) {
+			Integer id = entityIds.get(entity);
+			if (id == null) {
+				id = entityIds.size();
+				entityIds.put(entity, id);
+				log.writeByte(ENTITY_RECORD);
+				log.writeInt(id);
+				log.writeUTF(entity.getEntityType().getName());
+				log.writeUTF(entity.toStringID());
+			}
+			ids[i++] = id;
+		}
+		log.writeByte(DOCUMENT_RECORD);
+		log.writeInt(lineNumber);
+		log.writeInt(ids.length);
+		for (int id : ids) {
+			log.writeInt(id);
+		}
+		builder.addDocument(entities);
+
+		if (++nrOfDocumentsSinceCheckpoint >= checkpointInterval) {
+			log.flush();
+			nrOfDocumentsSinceCheckpoint = 0;
+		}
+	}
+
+	/**
+	 * Replays the postings log of an interrupted run and truncates an incomplete last record. A log without a
+	 * complete header is deleted.
+	 *
+	 * @return the line numbers of the documents in the log
+	 * @throws IOException if the log can't be read or was written for a different corpus
+	 */
+	private Set<Integer> resume(File logFile, long corpusLength, String corpusHash) throws IOException {
+		Set<Integer> processedLines = new HashSet<>();
+		if (!logFile.exists()) {
+			return processedLines;
+		}
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		Map<String, EntityType<?>> entityTypes = new HashMap<>();
+		for (EntityType<?> type : EntityType.values()) {
+			entityTypes.put(type.getName(), type);
+		}
+		List<OWLEntity> entities = new ArrayList<>();
+
+		long validLength = 0;
+		try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(logFile)));
+			 DataInputStream in = new DataInputStream(counter)) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a postings log: " + logFile);
+			}
+			if (in.readLong() != corpusLength || !in.readUTF().equals(corpusHash)) {
+				throw new IOException("The postings log " + logFile + " was written for a different corpus, "
+						+ "delete it to generate the index from scratch.");
+			}
+			validLength = counter.count;
+			while (true) {
+				int recordType = in.read();
+				if (recordType == ENTITY_RECORD) {
+					int id = in.readInt();
+					EntityType<?> type = entityTypes.get(in.readUTF());
+					OWLEntity entity = df.getOWLEntity(type, IRI.create(in.readUTF()));
+					if (id != entities.size()) {
+						throw new IOException("Corrupt postings log " + logFile);
+					}
+					entities.add(entity);
+					entityIds.put(entity, id);
+				} else if (recordType == DOCUMENT_RECORD) {
+					int lineNumber = in.readInt();
+					int n = in.readInt();
+					List<OWLEntity> documentEntities = new ArrayList<>(n);
+					for (int i = 0; i < n; i++) {
+						documentEntities.add(entities.get(in.readInt()));
+					}
+					processedLines.add(lineNumber);
+					builder.addDocument(documentEntities);
+				} else {
+					break;
+				}
+				validLength = counter.count;
+			}
+		} catch (EOFException e) {
+			// the last record was not written completely
+		}
+
+		if (validLength == 0) {
+			// not even the header was written completely
+			Files.delete(logFile.toPath());
+			return processedLines;
+		}
+		try (RandomAccessFile raf = new RandomAccessFile(logFile, "rw")) {
+			raf.setLength(validLength);
+		}
+		return processedLines;
+	}
+
+	private static class CountingInputStream extends FilterInputStream {
+		long count = 0;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+	}
+}
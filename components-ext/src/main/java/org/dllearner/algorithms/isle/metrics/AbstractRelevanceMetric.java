@@ -7,7 +7,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLEntity;
 
@@ -17,10 +17,10 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public abstract class AbstractRelevanceMetric implements RelevanceMetric {
 
-	protected Index index;
+	protected DocumentCountIndex index;
 	protected String name;
 
-	public AbstractRelevanceMetric(Index index) {
+	public AbstractRelevanceMetric(DocumentCountIndex index) {
 		this.index = index;
 
 		name = getClass().getSimpleName().replace("RelevanceMetric", "");
@@ -63,6 +63,35 @@ public abstract class AbstractRelevanceMetric implements RelevanceMetric {
 		return name;
 	}
 
+	@Override
+	public double getRelevance(OWLEntity entityA, OWLEntity entityB) {
+		long fA = index.getNumberOfDocumentsFor(entityA);
+		long fB = index.getNumberOfDocumentsFor(entityB);
+		// entities without documents don't co-occur
+		long fAB = fA == 0 || fB == 0 ? 0 : index.getNumberOfDocumentsFor(entityA, entityB);
+		return getRelevance(fA, fB, fAB, index.getTotalNumberOfDocuments());
+	}
+
+	/**
+	 * Computes the relevance of two entities from their document counts, without accessing the index. Thus,
+	 * the counts of the single entities can be queried once and shared between all pairs, see
+	 * {@link RelevanceMatrix}.
+	 *
+	 * @param fA the number of documents containing the first entity
+	 * @param fB the number of documents containing the second entity
+	 * @param fAB the number of documents containing both entities
+	 * @param N the total number of documents
+	 * @return the relevance
+	 */
+	public abstract double getRelevance(double fA, double fB, double fAB, double N);
+
+	/**
+	 * @return the index the relevance is computed on
+	 */
+	public DocumentCountIndex getIndex() {
+		return index;
+	}
+
 	@Override
 	public double getRelevance(OWLEntity entity, OWLClassExpression desc){
 		Set<OWLEntity> entities = desc.getSignature();
@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -13,7 +13,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class ChiSquareRelevanceMetric extends AbstractRelevanceMetric {
 
-	public ChiSquareRelevanceMetric(Index index) {
+	public ChiSquareRelevanceMetric(DocumentCountIndex index) {
 		super(index);
 	}
 	
@@ -22,16 +22,10 @@ public class ChiSquareRelevanceMetric extends AbstractRelevanceMetric {
 	}
 
 	@Override
-	public synchronized double getRelevance(OWLEntity entityA, OWLEntity entityB){
-		double fA = index.getNumberOfDocumentsFor(entityA);
-		double fB = index.getNumberOfDocumentsFor(entityB);
-		double N = index.getTotalNumberOfDocuments();
-		
+	public double getRelevance(double fA, double fB, double fAB, double N) {
 		if (N==0 || fA==0 || fB==0)
 			return 0;
 		
-		double fAB = index.getNumberOfDocumentsFor(entityA, entityB);
-		
 		double e_fAB = fA*fB/N; // Expected frequency of A and B assuming independence
 		
 		double chi2 = 0;
@@ -53,4 +47,8 @@ public class ChiSquareRelevanceMetric extends AbstractRelevanceMetric {
 		return Double.NaN;
 	}
 
+	@Override
+	public boolean isSymmetric() {
+		return true;
+	}
 }
@@ -1,6 +1,6 @@
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -9,20 +9,15 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class DiceRelevanceMetric extends AbstractRelevanceMetric{
 
-	public DiceRelevanceMetric(Index index) {
+	public DiceRelevanceMetric(DocumentCountIndex index) {
 		super(index);
 	}
 
 	@Override
-	public double getRelevance(OWLEntity entityA, OWLEntity entityB) {
-		double nrOfDocumentsA = index.getNumberOfDocumentsFor(entityA);
-		double nrOfDocumentsB = index.getNumberOfDocumentsFor(entityB);
-		
+	public double getRelevance(double nrOfDocumentsA, double nrOfDocumentsB, double nrOfDocumentsAandB, double nrOfDocuments) {
 		if (nrOfDocumentsA==0 || nrOfDocumentsB==0)
 			return 0;
 		
-		double nrOfDocumentsAandB = index.getNumberOfDocumentsFor(entityA, entityB);
-		
 		double dice = 2 * nrOfDocumentsAandB / (nrOfDocumentsA + nrOfDocumentsB);
 		
 		return dice;
@@ -33,5 +28,8 @@ public class DiceRelevanceMetric extends AbstractRelevanceMetric{
 		return getRelevance(entity1, entity2);
 	}
 
-
+	@Override
+	public boolean isSymmetric() {
+		return true;
+	}
 }
@@ -1,6 +1,6 @@
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -9,19 +9,15 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class JaccardRelevanceMetric extends AbstractRelevanceMetric{
 
-	public JaccardRelevanceMetric(Index index) {
+	public JaccardRelevanceMetric(DocumentCountIndex index) {
 		super(index);
 	}
 
 	@Override
-	public double getRelevance(OWLEntity entityA, OWLEntity entityB) {
-		long nrOfDocumentsA = index.getNumberOfDocumentsFor(entityA);
-		long nrOfDocumentsB = index.getNumberOfDocumentsFor(entityB);
-		
+	public double getRelevance(double nrOfDocumentsA, double nrOfDocumentsB, double nrOfDocumentsAandB, double nrOfDocuments) {
 		if (nrOfDocumentsA==0 || nrOfDocumentsB==0)
 			return 0;
 		
-		double nrOfDocumentsAandB = index.getNumberOfDocumentsFor(entityA, entityB);
 		double nrOfDocumentsAorB = nrOfDocumentsA + nrOfDocumentsB - nrOfDocumentsAandB;
 		
 		double jaccard = nrOfDocumentsAandB / nrOfDocumentsAorB;
@@ -34,5 +30,8 @@ public class JaccardRelevanceMetric extends AbstractRelevanceMetric{
 		return getRelevance(entity1, entity2);
 	}
 
-
+	@Override
+	public boolean isSymmetric() {
+		return true;
+	}
 }
@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -13,7 +13,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class LLRRelevanceMetric extends AbstractRelevanceMetric {
 
-	public LLRRelevanceMetric(Index index) {
+	public LLRRelevanceMetric(DocumentCountIndex index) {
 		super(index);
 	}
 	
@@ -24,12 +24,7 @@ public class LLRRelevanceMetric extends AbstractRelevanceMetric {
 	}
 
 	@Override
-	public synchronized double getRelevance(OWLEntity entityA, OWLEntity entityB){
-		double fA = index.getNumberOfDocumentsFor(entityA);
-		double fB = index.getNumberOfDocumentsFor(entityB);
-		double N = index.getTotalNumberOfDocuments();
-		double fAB = index.getNumberOfDocumentsFor(entityA, entityB);
-		
+	public double getRelevance(double fA, double fB, double fAB, double N) {
 		if (N==0 || fA==0 || fB==0)
 			return 0;
 		
@@ -58,4 +53,8 @@ public class LLRRelevanceMetric extends AbstractRelevanceMetric {
 		return Double.NaN;
 	}
 
+	@Override
+	public boolean isSymmetric() {
+		return true;
+	}
 }
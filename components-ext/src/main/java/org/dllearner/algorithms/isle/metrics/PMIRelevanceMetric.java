@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -12,21 +12,15 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class PMIRelevanceMetric extends AbstractRelevanceMetric {
 
-	public PMIRelevanceMetric(Index index) {
+	public PMIRelevanceMetric(DocumentCountIndex index) {
 		super(index);
 	}
 
 	@Override
-	public double getRelevance(OWLEntity entityA, OWLEntity entityB){
-		long nrOfDocumentsA = index.getNumberOfDocumentsFor(entityA);
-		long nrOfDocumentsB = index.getNumberOfDocumentsFor(entityB);
-		long nrOfDocumentsAB = index.getNumberOfDocumentsFor(entityA, entityB);
-		
-		long nrOfDocuments = index.getTotalNumberOfDocuments();
-		
-		double pA = nrOfDocuments == 0 ? 0 : ((double) nrOfDocumentsA / (double) nrOfDocuments);
-		double pB = nrOfDocuments == 0 ? 0 : ((double) nrOfDocumentsB / (double) nrOfDocuments);
-		double pAB = nrOfDocuments == 0 ? 0 : ((double) nrOfDocumentsAB / (double) nrOfDocuments);
+	public double getRelevance(double nrOfDocumentsA, double nrOfDocumentsB, double nrOfDocumentsAB, double nrOfDocuments) {
+		double pA = nrOfDocuments == 0 ? 0 : nrOfDocumentsA / nrOfDocuments;
+		double pB = nrOfDocuments == 0 ? 0 : nrOfDocumentsB / nrOfDocuments;
+		double pAB = nrOfDocuments == 0 ? 0 : nrOfDocumentsAB / nrOfDocuments;
 		
 		if(pAB == 0 || (pA * pB) == 0){
 			return 0;
@@ -0,0 +1,348 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.isle.metrics;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * The pairwise relevance scores of a set of entities for a relevance metric, where only the k most relevant
+ * other entities are stored per entity. The minimum and maximum over all scores of an entity are kept as well,
+ * such that the stored scores can be min-max normalized over all scores of the entity, like in
+ * {@link RelevanceUtils#getRelevantEntities(OWLEntity, Set, RelevanceMetric)}.
+ * <p>
+ * The matrix is computed in a single parallel pass over the rows, where the relevance of a pair is computed only
+ * once if the metric is symmetric. For metrics based on document counts, the counts of the single entities are
+ * queried once up front, such that the rows only query the co-occurrences of the pairs. The matrix can be
+ * written to and read from a file.
+ */
+public class RelevanceMatrix {
+
+	private static final Logger logger = Logger.getLogger(RelevanceMatrix.class);
+
+	private static final int MAGIC = 0x524d4154;
+	private static final int VERSION = 1;
+
+	private final List<OWLEntity> entities;
+	private final Map<OWLEntity, Integer> index = new HashMap<>();
+
+	// the k most relevant entities of each row, sorted by decreasing relevance
+	private final int[][] columns;
+	private final double[][] scores;
+	private final double[] min;
+	private final double[] max;
+
+	private RelevanceMatrix(List<OWLEntity> entities, int[][] columns, double[][] scores, double[] min, double[] max) {
+		this.entities = entities;
+		for (int i = 0; i < entities.size(); i++) {
+			index.put(entities.get(i), i);
+		}
+		this.columns = columns;
+		this.scores = scores;
+		this.min = min;
+		this.max = max;
+	}
+
+	/**
+	 * Computes the relevance of each entity to each other entity, keeping the k most relevant ones per entity.
+	 * Infinite and undefined scores are ignored. If the metric is symmetric, each pair is computed once.
+	 *
+	 * @param entities the entities
+	 * @param metric the relevance metric
+	 * @param k the maximum number of relevant entities stored per entity
+	 * @param nrOfThreads the number of threads
+	 * @return the matrix
+	 */
+	public static RelevanceMatrix compute(Collection<OWLEntity> entities, RelevanceMetric metric, int k, int nrOfThreads) {
+		List<OWLEntity> list = new ArrayList<>(new TreeSet<>(entities));
+		int n = list.size();
+		boolean symmetric = metric.isSymmetric();
+		TopK[] rows = new TopK[n];
+		for (int i = 0; i < n; i++) {
+			rows[i] = new TopK(k);
+		}
+
+		logger.info("Computing relevance matrix of " + n + " entities ...");
+		long startTime = System.currentTimeMillis();
+
+		AbstractRelevanceMetric countMetric = metric instanceof AbstractRelevanceMetric ? (AbstractRelevanceMetric) metric : null;
+		DocumentCountIndex documentIndex = countMetric != null ? countMetric.getIndex() : null;
+		long nrOfDocuments = documentIndex != null ? documentIndex.getTotalNumberOfDocuments() : 0;
+		long[] counts = new long[n];
+		for (int i = 0; documentIndex != null && i < n; i++) {
+			counts[i] = documentIndex.getNumberOfDocumentsFor(list.get(i));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, nrOfThreads));
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int row = 0; row < n; row++) {
+				int i = row;
+				futures.add(executor.submit(() -> {
+					OWLEntity entity = list.get(i);
+					// for a symmetric metric, the row only computes the pairs with the following entities
+					for (int j = symmetric ? i + 1 : 0; j < n; j++) {
+						if (i != j) {
+							double relevance;
+							if (countMetric != null) {
+								// entities without documents don't co-occur
+								long fAB = counts[i] == 0 || counts[j] == 0 ? 0
+										: documentIndex.getNumberOfDocumentsFor(entity, list.get(j));
+								relevance = countMetric.getRelevance(counts[i], counts[j], fAB, nrOfDocuments);
+							} else {
+								relevance = metric.getRelevance(entity, list.get(j));
+							}
+							if (!Double.isInfinite(relevance) && !Double.isNaN(relevance)) {
+								rows[i].add(j, relevance);
+								if (symmetric) {
+									rows[j].add(i, relevance);
+								}
+							}
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Computation of the relevance matrix interrupted", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Computation of the relevance matrix failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		logger.info("... done in " + (System.currentTimeMillis() - startTime) + "ms.");
+
+		int[][] columns = new int[n][];
+		double[][] scores = new double[n][];
+		double[] min = new double[n];
+		double[] max = new double[n];
+		for (int i = 0; i < n; i++) {
+			TopK topK = rows[i];
+			topK.sort();
+			columns[i] = Arrays.copyOf(topK.columns, topK.size);
+			scores[i] = Arrays.copyOf(topK.scores, topK.size);
+			min[i] = topK.min;
+			max[i] = topK.max;
+		}
+		return new RelevanceMatrix(list, columns, scores, min, max);
+	}
+
+	/**
+	 * A bounded min-heap of the most relevant columns of a row, together with the minimum and maximum of all
+	 * scores of the row. Rows of a symmetric metric are filled by several threads.
+	 */
+	private static class TopK {
+		final int[] columns;
+		final double[] scores;
+		int size = 0;
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+
+		TopK(int k) {
+			columns = new int[k];
+			scores = new double[k];
+		}
+
+		synchronized void add(int column, double score) {
+			min = Math.min(min, score);
+			max = Math.max(max, score);
+			if (size < columns.length) {
+				columns[size] = column;
+				scores[size] = score;
+				siftUp(size++);
+			} else if (size > 0 && score > scores[0]) {
+				columns[0] = column;
+				scores[0] = score;
+				siftDown(0, size);
+			}
+		}
+
+		void siftUp(int i) {
+			while (i > 0) {
+				int parent = (i - 1) / 2;
+				if (scores[parent] <= scores[i]) {
+					break;
+				}
+				swap(i, parent);
+				i = parent;
+			}
+		}
+
+		void siftDown(int i, int n) {
+			while (true) {
+				int smallest = i;
+				int left = 2 * i + 1;
+				int right = left + 1;
+				if (left < n && scores[left] < scores[smallest]) {
+					smallest = left;
+				}
+				if (right < n && scores[right] < scores[smallest]) {
+					smallest = right;
+				}
+				if (smallest == i) {
+					return;
+				}
+				swap(i, smallest);
+				i = smallest;
+			}
+		}
+
+		// heap sort into decreasing order
+		void sort() {
+			for (int n = size - 1; n > 0; n--) {
+				swap(0, n);
+				siftDown(0, n);
+			}
+		}
+
+		void swap(int i, int j) {
+			int c = columns[i];
+			columns[i] = columns[j];
+			columns[j] = c;
+			double s = scores[i];
+			scores[i] = scores[j];
+			scores[j] = s;
+		}
+	}
+
+	/**
+	 * @return the entities of the matrix
+	 */
+	public List<OWLEntity> getEntities() {
+		return Collections.unmodifiableList(entities);
+	}
+
+	/**
+	 * Returns the most relevant entities for the given entity, which can be used as input of the NLP heuristic.
+	 *
+	 * @param entity the entity
+	 * @param normalize whether to normalize the scores by the minimum and maximum score of the entity
+	 * @return the most relevant entities with their score, or an empty map if the entity is unknown
+	 */
+	public Map<OWLEntity, Double> getRelevantEntities(OWLEntity entity, boolean normalize) {
+		Integer i = index.get(entity);
+		if (i == null) {
+			return Collections.emptyMap();
+		}
+		Map<OWLEntity, Double> relevantEntities = new LinkedHashMap<>();
+		for (int j = 0; j < columns[i].length; j++) {
+			double score = scores[i][j];
+			if (normalize) {
+				// same as AbstractRelevanceMetric.normalizeMinMax
+				score = min[i] == max[i] ? 0.5 : (score - min[i]) / (max[i] - min[i]);
+			}
+			relevantEntities.put(entities.get(columns[i][j]), score);
+		}
+		return relevantEntities;
+	}
+
+	/**
+	 * @param entity the entity
+	 * @return the most relevant entities with their normalized score
+	 */
+	public Map<OWLEntity, Double> getRelevantEntities(OWLEntity entity) {
+		return getRelevantEntities(entity, true);
+	}
+
+	/**
+	 * Writes the matrix to a file, which can be read by {@link #read(File)}.
+	 *
+	 * @param file the file
+	 * @throws IOException if writing fails
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(entities.size());
+			for (OWLEntity entity : entities) {
+				out.writeUTF(entity.getEntityType().getName());
+				out.writeUTF(entity.toStringID());
+			}
+			for (int i = 0; i < entities.size(); i++) {
+				out.writeDouble(min[i]);
+				out.writeDouble(max[i]);
+				out.writeInt(columns[i].length);
+				for (int j = 0; j < columns[i].length; j++) {
+					out.writeInt(columns[i][j]);
+					out.writeDouble(scores[i][j]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a matrix written by {@link #write(File)}.
+	 *
+	 * @param file the file
+	 * @return the matrix
+	 * @throws IOException if the file can't be read or is not a relevance matrix file
+	 */
+	public static RelevanceMatrix read(File file) throws IOException {
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		Map<String, EntityType<?>> entityTypes = new HashMap<>();
+		for (EntityType<?> type : EntityType.values()) {
+			entityTypes.put(type.getName(), type);
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a relevance matrix file: " + file);
+			}
+			int n = in.readInt();
+			List<OWLEntity> entities = new ArrayList<>(n);
+			for (int i = 0; i < n; i++) {
+				EntityType<?> type = entityTypes.get(in.readUTF());
+				entities.add(df.getOWLEntity(type, IRI.create(in.readUTF())));
+			}
+			int[][] columns = new int[n][];
+			double[][] scores = new double[n][];
+			double[] min = new double[n];
+			double[] max = new double[n];
+			for (int i = 0; i < n; i++) {
+				min[i] = in.readDouble();
+				max[i] = in.readDouble();
+				int size = in.readInt();
+				columns[i] = new int[size];
+				scores[i] = new double[size];
+				for (int j = 0; j < size; j++) {
+					columns[i][j] = in.readInt();
+					scores[i][j] = in.readDouble();
+				}
+			}
+			return new RelevanceMatrix(entities, columns, scores, min, max);
+		}
+	}
+}
@@ -39,4 +39,12 @@ public interface RelevanceMetric {
 	double getNormalizedRelevance(OWLEntity entity1, OWLEntity entity2);
 	
 	double getRelevance(OWLEntity entity, OWLClassExpression desc);
+
+	/**
+	 * @return whether the relevance of two entities doesn't depend on their order, which allows to compute it
+	 * only once per pair
+	 */
+	default boolean isSymmetric() {
+		return false;
+	}
 }
\ No newline at end of file
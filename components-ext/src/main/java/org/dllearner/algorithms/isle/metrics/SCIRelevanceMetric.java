@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -12,17 +12,12 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class SCIRelevanceMetric extends AbstractRelevanceMetric {
 
-	public SCIRelevanceMetric(Index index) {
+	public SCIRelevanceMetric(DocumentCountIndex index) {
 		super(index);
 	}
 
 	@Override
-	public synchronized double getRelevance(OWLEntity entityA, OWLEntity entityB){
-		double fA = index.getNumberOfDocumentsFor(entityA);
-		double fB = index.getNumberOfDocumentsFor(entityB);
-		double fAB = index.getNumberOfDocumentsFor(entityA, entityB);
-		double N = index.getTotalNumberOfDocuments();
-		
+	public double getRelevance(double fA, double fB, double fAB, double N) {
 		if (fA==0 || fB==0 || fAB==0)
 			return 0;
 		
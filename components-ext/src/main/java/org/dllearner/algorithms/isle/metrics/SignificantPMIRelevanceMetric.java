@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -19,7 +19,7 @@ public class SignificantPMIRelevanceMetric extends AbstractRelevanceMetric {
 	 * @param index:  semantic index
 	 * @param delta: parameter varying from 0 to 1 
 	 */
-	public SignificantPMIRelevanceMetric(Index index, double delta) {
+	public SignificantPMIRelevanceMetric(DocumentCountIndex index, double delta) {
 		super(index);
 		if (delta<0 ||delta>1)
 			throw new IllegalArgumentException("Delta parameter should be in [0,1]");
@@ -27,13 +27,7 @@ public class SignificantPMIRelevanceMetric extends AbstractRelevanceMetric {
 	}
 
 	@Override
-	public synchronized double getRelevance(OWLEntity entityA, OWLEntity entityB){
-		double fA = index.getNumberOfDocumentsFor(entityA);
-		double fB = index.getNumberOfDocumentsFor(entityB);
-		double fAB = index.getNumberOfDocumentsFor(entityA, entityB);
-		
-		double N = index.getTotalNumberOfDocuments();
-		
+	public double getRelevance(double fA, double fB, double fAB, double N) {
 		if(fA == 0 || fB == 0 || fAB == 0){
 			return 0;
 		}
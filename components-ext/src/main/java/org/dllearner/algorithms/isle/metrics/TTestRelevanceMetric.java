@@ -3,7 +3,7 @@
  */
 package org.dllearner.algorithms.isle.metrics;
 
-import org.dllearner.algorithms.isle.index.Index;
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 /**
@@ -12,18 +12,12 @@ import org.semanticweb.owlapi.model.OWLEntity;
  */
 public class TTestRelevanceMetric extends AbstractRelevanceMetric {
 
-	public TTestRelevanceMetric(Index index) {
+	public TTestRelevanceMetric(DocumentCountIndex index) {
 		super(index);
 	}
 
 	@Override
-	public synchronized double getRelevance(OWLEntity entityA, OWLEntity entityB){
-		double nrOfDocumentsA = index.getNumberOfDocumentsFor(entityA);
-		double nrOfDocumentsB = index.getNumberOfDocumentsFor(entityB);
-		double nrOfDocumentsAB = index.getNumberOfDocumentsFor(entityA, entityB);
-		
-		double nrOfDocuments = index.getTotalNumberOfDocuments();
-		
+	public double getRelevance(double nrOfDocumentsA, double nrOfDocumentsB, double nrOfDocumentsAB, double nrOfDocuments) {
 		if (nrOfDocumentsA==0 || nrOfDocumentsB==0 || nrOfDocumentsAB==0)
 			return 0;
 		
@@ -39,4 +33,8 @@ public class TTestRelevanceMetric extends AbstractRelevanceMetric {
 		return Double.NaN;
 	}
 
+	@Override
+	public boolean isSymmetric() {
+		return true;
+	}
 }
@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.isle.index;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.dllearner.algorithms.isle.textretrieval.EntityTextRetriever;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class CompactEntityCandidatesTrieTest {
+
+	private static final String NS = "http://test.org/";
+	// a POS tag without a WordNet part of speech, such that no WordNet forms are looked up
+	private static final String POS_TAG = "FW";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+	private final OWLEntity heart = df.getOWLClass(IRI.create(NS + "Heart"));
+	private final OWLEntity heartValve = df.getOWLClass(IRI.create(NS + "HeartValve"));
+	private final OWLEntity largeOrgan = df.getOWLClass(IRI.create(NS + "LargeOrgan"));
+
+	private static Token token(String word) {
+		return new Token(word, word, POS_TAG, false, false);
+	}
+
+	private static Token stopWord(String word) {
+		return new Token(word, word, "IN", false, true);
+	}
+
+	private static List<Token> tokens(String text) {
+		List<Token> tokens = new ArrayList<>();
+		for (String word : text.split(" ")) {
+			tokens.add(word.equals("of") || word.equals("the") ? stopWord(word) : token(word));
+		}
+		return tokens;
+	}
+
+	private static List<Token> tokens(String text, String word, String alternativeForm, double score) {
+		List<Token> tokens = tokens(text);
+		for (Token token : tokens) {
+			if (token.getStemmedForm().equals(word)) {
+				token.addAlternativeForm(alternativeForm, score);
+			}
+		}
+		return tokens;
+	}
+
+	private static EntityTextRetriever retriever(Map<OWLEntity, Set<List<Token>>> entity2TokenSet) {
+		return new EntityTextRetriever() {
+			@Override
+			public Map<List<Token>, Double> getRelevantText(OWLEntity entity) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Map<OWLEntity, Set<List<Token>>> getRelevantText(OWLOntology ontology) {
+				return entity2TokenSet;
+			}
+
+			@Override
+			public Map<String, Double> getRelevantTextSimple(OWLEntity entity) {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	private EntityTextRetriever createRetriever() {
+		Map<OWLEntity, Set<List<Token>>> entity2TokenSet = new LinkedHashMap<>();
+		entity2TokenSet.put(heart, Collections.singleton(tokens("heart")));
+		entity2TokenSet.put(heartValve, Collections.singleton(tokens("heart valve", "valve", "flap", 0.5)));
+		entity2TokenSet.put(largeOrgan, Collections.singleton(tokens("large organ", "large", "big", 0.8)));
+		return retriever(entity2TokenSet);
+	}
+
+	private static void assertSameResults(EntityCandidatesTrie expected, EntityCandidatesTrie actual, List<Token> text) {
+		for (int start = 0; start < text.size(); start++) {
+			List<Token> tokens = text.subList(start, text.size());
+			List<Token> match = expected.getLongestMatchingText(tokens);
+			assertEquals(tokens.toString(), match, actual.getLongestMatchingText(tokens));
+			assertEquals(tokens.toString(), match.size(), actual.getLongestMatchLength(text, start));
+			if (!match.isEmpty()) {
+				assertEquals(tokens.toString(), expected.getGeneratingStringForLongestMatch(tokens),
+						actual.getGeneratingStringForLongestMatch(tokens));
+				assertEquals(tokens.toString(), expected.getCandidateEntities(match), actual.getCandidateEntities(match));
+			}
+			assertEquals(tokens.toString(), expected.getCandidateEntities(tokens), actual.getCandidateEntities(tokens));
+		}
+	}
+
+	// the tries differ for texts with stop words, which are not skipped by the simple trie
+	@Test
+	public void testSameResultsAsSimpleTrie() throws Exception {
+		SimpleEntityCandidatesTrie simpleTrie = new SimpleEntityCandidatesTrie(createRetriever(), null);
+		CompactEntityCandidatesTrie compactTrie = CompactEntityCandidatesTrie.build(createRetriever(), null);
+
+		assertSameResults(simpleTrie, compactTrie, tokens("a large organ is a heart"));
+		assertSameResults(simpleTrie, compactTrie, tokens("a heart valve in a large heart"));
+		// matches of the alternative forms
+		assertSameResults(simpleTrie, compactTrie, tokens("a heart flap in a big organ"));
+		assertSameResults(simpleTrie, compactTrie, tokens("valve heart organ large"));
+
+		File file = folder.newFile();
+		compactTrie.write(file);
+		CompactEntityCandidatesTrie readTrie = CompactEntityCandidatesTrie.read(file);
+		assertEquals(compactTrie.getNumberOfNodes(), readTrie.getNumberOfNodes());
+		assertSameResults(simpleTrie, readTrie, tokens("a heart flap in a big organ"));
+	}
+
+	@Test
+	public void testAlternativeFormScores() throws Exception {
+		CompactEntityCandidatesTrie trie = CompactEntityCandidatesTrie.build(createRetriever(), null);
+
+		assertEquals(Collections.singleton(new EntityScorePair(heartValve, 0.5)),
+				trie.getCandidateEntities(tokens("heart flap")));
+		// the alternative forms of the text are used as well
+		assertEquals(Collections.singleton(new EntityScorePair(largeOrgan, 0.25)),
+				trie.getCandidateEntities(tokens("huge organ", "huge", "large", 0.25)));
+	}
+
+	@Test
+	public void testLongestMatchTriesAllAlternativeForms() throws Exception {
+		OWLEntity corePart = df.getOWLClass(IRI.create(NS + "CorePart"));
+		OWLEntity centerValve = df.getOWLClass(IRI.create(NS + "CenterValve"));
+		CompactEntityCandidatesTrie.Builder builder = new CompactEntityCandidatesTrie.Builder();
+		builder.addEntry(tokens("core part", "core", "middle", 0.5), corePart);
+		builder.addEntry(tokens("center valve", "center", "middle", 0.5), centerValve);
+		CompactEntityCandidatesTrie trie = builder.build();
+
+		// both entries match the first token, but only the second one matches the whole text
+		List<Token> text = tokens("middle valve");
+		assertEquals(2, trie.getLongestMatchLength(text, 0));
+		assertEquals(tokens("center valve"), trie.getGeneratingStringForLongestMatch(text));
+		assertEquals(Collections.singleton(new EntityScorePair(centerValve, 0.5)), trie.getCandidateEntities(text));
+
+		// a prefix of an entry without any entities is no match
+		assertEquals(0, trie.getLongestMatchLength(tokens("middle heart"), 0));
+		assertEquals(Collections.emptyList(), trie.getLongestMatchingText(tokens("core")));
+	}
+
+	@Test
+	public void testStopWords() throws Exception {
+		OWLEntity part = df.getOWLClass(IRI.create(NS + "Part"));
+		OWLEntity bodyPart = df.getOWLClass(IRI.create(NS + "BodyPart"));
+		CompactEntityCandidatesTrie.Builder builder = new CompactEntityCandidatesTrie.Builder();
+		builder.addEntry(tokens("part"), part);
+		builder.addEntry(tokens("part of the body"), bodyPart);
+		CompactEntityCandidatesTrie trie = builder.build();
+
+		List<Token> text = tokens("a part of the body");
+		assertEquals(4, trie.getLongestMatchLength(text, 1));
+		assertEquals(Collections.singleton(new EntityScorePair(bodyPart, 1.0)),
+				trie.getCandidateEntities(text.subList(1, 5)));
+		assertEquals(Collections.singleton(new EntityScorePair(bodyPart, 1.0)),
+				trie.getCandidateEntities(tokens("part body")));
+
+		// stop words at the end of the text are not part of the match
+		assertEquals(1, trie.getLongestMatchLength(tokens("part of the house"), 0));
+	}
+}
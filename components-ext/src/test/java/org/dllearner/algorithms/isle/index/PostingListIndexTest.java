@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.isle.index;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.dllearner.algorithms.isle.index.semantic.SemanticIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class PostingListIndexTest {
+
+	private static final String NS = "http://test.org/";
+	private static final int NR_OF_DOCUMENTS = 200;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+	// dense entities are stored as bitmaps, sparse ones as arrays
+	private final OWLEntity all = df.getOWLClass(IRI.create(NS + "All"));
+	private final OWLEntity third = df.getOWLClass(IRI.create(NS + "Third"));
+	private final OWLEntity fortieth = df.getOWLObjectProperty(IRI.create(NS + "fortieth"));
+	private final OWLEntity fiftieth = df.getOWLClass(IRI.create(NS + "Fiftieth"));
+	private final OWLEntity unknown = df.getOWLClass(IRI.create(NS + "Unknown"));
+	private final List<OWLEntity> entities = Arrays.asList(all, third, fortieth, fiftieth, unknown);
+
+	private SemanticIndex createSemanticIndex() {
+		SemanticIndex index = new SemanticIndex();
+		for (int i = 0; i < NR_OF_DOCUMENTS; i++) {
+			AnnotatedDocument document = new AnnotatedTextDocument(new TextDocument(), Collections.emptySet());
+			index.computeIfAbsent(all, e -> new HashSet<>()).add(document);
+			if (i % 3 == 0) {
+				index.computeIfAbsent(third, e -> new HashSet<>()).add(document);
+			}
+			if (i % 40 == 0) {
+				index.computeIfAbsent(fortieth, e -> new HashSet<>()).add(document);
+			}
+			if (i % 50 == 0) {
+				index.computeIfAbsent(fiftieth, e -> new HashSet<>()).add(document);
+			}
+		}
+		// one document without any entity
+		index.setTotalNrOfDocuments(NR_OF_DOCUMENTS + 1);
+		return index;
+	}
+
+	private void assertSameCounts(SemanticIndex expected, PostingListIndex actual) {
+		assertEquals(expected.getTotalNumberOfDocuments(), actual.getTotalNumberOfDocuments());
+		for (OWLEntity a : entities) {
+			assertEquals(a.toString(), expected.getNumberOfDocumentsFor(a), actual.getNumberOfDocumentsFor(a));
+			for (OWLEntity b : entities) {
+				assertEquals(a + " " + b, expected.getNumberOfDocumentsFor(a, b), actual.getNumberOfDocumentsFor(a, b));
+				for (OWLEntity c : entities) {
+					assertEquals(a + " " + b + " " + c,
+							expected.getNumberOfDocumentsFor(a, b, c), actual.getNumberOfDocumentsFor(a, b, c));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSameCountsAsSemanticIndex() {
+		SemanticIndex semanticIndex = createSemanticIndex();
+		PostingListIndex index = semanticIndex.toPostingListIndex();
+		assertEquals(new HashSet<>(Arrays.asList(all, third, fortieth, fiftieth)), index.getEntities());
+		assertSameCounts(semanticIndex, index);
+	}
+
+	@Test
+	public void testWriteAndLoad() throws Exception {
+		SemanticIndex semanticIndex = createSemanticIndex();
+		File file = folder.newFile();
+		semanticIndex.toPostingListIndex().write(file);
+
+		// the loaded posting lists are memory-mapped
+		PostingListIndex index = PostingListIndex.load(file);
+		assertEquals(semanticIndex.toPostingListIndex().getEntities(), index.getEntities());
+		assertSameCounts(semanticIndex, index);
+	}
+
+	@Test
+	public void testBuilder() {
+		PostingListIndex.Builder builder = new PostingListIndex.Builder();
+		assertEquals(0, builder.addDocument(Arrays.asList(all, third)));
+		assertEquals(1, builder.addDocument(Collections.singleton(all)));
+		// duplicates are counted once
+		assertEquals(2, builder.addDocument(Arrays.asList(third, third)));
+
+		PostingListIndex index = builder.build();
+		assertEquals(3, index.getTotalNumberOfDocuments());
+		assertEquals(2, index.getNumberOfDocumentsFor(all));
+		assertEquals(2, index.getNumberOfDocumentsFor(third));
+		assertEquals(1, index.getNumberOfDocumentsFor(all, third));
+		assertEquals(0, index.getNumberOfDocumentsFor(all, unknown));
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.isle.index.semantic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dllearner.algorithms.isle.index.AnnotatedDocument;
+import org.dllearner.algorithms.isle.index.AnnotatedTextDocument;
+import org.dllearner.algorithms.isle.index.Annotation;
+import org.dllearner.algorithms.isle.index.PostingListIndex;
+import org.dllearner.algorithms.isle.index.SemanticAnnotation;
+import org.dllearner.algorithms.isle.index.SemanticAnnotator;
+import org.dllearner.algorithms.isle.index.TextDocument;
+import org.dllearner.algorithms.isle.index.Token;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class StreamingSemanticIndexGeneratorTest {
+
+	private static final String NS = "http://test.org/";
+
+	private static final List<String> CORPUS = Arrays.asList(
+			"a b", "b c", "", "a c d", "d", "fail a", "b d", "", "a b c d", "c");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final AtomicInteger nrOfAnnotatedDocuments = new AtomicInteger();
+	private volatile boolean failing = false;
+
+	/**
+	 * Annotates each word with the class of the same name, and fails on the word "fail" if failing is enabled.
+	 */
+	private class WordAnnotator extends SemanticAnnotator {
+		WordAnnotator() {
+			super(null, null, null);
+		}
+
+		@Override
+		public AnnotatedDocument processDocument(TextDocument document) {
+			Set<SemanticAnnotation> annotations = new HashSet<>();
+			for (Token token : document) {
+				if (failing && token.getRawForm().equals("fail")) {
+					throw new IllegalStateException("annotation failed");
+				}
+				Annotation annotation = new Annotation(document, Collections.singletonList(token));
+				annotations.add(new SemanticAnnotation(annotation, df.getOWLClass(IRI.create(NS + token.getRawForm()))));
+			}
+			nrOfAnnotatedDocuments.incrementAndGet();
+			return new AnnotatedTextDocument(document, annotations);
+		}
+	}
+
+	private static TextDocument tokenize(String text) {
+		TextDocument document = new TextDocument();
+		for (String word : text.trim().split("\\s+")) {
+			document.add(new Token(word));
+		}
+		return document;
+	}
+
+	private StreamingSemanticIndexGenerator createGenerator() {
+		StreamingSemanticIndexGenerator generator = new StreamingSemanticIndexGenerator(
+				WordAnnotator::new, () -> StreamingSemanticIndexGeneratorTest::tokenize, 1);
+		generator.setCheckpointInterval(1);
+		return generator;
+	}
+
+	private File writeCorpus(List<String> lines) throws IOException {
+		File corpus = folder.newFile();
+		Files.write(corpus.toPath(), lines, StandardCharsets.UTF_8);
+		return corpus;
+	}
+
+	private void assertSameIndex(PostingListIndex expected, PostingListIndex actual) {
+		assertEquals(expected.getTotalNumberOfDocuments(), actual.getTotalNumberOfDocuments());
+		assertEquals(expected.getEntities(), actual.getEntities());
+		for (OWLEntity a : expected.getEntities()) {
+			assertEquals(expected.getNumberOfDocumentsFor(a), actual.getNumberOfDocumentsFor(a));
+			for (OWLEntity b : expected.getEntities()) {
+				assertEquals(expected.getNumberOfDocumentsFor(a, b), actual.getNumberOfDocumentsFor(a, b));
+			}
+		}
+	}
+
+	// runs the generation until the annotation fails, which leaves the postings log of the processed documents
+	private File interruptedRun(File corpus) throws IOException {
+		File indexFile = new File(folder.getRoot(), "index");
+		failing = true;
+		try {
+			createGenerator().generateIndex(corpus, indexFile);
+			fail("the annotation should have failed");
+		} catch (RuntimeException e) {
+			// expected
+		}
+		failing = false;
+		File logFile = new File(indexFile.getPath() + ".postings");
+		assertTrue(logFile.exists());
+		assertFalse(indexFile.exists());
+		return indexFile;
+	}
+
+	@Test
+	public void testGenerateIndex() throws Exception {
+		PostingListIndex index = createGenerator().generateIndex(writeCorpus(CORPUS), folder.newFile());
+
+		OWLEntity a = df.getOWLClass(IRI.create(NS + "a"));
+		OWLEntity d = df.getOWLClass(IRI.create(NS + "d"));
+		// empty lines are not documents
+		assertEquals(8, index.getTotalNumberOfDocuments());
+		assertEquals(4, index.getNumberOfDocumentsFor(a));
+		assertEquals(2, index.getNumberOfDocumentsFor(a, d));
+	}
+
+	@Test
+	public void testResume() throws Exception {
+		File corpus = writeCorpus(CORPUS);
+		PostingListIndex expected = createGenerator().generateIndex(corpus, new File(folder.getRoot(), "expected"));
+
+		File indexFile = interruptedRun(corpus);
+		nrOfAnnotatedDocuments.set(0);
+		PostingListIndex index = createGenerator().generateIndex(corpus, indexFile);
+
+		// the documents in the log are not annotated again
+		assertTrue(nrOfAnnotatedDocuments.get() < expected.getTotalNumberOfDocuments());
+		assertSameIndex(expected, index);
+		assertFalse(new File(indexFile.getPath() + ".postings").exists());
+	}
+
+	@Test
+	public void testResumeAfterIncompleteRecord() throws Exception {
+		File corpus = writeCorpus(CORPUS);
+		PostingListIndex expected = createGenerator().generateIndex(corpus, new File(folder.getRoot(), "expected"));
+
+		File indexFile = interruptedRun(corpus);
+		// the beginning of a document record, as left by a crash while writing
+		try (FileOutputStream out = new FileOutputStream(indexFile.getPath() + ".postings", true)) {
+			out.write(new byte[]{1, 0, 0});
+		}
+		assertSameIndex(expected, createGenerator().generateIndex(corpus, indexFile));
+	}
+
+	@Test(expected = IOException.class)
+	public void testRefuseToResumeOnModifiedCorpus() throws Exception {
+		File corpus = writeCorpus(CORPUS);
+		File indexFile = interruptedRun(corpus);
+
+		Files.write(corpus.toPath(), Collections.singletonList("a d"), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		createGenerator().generateIndex(corpus, indexFile);
+	}
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.isle.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dllearner.algorithms.isle.index.DocumentCountIndex;
+import org.dllearner.algorithms.isle.index.PostingListIndex;
+import org.dllearner.algorithms.isle.index.RelevanceMapGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class RelevanceMatrixTest {
+
+	private static final String NS = "http://test.org/";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final OWLDataFactory df = new OWLDataFactoryImpl();
+	private final List<OWLEntity> entities = new ArrayList<>();
+
+	public RelevanceMatrixTest() {
+		for (int i = 0; i < 6; i++) {
+			entities.add(df.getOWLClass(IRI.create(NS + "C" + i)));
+		}
+	}
+
+	/**
+	 * The relevance of the i-th to the j-th entity is i * j, optionally plus i, counting the calls.
+	 */
+	private class StubMetric implements RelevanceMetric {
+		final boolean symmetric;
+		final AtomicInteger nrOfCalls = new AtomicInteger();
+
+		StubMetric(boolean symmetric) {
+			this.symmetric = symmetric;
+		}
+
+		@Override
+		public double getRelevance(OWLEntity entity1, OWLEntity entity2) {
+			nrOfCalls.incrementAndGet();
+			int i = entities.indexOf(entity1);
+			int j = entities.indexOf(entity2);
+			// undefined scores are ignored
+			if (i == 5 || j == 5) {
+				return Double.NaN;
+			}
+			return symmetric ? i * j : i * j + i;
+		}
+
+		@Override
+		public double getNormalizedRelevance(OWLEntity entity1, OWLEntity entity2) {
+			return getRelevance(entity1, entity2);
+		}
+
+		@Override
+		public double getRelevance(OWLEntity entity, OWLClassExpression desc) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isSymmetric() {
+			return symmetric;
+		}
+	}
+
+	@Test
+	public void testTopK() {
+		RelevanceMatrix matrix = RelevanceMatrix.compute(entities, new StubMetric(false), 2, 2);
+		assertEquals(entities, matrix.getEntities());
+
+		// the scores of C2 are 2, 4, 8 and 10 for C0, C1, C3 and C4
+		Map<OWLEntity, Double> relevantEntities = matrix.getRelevantEntities(entities.get(2), false);
+		assertEquals(Arrays.asList(entities.get(4), entities.get(3)), new ArrayList<>(relevantEntities.keySet()));
+		assertEquals(10, relevantEntities.get(entities.get(4)), 0);
+		assertEquals(8, relevantEntities.get(entities.get(3)), 0);
+
+		// normalized by the minimum and maximum of all scores of C2
+		relevantEntities = matrix.getRelevantEntities(entities.get(2));
+		assertEquals(1, relevantEntities.get(entities.get(4)), 0);
+		assertEquals(0.75, relevantEntities.get(entities.get(3)), 0);
+
+		// all scores of C0 are equal
+		relevantEntities = matrix.getRelevantEntities(entities.get(0));
+		assertEquals(2, relevantEntities.size());
+		relevantEntities.values().forEach(score -> assertEquals(0.5, score, 0));
+
+		// no defined scores at all
+		assertEquals(Collections.emptyMap(), matrix.getRelevantEntities(entities.get(5)));
+		assertEquals(Collections.emptyMap(), matrix.getRelevantEntities(df.getOWLClass(IRI.create(NS + "Unknown"))));
+	}
+
+	@Test
+	public void testSymmetricMetricComputedOncePerPair() {
+		StubMetric symmetric = new StubMetric(true);
+		RelevanceMatrix matrix = RelevanceMatrix.compute(entities, symmetric, 3, 4);
+		int n = entities.size();
+		assertEquals(n * (n - 1) / 2, symmetric.nrOfCalls.get());
+
+		// the same result as computing all pairs
+		StubMetric asymmetric = new StubMetric(true) {
+			@Override
+			public boolean isSymmetric() {
+				return false;
+			}
+		};
+		RelevanceMatrix expected = RelevanceMatrix.compute(entities, asymmetric, 3, 4);
+		assertEquals(n * (n - 1), asymmetric.nrOfCalls.get());
+		for (OWLEntity entity : entities.subList(1, n)) {
+			assertEquals(expected.getRelevantEntities(entity), matrix.getRelevantEntities(entity));
+		}
+	}
+
+	@Test
+	public void testDocumentCountsQueriedOnce() {
+		PostingListIndex.Builder builder = new PostingListIndex.Builder();
+		builder.addDocument(entities.subList(0, 3));
+		builder.addDocument(entities.subList(1, 4));
+		builder.addDocument(entities.subList(2, 6));
+		PostingListIndex postings = builder.build(5);
+		AtomicInteger nrOfSingleCounts = new AtomicInteger();
+		DocumentCountIndex index = new DocumentCountIndex() {
+			@Override
+			public long getNumberOfDocumentsFor(OWLEntity entity) {
+				nrOfSingleCounts.incrementAndGet();
+				return postings.getNumberOfDocumentsFor(entity);
+			}
+
+			@Override
+			public long getNumberOfDocumentsFor(OWLEntity... entities) {
+				return postings.getNumberOfDocumentsFor(entities);
+			}
+
+			@Override
+			public long getTotalNumberOfDocuments() {
+				return postings.getTotalNumberOfDocuments();
+			}
+		};
+		ChiSquareRelevanceMetric metric = new ChiSquareRelevanceMetric(index);
+		RelevanceMatrix matrix = RelevanceMatrix.compute(entities, metric, entities.size(), 4);
+		assertEquals(entities.size(), nrOfSingleCounts.get());
+
+		// the same scores as computed pair by pair
+		assertFalse(matrix.getRelevantEntities(entities.get(2), false).isEmpty());
+		for (OWLEntity entity : entities) {
+			for (Map.Entry<OWLEntity, Double> e : matrix.getRelevantEntities(entity, false).entrySet()) {
+				assertEquals(metric.getRelevance(entity, e.getKey()), e.getValue(), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void testWriteAndRead() throws Exception {
+		RelevanceMatrix matrix = RelevanceMatrix.compute(entities, new StubMetric(false), 3, 1);
+		File file = folder.newFile();
+		matrix.write(file);
+
+		RelevanceMatrix read = RelevanceMatrix.read(file);
+		assertEquals(matrix.getEntities(), read.getEntities());
+		for (OWLEntity entity : entities) {
+			assertEquals(matrix.getRelevantEntities(entity, false), read.getRelevantEntities(entity, false));
+			assertEquals(matrix.getRelevantEntities(entity), read.getRelevantEntities(entity));
+		}
+	}
+
+	@Test
+	public void testCacheDependsOnIndexContent() throws Exception {
+		String cacheDirectory = RelevanceMapGenerator.cacheDirectory;
+		RelevanceMapGenerator.cacheDirectory = folder.newFolder().getPath();
+		try {
+			OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+			OWLOntology ontology = man.createOntology();
+			for (OWLEntity entity : entities.subList(0, 3)) {
+				man.addAxiom(ontology, df.getOWLDeclarationAxiom(entity));
+			}
+			OWLClass c0 = (OWLClass) entities.get(0);
+			OWLClass c1 = (OWLClass) entities.get(1);
+			OWLClass c2 = (OWLClass) entities.get(2);
+
+			// the same number of documents per entity, but different co-occurrences
+			PostingListIndex.Builder builder = new PostingListIndex.Builder();
+			builder.addDocument(Arrays.asList(c0, c1));
+			builder.addDocument(Collections.singleton(c2));
+			RelevanceMatrix matrix = RelevanceMapGenerator.generateRelevanceMatrix(ontology,
+					new JaccardRelevanceMetric(builder.build()), 2, true);
+
+			builder = new PostingListIndex.Builder();
+			builder.addDocument(Arrays.asList(c0, c2));
+			builder.addDocument(Collections.singleton(c1));
+			RelevanceMatrix other = RelevanceMapGenerator.generateRelevanceMatrix(ontology,
+					new JaccardRelevanceMetric(builder.build()), 2, true);
+
+			assertNotEquals(matrix.getRelevantEntities(c0, false), other.getRelevantEntities(c0, false));
+			assertEquals(1, matrix.getRelevantEntities(c0, false).get(c1), 0);
+			assertEquals(1, other.getRelevantEntities(c0, false).get(c2), 0);
+		} finally {
+			RelevanceMapGenerator.cacheDirectory = cacheDirectory;
+		}
+	}
+}
@@ -54,6 +54,7 @@ import org.dllearner.utilities.Helper;
 import org.dllearner.utilities.OwlApiJenaUtils;
 import org.dllearner.utilities.datastructures.SortedSetTuple;
 import org.dllearner.utilities.examples.AutomaticNegativeExampleFinderSPARQL2;
+import org.dllearner.utilities.examples.SPARQLExampleGenerator;
 import org.dllearner.utilities.owl.OWLAPIRenderers;
 import org.dllearner.utilities.owl.OWLEntityTypeAdder;
 import org.semanticweb.owlapi.apibinding.OWLManager;
@@ -163,6 +164,9 @@ public class Enrichment {
 	private Set<EvaluatedAxiom> learnedEvaluatedAxioms;
 	private boolean processPropertiesTypeInferred = false;
 	private boolean iterativeMode = false;
+	private boolean bulkExampleGeneration = false;
+	// shared by all classes of a run, such that fetched types and instances are reused
+	private SPARQLExampleGenerator exampleGenerator;
 
 	private boolean processObjectProperties;
 	private boolean processDataProperties;
@@ -229,6 +233,14 @@ public class Enrichment {
 		this.iterativeMode = iterativeMode;
 	}
 
+	/**
+	 * @param bulkExampleGeneration whether to generate the examples of all classes with a shared, cached
+	 * {@link SPARQLExampleGenerator} instead of separate queries per class
+	 */
+	public void setBulkExampleGeneration(boolean bulkExampleGeneration) {
+		this.bulkExampleGeneration = bulkExampleGeneration;
+	}
+
 	public EntityType<? extends OWLEntity> getEntityType(String resourceURI) {
 		EntityType<? extends OWLEntity> entityType = reasoner.getOWLEntityType(resourceURI);
 		if(entityType != null){
@@ -292,6 +304,13 @@ public class Enrichment {
 	}
 
 	private void processClasses(Set<OWLClass> classes) {
+		if(bulkExampleGeneration){
+			exampleGenerator = new SPARQLExampleGenerator(reasoner);
+			System.out.print("finding positives for " + classes.size() + " classes ... ");
+			long startTime = System.currentTimeMillis();
+			exampleGenerator.getPositiveExamples(classes, maxNrOfPositiveExamples);
+			System.out.println("done in " + (System.currentTimeMillis() - startTime) + " ms");
+		}
 		for(OWLClass cls : classes) {
 			try {
 				runClassLearningAlgorithms(ks, cls);
@@ -403,7 +422,9 @@ public class Enrichment {
 		// get instances of class as positive examples
 		System.out.print("finding positives ... ");
 		long startTime = System.currentTimeMillis();
-		SortedSet<OWLIndividual> posExamples = reasoner.getIndividuals(nc, maxNrOfPositiveExamples);
+		SortedSet<OWLIndividual> posExamples = exampleGenerator != null
+				? exampleGenerator.getPositiveExamples(nc, maxNrOfPositiveExamples)
+				: reasoner.getIndividuals(nc, maxNrOfPositiveExamples);
 		long runTime = System.currentTimeMillis() - startTime;
 		if(posExamples.isEmpty()){
 			System.out.println("Skipping CELOE because class " + nc.toString() + " is empty.");
@@ -415,8 +436,13 @@ public class Enrichment {
 		// use own implementation of negative example finder
 		System.out.print("finding negatives ... ");
 		startTime = System.currentTimeMillis();
-		AutomaticNegativeExampleFinderSPARQL2 finder = new AutomaticNegativeExampleFinderSPARQL2(reasoner);
-		SortedSet<OWLIndividual> negExamples = finder.getNegativeExamples(nc, posExamples, maxNrOfNegativeExamples);
+		SortedSet<OWLIndividual> negExamples;
+		if(exampleGenerator != null){
+			negExamples = exampleGenerator.getNegativeExamples(nc, posExamples, maxNrOfNegativeExamples);
+		} else {
+			AutomaticNegativeExampleFinderSPARQL2 finder = new AutomaticNegativeExampleFinderSPARQL2(reasoner);
+			negExamples = finder.getNegativeExamples(nc, posExamples, maxNrOfNegativeExamples);
+		}
 		SortedSetTuple<OWLIndividual> examples = new SortedSetTuple<>(posExamples, negExamples);
 		runTime = System.currentTimeMillis() - startTime;
 		System.out.println("done (" + negExamples.size()+ " examples found in " + runTime + " ms)");
@@ -952,6 +978,8 @@ public class Enrichment {
 				"Specifies whether to use inference. If yes, the schema will be loaded into a reasoner and used for computing the scores.").withOptionalArg().ofType(Boolean.class).defaultsTo(false);
 		parser.acceptsAll(asList("iterative"),
 				"Specifies whether to use local fragments or single query mode.").withOptionalArg().ofType(Boolean.class).defaultsTo(false);
+		parser.acceptsAll(asList("bulkExamples"),
+				"Specifies whether to generate the examples of all classes with bulk queries and a shared cache.").withOptionalArg().ofType(Boolean.class).defaultsTo(false);
 		parser.acceptsAll(asList("s", "serialize"), "Specify a file where the ontology with all axioms can be written.")
 		.withRequiredArg().ofType(File.class);
 		parser.acceptsAll(asList("a", "annotations"),
@@ -1098,6 +1126,7 @@ public class Enrichment {
 
 			boolean useInference = (Boolean) options.valueOf("i");
 			boolean iterativeMode = (Boolean) options.valueOf("iterative");
+			boolean bulkExampleGeneration = (Boolean) options.valueOf("bulkExamples");
 //			boolean verbose = (Boolean) options.valueOf("v");
 			double threshold = (Double) options.valueOf("t");
 			int maxNrOfResults = (Integer) options.valueOf("l");
@@ -1129,6 +1158,7 @@ public class Enrichment {
 			Enrichment e = new Enrichment(ks, resource, threshold, maxNrOfResults, useInference, false, chunksize, maxExecutionTimeInSeconds, omitExistingAxioms);
 			e.setAllowedNamespaces(allowedNamespaces);
 			e.setIterativeMode(iterativeMode);
+			e.setBulkExampleGeneration(bulkExampleGeneration);
 			e.setProcessObjectProperties(processObjectProperties);
 			e.setProcessDataProperties(processDataProperties);
 			e.setProcessClasses(processClasses);
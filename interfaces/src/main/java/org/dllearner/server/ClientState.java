@@ -19,12 +19,13 @@
  */
 package org.dllearner.server;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 
 import org.dllearner.core.AbstractComponent;
 import org.dllearner.core.AbstractKnowledgeSource;
@@ -46,11 +47,11 @@ public class ClientState {
 	// stores the mapping between component IDs and component
 	// (note that this allows us to keep all references to components even
 	// if they are not used anymore e.g. a deleted knowledge source)
-	private Map<Integer,AbstractComponent> componentIDs = new HashMap<>();
+	private Map<Integer,AbstractComponent> componentIDs = new ConcurrentHashMap<>();
 	
 	private Set<AbstractKnowledgeSource> knowledgeSources = new HashSet<>();
 	
-	private Map<Integer, SparqlQuery> queryIDs = new HashMap<>();
+	private Map<Integer, SparqlQuery> queryIDs = new ConcurrentHashMap<>();
 	
 	private AbstractClassExpressionLearningProblem learningProblem;
 	
@@ -61,13 +62,18 @@ public class ClientState {
 	private Random rand=new Random();
 	
 	private boolean isAlgorithmRunning = false;
+
+	// the key of the reasoner in the shared reasoner pool, if the reasoner is shared
+	private String reasonerPoolKey;
+
+	// the learning job submitted to the job executor
+	private volatile Future<?> learningJob;
 	
 	private int generateComponentID(AbstractComponent component) {
 		int id;
 		do {
 			id = rand.nextInt();
-		} while(componentIDs.keySet().contains(id));
-		componentIDs.put(id, component);
+		} while(componentIDs.putIfAbsent(id, component) != null);
 		return id;		
 	}
 	
@@ -76,8 +82,7 @@ public class ClientState {
 		Random rand = new Random();
 		do {
 			id = rand.nextInt();
-		} while (queryIDs.keySet().contains(id));
-		queryIDs.put(id, query);
+		} while (queryIDs.putIfAbsent(id, query) != null);
 		return id;
 	}
 	
@@ -176,6 +181,45 @@ public class ClientState {
 		return generateComponentID(reasonerComponent);
 	}
 
+	/**
+	 * Replaces the reasoner component by a reasoner from the shared reasoner pool. The component ID of
+	 * the previous reasoner then refers to the shared reasoner.
+	 *
+	 * @param reasonerComponent the shared reasoner
+	 * @param reasonerPoolKey the key of the reasoner in the pool
+	 */
+	public void setSharedReasonerComponent(AbstractReasonerComponent reasonerComponent, String reasonerPoolKey) {
+		for (Map.Entry<Integer, AbstractComponent> entry : componentIDs.entrySet()) {
+			if (entry.getValue() == this.reasonerComponent) {
+				entry.setValue(reasonerComponent);
+			}
+		}
+		this.reasonerComponent = reasonerComponent;
+		this.reasonerPoolKey = reasonerPoolKey;
+	}
+
+	/**
+	 * @return the key of the reasoner in the shared reasoner pool, or <code>null</code> if the
+	 * reasoner is not shared
+	 */
+	public String getReasonerPoolKey() {
+		return reasonerPoolKey;
+	}
+
+	/**
+	 * @return the learning job submitted to the job executor, or <code>null</code> if there is none
+	 */
+	public Future<?> getLearningJob() {
+		return learningJob;
+	}
+
+	/**
+	 * @param learningJob the learning job submitted to the job executor
+	 */
+	public void setLearningJob(Future<?> learningJob) {
+		this.learningJob = learningJob;
+	}
+
 	/**
 	 * @return the learningAlgorithm
 	 */
@@ -21,7 +21,6 @@ package org.dllearner.server;
 
 import org.apache.log4j.Logger;
 import org.dllearner.core.*;
-import org.dllearner.core.config.ConfigOption;
 import org.dllearner.kb.OWLFile;
 import org.dllearner.kb.sparql.*;
 import org.dllearner.learningproblems.PosNegLP;
@@ -45,6 +44,10 @@ import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * DL-Learner web service interface. The web service makes use of the component
@@ -62,10 +65,30 @@ public class DLLearnerWS {
 
 	private static Logger logger = Logger.getLogger(DLLearnerWS.class);
 
-	private Map<Integer, ClientState> clients = new TreeMap<>();
+	private Map<Integer, ClientState> clients = new ConcurrentHashMap<>();
 	private Random rand=new Random();
 	private static AnnComponentManager cm = AnnComponentManager.getInstance();
 
+	// executes the learning jobs started by learnThreaded
+	private final LearningJobExecutor jobs;
+	// shared reasoners, null if every session uses its own reasoner
+	private final ReasonerPool reasonerPool;
+
+	public DLLearnerWS() {
+		this(Runtime.getRuntime().availableProcessors(), 100, false);
+	}
+
+	/**
+	 * @param nrOfThreads the number of learning jobs executed in parallel
+	 * @param maxWaitingJobs the maximum number of learning jobs waiting for execution
+	 * @param shareReasoners whether sessions with the same reasoner configuration and knowledge sources
+	 * share one initialized reasoner
+	 */
+	public DLLearnerWS(int nrOfThreads, int maxWaitingJobs, boolean shareReasoners) {
+		jobs = new LearningJobExecutor(nrOfThreads, maxWaitingJobs);
+		reasonerPool = shareReasoners ? new ReasonerPool() : null;
+	}
+
 	/**
 	 * Conversion between different data structures.
 	 * 
@@ -170,10 +193,10 @@ public class DLLearnerWS {
 	@WebMethod
 	public int generateID() {
 		int id;
+		ClientState state = new ClientState();
 		do {
 			id = Math.abs(rand.nextInt());
-		} while(clients.containsKey(id));
-		clients.put(id, new ClientState());
+		} while(clients.putIfAbsent(id, state) != null);
 		logger.info("New client " + id + " at DL-Learner web service.");
 		return id;
 	}
@@ -243,17 +266,17 @@ public class DLLearnerWS {
 	@WebMethod
 	public String[] getConfigOptions(String component, boolean allInfo) {
 		Class<? extends Component> componentClass = cm.getComponentClass(component);
-		Set<Field> options = AnnComponentManager.getConfigOptions(componentClass);
+		// taken from the component index if possible
+		List<ComponentIndex.Option> options = cm.getConfigOptionInfo(componentClass);
 		String[] optionsString = new String[options.size()];
 		int i = 0;
-		for(Field f : options) {
-			ConfigOption option = f.getAnnotation(ConfigOption.class);
-			optionsString[i] = AnnComponentManager.getName(f);
+		for(ComponentIndex.Option option : options) {
+			optionsString[i] = option.getName();
 			if(allInfo) {
-				optionsString[i] += "#" + option.description();
-				optionsString[i] += "#" + option.required();
-				optionsString[i] += "#" + option.defaultValue();
-				optionsString[i] += "#" + option.exampleValue();
+				optionsString[i] += "#" + option.getDescription();
+				optionsString[i] += "#" + option.isRequired();
+				optionsString[i] += "#" + option.getDefaultValue();
+				optionsString[i] += "#" + option.getExampleValue();
 			}
 			i++;
 		}
@@ -398,11 +421,23 @@ public class DLLearnerWS {
 	@WebMethod
 	public void initAll(int id) throws ClientNotKnownException, ComponentInitException {
 		ClientState state = getState(id);
-		logger.info("Initializing knowledge sources...");
-		for(AbstractKnowledgeSource ks : state.getKnowledgeSources())
-			ks.init();
-		logger.info("Initializing reasoner...");
-		state.getReasonerComponent().init();
+		Map.Entry<String, AbstractReasonerComponent> sharedReasoner = null;
+		if(reasonerPool != null && state.getReasonerPoolKey() == null) {
+			sharedReasoner = reasonerPool.acquire(state.getReasonerComponent());
+		}
+		if(sharedReasoner != null) {
+			logger.info("Using shared reasoner...");
+			state.setSharedReasonerComponent(sharedReasoner.getValue(), sharedReasoner.getKey());
+			state.getLearningProblem().setReasoner(sharedReasoner.getValue());
+			state.getLearningAlgorithm().setReasoner(sharedReasoner.getValue());
+		} else if(state.getReasonerPoolKey() == null && !state.getReasonerComponent().isInitialized()) {
+			// the reasoner may have been initialized by the pool already if it turned out not to be shareable
+			logger.info("Initializing knowledge sources...");
+			for(AbstractKnowledgeSource ks : state.getKnowledgeSources())
+				ks.init();
+			logger.info("Initializing reasoner...");
+			state.getReasonerComponent().init();
+		}
 		logger.info("Initializing learning problem...");
 		state.getLearningProblem().init();
 		logger.info("Initializing learning algorithm...");
@@ -512,16 +547,84 @@ public class DLLearnerWS {
 	 */
 	@WebMethod
 	public void learnThreaded(int id) throws ClientNotKnownException {
+		learnThreadedWithPriority(id, LearningJobExecutor.DEFAULT_PRIORITY, 0);
+	}
+
+	/**
+	 * Submits the learning algorithm to the job queue of the web service and returns
+	 * immediately. Jobs with higher priority are started first, the algorithm is
+	 * stopped if it runs longer than the given timeout.
+	 *
+	 * @param id Session ID.
+	 * @param priority The priority of the job.
+	 * @param timeoutInSeconds The maximum execution time, no timeout if 0.
+	 * @throws ClientNotKnownException Thrown if client (session ID) is not known.
+	 * @throws RejectedExecutionException Thrown if too many jobs are waiting.
+	 */
+	@WebMethod
+	public void learnThreadedWithPriority(int id, int priority, int timeoutInSeconds) throws ClientNotKnownException {
 		final ClientState state = getState(id);
-		Thread learningThread = new Thread() {
-			@Override
-			public void run() {
-//				state.setAlgorithmRunning(true);
-				state.getLearningAlgorithm().start();
-//				state.setAlgorithmRunning(false);
+		final AbstractCELA la = state.getLearningAlgorithm();
+		if(la == null) {
+			throw new IllegalStateException("No learning algorithm set for session " + id);
+		}
+		// set when the job is stopped or cancelled, such that the algorithm is not started afterwards,
+		// which would reset its stop flag
+		final AtomicBoolean stopped = new AtomicBoolean();
+		Future<?> job = jobs.submit(() -> {
+			if(!stopped.get()) {
+				la.start();
 			}
-		};
-		learningThread.start();
+			return null;
+		}, priority, timeoutInSeconds, () -> {
+			stopped.set(true);
+			la.stop();
+		});
+		state.setLearningJob(job);
+	}
+
+	/**
+	 * Cancels the learning job of the session, i.e. removes it from the job queue
+	 * if it has not been started yet and stops the learning algorithm otherwise.
+	 *
+	 * @param id Session ID.
+	 * @throws ClientNotKnownException Thrown if client (session ID) is not known.
+	 */
+	@WebMethod
+	public void cancel(int id) throws ClientNotKnownException {
+		ClientState state = getState(id);
+		Future<?> job = state.getLearningJob();
+		// cancelling a running job stops its algorithm
+		if(job != null && job.cancel(false)) {
+			return;
+		}
+		if(state.getLearningAlgorithm() != null) {
+			state.getLearningAlgorithm().stop();
+		}
+	}
+
+	/**
+	 * Ends the session, cancels its learning job and releases its shared reasoner.
+	 *
+	 * @param id Session ID.
+	 * @throws ClientNotKnownException Thrown if client (session ID) is not known.
+	 */
+	@WebMethod
+	public void releaseID(int id) throws ClientNotKnownException {
+		cancel(id);
+		ClientState state = clients.remove(id);
+		if(state != null && state.getReasonerPoolKey() != null) {
+			reasonerPool.release(state.getReasonerPoolKey());
+		}
+		logger.info("Client " + id + " left DL-Learner web service.");
+	}
+
+	/**
+	 * @return The number of learning jobs waiting for execution.
+	 */
+	@WebMethod
+	public int getNrOfWaitingJobs() {
+		return jobs.getNrOfWaitingJobs();
 	}
 
 	/**
@@ -918,13 +1021,15 @@ public class DLLearnerWS {
 
 	@WebMethod
 	public String[] getAtomicConcepts(int id) throws ClientNotKnownException {
-		Set<OWLClass> atomicConcepts = getState(id).getReasonerComponent().getClasses();
+		ClientState state = getState(id);
+		Set<OWLClass> atomicConcepts = state.getReasonerComponent().getClasses();
 		return Datastructures.sortedSet2StringListConcepts(atomicConcepts);
 	}
 
 	@WebMethod
 	public String getSubsumptionHierarchy(int id) throws ClientNotKnownException {
-		return getState(id).getReasonerComponent().toString();
+		ClientState state = getState(id);
+		return state.getReasonerComponent().toString();
 	}
 
 	@WebMethod
@@ -54,6 +54,11 @@ public class DLLearnerWSStart {
 	 * --non-interactive starts the web service in a mode, where
 	 * it does not wait for user input, i.e. it cannot be terminated
 	 * using exit. Use this in conjunction with nohup.
+	 * --shared-reasoners lets sessions working on the same knowledge sources
+	 * share one initialized reasoner.
+	 * --threads=n sets the number of learning jobs executed in parallel.
+	 * --max-waiting-jobs=n sets the maximum number of learning jobs waiting
+	 * for execution.
 	 */
 	public static void main(String[] args) {
 
@@ -63,8 +68,19 @@ public class DLLearnerWSStart {
 		// to be terminated externally (e.g. killing its process);
 		// when using nohup, please use noninteractive mode
 		boolean interactive = true;
-		if (args.length > 0 && args[0].equals("--non-interactive")) {
-			interactive = false;
+		boolean sharedReasoners = false;
+		int nrOfThreads = Runtime.getRuntime().availableProcessors();
+		int maxWaitingJobs = 100;
+		for (String arg : args) {
+			if (arg.equals("--non-interactive")) {
+				interactive = false;
+			} else if (arg.equals("--shared-reasoners")) {
+				sharedReasoners = true;
+			} else if (arg.startsWith("--threads=")) {
+				nrOfThreads = Integer.parseInt(arg.substring("--threads=".length()));
+			} else if (arg.startsWith("--max-waiting-jobs=")) {
+				maxWaitingJobs = Integer.parseInt(arg.substring("--max-waiting-jobs=".length()));
+			}
 		}
 		
 		// create web service logger
@@ -100,7 +116,7 @@ public class DLLearnerWSStart {
 
 		System.out.print("Starting DL-Learner web service at http://" + isa.getHostName() + ":"
 				+ isa.getPort() + "/services ... ");
-		DLLearnerWS ws = new DLLearnerWS();
+		DLLearnerWS ws = new DLLearnerWS(nrOfThreads, maxWaitingJobs, sharedReasoners);
 		Endpoint endpoint = Endpoint.create(ws);
 		ws.getKnowledgeSources();
 		// Endpoint endpoint = Endpoint.create(new CustomDataClass());
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes learning jobs of the web service on a fixed number of threads.
+ * <p>
+ * Waiting jobs are ordered by their priority (higher values first) and, for equal priorities, by their
+ * submission order. The number of waiting jobs is bounded, further jobs are rejected with a
+ * {@link RejectedExecutionException}. A job can have a timeout which starts when the job is started; on
+ * timeout, or if a running job is cancelled, the given stop action is called, e.g. to stop the learning
+ * algorithm gracefully. The stop action is repeated until the job has finished, because a stop which
+ * arrives while the job is starting can get lost. Without a stop action the job is cancelled and its thread
+ * interrupted on timeout.
+ */
+public class LearningJobExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(LearningJobExecutor.class);
+
+	public static final int DEFAULT_PRIORITY = 0;
+
+	private static final long STOP_RETRY_INTERVAL_MS = 1000;
+
+	private class Job<T> extends FutureTask<T> implements Comparable<Job<?>> {
+		private final int priority;
+		private final long sequenceNumber = sequence.getAndIncrement();
+		private final long timeoutInSeconds;
+		private final Runnable stopAction;
+		private volatile boolean started = false;
+		private volatile boolean finished = false;
+		// repeats the stop action, guarded by the job
+		private ScheduledFuture<?> stopper;
+
+		Job(Callable<T> callable, int priority, long timeoutInSeconds, Runnable stopAction) {
+			super(callable);
+			this.priority = priority;
+			this.timeoutInSeconds = timeoutInSeconds;
+			this.stopAction = stopAction;
+		}
+
+		@Override
+		public void run() {
+			waiting.decrementAndGet();
+			started = true;
+			ScheduledFuture<?> timeout = null;
+			if (timeoutInSeconds > 0 && !isDone()) {
+				timeout = timer.schedule(() -> {
+					logger.info("Learning job timed out after {}s", timeoutInSeconds);
+					stop();
+				}, timeoutInSeconds, TimeUnit.SECONDS);
+			}
+			try {
+				super.run();
+			} finally {
+				finished = true;
+				if (timeout != null) {
+					timeout.cancel(false);
+				}
+				synchronized (this) {
+					if (stopper != null) {
+						stopper.cancel(false);
+					}
+				}
+			}
+		}
+
+		private synchronized void stop() {
+			if (stopAction == null) {
+				cancel(true);
+			} else if (stopper == null && !finished) {
+				stopper = timer.scheduleWithFixedDelay(stopAction, 0, STOP_RETRY_INTERVAL_MS, TimeUnit.MILLISECONDS);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				if (executor.remove(this)) {
+					// free the place in the queue if the job is still waiting
+					waiting.decrementAndGet();
+				} else if (started && stopAction != null) {
+					stop();
+				}
+			}
+			return cancelled;
+		}
+
+		@Override
+		public int compareTo(Job<?> other) {
+			int cmp = Integer.compare(other.priority, priority);
+			return cmp != 0 ? cmp : Long.compare(sequenceNumber, other.sequenceNumber);
+		}
+	}
+
+	private final ThreadPoolExecutor executor;
+	private final ScheduledExecutorService timer;
+	private final int maxWaitingJobs;
+
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicInteger waiting = new AtomicInteger();
+
+	/**
+	 * @param nrOfThreads the number of jobs executed in parallel
+	 * @param maxWaitingJobs the maximum number of jobs waiting for execution
+	 */
+	public LearningJobExecutor(int nrOfThreads, int maxWaitingJobs) {
+		this.maxWaitingJobs = maxWaitingJobs;
+		AtomicInteger threadNumber = new AtomicInteger();
+		executor = new ThreadPoolExecutor(nrOfThreads, nrOfThreads, 0L, TimeUnit.MILLISECONDS,
+				new PriorityBlockingQueue<>(),
+				r -> {
+					Thread thread = new Thread(r, "dllearner-job-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "dllearner-job-timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Submits a job.
+	 * @param job the job
+	 * @param priority the priority, jobs with higher priority are started first
+	 * @param timeoutInSeconds the maximum execution time of the job, no timeout if less or equal to 0
+	 * @param stopAction called on timeout or cancellation to stop the running job, if <code>null</code> the job
+	 * is cancelled instead on timeout
+	 * @return the future of the job, which can be used to cancel it
+	 * @throws RejectedExecutionException if the maximum number of waiting jobs is reached or the executor has
+	 * been shut down
+	 */
+	public synchronized <T> Future<T> submit(Callable<T> job, int priority, long timeoutInSeconds, Runnable stopAction) {
+		if (waiting.get() >= maxWaitingJobs) {
+			throw new RejectedExecutionException("Too many waiting learning jobs (" + maxWaitingJobs + ")");
+		}
+		Job<T> task = new Job<>(job, priority, timeoutInSeconds, stopAction);
+		waiting.incrementAndGet();
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			waiting.decrementAndGet();
+			throw e;
+		}
+		return task;
+	}
+
+	/**
+	 * @return the number of jobs waiting for execution
+	 */
+	public int getNrOfWaitingJobs() {
+		return waiting.get();
+	}
+
+	/**
+	 * @return the number of running jobs
+	 */
+	public int getNrOfRunningJobs() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * Stops accepting jobs and interrupts the running ones.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+		timer.shutdownNow();
+	}
+}
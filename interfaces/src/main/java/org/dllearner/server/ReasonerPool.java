@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.AnnComponentManager;
+import org.dllearner.core.Component;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.core.KnowledgeSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of initialized reasoners shared between the sessions of the web service, such that concurrent
+ * sessions working on the same knowledge sources load and materialize them only once.
+ * <p>
+ * Reasoners are keyed by their class and the values of their config options, including the knowledge
+ * sources, which are in turn identified by their class and config option values, e.g. the URL of an OWL file.
+ * Components whose identity can not be derived from their config options, e.g. sources without any config
+ * option, are never shared. A pooled reasoner must not be reconfigured and is released when the last session
+ * using it releases it. Pooled reasoners are switched to their synchronized mode (see
+ * {@link AbstractReasonerComponent#setSynchronized()}) such that the sessions can use them concurrently,
+ * reasoners without such a mode are not shared.
+ */
+public class ReasonerPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReasonerPool.class);
+
+	private static class Entry {
+		final AbstractReasonerComponent reasoner;
+		int references = 0;
+		boolean initialized = false;
+		// false if the reasoner turned out not to support concurrent use
+		boolean shareable = true;
+		// the cause if the initialization failed
+		Exception failure;
+
+		Entry(AbstractReasonerComponent reasoner) {
+			this.reasoner = reasoner;
+		}
+	}
+
+	private final Map<String, Entry> reasoners = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the pooled reasoner with the same configuration as the given, not yet initialized reasoner. If
+	 * there is none, the given reasoner and its knowledge sources are initialized and added to the pool.
+	 * Initialization happens only once per key, other sessions requesting the same reasoner wait for it.
+	 *
+	 * @param reasoner the configured reasoner of a session
+	 * @return the pool key and the initialized reasoner to use, or <code>null</code> if the reasoner can not
+	 * be shared, in which case the given reasoner may have been initialized already
+	 * @throws ComponentInitException if the initialization of the reasoner or its sources fails, also for the
+	 * sessions waiting for this initialization
+	 */
+	public Map.Entry<String, AbstractReasonerComponent> acquire(AbstractReasonerComponent reasoner) throws ComponentInitException {
+		String key = getKey(reasoner);
+		if (key == null) {
+			return null;
+		}
+		Entry entry = reasoners.compute(key, (k, e) -> {
+			if (e == null) {
+				e = new Entry(reasoner);
+			}
+			e.references++;
+			return e;
+		});
+		synchronized (entry) {
+			if (entry.failure != null) {
+				throw new ComponentInitException("Initialization of shared reasoner failed", entry.failure);
+			} else if (!entry.shareable) {
+				return null;
+			} else if (!entry.initialized) {
+				try {
+					logger.info("Initializing shared reasoner {}", key);
+					for (KnowledgeSource ks : entry.reasoner.getSources()) {
+						ks.init();
+					}
+					entry.reasoner.init();
+				} catch (ComponentInitException | RuntimeException e) {
+					// the failed reasoner is not reused, later requests start with a new one
+					entry.failure = e;
+					reasoners.remove(key, entry);
+					throw e;
+				}
+				try {
+					entry.reasoner.setSynchronized();
+				} catch (UnsupportedOperationException e) {
+					// the initialized reasoner stays with the session which configured it
+					logger.info("Reasoner {} does not support concurrent use and is not shared", key);
+					entry.shareable = false;
+					reasoners.remove(key, entry);
+					return null;
+				}
+				entry.initialized = true;
+			} else {
+				logger.info("Reusing shared reasoner {}", key);
+			}
+		}
+		return new AbstractMap.SimpleImmutableEntry<>(key, entry.reasoner);
+	}
+
+	/**
+	 * Releases a reasoner acquired by {@link #acquire(AbstractReasonerComponent)}.
+	 * @param key the pool key returned by {@link #acquire(AbstractReasonerComponent)}
+	 */
+	public void release(String key) {
+		reasoners.computeIfPresent(key, (k, e) -> --e.references > 0 ? e : null);
+	}
+
+	/**
+	 * @param key the pool key
+	 * @return the number of sessions using the pooled reasoner, 0 if it is not in the pool
+	 */
+	public int getReferences(String key) {
+		Entry entry = reasoners.get(key);
+		return entry == null ? 0 : entry.references;
+	}
+
+	/**
+	 * @return the number of pooled reasoners
+	 */
+	public int size() {
+		return reasoners.size();
+	}
+
+	/**
+	 * Computes the pool key of a reasoner.
+	 * @param reasoner the reasoner
+	 * @return the key, or <code>null</code> if the reasoner can not be shared
+	 */
+	static String getKey(AbstractReasonerComponent reasoner) {
+		if (reasoner.getSources() == null || reasoner.getSources().isEmpty()) {
+			return null;
+		}
+		return key(reasoner);
+	}
+
+	private static String key(Component component) {
+		Set<Field> fields = AnnComponentManager.getConfigOptions(component.getClass());
+		if (fields.isEmpty()) {
+			return null;
+		}
+		SortedMap<String, String> values = new TreeMap<>();
+		for (Field field : fields) {
+			try {
+				field.setAccessible(true);
+				String value = valueKey(field.get(component));
+				if (value == null) {
+					return null;
+				}
+				values.put(field.getName(), value);
+			} catch (IllegalAccessException | SecurityException e) {
+				return null;
+			}
+		}
+		return component.getClass().getName() + values;
+	}
+
+	private static String valueKey(Object value) {
+		if (value == null) {
+			return "null";
+		} else if (value instanceof Component) {
+			return key((Component) value);
+		} else if (value instanceof Collection) {
+			// the order of sets is not relevant
+			List<String> keys = new ArrayList<>();
+			for (Object element : (Collection<?>) value) {
+				String key = valueKey(element);
+				if (key == null) {
+					return null;
+				}
+				keys.add(key);
+			}
+			if (value instanceof Set) {
+				Collections.sort(keys);
+			}
+			return keys.toString();
+		} else if (value instanceof Map) {
+			SortedMap<String, String> keys = new TreeMap<>();
+			for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+				String key = valueKey(e.getKey());
+				String val = valueKey(e.getValue());
+				if (key == null || val == null) {
+					return null;
+				}
+				keys.put(key, val);
+			}
+			return keys.toString();
+		} else if (value instanceof String || value instanceof Number || value instanceof Boolean
+				|| value instanceof Character || value instanceof Enum
+				|| value instanceof URL || value instanceof URI) {
+			return value.getClass().getSimpleName() + ":" + value;
+		}
+		// other objects are not known to have a stable string representation
+		return null;
+	}
+}
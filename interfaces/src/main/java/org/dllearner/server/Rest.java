@@ -11,6 +11,11 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -24,6 +29,7 @@ import org.dllearner.configuration.spring.DefaultApplicationContextBuilder;
 import org.dllearner.confparser.ConfParserConfiguration;
 import org.dllearner.core.ClassExpressionLearningAlgorithm;
 import org.dllearner.core.LearningAlgorithm;
+import org.dllearner.core.StoppableLearningAlgorithm;
 import org.dllearner.learningproblems.EvaluatedDescriptionPosNeg;
 import org.dllearner.utilities.owl.OWLAPIRenderers;
 import org.dllearner.utilities.owl.OWLClassExpressionToSPARQLConverter;
@@ -37,6 +43,25 @@ import org.springframework.core.io.Resource;
 public class Rest extends HttpServlet {
     private static Logger log = LoggerFactory.getLogger(Rest.class);
 
+    // bounds the number of concurrently running learning algorithms
+    private LearningJobExecutor jobs;
+
+    @Override
+    public void init() throws ServletException {
+        String threads = getInitParameter("threads");
+        String maxWaitingJobs = getInitParameter("maxWaitingJobs");
+        jobs = new LearningJobExecutor(
+                threads != null ? Integer.parseInt(threads) : Runtime.getRuntime().availableProcessors(),
+                maxWaitingJobs != null ? Integer.parseInt(maxWaitingJobs) : 100);
+    }
+
+    @Override
+    public void destroy() {
+        if (jobs != null) {
+            jobs.shutdown();
+        }
+    }
+
     @Override
     protected void doGet(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
         handle(httpServletRequest, httpServletResponse);
@@ -61,6 +86,8 @@ public class Rest extends HttpServlet {
         try {
             String conf = null;
             int limit = 5;
+            int priority = LearningJobExecutor.DEFAULT_PRIORITY;
+            int timeout = 0;
             if (!isSet("conf", httpServletRequest)) {
 //                throw new IllegalArgumentException("Missing parameter: conf is required. ");
                 httpServletRequest.getRequestDispatcher("/WEB-INF/sparqr.html").forward(httpServletRequest, httpServletResponse);
@@ -70,6 +97,12 @@ public class Rest extends HttpServlet {
                 if (isSet("limit", httpServletRequest)) {
                     limit = Integer.parseInt(httpServletRequest.getParameter("limit"));
                 }
+                if (isSet("priority", httpServletRequest)) {
+                    priority = Integer.parseInt(httpServletRequest.getParameter("priority"));
+                }
+                if (isSet("timeout", httpServletRequest)) {
+                    timeout = Integer.parseInt(httpServletRequest.getParameter("timeout"));
+                }
             }
 
             if (isSet("debug", httpServletRequest) && httpServletRequest.getParameter("debug").equalsIgnoreCase("true")) {
@@ -91,7 +124,7 @@ public class Rest extends HttpServlet {
                 learningResult.put("falseNegatives", "uri1, uri2");
             } else {
 
-                EvaluatedDescriptionPosNeg ed = learn(conf);
+                EvaluatedDescriptionPosNeg ed = learn(conf, priority, timeout);
 
                 OWLClassExpressionToSPARQLConverter sparqlConv = new OWLClassExpressionToSPARQLConverter();
                                learningResult.put("success", "1");
@@ -138,6 +171,43 @@ public class Rest extends HttpServlet {
      * @return
      */
     public EvaluatedDescriptionPosNeg learn(String conf) throws Exception {
+        return learn(conf, LearningJobExecutor.DEFAULT_PRIORITY, 0);
+    }
+
+    /**
+     * Runs {@link #learn(String)} as a job of the servlet's job executor, i.e. waits until one of the
+     * threads of the executor is free.
+     *
+     * @param conf the content of a conf file
+     * @param priority the priority of the job, jobs with higher priority are started first
+     * @param timeoutInSeconds the maximum execution time, the algorithm is stopped afterwards; no timeout if 0
+     * @return
+     */
+    public EvaluatedDescriptionPosNeg learn(String conf, int priority, int timeoutInSeconds) throws Exception {
+        if (jobs == null) {
+            return learn(conf, null, null);
+        }
+        AtomicReference<LearningAlgorithm> algorithm = new AtomicReference<>();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        Future<EvaluatedDescriptionPosNeg> job = jobs.submit(() -> learn(conf, algorithm, timedOut), priority, timeoutInSeconds, () -> {
+            // the timeout can occur before the algorithm has been created, which is checked by learn()
+            timedOut.set(true);
+            LearningAlgorithm la = algorithm.get();
+            if (la instanceof StoppableLearningAlgorithm) {
+                ((StoppableLearningAlgorithm) la).stop();
+            }
+        });
+        try {
+            return job.get();
+        } catch (InterruptedException e) {
+            job.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private EvaluatedDescriptionPosNeg learn(String conf, AtomicReference<LearningAlgorithm> algorithmRef, AtomicBoolean timedOut) throws Exception {
         Resource confFile = new InputStreamResource(new ByteArrayInputStream(conf.getBytes()));
 
         IConfiguration configuration = new ConfParserConfiguration(confFile);
@@ -146,6 +216,12 @@ public class Rest extends HttpServlet {
         ApplicationContext context = builder.buildApplicationContext(configuration, new ArrayList<>());
 
         LearningAlgorithm algorithm = context.getBean(LearningAlgorithm.class);
+        if (algorithmRef != null) {
+            algorithmRef.set(algorithm);
+        }
+        if (timedOut != null && timedOut.get()) {
+            throw new TimeoutException("Learning job timed out before the learning algorithm was started");
+        }
         algorithm.start();
         if (algorithm instanceof ClassExpressionLearningAlgorithm) {
             return (EvaluatedDescriptionPosNeg) ((ClassExpressionLearningAlgorithm) algorithm).getCurrentlyBestEvaluatedDescriptions(1).iterator().next();
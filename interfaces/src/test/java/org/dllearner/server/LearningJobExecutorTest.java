@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LearningJobExecutorTest {
+
+	private LearningJobExecutor executor;
+	private CountDownLatch blocker;
+
+	@Before
+	public void setUp() {
+		executor = new LearningJobExecutor(1, 3);
+		blocker = new CountDownLatch(1);
+	}
+
+	@After
+	public void tearDown() {
+		blocker.countDown();
+		executor.shutdown();
+	}
+
+	// occupies the only thread of the executor until the blocker is released
+	private Future<?> block() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		Future<?> job = executor.submit(() -> {
+			started.countDown();
+			blocker.await();
+			return null;
+		}, LearningJobExecutor.DEFAULT_PRIORITY, 0, null);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		return job;
+	}
+
+	@Test
+	public void testPriorityOrder() throws Exception {
+		block();
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		List<Future<?>> jobs = new ArrayList<>();
+		for (int priority : new int[] {1, 5, 3}) {
+			jobs.add(executor.submit(() -> order.add(priority), priority, 0, null));
+		}
+		assertEquals(3, executor.getNrOfWaitingJobs());
+
+		blocker.countDown();
+		for (Future<?> job : jobs) {
+			job.get(10, TimeUnit.SECONDS);
+		}
+		assertEquals(Arrays.asList(5, 3, 1), order);
+		assertEquals(0, executor.getNrOfWaitingJobs());
+	}
+
+	@Test
+	public void testRejection() throws Exception {
+		block();
+		List<Future<?>> waiting = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			waiting.add(executor.submit(() -> null, LearningJobExecutor.DEFAULT_PRIORITY, 0, null));
+		}
+		try {
+			executor.submit(() -> null, LearningJobExecutor.DEFAULT_PRIORITY, 0, null);
+			fail("job should have been rejected");
+		} catch (RejectedExecutionException e) {
+			// expected
+		}
+
+		// a cancelled waiting job frees its place in the queue
+		waiting.get(0).cancel(false);
+		assertEquals(2, executor.getNrOfWaitingJobs());
+		executor.submit(() -> null, LearningJobExecutor.DEFAULT_PRIORITY, 0, null);
+	}
+
+	@Test
+	public void testTimeoutWithStopAction() throws Exception {
+		AtomicBoolean stopped = new AtomicBoolean();
+		Future<Boolean> job = executor.submit(() -> {
+			while (!stopped.get()) {
+				Thread.sleep(10);
+			}
+			return true;
+		}, LearningJobExecutor.DEFAULT_PRIORITY, 1, () -> stopped.set(true));
+		assertTrue(job.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testCancelRunningJobRepeatsStopAction() throws Exception {
+		AtomicBoolean stopped = new AtomicBoolean();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(1);
+		Future<?> job = executor.submit(() -> {
+			started.countDown();
+			blocker.await();
+			// like the learning algorithms on start, reset the stop flag and thus lose earlier stops
+			stopped.set(false);
+			while (!stopped.get()) {
+				Thread.sleep(10);
+			}
+			finished.countDown();
+			return null;
+		}, LearningJobExecutor.DEFAULT_PRIORITY, 0, () -> stopped.set(true));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		assertTrue(job.cancel(false));
+		blocker.countDown();
+		assertTrue(finished.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test(expected = CancellationException.class)
+	public void testTimeoutWithoutStopAction() throws Exception {
+		Future<?> job = executor.submit(() -> {
+			Thread.sleep(60000);
+			return null;
+		}, LearningJobExecutor.DEFAULT_PRIORITY, 1, null);
+		job.get(10, TimeUnit.SECONDS);
+	}
+}
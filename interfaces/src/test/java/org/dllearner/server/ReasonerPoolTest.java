@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Map;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.kb.OWLFile;
+import org.dllearner.reasoning.OWLAPIReasoner;
+import org.junit.Test;
+
+public class ReasonerPoolTest {
+
+	private static final String ONTOLOGY = "../examples/father.owl";
+
+	@Test
+	public void testSharingAndRelease() throws Exception {
+		ReasonerPool pool = new ReasonerPool();
+
+		Map.Entry<String, AbstractReasonerComponent> first = pool.acquire(new OWLAPIReasoner(new OWLFile(ONTOLOGY)));
+		Map.Entry<String, AbstractReasonerComponent> second = pool.acquire(new OWLAPIReasoner(new OWLFile(ONTOLOGY)));
+		assertNotNull(first);
+		assertEquals(first.getKey(), second.getKey());
+		assertSame(first.getValue(), second.getValue());
+		assertTrue(first.getValue().isInitialized());
+		assertEquals(1, pool.size());
+		assertEquals(2, pool.getReferences(first.getKey()));
+
+		pool.release(first.getKey());
+		assertEquals(1, pool.getReferences(first.getKey()));
+		pool.release(second.getKey());
+		assertEquals(0, pool.size());
+		assertEquals(0, pool.getReferences(first.getKey()));
+	}
+
+	@Test
+	public void testFailedInitializationIsNotPooled() throws Exception {
+		ReasonerPool pool = new ReasonerPool();
+		OWLAPIReasoner reasoner = new OWLAPIReasoner(new OWLFile("../examples/does_not_exist.owl"));
+		try {
+			pool.acquire(reasoner);
+			fail("initialization should have failed");
+		} catch (ComponentInitException | RuntimeException e) {
+			// expected
+		}
+		assertEquals(0, pool.size());
+	}
+
+	@Test
+	public void testReasonerWithoutSourcesIsNotShared() throws Exception {
+		assertNull(new ReasonerPool().acquire(new OWLAPIReasoner()));
+	}
+}